@@ -0,0 +1,501 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory;
+
+import io.microsphere.annotation.Nonnull;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.fill;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The immutable engine of the bean dependency graph, the bean names are assigned to the dense integer ids, the strongly
+ * connected components (the circular dependencies) are found by the Tarjan's algorithm without recursion, and the
+ * transitive closure of every component is computed once as a {@link BitSet} row in the topological order of
+ * components, thus the cost is linear to the size of graph plus the size of closures.
+ * <p>
+ * The dependency graph is a {@link Map} whose key is the bean name and value is the names of the beans it depends on
+ * directly, the dependencies that are absent in the keys are the leaves of graph, and the self-references are ignored.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ *   BeanDependencyGraph graph = new BeanDependencyGraph(dependencyGraph);
+ *   // "a" -> "b" -> "c" : ["b", "c"]
+ *   Set<String> dependencies = graph.getTransitiveDependencies("a");
+ *   // the beans that no other bean depends on
+ *   Set<String> rootBeanNames = graph.getRootBeanNames();
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see DefaultBeanDependencyResolver
+ * @see CriticalPathBeanScheduler
+ * @since 1.0.0
+ */
+public class BeanDependencyGraph {
+
+    private final String[] beanNames;
+
+    private final Map<String, Integer> ids;
+
+    /**
+     * The count of beans present in the keys of graph, their ids are ahead of the leaves
+     */
+    private final int keysCount;
+
+    /**
+     * The ids of dependencies for every bean
+     */
+    private final int[][] dependencies;
+
+    /**
+     * The count of beans that depend on the bean directly
+     */
+    private final int[] dependentsCounts;
+
+    /**
+     * The id of strongly connected component for every bean, the components are numbered in the topological order,
+     * that is, a component is numbered after all components it depends on
+     */
+    private final int[] componentIds;
+
+    private final int componentsCount;
+
+    /**
+     * The transitive closure of every component, including its own members if it's cyclic
+     */
+    private final BitSet[] closures;
+
+    /**
+     * Construct a new {@link BeanDependencyGraph}
+     *
+     * @param dependencyGraph the {@link Map} of bean names to their direct dependency bean names
+     */
+    public BeanDependencyGraph(Map<String, ? extends Collection<String>> dependencyGraph) {
+        int keysCount = dependencyGraph.size();
+        Map<String, Integer> ids = newHashMap(keysCount * 2);
+        List<String> beanNames = newArrayList(keysCount * 2);
+        for (String beanName : dependencyGraph.keySet()) {
+            ids.put(beanName, beanNames.size());
+            beanNames.add(beanName);
+        }
+
+        int[][] dependencies = new int[keysCount][];
+        for (Entry<String, ? extends Collection<String>> entry : dependencyGraph.entrySet()) {
+            int id = ids.get(entry.getKey());
+            Collection<String> dependencyNames = entry.getValue();
+            int[] dependencyIds = new int[dependencyNames.size()];
+            int count = 0;
+            for (String dependencyName : dependencyNames) {
+                Integer dependencyId = ids.get(dependencyName);
+                if (dependencyId == null) {
+                    dependencyId = beanNames.size();
+                    ids.put(dependencyName, dependencyId);
+                    beanNames.add(dependencyName);
+                } else if (dependencyId == id) {
+                    continue;
+                }
+                dependencyIds[count++] = dependencyId;
+            }
+            dependencies[id] = count == dependencyIds.length ? dependencyIds : copyOf(dependencyIds, count);
+        }
+
+        int size = beanNames.size();
+        int[][] allDependencies = new int[size][];
+        System.arraycopy(dependencies, 0, allDependencies, 0, keysCount);
+        for (int i = keysCount; i < size; i++) {
+            allDependencies[i] = new int[0];
+        }
+
+        int[] dependentsCounts = new int[size];
+        for (int[] dependencyIds : allDependencies) {
+            for (int dependencyId : dependencyIds) {
+                dependentsCounts[dependencyId]++;
+            }
+        }
+
+        this.beanNames = beanNames.toArray(new String[0]);
+        this.ids = ids;
+        this.keysCount = keysCount;
+        this.dependencies = allDependencies;
+        this.dependentsCounts = dependentsCounts;
+        this.componentIds = new int[size];
+        this.componentsCount = findStronglyConnectedComponents(allDependencies, this.componentIds);
+        this.closures = computeClosures(allDependencies, this.componentIds, this.componentsCount);
+    }
+
+    /**
+     * Get the count of beans, including the leaves absent in the keys of graph
+     *
+     * @return the count of beans
+     */
+    public int size() {
+        return beanNames.length;
+    }
+
+    /**
+     * Get the count of beans present in the keys of graph, their ids are numbered from <code>0</code> in the order of
+     * keys, and the ids of the leaves absent in the keys follow them
+     *
+     * @return the count of beans present in the keys of graph
+     */
+    public int getKeysCount() {
+        return keysCount;
+    }
+
+    /**
+     * Get the id of the specified bean
+     *
+     * @param beanName the bean name
+     * @return <code>-1</code> if absent
+     */
+    public int getId(String beanName) {
+        Integer id = ids.get(beanName);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the bean name of the specified id
+     *
+     * @param id the id of bean
+     * @return the bean name
+     */
+    public String getBeanName(int id) {
+        return beanNames[id];
+    }
+
+    /**
+     * Get the count of strongly connected components
+     *
+     * @return the count of strongly connected components
+     */
+    public int getComponentsCount() {
+        return componentsCount;
+    }
+
+    /**
+     * Whether the specified bean is in a circular dependency
+     *
+     * @param beanName the bean name
+     * @return <code>true</code> if the bean can reach itself
+     */
+    public boolean isCyclic(String beanName) {
+        int id = getId(beanName);
+        return id > -1 && isCyclic(id);
+    }
+
+    /**
+     * Whether the specified bean is in a circular dependency
+     *
+     * @param id the id of bean
+     * @return <code>true</code> if the bean can reach itself
+     */
+    public boolean isCyclic(int id) {
+        return closures[componentIds[id]].get(id);
+    }
+
+    /**
+     * Get the groups of beans in the circular dependencies
+     *
+     * @return non-null read-only {@link List}
+     */
+    @Nonnull
+    public List<Set<String>> getCyclicComponents() {
+        Map<Integer, Set<String>> components = newLinkedHashMap();
+        for (int id = 0; id < beanNames.length; id++) {
+            int componentId = componentIds[id];
+            if (closures[componentId].get(id)) {
+                components.computeIfAbsent(componentId, k -> newLinkedHashSet()).add(beanNames[id]);
+            }
+        }
+        return unmodifiableList(newArrayList(components.values()));
+    }
+
+    /**
+     * Whether any other bean depends on the specified bean directly
+     *
+     * @param beanName the bean name
+     * @return <code>true</code> if depended on
+     */
+    public boolean isDependedOn(String beanName) {
+        int id = getId(beanName);
+        return id > -1 && dependentsCounts[id] > 0;
+    }
+
+    /**
+     * Get the names of beans that depend on the specified bean directly
+     *
+     * @param beanName the bean name
+     * @return non-null {@link Set}
+     */
+    @Nonnull
+    public Set<String> getDirectDependents(String beanName) {
+        int id = getId(beanName);
+        if (id < 0 || dependentsCounts[id] == 0) {
+            return emptySet();
+        }
+        Set<String> dependents = newLinkedHashSet(dependentsCounts[id]);
+        for (int i = 0; i < keysCount; i++) {
+            for (int dependencyId : dependencies[i]) {
+                if (dependencyId == id) {
+                    dependents.add(beanNames[i]);
+                    break;
+                }
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Get the ids of beans that the specified bean depends on directly, excluding itself
+     *
+     * @param id       the id of bean
+     * @param keysOnly whether to exclude the leaves absent in the keys of graph
+     * @return the copy of ids
+     */
+    @Nonnull
+    public int[] getDependencyIds(int id, boolean keysOnly) {
+        int[] dependencyIds = dependencies[id];
+        if (!keysOnly) {
+            return dependencyIds.clone();
+        }
+        int[] keyDependencyIds = new int[dependencyIds.length];
+        int count = 0;
+        for (int dependencyId : dependencyIds) {
+            if (dependencyId < keysCount) {
+                keyDependencyIds[count++] = dependencyId;
+            }
+        }
+        return count == keyDependencyIds.length ? keyDependencyIds : copyOf(keyDependencyIds, count);
+    }
+
+    /**
+     * Get the ids of beans in the topological order, the dependencies are ahead of their dependents, and the beans in
+     * the same circular dependency are adjacent in the order of their ids.
+     *
+     * @param keysOnly whether to exclude the leaves absent in the keys of graph
+     * @return non-null array of ids
+     */
+    @Nonnull
+    public int[] getTopologicalOrder(boolean keysOnly) {
+        int size = keysOnly ? keysCount : beanNames.length;
+        // the counting sort by the component ids which are numbered in the topological order
+        int[] offsets = new int[componentsCount + 1];
+        for (int id = 0; id < size; id++) {
+            offsets[componentIds[id] + 1]++;
+        }
+        for (int componentId = 0; componentId < componentsCount; componentId++) {
+            offsets[componentId + 1] += offsets[componentId];
+        }
+        int[] orderedIds = new int[size];
+        for (int id = 0; id < size; id++) {
+            orderedIds[offsets[componentIds[id]]++] = id;
+        }
+        return orderedIds;
+    }
+
+    /**
+     * Get the ids of beans that the specified bean depends on transitively, excluding itself
+     *
+     * @param id the id of bean
+     * @return the copy of {@link BitSet}
+     */
+    @Nonnull
+    public BitSet getTransitiveDependencyIds(int id) {
+        BitSet closure = (BitSet) closures[componentIds[id]].clone();
+        closure.clear(id);
+        return closure;
+    }
+
+    /**
+     * Get the names of beans that the specified bean depends on transitively, excluding itself
+     *
+     * @param beanName the bean name
+     * @return non-null mutable {@link Set} in the order of ids
+     */
+    @Nonnull
+    public Set<String> getTransitiveDependencies(String beanName) {
+        int id = getId(beanName);
+        if (id < 0) {
+            return newLinkedHashSet();
+        }
+        BitSet closure = closures[componentIds[id]];
+        Set<String> dependencies = newLinkedHashSet(closure.cardinality());
+        for (int i = closure.nextSetBit(0); i > -1; i = closure.nextSetBit(i + 1)) {
+            if (i != id) {
+                dependencies.add(beanNames[i]);
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Flatten the graph, every key of the graph is mapped to its {@link #getTransitiveDependencies(String)
+     * transitive dependencies}
+     *
+     * @return non-null mutable {@link Map} in the order of the keys of graph
+     */
+    @Nonnull
+    public Map<String, Set<String>> flatten() {
+        Map<String, Set<String>> flattenGraph = newLinkedHashMap(keysCount);
+        for (int id = 0; id < keysCount; id++) {
+            String beanName = beanNames[id];
+            flattenGraph.put(beanName, getTransitiveDependencies(beanName));
+        }
+        return flattenGraph;
+    }
+
+    /**
+     * Get the names of beans in the keys of graph that no other bean depends on
+     *
+     * @return non-null mutable {@link Set} in the order of the keys of graph
+     */
+    @Nonnull
+    public Set<String> getRootBeanNames() {
+        Set<String> rootBeanNames = newLinkedHashSet();
+        for (int id = 0; id < keysCount; id++) {
+            if (dependentsCounts[id] == 0) {
+                rootBeanNames.add(beanNames[id]);
+            }
+        }
+        return rootBeanNames;
+    }
+
+    /**
+     * Find the strongly connected components by the iterative Tarjan's algorithm
+     *
+     * @param dependencies the ids of dependencies for every bean
+     * @param componentIds the output of component id for every bean
+     * @return the count of components
+     */
+    static int findStronglyConnectedComponents(int[][] dependencies, int[] componentIds) {
+        int size = dependencies.length;
+        int[] indexes = new int[size];
+        int[] lowLinks = new int[size];
+        int[] edgePositions = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int[] callStack = new int[size];
+        fill(indexes, -1);
+
+        int index = 0;
+        int stackSize = 0;
+        int componentsCount = 0;
+
+        for (int start = 0; start < size; start++) {
+            if (indexes[start] != -1) {
+                continue;
+            }
+            int callDepth = 0;
+            indexes[start] = lowLinks[start] = index++;
+            stack[stackSize++] = start;
+            onStack[start] = true;
+            callStack[callDepth++] = start;
+
+            while (callDepth > 0) {
+                int id = callStack[callDepth - 1];
+                int[] dependencyIds = dependencies[id];
+                if (edgePositions[id] < dependencyIds.length) {
+                    int dependencyId = dependencyIds[edgePositions[id]++];
+                    if (indexes[dependencyId] == -1) {
+                        indexes[dependencyId] = lowLinks[dependencyId] = index++;
+                        stack[stackSize++] = dependencyId;
+                        onStack[dependencyId] = true;
+                        callStack[callDepth++] = dependencyId;
+                    } else if (onStack[dependencyId]) {
+                        lowLinks[id] = min(lowLinks[id], indexes[dependencyId]);
+                    }
+                } else {
+                    callDepth--;
+                    if (lowLinks[id] == indexes[id]) {
+                        int memberId;
+                        do {
+                            memberId = stack[--stackSize];
+                            onStack[memberId] = false;
+                            componentIds[memberId] = componentsCount;
+                        } while (memberId != id);
+                        componentsCount++;
+                    }
+                    if (callDepth > 0) {
+                        int callerId = callStack[callDepth - 1];
+                        lowLinks[callerId] = min(lowLinks[callerId], lowLinks[id]);
+                    }
+                }
+            }
+        }
+        return componentsCount;
+    }
+
+    /**
+     * Compute the transitive closures of components in the topological order
+     */
+    static BitSet[] computeClosures(int[][] dependencies, int[] componentIds, int componentsCount) {
+        int size = dependencies.length;
+        // the members of components are linked by the ids
+        int[] heads = new int[componentsCount];
+        int[] nexts = new int[size];
+        fill(heads, -1);
+        for (int id = size - 1; id > -1; id--) {
+            int componentId = componentIds[id];
+            nexts[id] = heads[componentId];
+            heads[componentId] = id;
+        }
+
+        BitSet[] closures = new BitSet[componentsCount];
+        // the last component merged into the closure, in order to skip the duplicated merging
+        int[] merged = new int[componentsCount];
+        fill(merged, -1);
+        for (int componentId = 0; componentId < componentsCount; componentId++) {
+            BitSet closure = new BitSet();
+            boolean cyclic = nexts[heads[componentId]] != -1;
+            for (int id = heads[componentId]; id != -1; id = nexts[id]) {
+                if (cyclic) {
+                    closure.set(id);
+                }
+                for (int dependencyId : dependencies[id]) {
+                    int dependencyComponentId = componentIds[dependencyId];
+                    if (dependencyComponentId != componentId && merged[dependencyComponentId] != componentId) {
+                        merged[dependencyComponentId] = componentId;
+                        closure.set(dependencyId);
+                        closure.or(closures[dependencyComponentId]);
+                    } else {
+                        closure.set(dependencyId);
+                    }
+                }
+            }
+            closures[componentId] = closure;
+        }
+        return closures;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanDependencyGraph{beans=" + beanNames.length + ", components=" + componentsCount + '}';
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory;
+
+import io.microsphere.annotation.Nonnull;
+import io.microsphere.annotation.Nullable;
+import io.microsphere.logging.Logger;
+import io.microsphere.util.Utils;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.io.File.pathSeparator;
+import static java.lang.System.getProperty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.springframework.util.StringUtils.tokenizeToStringArray;
+
+/**
+ * The snapshot of the bean dependency graph that is persisted into a compact binary file, it's used to skip
+ * the dependency resolution on the warm restarts.
+ * <p>
+ * The snapshot is keyed by the {@link #fingerprint(ConfigurableListableBeanFactory) fingerprint} of the bean
+ * definitions (names, classes, factory methods, scopes, lazy-init flags, autowiring settings, depends-on, the
+ * references of constructor arguments and properties) and the class path (entries, sizes and last modified times,
+ * the directory entries are walked for the files inside), thus any change of them invalidates the snapshot.
+ *
+ * <h3>Binary Format</h3>
+ * <pre>
+ * int     magic ("MSDG")
+ * byte    version
+ * short   length of fingerprint
+ * byte[]  fingerprint
+ * int     count of bean names
+ * UTF[]   bean names
+ * int     count of graph entries
+ * ( int   index of bean name, int count of dependencies, int[] indexes of dependencies )*
+ * </pre>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ *   File file = new File("dependency-graph.snapshot");
+ *   byte[] fingerprint = BeanDependencyGraphSnapshot.fingerprint(beanFactory);
+ *   Map<String, Set<String>> dependencyGraph = BeanDependencyGraphSnapshot.read(file, fingerprint);
+ *   if (dependencyGraph == null) {
+ *       dependencyGraph = resolver.resolveDependencyGraph(beanFactory);
+ *       BeanDependencyGraphSnapshot.write(file, fingerprint, dependencyGraph);
+ *   }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see DefaultBeanDependencyResolver#resolveDependencyGraph(ConfigurableListableBeanFactory)
+ * @since 1.0.0
+ */
+public abstract class BeanDependencyGraphSnapshot implements Utils {
+
+    private static final Logger logger = getLogger(BeanDependencyGraphSnapshot.class);
+
+    /**
+     * The magic number of snapshot file : "MSDG"
+     */
+    static final int MAGIC = 0x4D534447;
+
+    /**
+     * The version of snapshot file format
+     */
+    static final byte VERSION = 1;
+
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    /**
+     * Compute the fingerprint of the bean definitions in the given {@link ConfigurableListableBeanFactory} and
+     * the class path of current JVM.
+     *
+     * @param beanFactory {@link ConfigurableListableBeanFactory}
+     * @return non-null fingerprint
+     */
+    @Nonnull
+    public static byte[] fingerprint(ConfigurableListableBeanFactory beanFactory) {
+        return fingerprint(beanFactory, getProperty("java.class.path"));
+    }
+
+    @Nonnull
+    static byte[] fingerprint(ConfigurableListableBeanFactory beanFactory, @Nullable String classPath) {
+        MessageDigest digest = newMessageDigest();
+        String[] beanNames = beanFactory.getBeanDefinitionNames();
+        for (String beanName : beanNames) {
+            BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
+            update(digest, beanName);
+            update(digest, beanDefinition.getBeanClassName());
+            update(digest, beanDefinition.getFactoryBeanName());
+            update(digest, beanDefinition.getFactoryMethodName());
+            update(digest, beanDefinition.getScope());
+            update(digest, String.valueOf(beanDefinition.isLazyInit()));
+            update(digest, String.valueOf(beanDefinition.isAbstract()));
+            update(digest, String.valueOf(beanDefinition.isPrimary()));
+            update(digest, String.valueOf(beanDefinition.isAutowireCandidate()));
+            if (beanDefinition instanceof AbstractBeanDefinition) {
+                update(digest, String.valueOf(((AbstractBeanDefinition) beanDefinition).getAutowireMode()));
+            }
+            updateDependencies(digest, beanDefinition);
+        }
+        updateClassPath(digest, classPath);
+        return digest.digest();
+    }
+
+    /**
+     * Read the dependency graph from the snapshot file if its fingerprint matches.
+     *
+     * @param file        the snapshot file
+     * @param fingerprint the expected fingerprint
+     * @return the mutable dependency graph if valid, or <code>null</code> if the file is absent, unreadable or stale
+     */
+    @Nullable
+    public static Map<String, Set<String>> read(File file, byte[] fingerprint) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The snapshot file['{}'] is not a valid bean dependency graph", file);
+                }
+                return null;
+            }
+            byte[] storedFingerprint = new byte[input.readShort()];
+            input.readFully(storedFingerprint);
+            if (!Arrays.equals(fingerprint, storedFingerprint)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("The snapshot file['{}'] of bean dependency graph is stale", file);
+                }
+                return null;
+            }
+            int namesCount = input.readInt();
+            String[] beanNames = new String[namesCount];
+            for (int i = 0; i < namesCount; i++) {
+                beanNames[i] = input.readUTF();
+            }
+            int entriesCount = input.readInt();
+            Map<String, Set<String>> dependencyGraph = newLinkedHashMap(entriesCount);
+            for (int i = 0; i < entriesCount; i++) {
+                String beanName = beanNames[input.readInt()];
+                int dependenciesCount = input.readInt();
+                Set<String> dependentBeanNames = newLinkedHashSet(dependenciesCount);
+                for (int j = 0; j < dependenciesCount; j++) {
+                    dependentBeanNames.add(beanNames[input.readInt()]);
+                }
+                dependencyGraph.put(beanName, dependentBeanNames);
+            }
+            return dependencyGraph;
+        } catch (IOException | RuntimeException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The snapshot file['{}'] of bean dependency graph can't be read", file, e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Write the dependency graph into the snapshot file, the file will be replaced atomically if possible.
+     *
+     * @param file            the snapshot file
+     * @param fingerprint     the fingerprint
+     * @param dependencyGraph the dependency graph
+     * @return <code>true</code> if written
+     */
+    public static boolean write(File file, byte[] fingerprint, Map<String, Set<String>> dependencyGraph) {
+        Map<String, Integer> indexes = newHashMap(dependencyGraph.size() * 2);
+        for (Entry<String, Set<String>> entry : dependencyGraph.entrySet()) {
+            indexes.putIfAbsent(entry.getKey(), indexes.size());
+            for (String dependentBeanName : entry.getValue()) {
+                indexes.putIfAbsent(dependentBeanName, indexes.size());
+            }
+        }
+        String[] beanNames = new String[indexes.size()];
+        for (Entry<String, Integer> entry : indexes.entrySet()) {
+            beanNames[entry.getValue()] = entry.getKey();
+        }
+
+        Path target = file.toPath().toAbsolutePath();
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.writeByte(VERSION);
+                output.writeShort(fingerprint.length);
+                output.write(fingerprint);
+                output.writeInt(beanNames.length);
+                for (String beanName : beanNames) {
+                    output.writeUTF(beanName);
+                }
+                output.writeInt(dependencyGraph.size());
+                for (Entry<String, Set<String>> entry : dependencyGraph.entrySet()) {
+                    Set<String> dependentBeanNames = entry.getValue();
+                    output.writeInt(indexes.get(entry.getKey()));
+                    output.writeInt(dependentBeanNames.size());
+                    for (String dependentBeanName : dependentBeanNames) {
+                        output.writeInt(indexes.get(dependentBeanName));
+                    }
+                }
+            }
+            move(temp, target);
+            if (logger.isDebugEnabled()) {
+                logger.debug("The bean dependency graph[size : {}] was written into the snapshot file['{}']", dependencyGraph.size(), file);
+            }
+            return true;
+        } catch (IOException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The bean dependency graph can't be written into the snapshot file['{}']", file, e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Remove the beans that have been ready from the dependency graph loaded from the snapshot.
+     *
+     * @param dependencyGraph the dependency graph
+     * @param beanFactory     {@link ConfigurableListableBeanFactory}
+     */
+    public static void removeReadyBeans(Map<String, Set<String>> dependencyGraph, ConfigurableListableBeanFactory beanFactory) {
+        Iterator<Entry<String, Set<String>>> iterator = dependencyGraph.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<String, Set<String>> entry = iterator.next();
+            if (beanFactory.containsSingleton(entry.getKey())) {
+                iterator.remove();
+            } else {
+                entry.getValue().removeIf(beanFactory::containsSingleton);
+            }
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(source, target, REPLACE_EXISTING);
+        }
+    }
+
+    private static void updateDependencies(MessageDigest digest, BeanDefinition beanDefinition) {
+        String[] dependsOn = beanDefinition.getDependsOn();
+        if (dependsOn != null) {
+            for (String dependentBeanName : dependsOn) {
+                update(digest, dependentBeanName);
+            }
+        }
+        updateConstructorArgumentValues(digest, beanDefinition.getConstructorArgumentValues());
+        for (PropertyValue propertyValue : beanDefinition.getPropertyValues().getPropertyValues()) {
+            update(digest, propertyValue.getName());
+            updateValue(digest, propertyValue.getValue());
+        }
+    }
+
+    private static void updateConstructorArgumentValues(MessageDigest digest, ConstructorArgumentValues constructorArgumentValues) {
+        for (Entry<Integer, ValueHolder> entry : constructorArgumentValues.getIndexedArgumentValues().entrySet()) {
+            update(digest, String.valueOf(entry.getKey()));
+            updateValue(digest, entry.getValue().getValue());
+        }
+        for (ValueHolder valueHolder : constructorArgumentValues.getGenericArgumentValues()) {
+            update(digest, valueHolder.getName());
+            updateValue(digest, valueHolder.getValue());
+        }
+    }
+
+    /**
+     * Update the digest with the dependency-relevant part of the value, the others are identified by their types only,
+     * because their {@link Object#toString() string representations} may be not stable across the restarts.
+     */
+    private static void updateValue(MessageDigest digest, Object value) {
+        if (value instanceof BeanReference) {
+            update(digest, "ref");
+            update(digest, ((BeanReference) value).getBeanName());
+        } else if (value instanceof BeanDefinitionHolder) {
+            BeanDefinition beanDefinition = ((BeanDefinitionHolder) value).getBeanDefinition();
+            update(digest, "inner");
+            update(digest, beanDefinition.getBeanClassName());
+            updateDependencies(digest, beanDefinition);
+        } else if (value instanceof BeanDefinition) {
+            updateValue(digest, new BeanDefinitionHolder((BeanDefinition) value, ""));
+        } else if (value instanceof TypedStringValue) {
+            update(digest, ((TypedStringValue) value).getValue());
+        } else if (value instanceof String) {
+            update(digest, (String) value);
+        } else if (value instanceof Collection) {
+            update(digest, "collection");
+            for (Object element : (Collection<?>) value) {
+                updateValue(digest, element);
+            }
+        } else if (value instanceof Map) {
+            update(digest, "map");
+            for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                updateValue(digest, entry.getKey());
+                updateValue(digest, entry.getValue());
+            }
+        } else {
+            update(digest, value == null ? null : value.getClass().getName());
+        }
+    }
+
+    private static void updateClassPath(MessageDigest digest, String classPath) {
+        if (classPath == null) {
+            return;
+        }
+        for (String path : tokenizeToStringArray(classPath, pathSeparator)) {
+            File entry = new File(path);
+            update(digest, path);
+            if (entry.isDirectory()) {
+                updateDirectory(digest, entry.toPath());
+            } else {
+                update(digest, String.valueOf(entry.length()));
+                update(digest, String.valueOf(entry.lastModified()));
+            }
+        }
+    }
+
+    /**
+     * Update the digest with the count, the total size and the max last modified time of the files in the directory,
+     * e.g. "target/classes", whose own last modified time is not changed when a nested file is modified.
+     */
+    private static void updateDirectory(MessageDigest digest, Path directory) {
+        long[] stats = new long[3];
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    stats[0]++;
+                    stats[1] += attributes.size();
+                    stats[2] = Math.max(stats[2], attributes.lastModifiedTime().toMillis());
+                    return CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("The class path directory['{}'] can't be walked", directory, e);
+            }
+        }
+        update(digest, String.valueOf(stats[0]));
+        update(digest, String.valueOf(stats[1]));
+        update(digest, String.valueOf(stats[2]));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(UTF_8));
+        }
+        // separator
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BeanDependencyGraphSnapshot() {
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory;
+
+import io.microsphere.annotation.Nonnull;
+import io.microsphere.logging.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static org.springframework.core.NestedExceptionUtils.getMostSpecificCause;
+
+/**
+ * The scheduler executes an action on every bean of a dependency graph in parallel, an action is submitted for a bean
+ * as soon as all of its dependencies have been completed, the bean on the longest remaining path(critical path) takes
+ * precedence over the others when more than one bean is ready.
+ * <p>
+ * The dependency graph is a {@link Map} whose key is the bean name and value is the names of the beans it depends on
+ * directly, e.g. the result of {@link DefaultBeanDependencyResolver#resolveDependencyGraph}. The dependencies that are
+ * absent in the keys of graph are ignored. The graph is ordered by the {@link BeanDependencyGraph}, the beans that can't
+ * be ordered topologically (in or behind a circular dependency) are deferred, and they will be executed sequentially on
+ * the calling thread after all others.
+ * <p>
+ * If any action fails, the outstanding beans will not be submitted anymore, and the first failure will be re-thrown
+ * on the calling thread once the running actions are finished.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ *   DefaultBeanDependencyResolver resolver = new DefaultBeanDependencyResolver(beanFactory, executorService);
+ *   Map<String, Set<String>> dependencyGraph = resolver.resolveDependencyGraph(beanFactory);
+ *   CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(dependencyGraph);
+ *   // create the singletons in parallel
+ *   scheduler.execute(executorService, 4, beanFactory::getBean);
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see DefaultBeanDependencyResolver
+ * @see BeanDependencyGraph
+ * @since 1.0.0
+ */
+public class CriticalPathBeanScheduler {
+
+    private static final Logger logger = getLogger(CriticalPathBeanScheduler.class);
+
+    /**
+     * The id of the stop signal for the workers
+     */
+    private static final int STOP_SIGNAL = -1;
+
+    /**
+     * The pending count of the skipped beans, the decrements keep it negative
+     */
+    private static final int SKIPPED = -1;
+
+    private final String[] beanNames;
+
+    /**
+     * The ids of beans that depend on the bean directly
+     */
+    private final int[][] dependents;
+
+    /**
+     * The count of dependencies for the bean
+     */
+    private final int[] dependenciesCounts;
+
+    /**
+     * The length of the longest path from the bean to the end of graph
+     */
+    private final int[] priorities;
+
+    /**
+     * The ids of beans in topological order
+     */
+    private final int[] orderedIds;
+
+    private final List<String> deferredBeanNames;
+
+    /**
+     * Construct a new {@code CriticalPathBeanScheduler} with the given dependency graph
+     *
+     * @param dependencyGraph the {@link Map} of bean names to their direct dependent bean names
+     */
+    public CriticalPathBeanScheduler(Map<String, Set<String>> dependencyGraph) {
+        this(new BeanDependencyGraph(dependencyGraph));
+    }
+
+    /**
+     * Construct a new {@code CriticalPathBeanScheduler} with the given {@link BeanDependencyGraph}, the leaves absent
+     * in the keys of graph are ignored
+     *
+     * @param dependencyGraph the {@link BeanDependencyGraph}
+     */
+    public CriticalPathBeanScheduler(BeanDependencyGraph dependencyGraph) {
+        int size = dependencyGraph.getKeysCount();
+        String[] beanNames = new String[size];
+        int[] dependenciesCounts = new int[size];
+        int[] dependentsCounts = new int[size];
+        int[][] dependencies = new int[size][];
+        for (int id = 0; id < size; id++) {
+            int[] dependencyIds = dependencyGraph.getDependencyIds(id, true);
+            for (int dependencyId : dependencyIds) {
+                dependentsCounts[dependencyId]++;
+            }
+            beanNames[id] = dependencyGraph.getBeanName(id);
+            dependencies[id] = dependencyIds;
+            dependenciesCounts[id] = dependencyIds.length;
+        }
+
+        int[][] dependents = new int[size][];
+        for (int i = 0; i < size; i++) {
+            dependents[i] = new int[dependentsCounts[i]];
+            dependentsCounts[i] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int dependencyId : dependencies[i]) {
+                dependents[dependencyId][dependentsCounts[dependencyId]++] = i;
+            }
+        }
+
+        this.beanNames = beanNames;
+        this.dependents = dependents;
+        this.dependenciesCounts = dependenciesCounts;
+        this.orderedIds = resolveOrderedIds(dependencyGraph, dependencies);
+        this.priorities = computePriorities(dependents, this.orderedIds);
+        this.deferredBeanNames = resolveDeferredBeanNames(beanNames, this.orderedIds);
+    }
+
+    /**
+     * Get the bean names in topological order, the dependencies are ahead of their dependents.
+     *
+     * @return non-null read-only {@link List}, the deferred beans are excluded
+     */
+    @Nonnull
+    public List<String> getOrderedBeanNames() {
+        int size = orderedIds.length;
+        List<String> orderedBeanNames = newArrayList(size);
+        for (int i = 0; i < size; i++) {
+            orderedBeanNames.add(beanNames[orderedIds[i]]);
+        }
+        return unmodifiableList(orderedBeanNames);
+    }
+
+    /**
+     * Get the names of beans that are in or behind a circular dependency, they are executed sequentially
+     * after all others.
+     *
+     * @return non-null read-only {@link List}
+     */
+    @Nonnull
+    public List<String> getDeferredBeanNames() {
+        return deferredBeanNames;
+    }
+
+    /**
+     * Get the priority of the specified bean, which is the count of beans on the longest path from the bean to
+     * the last of its (transitive) dependents.
+     *
+     * @param beanName the bean name
+     * @return the positive number if the bean can be ordered topologically, or <code>0</code>
+     */
+    public int getPriority(String beanName) {
+        for (int i = 0; i < beanNames.length; i++) {
+            if (beanNames[i].equals(beanName)) {
+                return priorities[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Execute the action on every bean in the dependency graph.
+     *
+     * @param executorService the {@link ExecutorService} to execute the actions
+     * @param parallelism     the max number of actions executing concurrently, it should not be greater than
+     *                        the number of threads in the {@link ExecutorService}
+     * @param action          the action on the bean name, e.g. {@code beanFactory::getBean}
+     * @throws RuntimeException the first failure from the actions
+     */
+    public void execute(ExecutorService executorService, int parallelism, Consumer<String> action) {
+        executeOrHold(executorService, parallelism, beanName -> {
+            action.accept(beanName);
+            return true;
+        });
+    }
+
+    /**
+     * Execute the action on every bean in the dependency graph, if the action on a bean returns <code>false</code>,
+     * the bean is held, that is, the beans depending on it (transitively) will not be executed, and they are returned
+     * to the caller. If any bean is held, the deferred beans will not be executed either.
+     *
+     * @param executorService the {@link ExecutorService} to execute the actions
+     * @param parallelism     the max number of actions executing concurrently, it should not be greater than
+     *                        the number of threads in the {@link ExecutorService}
+     * @param action          the action on the bean name, returns <code>true</code> to release the beans depending on it
+     * @return non-null read-only {@link List} of the names of beans that were not executed behind the held beans
+     * @throws RuntimeException the first failure from the actions
+     */
+    @Nonnull
+    public List<String> executeOrHold(ExecutorService executorService, int parallelism, Predicate<String> action) {
+        int size = orderedIds.length;
+        int workers = min(max(1, parallelism), size);
+
+        AtomicInteger[] pendingCounts = new AtomicInteger[beanNames.length];
+        for (int i = 0; i < pendingCounts.length; i++) {
+            pendingCounts[i] = new AtomicInteger(dependenciesCounts[i]);
+        }
+
+        if (workers > 0) {
+            execute(executorService, workers, action, size, pendingCounts);
+        }
+
+        List<String> skippedBeanNames = newArrayList();
+        for (int i = 0; i < pendingCounts.length; i++) {
+            if (pendingCounts[i].get() < 0) {
+                skippedBeanNames.add(beanNames[i]);
+            }
+        }
+
+        boolean held = !skippedBeanNames.isEmpty();
+        for (String deferredBeanName : deferredBeanNames) {
+            if (held) {
+                skippedBeanNames.add(deferredBeanName);
+                continue;
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("The deferred bean[name : '{}'] is executing", deferredBeanName);
+            }
+            held = !action.test(deferredBeanName);
+        }
+        return unmodifiableList(skippedBeanNames);
+    }
+
+    private void execute(ExecutorService executorService, int workers, Predicate<String> action, int size,
+                         AtomicInteger[] pendingCounts) {
+        int[] priorities = this.priorities;
+        PriorityBlockingQueue<Integer> readyQueue = new PriorityBlockingQueue<>(size + workers,
+                (a, b) -> compare(a.intValue(), b.intValue(), priorities));
+
+        for (int i = 0; i < pendingCounts.length; i++) {
+            if (dependenciesCounts[i] == 0) {
+                readyQueue.offer(i);
+            }
+        }
+
+        AtomicInteger remaining = new AtomicInteger(size);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Future<?>> futures = newArrayList(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executorService.submit(() -> work(readyQueue, pendingCounts, remaining, failure, workers, action)));
+        }
+
+        awaitWorkers(futures, failure);
+
+        Throwable throwable = failure.get();
+        if (throwable != null) {
+            if (logger.isErrorEnabled()) {
+                logger.error("The scheduled beans' execution failed, caused by : {}", getMostSpecificCause(throwable).toString());
+            }
+            if (throwable instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (throwable instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    private void work(PriorityBlockingQueue<Integer> readyQueue, AtomicInteger[] pendingCounts, AtomicInteger remaining,
+                      AtomicReference<Throwable> failure, int workers, Predicate<String> action) {
+        int id;
+        try {
+            while ((id = readyQueue.take()) != STOP_SIGNAL) {
+                if (failure.get() != null) {
+                    break;
+                }
+                String beanName = beanNames[id];
+                int completed = 1;
+                if (action.test(beanName)) {
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("The scheduled bean[name : '{}' , priority : {}] was executed", beanName, priorities[id]);
+                    }
+                    for (int dependent : dependents[id]) {
+                        if (pendingCounts[dependent].decrementAndGet() == 0) {
+                            readyQueue.offer(dependent);
+                        }
+                    }
+                } else {
+                    completed += hold(id, pendingCounts);
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("The scheduled bean[name : '{}' , priority : {}] was held, {} beans behind it are skipped",
+                                beanName, priorities[id], completed - 1);
+                    }
+                }
+                if (remaining.addAndGet(-completed) == 0) {
+                    stop(readyQueue, workers);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e, failure, readyQueue, workers);
+        } catch (Throwable e) {
+            fail(e, failure, readyQueue, workers);
+        }
+    }
+
+    /**
+     * Mark the beans depending on the held bean transitively as skipped, their pending counts become negative, thus
+     * they will never be ready.
+     *
+     * @return the count of beans newly skipped
+     */
+    private int hold(int heldId, AtomicInteger[] pendingCounts) {
+        int count = 0;
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(heldId);
+        while (!stack.isEmpty()) {
+            for (int dependent : dependents[stack.pop()]) {
+                if (pendingCounts[dependent].getAndSet(SKIPPED) >= 0) {
+                    count++;
+                    stack.push(dependent);
+                }
+            }
+        }
+        return count;
+    }
+
+    private void fail(Throwable e, AtomicReference<Throwable> failure, PriorityBlockingQueue<Integer> readyQueue, int workers) {
+        if (failure.compareAndSet(null, e)) {
+            readyQueue.clear();
+            stop(readyQueue, workers);
+        }
+    }
+
+    private void stop(PriorityBlockingQueue<Integer> readyQueue, int workers) {
+        for (int i = 0; i < workers; i++) {
+            readyQueue.offer(STOP_SIGNAL);
+        }
+    }
+
+    private void awaitWorkers(List<Future<?>> futures, AtomicReference<Throwable> failure) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+                cancel(futures);
+                return;
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void cancel(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * The stop signal goes first, then the bean with the higher priority, the lower id for the same priority
+     */
+    static int compare(int id, int otherId, int[] priorities) {
+        if (id == STOP_SIGNAL || otherId == STOP_SIGNAL) {
+            return id == otherId ? 0 : id == STOP_SIGNAL ? -1 : 1;
+        }
+        int result = Integer.compare(priorities[otherId], priorities[id]);
+        return result == 0 ? Integer.compare(id, otherId) : result;
+    }
+
+    /**
+     * Resolve the ids of beans in the {@link BeanDependencyGraph#getTopologicalOrder(boolean) topological order},
+     * excluding the beans in or behind a circular dependency
+     */
+    static int[] resolveOrderedIds(BeanDependencyGraph dependencyGraph, int[][] dependencies) {
+        int[] topologicalOrder = dependencyGraph.getTopologicalOrder(true);
+        int size = topologicalOrder.length;
+        boolean[] deferred = new boolean[size];
+        int[] orderedIds = new int[size];
+        int count = 0;
+        for (int id : topologicalOrder) {
+            boolean cyclic = dependencyGraph.isCyclic(id);
+            for (int i = 0; !cyclic && i < dependencies[id].length; i++) {
+                cyclic = deferred[dependencies[id][i]];
+            }
+            if (cyclic) {
+                deferred[id] = true;
+            } else {
+                orderedIds[count++] = id;
+            }
+        }
+        return count == size ? orderedIds : copyOf(orderedIds, count);
+    }
+
+    static int[] computePriorities(int[][] dependents, int[] orderedIds) {
+        int[] priorities = new int[dependents.length];
+        for (int i = orderedIds.length - 1; i > -1; i--) {
+            int id = orderedIds[i];
+            int priority = 0;
+            for (int dependent : dependents[id]) {
+                priority = max(priority, priorities[dependent]);
+            }
+            priorities[id] = priority + 1;
+        }
+        return priorities;
+    }
+
+    private static List<String> resolveDeferredBeanNames(String[] beanNames, int[] orderedIds) {
+        int size = beanNames.length;
+        if (orderedIds.length == size) {
+            return emptyList();
+        }
+        boolean[] ordered = new boolean[size];
+        for (int id : orderedIds) {
+            ordered[id] = true;
+        }
+        List<String> deferredBeanNames = newArrayList(size - orderedIds.length);
+        for (int i = 0; i < size; i++) {
+            if (!ordered[i]) {
+                deferredBeanNames.add(beanNames[i]);
+            }
+        }
+        if (logger.isWarnEnabled()) {
+            logger.warn("The beans{} can't be ordered topologically, they will be executed sequentially", deferredBeanNames);
+        }
+        return unmodifiableList(deferredBeanNames);
+    }
+}
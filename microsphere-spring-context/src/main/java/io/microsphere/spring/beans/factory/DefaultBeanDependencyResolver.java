@@ -16,6 +16,7 @@
  */
 package io.microsphere.spring.beans.factory;
 
+import io.microsphere.annotation.Nonnull;
 import io.microsphere.annotation.Nullable;
 import io.microsphere.collection.SetUtils;
 import io.microsphere.logging.Logger;
@@ -47,10 +48,8 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
-import static io.microsphere.collection.CollectionUtils.isNotEmpty;
 import static io.microsphere.collection.ListUtils.newLinkedList;
 import static io.microsphere.collection.MapUtils.newHashMap;
 import static io.microsphere.collection.MapUtils.ofEntry;
@@ -126,9 +125,10 @@ public class DefaultBeanDependencyResolver implements BeanDependencyResolver {
     /**
      * Resolve all bean dependencies in the given {@link ConfigurableListableBeanFactory}.
      * <p>
-     * Returns a map where each key is a root bean name and the value is the flattened set
-     * of all transitive dependent bean names. Only eligible (non-abstract, singleton,
-     * non-lazy-init) beans without an instance supplier are considered.
+     * Returns a map where each key is an eligible bean name and the value is the flattened set
+     * of all transitive dependent bean names, which is computed by the {@link BeanDependencyGraph}.
+     * Only eligible (non-abstract, singleton, non-lazy-init) beans without an instance supplier
+     * are considered.
      *
      * <h3>Example Usage</h3>
      * <pre>{@code
@@ -156,82 +156,112 @@ public class DefaultBeanDependencyResolver implements BeanDependencyResolver {
 
         StopWatch stopWatch = new StopWatch("BeanDependencyResolver");
 
-        // Not Ready & Non-Lazy-Init Merged BeanDefinitions
-        Map<String, RootBeanDefinition> eligibleBeanDefinitionsMap = getEligibleBeanDefinitionsMap(beanFactory, stopWatch);
+        Map<String, Set<String>> dependentBeanNamesMap = resolveDependencyGraph(beanFactory, stopWatch);
 
-        // Pre-Process Bean Classes for BeanDefinitions
-        preProcessLoadBeanClasses(eligibleBeanDefinitionsMap, stopWatch);
+        flattenDependentBeanNamesMap(dependentBeanNamesMap, stopWatch);
 
-        // No Bean(name) conflict here, thus it could be HashMap since Java 8
-        Map<String, Set<String>> dependentBeanNamesMap = resolveDependentBeanNamesMap(eligibleBeanDefinitionsMap, stopWatch);
+        if (logger.isTraceEnabled()) {
+            logger.trace(stopWatch.toString());
+        }
 
-        flattenDependentBeanNamesMap(dependentBeanNamesMap, stopWatch);
+        return dependentBeanNamesMap;
+    }
 
-        clearResolvedBeanMembers();
+    /**
+     * Resolve the direct dependency graph of all eligible beans in the given {@link ConfigurableListableBeanFactory}.
+     * <p>
+     * Unlike {@link #resolve(ConfigurableListableBeanFactory)}, the result is neither flattened nor reduced to
+     * the root beans : every eligible (non-abstract, singleton, non-lazy-init) bean is present as a key, and
+     * its value only contains the names of the beans it depends on directly. Hence, the result is suitable
+     * for the graph algorithms, e.g. topological ordering.
+     *
+     * <h3>Example Usage</h3>
+     * <pre>{@code
+     *   DefaultBeanDependencyResolver resolver = new DefaultBeanDependencyResolver(beanFactory, executorService);
+     *   Map<String, Set<String>> dependencyGraph = resolver.resolveDependencyGraph(beanFactory);
+     *   // dependencyGraph contains bean name -> set of direct dependency bean names
+     * }</pre>
+     *
+     * @param bf the {@link ConfigurableListableBeanFactory} to resolve dependencies from;
+     *           must be the same instance passed to the constructor
+     * @return a mutable {@link Map} of bean names to their direct dependent bean name sets,
+     * or an empty map if the factory does not match
+     */
+    @Nonnull
+    public Map<String, Set<String>> resolveDependencyGraph(ConfigurableListableBeanFactory bf) {
+        DefaultListableBeanFactory beanFactory = this.beanFactory;
+        if (beanFactory != bf) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Current BeanFactory[{}] is not a instance of DefaultListableBeanFactory", bf);
+            }
+            return emptyMap();
+        }
+
+        StopWatch stopWatch = new StopWatch("BeanDependencyGraphResolver");
+
+        Map<String, Set<String>> dependencyGraph = resolveDependencyGraph(beanFactory, stopWatch);
 
         if (logger.isTraceEnabled()) {
             logger.trace(stopWatch.toString());
         }
 
-        return dependentBeanNamesMap;
+        return dependencyGraph;
     }
 
-    private Map<String, Set<String>> resolveDependentBeanNamesMap(Map<String, RootBeanDefinition> eligibleBeanDefinitionsMap, StopWatch stopWatch) {
+    private Map<String, Set<String>> resolveDependencyGraph(DefaultListableBeanFactory beanFactory, StopWatch stopWatch) {
         stopWatch.start("resolveDependentBeanNamesMap");
 
-        int beansCount = eligibleBeanDefinitionsMap.size();
+        String[] beanNames = beanFactory.getBeanDefinitionNames();
+        int beansCount = beanNames.length;
+        // No Bean(name) conflict here, thus it could be HashMap since Java 8
         final Map<String, Set<String>> dependentBeanNamesMap = newHashMap(beansCount);
 
-        CompletionService<Entry<String, Set<String>>> completionService = getEntryCompletionService(eligibleBeanDefinitionsMap);
+        // The stages of every bean are pipelined in a task :
+        // merging BeanDefinition -> filtering -> loading bean class -> resolving dependencies,
+        // thus a bean starts loading its class as soon as it's merged, and the results are streamed in completion order
+        CompletionService<Entry<String, Set<String>>> completionService = new ExecutorCompletionService<>(this.executorService);
+        for (int i = 0; i < beansCount; i++) {
+            String beanName = beanNames[i];
+            completionService.submit(() -> resolveEligibleBeanDependentBeanNames(beanName, beanFactory));
+        }
 
         for (int i = 0; i < beansCount; i++) {
             execute(() -> {
                 Future<Entry<String, Set<String>>> future = completionService.take();
                 Entry<String, Set<String>> entry = future.get();
-                String beanName = entry.getKey();
-                Set<String> dependentBeanNames = entry.getValue();
-                dependentBeanNamesMap.put(beanName, dependentBeanNames);
-            });
-        }
-
-        stopWatch.stop();
-        return dependentBeanNamesMap;
-    }
-
-    private CompletionService<Entry<String, Set<String>>> getEntryCompletionService(Map<String, RootBeanDefinition> eligibleBeanDefinitionsMap) {
-        CompletionService<Entry<String, Set<String>>> completionService = new ExecutorCompletionService<>(this.executorService);
-
-        for (Entry<String, RootBeanDefinition> entry : eligibleBeanDefinitionsMap.entrySet()) {
-            completionService.submit(() -> {
-                String beanName = entry.getKey();
-                RootBeanDefinition beanDefinition = entry.getValue();
-                Set<String> dependentBeanNames = resolve(beanName, beanDefinition, beanFactory);
-                return ofEntry(beanName, dependentBeanNames);
+                if (entry != null) {
+                    dependentBeanNamesMap.put(entry.getKey(), entry.getValue());
+                }
             });
         }
-        return completionService;
-    }
 
-    private void preProcessLoadBeanClasses(Map<String, RootBeanDefinition> eligibleBeanDefinitionsMap, StopWatch stopWatch) {
-        stopWatch.start("preProcessLoadBeanClasses");
-
-        ClassLoader classLoader = this.classLoader;
-        for (Entry<String, RootBeanDefinition> entry : eligibleBeanDefinitionsMap.entrySet()) {
-            String beanName = entry.getKey();
-            RootBeanDefinition beanDefinition = entry.getValue();
-            preProcessLoadBeanClass(beanName, beanDefinition, eligibleBeanDefinitionsMap, classLoader);
-        }
-        awaitTasksCompleted();
+        clearResolvedBeanMembers();
 
         stopWatch.stop();
+        return dependentBeanNamesMap;
     }
 
-    private void awaitTasksCompleted() {
-        while (execute(() -> executorService.awaitTermination(10, TimeUnit.MILLISECONDS))) {
+    /**
+     * Resolve the dependent bean names if the bean is eligible
+     *
+     * @param beanName    the bean name
+     * @param beanFactory {@link DefaultListableBeanFactory}
+     * @return <code>null</code> if the bean is not eligible
+     */
+    @Nullable
+    private Entry<String, Set<String>> resolveEligibleBeanDependentBeanNames(String beanName, DefaultListableBeanFactory beanFactory) {
+        // Not Ready & Non-Lazy-Init Merged BeanDefinition
+        RootBeanDefinition beanDefinition = getEligibleMergedBeanDefinition(beanName, beanFactory);
+        if (beanDefinition == null) {
+            return null;
         }
+        // Pre-Process Bean Class for BeanDefinition
+        preProcessLoadBeanClass(beanName, beanDefinition, beanFactory, this.classLoader);
+        Set<String> dependentBeanNames = resolveDependentBeanNames(beanName, beanDefinition, beanFactory);
+        return ofEntry(beanName, dependentBeanNames);
     }
 
-    private void preProcessLoadBeanClass(String beanName, RootBeanDefinition beanDefinition, Map<String, RootBeanDefinition> beanDefinitionsMap,
+    private void preProcessLoadBeanClass(String beanName, RootBeanDefinition beanDefinition, DefaultListableBeanFactory beanFactory,
                                          ClassLoader classLoader) {
         if (beanDefinition.hasBeanClass()) {
             return;
@@ -240,28 +270,18 @@ public class DefaultBeanDependencyResolver implements BeanDependencyResolver {
         if (beanClassName == null) {
             if (beanDefinition.getResolvedFactoryMethod() == null) {
                 String factoryBeanName = beanDefinition.getFactoryBeanName();
-                if (factoryBeanName != null) {
-                    RootBeanDefinition factoryBeanDefinition = getMergedBeanDefinition(factoryBeanName, beanDefinitionsMap);
-                    preProcessLoadBeanClass(factoryBeanName, factoryBeanDefinition, beanDefinitionsMap, classLoader);
+                if (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) {
+                    RootBeanDefinition factoryBeanDefinition = (RootBeanDefinition) beanFactory.getMergedBeanDefinition(factoryBeanName);
+                    preProcessLoadBeanClass(factoryBeanName, factoryBeanDefinition, beanFactory, classLoader);
                 }
             }
         } else {
-            executorService.execute(() -> {
-                Class beanClass = loadClass(classLoader, beanClassName, true);
-                beanDefinition.setBeanClass(beanClass);
-                if (logger.isTraceEnabled()) {
-                    logger.trace("The bean[name : '{}'] class[name : '{}'] was loaded", beanName, beanClassName);
-                }
-            });
-        }
-    }
-
-    private RootBeanDefinition getMergedBeanDefinition(String beanName, Map<String, RootBeanDefinition> beanDefinitionsMap) {
-        RootBeanDefinition beanDefinition = beanDefinitionsMap.get(beanName);
-        if (beanDefinition == null) {
-            beanDefinition = (RootBeanDefinition) this.beanFactory.getMergedBeanDefinition(beanName);
+            Class beanClass = loadClass(classLoader, beanClassName, true);
+            beanDefinition.setBeanClass(beanClass);
+            if (logger.isTraceEnabled()) {
+                logger.trace("The bean[name : '{}'] class[name : '{}'] was loaded", beanName, beanClassName);
+            }
         }
-        return beanDefinition;
     }
 
     /**
@@ -302,38 +322,13 @@ public class DefaultBeanDependencyResolver implements BeanDependencyResolver {
     private void flattenDependentBeanNamesMap(Map<String, Set<String>> dependentBeanNamesMap, StopWatch stopWatch) {
         stopWatch.start("flattenDependentBeanNamesMap");
 
+        BeanDependencyGraph dependencyGraph = new BeanDependencyGraph(dependentBeanNamesMap);
         for (Entry<String, Set<String>> entry : dependentBeanNamesMap.entrySet()) {
-            Set<String> dependentBeanNames = entry.getValue();
-            if (dependentBeanNames.isEmpty()) { // No Dependent bean name
+            if (entry.getValue().isEmpty()) { // No Dependent bean name
                 continue;
             }
-            String beanName = entry.getKey();
-            Set<String> flattenDependentBeanNames = newLinkedHashSet(dependentBeanNames.size() * 2);
-            // flat
-            flatDependentBeanNames(beanName, dependentBeanNamesMap, flattenDependentBeanNames);
-            // Replace flattenDependentBeanNames to dependentBeanNames
-            entry.setValue(flattenDependentBeanNames);
-        }
-
-        Set<String> nonRootBeanNames = newLinkedHashSet();
-        for (Entry<String, Set<String>> entry : dependentBeanNamesMap.entrySet()) {
-            String beanName = entry.getKey();
-            Set<String> dependentBeanNames = entry.getValue();
-            for (String dependentBeanName : dependentBeanNames) {
-                Set<String> nestedDependentBeanNames = dependentBeanNamesMap.get(dependentBeanName);
-                if (isNotEmpty(nestedDependentBeanNames) && !dependentBeanNames.containsAll(nestedDependentBeanNames)) {
-                    nonRootBeanNames.add(beanName);
-                    break;
-                }
-            }
-        }
-
-        for (String nonRootBeanName : nonRootBeanNames) {
-            if (dependentBeanNamesMap.remove(nonRootBeanName) != null) {
-                if (logger.isTraceEnabled()) {
-                    logger.trace("Non Root Bean name was removed : {}", nonRootBeanName);
-                }
-            }
+            // Replace the transitive dependent bean names to dependentBeanNames
+            entry.setValue(dependencyGraph.getTransitiveDependencies(entry.getKey()));
         }
 
         logDependentBeanNames(dependentBeanNamesMap);
@@ -349,32 +344,6 @@ public class DefaultBeanDependencyResolver implements BeanDependencyResolver {
         }
     }
 
-    private void flatDependentBeanNames(String beanName, Map<String, Set<String>> dependentBeanNamesMap, Set<String> flattenDependentBeanNames) {
-        Set<String> dependentBeanNames = retrieveDependentBeanNames(beanName, dependentBeanNamesMap);
-        if (dependentBeanNames.isEmpty()) {
-            return;
-        }
-
-        // remove self-reference
-        dependentBeanNames.remove(beanName);
-
-        for (String dependentBeanName : dependentBeanNames) {
-            if (flattenDependentBeanNames.add(dependentBeanName)) {
-                flatDependentBeanNames(dependentBeanName, dependentBeanNamesMap, flattenDependentBeanNames);
-            }
-        }
-    }
-
-    private Set<String> retrieveDependentBeanNames(String beanName, Map<String, Set<String>> dependentBeanNamesMap) {
-        Set<String> dependentBeanNames = dependentBeanNamesMap.get(beanName);
-        if (dependentBeanNames == null) {
-            dependentBeanNames = emptySet();
-        } else {
-            dependentBeanNames.remove(beanName);
-        }
-        return dependentBeanNames;
-    }
-
     private Set<String> resolveDependentBeanNames(String beanName, RootBeanDefinition beanDefinition, DefaultListableBeanFactory beanFactory) {
 
         Set<String> dependentBeanNames = newLinkedHashSet();
@@ -619,39 +588,29 @@ public class DefaultBeanDependencyResolver implements BeanDependencyResolver {
         return resolveBeanType(beanDefinition, classLoader);
     }
 
-    private Map<String, RootBeanDefinition> getEligibleBeanDefinitionsMap(DefaultListableBeanFactory beanFactory, StopWatch stopWatch) {
-        stopWatch.start("getEligibleBeanDefinitionsMap");
-
-        String[] beanNames = beanFactory.getBeanDefinitionNames();
-        int beansCount = beanNames.length;
-        Map<String, RootBeanDefinition> eligibleBeanDefinitionsMap = newHashMap(beansCount);
-        for (int i = 0; i < beansCount; i++) {
-            String beanName = beanNames[i];
-            if (isBeanReady(beanName, beanFactory)) {
-                continue;
-            }
-            if (beanFactory.isCurrentlyInCreation(beanName)) {
-                if (logger.isTraceEnabled()) {
-                    logger.trace("The Bean[name : '{}'] is creating currently", beanName);
-                }
-                continue;
+    @Nullable
+    private RootBeanDefinition getEligibleMergedBeanDefinition(String beanName, DefaultListableBeanFactory beanFactory) {
+        if (isBeanReady(beanName, beanFactory)) {
+            return null;
+        }
+        if (beanFactory.isCurrentlyInCreation(beanName)) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("The Bean[name : '{}'] is creating currently", beanName);
             }
+            return null;
+        }
 
-            BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
-            RootBeanDefinition eligibleBeanDefinition = getEligibleBeanDefinition(beanDefinition);
-            if (eligibleBeanDefinition != null) {
-                BeanDefinitionHolder beanDefinitionHolder = eligibleBeanDefinition.getDecoratedDefinition();
-                if (beanDefinitionHolder == null) {
-                    String[] aliases = beanFactory.getAliases(beanName);
-                    beanDefinitionHolder = new BeanDefinitionHolder(beanDefinition, beanName, aliases);
-                    eligibleBeanDefinition.setDecoratedDefinition(beanDefinitionHolder);
-                }
-                eligibleBeanDefinitionsMap.put(beanName, eligibleBeanDefinition);
+        BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
+        RootBeanDefinition eligibleBeanDefinition = getEligibleBeanDefinition(beanDefinition);
+        if (eligibleBeanDefinition != null) {
+            BeanDefinitionHolder beanDefinitionHolder = eligibleBeanDefinition.getDecoratedDefinition();
+            if (beanDefinitionHolder == null) {
+                String[] aliases = beanFactory.getAliases(beanName);
+                beanDefinitionHolder = new BeanDefinitionHolder(beanDefinition, beanName, aliases);
+                eligibleBeanDefinition.setDecoratedDefinition(beanDefinitionHolder);
             }
         }
-
-        stopWatch.stop();
-        return eligibleBeanDefinitionsMap;
+        return eligibleBeanDefinition;
     }
 
     /**
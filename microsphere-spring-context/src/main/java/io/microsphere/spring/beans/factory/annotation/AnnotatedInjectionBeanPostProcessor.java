@@ -19,6 +19,7 @@ package io.microsphere.spring.beans.factory.annotation;
 import io.microsphere.annotation.ConfigurationProperty;
 import io.microsphere.annotation.Nullable;
 import io.microsphere.logging.Logger;
+import io.microsphere.spring.util.StripedLruCache;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.PropertyValues;
 import org.springframework.beans.TypeConverter;
@@ -58,13 +59,11 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentMap;
 
 import static io.microsphere.annotation.ConfigurationProperty.SYSTEM_PROPERTIES_SOURCE;
 import static io.microsphere.collection.ListUtils.newArrayList;
 import static io.microsphere.collection.ListUtils.newLinkedList;
 import static io.microsphere.collection.Lists.ofList;
-import static io.microsphere.collection.MapUtils.newConcurrentHashMap;
 import static io.microsphere.collection.SetUtils.newLinkedHashSet;
 import static io.microsphere.logging.LoggerFactory.getLogger;
 import static io.microsphere.reflect.FieldUtils.setFieldValue;
@@ -76,6 +75,7 @@ import static io.microsphere.text.FormatUtils.format;
 import static io.microsphere.util.ArrayUtils.combine;
 import static java.lang.Integer.getInteger;
 import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
 import static java.lang.reflect.Modifier.isStatic;
 import static java.util.Arrays.copyOf;
 import static java.util.Collections.unmodifiableCollection;
@@ -107,7 +107,10 @@ import static org.springframework.util.StringUtils.hasLength;
  *             <li>{@link #setTryMergedAnnotation(boolean)}: Whether to attempt resolving merged annotations.</li>
  *         </ul>
  *     </li>
- *     <li><b>Caching Mechanism</b>: Metadata such as injection points and constructor information is cached to improve performance.</li>
+ *     <li><b>Caching Mechanism</b>: Metadata such as injection points and constructor information is cached in the
+ *     bounded {@link StripedLruCache caches} to improve performance, their hits, misses and evictions are recorded.</li>
+ *     <li><b>Build-time Index</b>: The members not recorded in the {@link InjectionMetadataIndex} generated by
+ *     {@link InjectionMetadataIndexProcessor} are skipped, the classes absent in the index fall back to the reflection.</li>
  *     <li><b>Integration with Spring Container</b>: Implements various Spring extension interfaces like
  *         {@link MergedBeanDefinitionPostProcessor}, {@link BeanFactoryAware}, and {@link EnvironmentAware}.</li>
  * </ul>
@@ -184,13 +187,38 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
     )
     public final static int CACHE_SIZE = getInteger(CACHE_SIZE_PROPERTY_NAME, DEFAULT_CACHE_SIZE);
 
+    /**
+     * The property name of metadata cache max size : "microsphere.spring.injection.metadata.cache.max-size"
+     */
+    public static final String CACHE_MAX_SIZE_PROPERTY_NAME = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "injection.metadata.cache.max-size";
+
+    /**
+     * The default max size of metadata cache : "4096"
+     */
+    public static final String DEFAULT_CACHE_MAX_SIZE_PROPERTY_VALUE = "4096";
+
+    /**
+     * The default max size of metadata cache
+     */
+    public static final int DEFAULT_CACHE_MAX_SIZE = parseInt(DEFAULT_CACHE_MAX_SIZE_PROPERTY_VALUE);
+
+    @ConfigurationProperty(
+            name = CACHE_MAX_SIZE_PROPERTY_NAME,
+            defaultValue = DEFAULT_CACHE_MAX_SIZE_PROPERTY_VALUE,
+            description = "The max size of metadata cache, the least recently used entries will be evicted if exceeded",
+            source = SYSTEM_PROPERTIES_SOURCE
+    )
+    public final static int CACHE_MAX_SIZE = getInteger(CACHE_MAX_SIZE_PROPERTY_NAME, DEFAULT_CACHE_MAX_SIZE);
+
     private final Logger logger = getLogger(getClass());
 
     private final Collection<Class<? extends Annotation>> annotationTypes;
 
-    private ConcurrentMap<Class<?>, Constructor<?>[]> candidateConstructorsCache;
+    private StripedLruCache<Class<?>, Constructor<?>[]> candidateConstructorsCache;
 
-    private ConcurrentMap<String, InjectionMetadata> injectionMetadataCache;
+    private StripedLruCache<String, InjectionMetadata> injectionMetadataCache;
+
+    private InjectionMetadataIndex injectionMetadataIndex = new InjectionMetadataIndex();
 
     private ConfigurableListableBeanFactory beanFactory;
 
@@ -230,6 +258,11 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
      */
     private int cacheSize;
 
+    /**
+     * The max size of cache
+     */
+    private int cacheMaxSize;
+
     /**
      * @param annotationType the single type of {@link Annotation annotation}
      */
@@ -249,6 +282,7 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
         setIgnoreDefaultValue(true);
         setTryMergedAnnotation(true);
         setCacheSize(CACHE_SIZE);
+        setCacheMaxSize(CACHE_MAX_SIZE);
     }
 
     /**
@@ -276,95 +310,92 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
      */
     @Override
     public final Constructor<?>[] determineCandidateConstructors(Class<?> beanClass, String beanName) throws BeansException {
-        Constructor<?>[] candidateConstructors = this.candidateConstructorsCache.get(beanClass);
-        if (candidateConstructors == null) {
-            // Fully synchronized resolution now...
-            synchronized (this.candidateConstructorsCache) {
-                candidateConstructors = this.candidateConstructorsCache.get(beanClass);
-                if (candidateConstructors == null) {
-                    Constructor<?>[] rawCandidates;
+        Constructor<?>[] candidateConstructors = this.candidateConstructorsCache.computeIfAbsent(beanClass,
+                type -> resolveCandidateConstructors(type, beanName));
+        return (candidateConstructors.length > 0 ? candidateConstructors : null);
+    }
+
+    private Constructor<?>[] resolveCandidateConstructors(Class<?> beanClass, String beanName) throws BeansException {
+        Constructor<?>[] candidateConstructors;
+        Constructor<?>[] rawCandidates;
+        try {
+            rawCandidates = beanClass.getDeclaredConstructors();
+        } catch (Throwable ex) {
+            throw new BeanCreationException(beanName,
+                    "Resolution of declared constructors on bean Class [" + beanClass.getName() +
+                            "] from ClassLoader [" + beanClass.getClassLoader() + "] failed", ex);
+        }
+        List<Constructor<?>> candidates = newArrayList(rawCandidates.length);
+        Constructor<?> requiredConstructor = null;
+        Constructor<?> defaultConstructor = null;
+        Constructor<?> primaryConstructor = findPrimaryConstructor(beanClass);
+        int nonSyntheticConstructors = 0;
+        for (Constructor<?> candidate : rawCandidates) {
+            if (!candidate.isSynthetic()) {
+                nonSyntheticConstructors++;
+            } else if (primaryConstructor != null) {
+                continue;
+            }
+            AnnotationAttributes ann = findCandidateInjectionAnnotationAttributes(candidate);
+            if (ann == null) {
+                Class<?> userClass = getUserClass(beanClass);
+                if (userClass != beanClass) {
                     try {
-                        rawCandidates = beanClass.getDeclaredConstructors();
-                    } catch (Throwable ex) {
-                        throw new BeanCreationException(beanName,
-                                "Resolution of declared constructors on bean Class [" + beanClass.getName() +
-                                        "] from ClassLoader [" + beanClass.getClassLoader() + "] failed", ex);
-                    }
-                    List<Constructor<?>> candidates = newArrayList(rawCandidates.length);
-                    Constructor<?> requiredConstructor = null;
-                    Constructor<?> defaultConstructor = null;
-                    Constructor<?> primaryConstructor = findPrimaryConstructor(beanClass);
-                    int nonSyntheticConstructors = 0;
-                    for (Constructor<?> candidate : rawCandidates) {
-                        if (!candidate.isSynthetic()) {
-                            nonSyntheticConstructors++;
-                        } else if (primaryConstructor != null) {
-                            continue;
-                        }
-                        AnnotationAttributes ann = findInjectionAnnotationAttributes(candidate);
-                        if (ann == null) {
-                            Class<?> userClass = getUserClass(beanClass);
-                            if (userClass != beanClass) {
-                                try {
-                                    Constructor<?> superCtor = userClass.getDeclaredConstructor(candidate.getParameterTypes());
-                                    ann = findInjectionAnnotationAttributes(superCtor);
-                                } catch (NoSuchMethodException ex) {
-                                    // Simply proceed, no equivalent superclass constructor found...
-                                }
-                            }
-                        }
-                        if (ann != null) {
-                            if (requiredConstructor != null) {
-                                String message = format("Invalid injection constructors: {}. "
-                                                + "Found constructor with 'required' @{} annotation already: {}"
-                                        , candidate, ann.annotationType().getName(), requiredConstructor);
-                                throw new BeanCreationException(message);
-                            }
-                            boolean required = determineRequiredStatus(ann);
-                            if (required) {
-                                if (!candidates.isEmpty()) {
-                                    throw new BeanCreationException(beanName,
-                                            "Invalid injection constructors: " + candidates +
-                                                    ". Found constructor with 'required' Autowired annotation: " +
-                                                    candidate);
-                                }
-                                requiredConstructor = candidate;
-                            }
-                            candidates.add(candidate);
-                        } else if (candidate.getParameterCount() == 0) {
-                            defaultConstructor = candidate;
-                        }
+                        Constructor<?> superCtor = userClass.getDeclaredConstructor(candidate.getParameterTypes());
+                        ann = findCandidateInjectionAnnotationAttributes(superCtor);
+                    } catch (NoSuchMethodException ex) {
+                        // Simply proceed, no equivalent superclass constructor found...
                     }
+                }
+            }
+            if (ann != null) {
+                if (requiredConstructor != null) {
+                    String message = format("Invalid injection constructors: {}. "
+                                    + "Found constructor with 'required' @{} annotation already: {}"
+                            , candidate, ann.annotationType().getName(), requiredConstructor);
+                    throw new BeanCreationException(message);
+                }
+                boolean required = determineRequiredStatus(ann);
+                if (required) {
                     if (!candidates.isEmpty()) {
-                        // Add default constructor to list of optional constructors, as fallback.
-                        if (requiredConstructor == null) {
-                            if (defaultConstructor != null) {
-                                candidates.add(defaultConstructor);
-                            } else if (candidates.size() == 1) {
-                                if (logger.isInfoEnabled()) {
-                                    logger.info("Inconsistent constructor declaration on bean with name '{}': " +
-                                            "single injection constructor flagged as optional - " +
-                                            "this constructor is effectively required since there is no " +
-                                            "default constructor to fall back to: {}", beanName, candidates.get(0));
-                                }
-                            }
-                        }
-                        candidateConstructors = candidates.toArray(new Constructor<?>[0]);
-                    } else if (rawCandidates.length == 1 && rawCandidates[0].getParameterCount() > 0) {
-                        candidateConstructors = new Constructor<?>[]{rawCandidates[0]};
-                    } else if (nonSyntheticConstructors == 2 && primaryConstructor != null &&
-                            defaultConstructor != null && !primaryConstructor.equals(defaultConstructor)) {
-                        candidateConstructors = new Constructor<?>[]{primaryConstructor, defaultConstructor};
-                    } else if (nonSyntheticConstructors == 1 && primaryConstructor != null) {
-                        candidateConstructors = new Constructor<?>[]{primaryConstructor};
-                    } else {
-                        candidateConstructors = new Constructor<?>[0];
+                        throw new BeanCreationException(beanName,
+                                "Invalid injection constructors: " + candidates +
+                                        ". Found constructor with 'required' Autowired annotation: " +
+                                        candidate);
                     }
-                    this.candidateConstructorsCache.put(beanClass, candidateConstructors);
+                    requiredConstructor = candidate;
                 }
+                candidates.add(candidate);
+            } else if (candidate.getParameterCount() == 0) {
+                defaultConstructor = candidate;
             }
         }
-        return (candidateConstructors.length > 0 ? candidateConstructors : null);
+        if (!candidates.isEmpty()) {
+            // Add default constructor to list of optional constructors, as fallback.
+            if (requiredConstructor == null) {
+                if (defaultConstructor != null) {
+                    candidates.add(defaultConstructor);
+                } else if (candidates.size() == 1) {
+                    if (logger.isInfoEnabled()) {
+                        logger.info("Inconsistent constructor declaration on bean with name '{}': " +
+                                "single injection constructor flagged as optional - " +
+                                "this constructor is effectively required since there is no " +
+                                "default constructor to fall back to: {}", beanName, candidates.get(0));
+                    }
+                }
+            }
+            candidateConstructors = candidates.toArray(new Constructor<?>[0]);
+        } else if (rawCandidates.length == 1 && rawCandidates[0].getParameterCount() > 0) {
+            candidateConstructors = new Constructor<?>[]{rawCandidates[0]};
+        } else if (nonSyntheticConstructors == 2 && primaryConstructor != null &&
+                defaultConstructor != null && !primaryConstructor.equals(defaultConstructor)) {
+            candidateConstructors = new Constructor<?>[]{primaryConstructor, defaultConstructor};
+        } else if (nonSyntheticConstructors == 1 && primaryConstructor != null) {
+            candidateConstructors = new Constructor<?>[]{primaryConstructor};
+        } else {
+            candidateConstructors = new Constructor<?>[0];
+        }
+        return candidateConstructors;
     }
 
     /**
@@ -427,6 +458,11 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
 
         final List<AnnotatedFieldElement> elements = newLinkedList();
 
+        InjectionMetadataIndex index = this.injectionMetadataIndex;
+        if (index.hasNoAnnotatedFieldsAndMethods(beanClass)) {
+            return elements;
+        }
+
         doWithFields(beanClass, field -> {
             for (Class<? extends Annotation> annotationType : getAnnotationTypes()) {
                 AnnotationAttributes attributes = doGetAnnotationAttributes(field, annotationType);
@@ -441,7 +477,7 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
                     elements.add(new AnnotatedFieldElement(field, attributes, required));
                 }
             }
-        });
+        }, index::isCandidate);
 
         return elements;
     }
@@ -466,6 +502,11 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
 
         final List<AnnotatedMethodElement> elements = newArrayList();
 
+        InjectionMetadataIndex index = this.injectionMetadataIndex;
+        if (index.hasNoAnnotatedFieldsAndMethods(beanClass)) {
+            return elements;
+        }
+
         doWithMethods(beanClass, method -> {
             Method bridgedMethod = findBridgedMethod(method);
             if (!isVisibilityBridgeMethodPair(method, bridgedMethod)) {
@@ -490,10 +531,14 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
                     elements.add(new AnnotatedMethodElement(method, pd, attributes, required));
                 }
             }
-        });
+        }, method -> index.isCandidate(findBridgedMethod(method)));
         return elements;
     }
 
+    private AnnotationAttributes findCandidateInjectionAnnotationAttributes(Constructor<?> constructor) {
+        return injectionMetadataIndex.isCandidate(constructor) ? findInjectionAnnotationAttributes(constructor) : null;
+    }
+
     protected final AnnotationAttributes findInjectionAnnotationAttributes(AnnotatedElement annotatedElement) {
         AnnotationAttributes annotationAttributes = null;
         for (Class<? extends Annotation> annotationType : getAnnotationTypes()) {
@@ -528,25 +573,17 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
     private InjectionMetadata findInjectionMetadata(String beanName, Class<?> clazz, PropertyValues pvs) {
         // Fall back to class name as cache key, for backwards compatibility with custom callers.
         String cacheKey = (hasLength(beanName) ? beanName : clazz.getName());
-        // Quick check on the concurrent map first, with minimal locking.
-        InjectionMetadata metadata = this.injectionMetadataCache.get(cacheKey);
-        if (needsRefresh(metadata, clazz)) {
-            synchronized (this.injectionMetadataCache) {
-                metadata = this.injectionMetadataCache.get(cacheKey);
-                if (needsRefresh(metadata, clazz)) {
-                    if (metadata != null) {
-                        metadata.clear(pvs);
-                    }
-                    try {
-                        metadata = buildAnnotatedMetadata(clazz);
-                        this.injectionMetadataCache.put(cacheKey, metadata);
-                    } catch (NoClassDefFoundError err) {
-                        throw new IllegalStateException("Failed to introspect object class [" + clazz.getName() + "] for annotation metadata: could not find class that it depends on", err);
-                    }
-                }
+        // Only the computations of the same key are serialized
+        return this.injectionMetadataCache.computeIfStale(cacheKey, metadata -> needsRefresh(metadata, clazz), (key, metadata) -> {
+            if (metadata != null) {
+                metadata.clear(pvs);
             }
-        }
-        return metadata;
+            try {
+                return buildAnnotatedMetadata(clazz);
+            } catch (NoClassDefFoundError err) {
+                throw new IllegalStateException("Failed to introspect object class [" + clazz.getName() + "] for annotation metadata: could not find class that it depends on", err);
+            }
+        });
     }
 
     @Override
@@ -623,14 +660,29 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
         this.cacheSize = cacheSize;
     }
 
+    /**
+     * Set the max size of cache, the least recently used entries will be evicted if exceeded
+     *
+     * @param cacheMaxSize the max size of cache
+     */
+    public final void setCacheMaxSize(int cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
     @Override
     public void afterPropertiesSet() {
-        this.candidateConstructorsCache = newConcurrentHashMap(cacheSize);
-        this.injectionMetadataCache = newConcurrentHashMap(cacheSize);
+        int maxSize = max(1, max(cacheSize, cacheMaxSize));
+        this.candidateConstructorsCache = new StripedLruCache<>(cacheSize, maxSize);
+        this.injectionMetadataCache = new StripedLruCache<>(cacheSize, maxSize);
+        this.injectionMetadataIndex = InjectionMetadataIndex.load(classLoader);
     }
 
     @Override
     public void destroy() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("The injection metadata cache : {} , the candidate constructors cache : {}", injectionMetadataCache,
+                    candidateConstructorsCache);
+        }
         candidateConstructorsCache.clear();
         injectionMetadataCache.clear();
         if (logger.isInfoEnabled()) {
@@ -731,6 +783,24 @@ public class AnnotatedInjectionBeanPostProcessor implements SmartInstantiationAw
         return beanFactory;
     }
 
+    /**
+     * Get the cache of {@link InjectionMetadata} keyed by the bean name, whose statistics are available for monitoring
+     *
+     * @return <code>null</code> if {@link #afterPropertiesSet()} is not invoked
+     */
+    public final StripedLruCache<String, InjectionMetadata> getInjectionMetadataCache() {
+        return injectionMetadataCache;
+    }
+
+    /**
+     * Get the cache of candidate constructors keyed by the bean class, whose statistics are available for monitoring
+     *
+     * @return <code>null</code> if {@link #afterPropertiesSet()} is not invoked
+     */
+    public final StripedLruCache<Class<?>, Constructor<?>[]> getCandidateConstructorsCache() {
+        return candidateConstructorsCache;
+    }
+
     /**
      * Annotation {@link InjectedElement}
      *
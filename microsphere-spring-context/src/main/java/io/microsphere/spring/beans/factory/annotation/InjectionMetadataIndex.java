@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory.annotation;
+
+import io.microsphere.annotation.Nonnull;
+import io.microsphere.annotation.Nullable;
+import io.microsphere.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.collection.SetUtils.newHashSet;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.util.ClassUtils.getDefaultClassLoader;
+import static org.springframework.util.StringUtils.delimitedListToStringArray;
+
+/**
+ * The index of the annotated fields, methods and constructors per class, which is generated at build time by
+ * {@link InjectionMetadataIndexProcessor}, and is used by {@link AnnotatedInjectionBeanPostProcessor} to skip the
+ * annotation introspection of the members that are not annotated at all.
+ * <p>
+ * A class present in the index has the complete list of its annotated members, while a class absent in the index
+ * (e.g. compiled without {@link InjectionMetadataIndexProcessor}) falls back to the reflection, thus all of its members
+ * are {@link #isCandidate(Field) candidates}.
+ *
+ * <h3>Index Format</h3>
+ * The index resources are located at {@value #INDEX_RESOURCE_LOCATION}, and all of them in the class path are merged.
+ * Every line is separated by tabs :
+ * <pre>
+ * &lt;class name&gt;
+ * &lt;class name&gt;  F  &lt;field name&gt;
+ * &lt;class name&gt;  M  &lt;method name&gt;  &lt;count of parameters&gt;
+ * &lt;class name&gt;  C  &lt;count of parameters&gt;
+ * </pre>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * InjectionMetadataIndex index = InjectionMetadataIndex.load(classLoader);
+ * if (index.isCandidate(field)) {
+ *     // introspect the annotations of field
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see InjectionMetadataIndexProcessor
+ * @see AnnotatedInjectionBeanPostProcessor
+ * @since 1.0.0
+ */
+public class InjectionMetadataIndex {
+
+    private static final Logger logger = getLogger(InjectionMetadataIndex.class);
+
+    /**
+     * The location of index resources
+     */
+    public static final String INDEX_RESOURCE_LOCATION = "META-INF/microsphere/injection-metadata.index";
+
+    static final String SEPARATOR = "\t";
+
+    static final String FIELD = "F";
+
+    static final String METHOD = "M";
+
+    static final String CONSTRUCTOR = "C";
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private final Map<String, Members> membersMap = newHashMap();
+
+    /**
+     * Load the {@link InjectionMetadataIndex} from the index resources in the class path
+     *
+     * @param classLoader {@link ClassLoader}, the default {@link ClassLoader} will be used if <code>null</code>
+     * @return non-null {@link InjectionMetadataIndex}, it's empty if no index resource was found
+     */
+    @Nonnull
+    public static InjectionMetadataIndex load(@Nullable ClassLoader classLoader) {
+        InjectionMetadataIndex index = new InjectionMetadataIndex();
+        ClassLoader targetClassLoader = classLoader == null ? getDefaultClassLoader() : classLoader;
+        if (targetClassLoader == null) {
+            return index;
+        }
+        try {
+            Enumeration<URL> resources = targetClassLoader.getResources(INDEX_RESOURCE_LOCATION);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                try (Reader reader = new InputStreamReader(resource.openStream(), UTF_8)) {
+                    index.read(reader);
+                }
+            }
+        } catch (IOException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The injection metadata index resources['{}'] can't be loaded, the reflection will be used",
+                        INDEX_RESOURCE_LOCATION, e);
+            }
+            index.membersMap.clear();
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("The injection metadata index of {} classes was loaded", index.membersMap.size());
+        }
+        return index;
+    }
+
+    void read(Reader reader) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            String[] columns = delimitedListToStringArray(line, SEPARATOR);
+            Members members = membersMap.computeIfAbsent(columns[0], className -> new Members());
+            if (columns.length < 3) {
+                continue;
+            }
+            String kind = columns[1];
+            if (FIELD.equals(kind)) {
+                members.fieldNames.add(columns[2]);
+            } else if (METHOD.equals(kind) && columns.length > 3) {
+                members.methodKeys.add(methodKey(columns[2], Integer.parseInt(columns[3])));
+            } else if (CONSTRUCTOR.equals(kind)) {
+                members.constructorParameterCounts.add(Integer.valueOf(columns[2]));
+            }
+        }
+    }
+
+    /**
+     * Is the index empty or not
+     *
+     * @return <code>true</code> if no class was indexed
+     */
+    public boolean isEmpty() {
+        return membersMap.isEmpty();
+    }
+
+    /**
+     * Is the specified class indexed or not
+     *
+     * @param type the class
+     * @return <code>true</code> if indexed
+     */
+    public boolean isIndexed(Class<?> type) {
+        return membersMap.containsKey(type.getName());
+    }
+
+    /**
+     * Whether the specified class and its super classes and interfaces are all indexed without any annotated field
+     * or method, if <code>true</code>, the introspection of the members could be skipped completely.
+     *
+     * @param type the class
+     * @return <code>true</code> if no annotated field or method
+     */
+    public boolean hasNoAnnotatedFieldsAndMethods(Class<?> type) {
+        if (isEmpty()) {
+            return false;
+        }
+        Class<?> targetType = type;
+        while (targetType != null && targetType != Object.class) {
+            Members members = membersMap.get(targetType.getName());
+            if (members == null || !members.fieldNames.isEmpty() || !members.methodKeys.isEmpty()) {
+                return false;
+            }
+            for (Class<?> interfaceType : targetType.getInterfaces()) {
+                if (!hasNoAnnotatedFieldsAndMethods(interfaceType)) {
+                    return false;
+                }
+            }
+            targetType = targetType.getSuperclass();
+        }
+        return true;
+    }
+
+    /**
+     * Whether the specified {@link Field field} may be annotated
+     *
+     * @param field {@link Field}
+     * @return <code>false</code> if its declaring class is indexed, but it's not annotated
+     */
+    public boolean isCandidate(Field field) {
+        Members members = membersMap.get(field.getDeclaringClass().getName());
+        return members == null || members.fieldNames.contains(field.getName());
+    }
+
+    /**
+     * Whether the specified {@link Method method} may be annotated
+     *
+     * @param method {@link Method}
+     * @return <code>false</code> if its declaring class is indexed, but it's not annotated
+     */
+    public boolean isCandidate(Method method) {
+        Members members = membersMap.get(method.getDeclaringClass().getName());
+        return members == null || members.methodKeys.contains(methodKey(method.getName(), method.getParameterCount()));
+    }
+
+    /**
+     * Whether the specified {@link Constructor constructor} may be annotated
+     *
+     * @param constructor {@link Constructor}
+     * @return <code>false</code> if its declaring class is indexed, but it's not annotated
+     */
+    public boolean isCandidate(Constructor<?> constructor) {
+        Members members = membersMap.get(constructor.getDeclaringClass().getName());
+        return members == null || members.constructorParameterCounts.contains(constructor.getParameterCount());
+    }
+
+    static String methodKey(String methodName, int parameterCount) {
+        return methodName + SEPARATOR + parameterCount;
+    }
+
+    @Override
+    public String toString() {
+        return "InjectionMetadataIndex{classes=" + membersMap.size() + '}';
+    }
+
+    /**
+     * The annotated members of a class
+     */
+    private static class Members {
+
+        private final Set<String> fieldNames = newHashSet(4);
+
+        private final Set<String> methodKeys = newHashSet(4);
+
+        private final Set<Integer> constructorParameterCounts = newHashSet(4);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory.annotation;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.FileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.util.List;
+import java.util.Set;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static io.microsphere.spring.beans.factory.annotation.InjectionMetadataIndex.CONSTRUCTOR;
+import static io.microsphere.spring.beans.factory.annotation.InjectionMetadataIndex.FIELD;
+import static io.microsphere.spring.beans.factory.annotation.InjectionMetadataIndex.INDEX_RESOURCE_LOCATION;
+import static io.microsphere.spring.beans.factory.annotation.InjectionMetadataIndex.METHOD;
+import static io.microsphere.spring.beans.factory.annotation.InjectionMetadataIndex.SEPARATOR;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static javax.tools.Diagnostic.Kind.WARNING;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+
+/**
+ * The annotation processor generates the {@link InjectionMetadataIndex} at build time, which records the fields,
+ * methods and constructors annotated by any runtime-visible annotation for every class being compiled, thus
+ * {@link AnnotatedInjectionBeanPostProcessor} introspects the annotations of the recorded members only, no matter
+ * what the injection annotation types (e.g. Guice {@code @Inject}, the custom annotations) are.
+ * <p>
+ * The processor does not claim any annotation, and it's not registered as a service in order not to be applied to
+ * all compilations implicitly, so it should be declared explicitly :
+ * <pre>{@code
+ * <plugin>
+ *     <groupId>org.apache.maven.plugins</groupId>
+ *     <artifactId>maven-compiler-plugin</artifactId>
+ *     <configuration>
+ *         <annotationProcessors>
+ *             <annotationProcessor>io.microsphere.spring.beans.factory.annotation.InjectionMetadataIndexProcessor</annotationProcessor>
+ *         </annotationProcessors>
+ *     </configuration>
+ * </plugin>
+ * }</pre>
+ * The index only covers the classes of the current compilation, the others fall back to the reflection.
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see InjectionMetadataIndex
+ * @see AnnotatedInjectionBeanPostProcessor
+ * @since 1.0.0
+ */
+@SupportedAnnotationTypes("*")
+public class InjectionMetadataIndexProcessor extends AbstractProcessor {
+
+    private final List<String> lines = newArrayList();
+
+    private final Set<String> processedClassNames = newLinkedHashSet();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (Element element : roundEnv.getRootElements()) {
+                if (element instanceof TypeElement) {
+                    processType((TypeElement) element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        if (!processedClassNames.add(className)) {
+            return;
+        }
+        lines.add(className);
+        for (Element member : type.getEnclosedElements()) {
+            ElementKind kind = member.getKind();
+            if (member instanceof TypeElement) {
+                processType((TypeElement) member);
+            } else if (!hasRuntimeAnnotation(member)) {
+                continue;
+            } else if (kind == ElementKind.FIELD) {
+                lines.add(className + SEPARATOR + FIELD + SEPARATOR + member.getSimpleName());
+            } else if (kind == ElementKind.METHOD) {
+                int parameterCount = ((ExecutableElement) member).getParameters().size();
+                lines.add(className + SEPARATOR + METHOD + SEPARATOR + member.getSimpleName() + SEPARATOR + parameterCount);
+            } else if (kind == ElementKind.CONSTRUCTOR) {
+                int parameterCount = ((ExecutableElement) member).getParameters().size();
+                lines.add(className + SEPARATOR + CONSTRUCTOR + SEPARATOR + parameterCount);
+            }
+        }
+    }
+
+    private boolean hasRuntimeAnnotation(Element member) {
+        for (AnnotationMirror annotationMirror : member.getAnnotationMirrors()) {
+            Element annotationType = annotationMirror.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if (retention != null && retention.value() == RUNTIME) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(CLASS_OUTPUT, "", INDEX_RESOURCE_LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by " + getClass().getName());
+                writer.write('\n');
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            processingEnv.getMessager().printMessage(WARNING, "The injection metadata index can't be written : " + e.getMessage());
+        }
+    }
+}
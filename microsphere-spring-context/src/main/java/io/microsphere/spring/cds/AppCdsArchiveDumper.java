@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.cds;
+
+import io.microsphere.annotation.Nonnull;
+import io.microsphere.util.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static java.io.File.pathSeparator;
+import static java.io.File.separator;
+import static java.lang.System.getProperty;
+
+/**
+ * The helper to dump the AppCDS archive from the class list recorded by {@link AppCdsTrainingListener}, it launches a
+ * JVM of the current {@code java.home} :
+ * <pre>
+ * java -Xshare:dump -XX:SharedClassListFile=&lt;class list&gt; -XX:SharedArchiveFile=&lt;archive&gt; -cp &lt;class path&gt;
+ * </pre>
+ * The class path must be the same as (or a prefix of) the one of the production boots, otherwise the archive will be
+ * rejected by the JVM. Since {@code -Xshare:dump} only archives the classes from JAR files and fails on the non-empty
+ * directories, the class path must consist of JAR files (or empty directories), otherwise an
+ * {@link IllegalArgumentException} naming the offending directories will be thrown before the dumping, e.g. the
+ * exploded "classes" directory of the build should be packaged into a JAR file.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>
+ * java -cp app.jar io.microsphere.spring.cds.AppCdsArchiveDumper classes.lst app.jsa [class path]
+ * </pre>
+ * or
+ * <pre>{@code
+ * int exitCode = AppCdsArchiveDumper.dump(new File("classes.lst"), new File("app.jsa"));
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AppCdsTrainingListener
+ * @since 1.0.0
+ */
+public abstract class AppCdsArchiveDumper implements Utils {
+
+    /**
+     * Dump the AppCDS archive with the class path of current JVM
+     *
+     * @param classListFile the class list file
+     * @param archiveFile   the archive file to be dumped
+     * @return the exit code of the dumping process, 0 if succeeded
+     * @throws IOException              if the process can't be started
+     * @throws InterruptedException     if the current thread is interrupted while waiting
+     * @throws IllegalArgumentException if any entry of class path is a non-empty directory
+     */
+    public static int dump(File classListFile, File archiveFile) throws IOException, InterruptedException {
+        return dump(classListFile, archiveFile, getProperty("java.class.path"));
+    }
+
+    /**
+     * Dump the AppCDS archive
+     *
+     * @param classListFile the class list file
+     * @param archiveFile   the archive file to be dumped
+     * @param classPath     the class path of the application
+     * @return the exit code of the dumping process, 0 if succeeded
+     * @throws IOException              if the process can't be started
+     * @throws InterruptedException     if the current thread is interrupted while waiting
+     * @throws IllegalArgumentException if any entry of class path is a non-empty directory
+     */
+    public static int dump(File classListFile, File archiveFile, String classPath) throws IOException, InterruptedException {
+        List<String> command = buildCommand(classListFile, archiveFile, classPath);
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        return process.waitFor();
+    }
+
+    /**
+     * Build the command to dump the AppCDS archive
+     *
+     * @param classListFile the class list file
+     * @param archiveFile   the archive file to be dumped
+     * @param classPath     the class path of the application
+     * @return non-null
+     * @throws IllegalArgumentException if any entry of class path is a non-empty directory
+     */
+    @Nonnull
+    public static List<String> buildCommand(File classListFile, File archiveFile, String classPath) throws IllegalArgumentException {
+        validateClassPath(classPath);
+        List<String> command = newArrayList(6);
+        command.add(getProperty("java.home") + separator + "bin" + separator + "java");
+        command.add("-Xshare:dump");
+        command.add("-XX:SharedClassListFile=" + classListFile.getAbsolutePath());
+        command.add("-XX:SharedArchiveFile=" + archiveFile.getAbsolutePath());
+        command.add("-cp");
+        command.add(classPath);
+        return command;
+    }
+
+    /**
+     * Validate the class path for the AppCDS dumping, the non-empty directories are not supported by
+     * {@code -Xshare:dump}, and they can't be removed since the class path of dumping must match the one of runtime
+     *
+     * @param classPath the class path of the application
+     * @throws IllegalArgumentException if any entry of class path is a non-empty directory
+     */
+    static void validateClassPath(String classPath) throws IllegalArgumentException {
+        if (classPath == null || classPath.isEmpty()) {
+            return;
+        }
+        List<String> directories = newArrayList();
+        for (String entry : classPath.split(pathSeparator)) {
+            if (isNonEmptyDirectory(new File(entry))) {
+                directories.add(entry);
+            }
+        }
+        if (!directories.isEmpty()) {
+            throw new IllegalArgumentException("The class path entries " + directories + " are non-empty directories " +
+                    "that are not supported by the AppCDS dumping, they should be packaged into JAR files");
+        }
+    }
+
+    private static boolean isNonEmptyDirectory(File file) {
+        String[] names = file.isDirectory() ? file.list() : null;
+        return names != null && names.length > 0;
+    }
+
+    /**
+     * The entry to dump the AppCDS archive
+     *
+     * @param args the class list file, the archive file and the optional class path
+     * @throws Exception if failed
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage : java " + AppCdsArchiveDumper.class.getName() + " <class list file> <archive file> [class path]");
+            System.exit(1);
+        }
+        File classListFile = new File(args[0]);
+        File archiveFile = new File(args[1]);
+        int exitCode = args.length > 2 ? dump(classListFile, archiveFile, args[2]) : dump(classListFile, archiveFile);
+        System.exit(exitCode);
+    }
+
+    private AppCdsArchiveDumper() {
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.cds;
+
+import io.microsphere.annotation.ConfigurationProperty;
+import io.microsphere.annotation.Nonnull;
+import io.microsphere.logging.Logger;
+import io.microsphere.spring.context.event.BeanFactoryListenerAdapter;
+import io.microsphere.spring.context.event.BeanListenerAdapter;
+import io.microsphere.spring.context.event.OnceApplicationContextEventListener;
+import io.microsphere.spring.core.env.EnvironmentUtils;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedClassLoader;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
+import static io.microsphere.spring.core.env.EnvironmentUtils.resolveApplicationFile;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.ClassLoader.getPlatformClassLoader;
+import static java.lang.ClassLoader.getSystemClassLoader;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * The listener records the classes loaded during the refresh of {@link org.springframework.context.ApplicationContext}
+ * in the AppCDS training mode, and writes them into a class list file for the JVM option
+ * {@code -XX:SharedClassListFile}.
+ * <p>
+ * The classes are collected from :
+ * <ul>
+ *     <li>{@link io.microsphere.spring.context.event.BeanFactoryListener} : the classes of all bean definitions when the
+ *     configuration is frozen</li>
+ *     <li>{@link io.microsphere.spring.context.event.BeanListener} : the classes of the instantiated beans and their
+ *     super types</li>
+ *     <li>The class loaders : all classes loaded since this bean is initialized, which are recorded by the JFR event
+ *     "{@value #CLASS_LOAD_EVENT_NAME}"</li>
+ * </ul>
+ * Only the classes defined by the built-in class loaders (boot, platform and app) are written, because the others,
+ * e.g. the generated proxies, the lambdas and the classes of the custom class loaders, can't be archived from a
+ * class list. The archive can be dumped by {@link AppCdsArchiveDumper} after the training run.
+ * <p>
+ * The training mode is disabled by default, it's enabled by the property {@value #TRAINING_ENABLED_PROPERTY_NAME}.
+ *
+ * <h3>Configuration Properties</h3>
+ *
+ * <dl>
+ *     <dt>{@value #TRAINING_ENABLED_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         Whether to enable the training mode. Default is {@value #DEFAULT_TRAINING_ENABLED}.
+ *     </dd>
+ *
+ *     <dt>{@value #CLASS_LIST_FILE_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The path of the class list file. Default is the file named {@value #DEFAULT_CLASS_LIST_FILE} in the
+ *         {@link EnvironmentUtils#getApplicationTempDirectory(Environment) temporary directory of the application}
+ *     </dd>
+ * </dl>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Configuration
+ * @Import(AppCdsTrainingListener.class)
+ * public class AppConfig {
+ * }
+ * }</pre>
+ * The training run :
+ * <pre>
+ * java -Dmicrosphere.spring.cds.training.enabled=true -Dmicrosphere.spring.cds.training.class-list.file=classes.lst -cp app.jar com.acme.Application
+ * java -cp app.jar io.microsphere.spring.cds.AppCdsArchiveDumper classes.lst app.jsa
+ * </pre>
+ * The production boot :
+ * <pre>
+ * java -XX:SharedArchiveFile=app.jsa -cp app.jar com.acme.Application
+ * </pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AppCdsArchiveDumper
+ * @see io.microsphere.spring.context.event.BeanListener
+ * @see io.microsphere.spring.context.event.BeanFactoryListener
+ * @since 1.0.0
+ */
+public class AppCdsTrainingListener extends OnceApplicationContextEventListener<ContextRefreshedEvent> implements
+        BeanListenerAdapter, BeanFactoryListenerAdapter, EnvironmentAware, InitializingBean, DisposableBean {
+
+    private static final Logger logger = getLogger(AppCdsTrainingListener.class);
+
+    /**
+     * The prefix of the property for {@link AppCdsTrainingListener} : "microsphere.spring.cds.training."
+     */
+    private static final String PROPERTY_NAME_PREFIX = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "cds.training.";
+
+    /**
+     * The default value of whether to enable the training mode
+     */
+    public static final String DEFAULT_TRAINING_ENABLED = "false";
+
+    /**
+     * The property name of whether to enable the training mode
+     */
+    @ConfigurationProperty(
+            type = boolean.class,
+            defaultValue = DEFAULT_TRAINING_ENABLED,
+            description = "whether to enable the AppCDS training mode",
+            source = APPLICATION_SOURCE
+    )
+    public static final String TRAINING_ENABLED_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "enabled";
+
+    /**
+     * The default name of the class list file, which is located in the temporary directory of the application
+     *
+     * @see EnvironmentUtils#getApplicationTempDirectory(Environment)
+     */
+    public static final String DEFAULT_CLASS_LIST_FILE = "classes.lst";
+
+    /**
+     * The property name of the path of the class list file
+     */
+    @ConfigurationProperty(
+            description = "the path of the class list file for the JVM option '-XX:SharedClassListFile', default is the file named '"
+                    + DEFAULT_CLASS_LIST_FILE + "' in the temporary directory of the application",
+            source = APPLICATION_SOURCE
+    )
+    public static final String CLASS_LIST_FILE_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "class-list.file";
+
+    /**
+     * The name of JFR event for the class loading
+     */
+    public static final String CLASS_LOAD_EVENT_NAME = "jdk.ClassLoad";
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private final Set<String> classNames = newLinkedHashSet();
+
+    private Environment environment;
+
+    private volatile boolean enabled;
+
+    private Recording recording;
+
+    @Override
+    public void afterPropertiesSet() {
+        this.enabled = environment.getProperty(TRAINING_ENABLED_PROPERTY_NAME, boolean.class, parseBoolean(DEFAULT_TRAINING_ENABLED));
+        if (enabled) {
+            Recording recording = new Recording();
+            recording.setName("AppCDS-Training");
+            recording.enable(CLASS_LOAD_EVENT_NAME);
+            recording.start();
+            this.recording = recording;
+        }
+    }
+
+    @Override
+    public boolean supports(String beanName) {
+        // the callbacks check whether it's enabled, since the result is cached by the bean name
+        return true;
+    }
+
+    @Override
+    public void onBeanFactoryConfigurationFrozen(ConfigurableListableBeanFactory beanFactory) {
+        if (!enabled) {
+            return;
+        }
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
+            String beanClassName = beanDefinition.getBeanClassName();
+            if (beanClassName != null) {
+                record(beanClassName);
+            }
+        }
+    }
+
+    @Override
+    public void onAfterBeanInstantiated(String beanName, RootBeanDefinition mergedBeanDefinition, Object bean) {
+        if (!enabled || bean == null) {
+            return;
+        }
+        Class<?> type = bean.getClass();
+        while (type != null && type != Object.class) {
+            record(type);
+            for (Class<?> interfaceType : type.getInterfaces()) {
+                record(interfaceType);
+            }
+            type = type.getSuperclass();
+        }
+    }
+
+    @Override
+    protected void onApplicationContextEvent(ContextRefreshedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        recordLoadedClasses();
+        this.enabled = false;
+        List<String> classList = getClassList(event.getApplicationContext().getClassLoader());
+        writeClassList(getClassListFile(), classList);
+    }
+
+    private void recordLoadedClasses() {
+        Recording recording = this.recording;
+        this.recording = null;
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            Path file = Files.createTempFile("microsphere-spring-cds-", ".jfr");
+            try {
+                recording.dump(file);
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    RecordedClass loadedClass = event.getClass("loadedClass");
+                    RecordedClassLoader classLoader = event.getValue("definingClassLoader");
+                    if (loadedClass != null && isBuiltinClassLoader(classLoader)) {
+                        record(loadedClass.getName());
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The loaded classes can't be read from the JFR recording", e);
+            }
+        } finally {
+            recording.close();
+        }
+    }
+
+    static boolean isBuiltinClassLoader(RecordedClassLoader classLoader) {
+        if (classLoader == null) {
+            return true;
+        }
+        String name = classLoader.getName();
+        return "bootstrap".equals(name) || "platform".equals(name) || "app".equals(name);
+    }
+
+    private void record(Class<?> type) {
+        if (isBuiltinClassLoader(type.getClassLoader())) {
+            record(type.getName());
+        }
+    }
+
+    private void record(String className) {
+        if (isArchivable(className)) {
+            synchronized (classNames) {
+                classNames.add(className);
+            }
+        }
+    }
+
+    /**
+     * Get the class list in the format of {@code -XX:SharedClassListFile}, that is, the binary names with the
+     * separator '/'
+     *
+     * @param classLoader the {@link ClassLoader} to resolve the recorded class names
+     * @return non-null
+     */
+    @Nonnull
+    List<String> getClassList(ClassLoader classLoader) {
+        Set<String> classNames;
+        synchronized (this.classNames) {
+            classNames = newLinkedHashSet(this.classNames);
+        }
+        List<String> classList = newArrayList(classNames.size());
+        for (String className : classNames) {
+            if (isBuiltinClass(className, classLoader)) {
+                classList.add(className.replace('.', '/'));
+            }
+        }
+        return classList;
+    }
+
+    private boolean isBuiltinClass(String className, ClassLoader classLoader) {
+        try {
+            Class<?> type = Class.forName(className, false, classLoader);
+            return isBuiltinClassLoader(type.getClassLoader()) && !type.isHidden();
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    static boolean isBuiltinClassLoader(ClassLoader classLoader) {
+        return classLoader == null || classLoader == getSystemClassLoader() || classLoader == getPlatformClassLoader();
+    }
+
+    /**
+     * Is the class archivable from the class list or not, the generated classes (e.g. the lambdas, the hidden classes
+     * and the proxies) are not
+     *
+     * @param className the name of class
+     * @return <code>true</code> if archivable
+     */
+    static boolean isArchivable(String className) {
+        return className != null && !className.startsWith("[") && !className.contains("$$") && !className.contains("+0x")
+                && !className.contains("/0x");
+    }
+
+    private File getClassListFile() {
+        return resolveApplicationFile(environment, CLASS_LIST_FILE_PROPERTY_NAME, DEFAULT_CLASS_LIST_FILE);
+    }
+
+    void writeClassList(File file, List<String> classList) {
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            Files.createDirectories(directory.toPath());
+            Path temp = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+            List<String> lines = newArrayList(classList.size() + 1);
+            lines.add(COMMENT_PREFIX + " The AppCDS class list recorded by " + getClass().getName());
+            lines.addAll(classList);
+            Files.write(temp, lines, UTF_8);
+            try {
+                Files.move(temp, file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temp, file.toPath(), REPLACE_EXISTING);
+            }
+            if (logger.isInfoEnabled()) {
+                logger.info("The AppCDS class list of {} classes was written into the file : {} , the archive could be dumped by {}",
+                        classList.size(), file, AppCdsArchiveDumper.class.getName());
+            }
+        } catch (IOException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The AppCDS class list can't be written into the file : {}", file, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Recording recording = this.recording;
+        if (recording != null) {
+            this.recording = null;
+            recording.close();
+        }
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+}
@@ -16,18 +16,41 @@
  */
 package io.microsphere.spring.context.annotation;
 
+import io.microsphere.annotation.ConfigurationProperty;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.annotation.ScannedGenericBeanDefinition;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.classreading.MetadataReader;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+import static java.util.concurrent.ForkJoinTask.invokeAll;
 import static org.springframework.context.annotation.AnnotationConfigUtils.registerAnnotationConfigProcessors;
+import static org.springframework.core.io.support.ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX;
+import static org.springframework.core.io.support.ResourcePatternUtils.getResourcePatternResolver;
 
 /**
  * A extension class of {@link ClassPathBeanDefinitionScanner} to expose some methods:
@@ -38,6 +61,36 @@ import static org.springframework.context.annotation.AnnotationConfigUtils.regis
  * <p>
  * {@link ExposingClassPathBeanDefinitionScanner} also supports the features from {@link #getRegistry() BeanDefinitionRegistry}
  * and {@link #getSingletonBeanRegistry() SingletonBeanRegistry}
+ * <p>
+ * If the {@link #PARALLEL_ENABLED_PROPERTY_NAME parallel mode} is enabled, the class files of all base packages are
+ * read concurrently in a {@link ForkJoinPool} that is created for every scan and shut down after it, the base packages
+ * and the batches of class files are split into the fork-join tasks. The class files of the incompatible format are
+ * handled as same as the sequential mode, they are ignored if the system property "{@value #IGNORE_CLASS_FORMAT_PROPERTY_NAME}"
+ * is <code>true</code>. The metadata of class files is then filtered sequentially by the caller
+ * thread in the order of base packages and class files, thus the type filters and the {@code @Conditional} conditions
+ * are not required to be thread-safe, and the bean definitions are registered in the same order as the sequential mode
+ * (default). The parallel mode does not apply if the components index ("{@value #COMPONENTS_RESOURCE_LOCATION}") is
+ * present.
+ *
+ * <h3>Configuration Properties</h3>
+ *
+ * <dl>
+ *     <dt>{@value #PARALLEL_ENABLED_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         Whether to scan the candidate components in parallel. Default is <code>false</code>.
+ *     </dd>
+ *
+ *     <dt>{@value #PARALLELISM_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The parallelism of the {@link ForkJoinPool} to scan the candidate components. Default is the number of
+ *         available processors.
+ *     </dd>
+ *
+ *     <dt>{@value #BATCH_SIZE_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The max number of class files to be read in a fork-join task. Default is {@value #DEFAULT_BATCH_SIZE}.
+ *     </dd>
+ * </dl>
  *
  * <h3>Example Usage</h3>
  * <pre>{@code
@@ -62,16 +115,232 @@ import static org.springframework.context.annotation.AnnotationConfigUtils.regis
  */
 public class ExposingClassPathBeanDefinitionScanner extends ClassPathBeanDefinitionScanner {
 
+    /**
+     * The prefix of the property for {@link ExposingClassPathBeanDefinitionScanner} : "microsphere.spring.component-scan."
+     */
+    private static final String PROPERTY_NAME_PREFIX = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "component-scan.";
+
+    private static final String DEFAULT_PARALLEL_ENABLED = "false";
+
+    /**
+     * The property name of whether to scan the candidate components in parallel
+     */
+    @ConfigurationProperty(
+            type = boolean.class,
+            defaultValue = DEFAULT_PARALLEL_ENABLED,
+            description = "whether to scan the candidate components in parallel",
+            source = APPLICATION_SOURCE
+    )
+    public static final String PARALLEL_ENABLED_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "parallel.enabled";
+
+    /**
+     * The default value of whether to scan the candidate components in parallel
+     */
+    public static final boolean DEFAULT_PARALLEL_ENABLED_VALUE = parseBoolean(DEFAULT_PARALLEL_ENABLED);
+
+    /**
+     * The property name of the parallelism of the {@link ForkJoinPool} to scan the candidate components
+     */
+    @ConfigurationProperty(
+            type = int.class,
+            description = "the parallelism of the ForkJoinPool to scan the candidate components, the default value is the number of available processors",
+            source = APPLICATION_SOURCE
+    )
+    public static final String PARALLELISM_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "parallel.parallelism";
+
+    /**
+     * The default max number of class files to be read in a fork-join task
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * The property name of the max number of class files to be read in a fork-join task
+     */
+    @ConfigurationProperty(
+            type = int.class,
+            defaultValue = "" + DEFAULT_BATCH_SIZE,
+            description = "the max number of class files to be read in a fork-join task",
+            source = APPLICATION_SOURCE
+    )
+    public static final String BATCH_SIZE_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "parallel.batch-size";
+
+    /**
+     * The location of the components index generated by "spring-context-indexer"
+     */
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
+
+    /**
+     * The system property name of whether to ignore the class files of the incompatible format during scanning
+     */
+    public static final String IGNORE_CLASS_FORMAT_PROPERTY_NAME = "spring.classformat.ignore";
+
+    /**
+     * The class name of the exception for the incompatible class format, which is present since Spring Framework 6.1.2
+     */
+    private static final String CLASS_FORMAT_EXCEPTION_CLASS_NAME = "org.springframework.core.type.classreading.ClassFormatException";
+
+    private static final boolean IGNORE_CLASS_FORMAT = SpringProperties.getFlag(IGNORE_CLASS_FORMAT_PROPERTY_NAME);
+
+    private static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
+
+    private String resourcePattern = DEFAULT_RESOURCE_PATTERN;
+
+    private boolean parallel;
+
+    private int parallelism;
+
+    private int batchSize;
+
+    /**
+     * The candidate components of base packages that were scanned in parallel
+     */
+    private Map<String, Set<BeanDefinition>> scannedCandidateComponents;
+
     public ExposingClassPathBeanDefinitionScanner(BeanDefinitionRegistry registry, boolean useDefaultFilters,
                                                   Environment environment, ResourceLoader resourceLoader) {
         super(registry, useDefaultFilters, environment);
         setResourceLoader(resourceLoader);
         registerAnnotationConfigProcessors(registry);
+        this.parallel = environment.getProperty(PARALLEL_ENABLED_PROPERTY_NAME, boolean.class, DEFAULT_PARALLEL_ENABLED_VALUE);
+        this.parallelism = environment.getProperty(PARALLELISM_PROPERTY_NAME, int.class, getRuntime().availableProcessors());
+        this.batchSize = environment.getProperty(BATCH_SIZE_PROPERTY_NAME, int.class, DEFAULT_BATCH_SIZE);
     }
 
     @Override
     public Set<BeanDefinitionHolder> doScan(String... basePackages) {
-        return super.doScan(basePackages);
+        if (!isParallel() || hasComponentsIndex()) {
+            return super.doScan(basePackages);
+        }
+        this.scannedCandidateComponents = scanCandidateComponentsInParallel(basePackages);
+        try {
+            // The candidate components are registered sequentially in the order of base packages
+            return super.doScan(basePackages);
+        } finally {
+            this.scannedCandidateComponents = null;
+        }
+    }
+
+    @Override
+    public Set<BeanDefinition> findCandidateComponents(String basePackage) {
+        Map<String, Set<BeanDefinition>> scannedCandidateComponents = this.scannedCandidateComponents;
+        Set<BeanDefinition> candidateComponents = scannedCandidateComponents == null ? null : scannedCandidateComponents.get(basePackage);
+        return candidateComponents == null ? super.findCandidateComponents(basePackage) : candidateComponents;
+    }
+
+    private Map<String, Set<BeanDefinition>> scanCandidateComponentsInParallel(String... basePackages) {
+        int length = basePackages.length;
+        List<ScanTask> scanTasks = newArrayList(length);
+        for (String basePackage : basePackages) {
+            scanTasks.add(new ScanTask(basePackage));
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(max(1, this.parallelism));
+        try {
+            forkJoinPool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(scanTasks);
+                }
+            });
+        } finally {
+            forkJoinPool.shutdown();
+        }
+        // The filters and conditions are evaluated sequentially
+        Map<String, Set<BeanDefinition>> candidateComponentsMap = newHashMap(length);
+        for (ScanTask scanTask : scanTasks) {
+            if (!candidateComponentsMap.containsKey(scanTask.basePackage)) {
+                candidateComponentsMap.put(scanTask.basePackage, scanTask.getCandidateComponents());
+            }
+        }
+        return candidateComponentsMap;
+    }
+
+    private boolean hasComponentsIndex() {
+        ClassLoader classLoader = getResourceLoader().getClassLoader();
+        return classLoader != null && classLoader.getResource(COMPONENTS_RESOURCE_LOCATION) != null;
+    }
+
+    /**
+     * Read the metadata of the class file, it's invoked concurrently
+     *
+     * @param resource the class file
+     * @return <code>null</code> if it's not readable
+     */
+    private MetadataReader readMetadata(Resource resource) {
+        try {
+            return getMetadataReaderFactory().getMetadataReader(resource);
+        } catch (FileNotFoundException e) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("Ignored non-readable " + resource + ": " + e.getMessage());
+            }
+        } catch (Throwable e) {
+            if (!CLASS_FORMAT_EXCEPTION_CLASS_NAME.equals(e.getClass().getName())) {
+                throw new BeanDefinitionStoreException("Failed to read candidate component class: " + resource, e);
+            }
+            if (!IGNORE_CLASS_FORMAT) {
+                throw new BeanDefinitionStoreException("Incompatible class format in " + resource + ": set system property '"
+                        + IGNORE_CLASS_FORMAT_PROPERTY_NAME + "' to 'true' if you mean to ignore such files during classpath scanning", e);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Ignored incompatible class format in " + resource + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Filter the candidate component by the metadata of the class file, it's invoked sequentially
+     *
+     * @param metadataReader the {@link MetadataReader} of the class file
+     * @return <code>null</code> if it's not a candidate component
+     */
+    private BeanDefinition filterCandidateComponent(MetadataReader metadataReader) {
+        Resource resource = metadataReader.getResource();
+        try {
+            if (isCandidateComponent(metadataReader)) {
+                ScannedGenericBeanDefinition beanDefinition = new ScannedGenericBeanDefinition(metadataReader);
+                beanDefinition.setSource(resource);
+                if (isCandidateComponent(beanDefinition)) {
+                    return beanDefinition;
+                }
+            }
+        } catch (Throwable e) {
+            throw new BeanDefinitionStoreException("Failed to read candidate component class: " + resource, e);
+        }
+        return null;
+    }
+
+    @Override
+    public void setResourcePattern(String resourcePattern) {
+        super.setResourcePattern(resourcePattern);
+        this.resourcePattern = resourcePattern;
+    }
+
+    /**
+     * @return <code>true</code> if the candidate components are scanned in parallel
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * @param parallel whether to scan the candidate components in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @param parallelism the parallelism of the {@link ForkJoinPool} to scan the candidate components
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param batchSize the max number of class files to be read in a fork-join task
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -90,4 +359,78 @@ public class ExposingClassPathBeanDefinitionScanner extends ClassPathBeanDefinit
     public void registerSingleton(String beanName, Object singletonObject) {
         getSingletonBeanRegistry().registerSingleton(beanName, singletonObject);
     }
-}
\ No newline at end of file
+
+    /**
+     * The fork-join task to scan the candidate components of a base package
+     */
+    private class ScanTask extends RecursiveAction {
+
+        private final String basePackage;
+
+        private MetadataReader[] metadataReaders;
+
+        private ScanTask(String basePackage) {
+            this.basePackage = basePackage;
+        }
+
+        @Override
+        protected void compute() {
+            String pattern = CLASSPATH_ALL_URL_PREFIX + resolveBasePackage(basePackage) + '/' + resourcePattern;
+            ResourcePatternResolver resourcePatternResolver = getResourcePatternResolver(getResourceLoader());
+            Resource[] resources;
+            try {
+                resources = resourcePatternResolver.getResources(pattern);
+            } catch (IOException e) {
+                throw new BeanDefinitionStoreException("I/O failure during classpath scanning", e);
+            }
+            MetadataReader[] metadataReaders = new MetadataReader[resources.length];
+            new ReadTask(resources, metadataReaders, 0, resources.length).invoke();
+            this.metadataReaders = metadataReaders;
+        }
+
+        private Set<BeanDefinition> getCandidateComponents() {
+            Set<BeanDefinition> candidateComponents = newLinkedHashSet(metadataReaders.length);
+            for (MetadataReader metadataReader : metadataReaders) {
+                BeanDefinition candidateComponent = metadataReader == null ? null : filterCandidateComponent(metadataReader);
+                if (candidateComponent != null) {
+                    candidateComponents.add(candidateComponent);
+                }
+            }
+            return candidateComponents;
+        }
+    }
+
+    /**
+     * The fork-join task to read a batch of class files, the results are stored by the indexes of class files
+     */
+    private class ReadTask extends RecursiveAction {
+
+        private final Resource[] resources;
+
+        private final MetadataReader[] metadataReaders;
+
+        private final int from;
+
+        private final int to;
+
+        private ReadTask(Resource[] resources, MetadataReader[] metadataReaders, int from, int to) {
+            this.resources = resources;
+            this.metadataReaders = metadataReaders;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= max(1, batchSize)) {
+                for (int i = from; i < to; i++) {
+                    metadataReaders[i] = readMetadata(resources[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ReadTask(resources, metadataReaders, from, middle),
+                        new ReadTask(resources, metadataReaders, middle, to));
+            }
+        }
+    }
+}
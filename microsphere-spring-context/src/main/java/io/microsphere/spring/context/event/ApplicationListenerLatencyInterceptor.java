@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.Nullable;
+import io.microsphere.io.FastByteArrayInputStream;
+import io.microsphere.net.SubProtocolURLConnectionFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+
+import java.io.InputStream;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static java.lang.System.identityHashCode;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingLong;
+import static java.util.Locale.ROOT;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static org.springframework.util.Assert.isTrue;
+import static org.springframework.util.ClassUtils.getUserClass;
+
+/**
+ * The {@link ApplicationListenerInterceptor} records the {@link LatencyHistogram latency histogram} of every pair of
+ * {@link ApplicationListener listener} and event type, the type of payload is used for the
+ * {@link PayloadApplicationEvent}. Recording neither allocates nor locks, and it's safe when the listeners are
+ * invoked concurrently by the task executor of {@link org.springframework.context.event.ApplicationEventMulticaster}.
+ * The events are sampled at the {@link #setSamplingRate(double) sampling rate}.
+ * <p>
+ * The count of histograms is bounded by the {@link #setMaxHistograms(int) max histograms}, the pairs beyond it are not
+ * recorded but {@link #getDroppedCount() counted}. The event types are kept by their names, thus the classes of
+ * events are not pinned, and the histograms of a listener could be {@link #removeHistograms(ApplicationListener)
+ * removed} once it's no longer used.
+ * <p>
+ * The interceptor is ordered at the {@link #LOWEST_PRECEDENCE lowest precedence} by default, so it's invoked after
+ * the other interceptors, e.g. {@link BulkheadApplicationListenerInterceptor} that hands the listener over to its
+ * thread, and the latency of the listener itself is measured. If it's ordered before the
+ * {@link BulkheadApplicationListenerInterceptor}, the time to enqueue the event is measured instead.
+ * <p>
+ * As a {@link SubProtocolURLConnectionFactory} bean, the report of p50, p99, max and the other statistics in
+ * microseconds is exported by the URL "spring:{@value #SUB_PROTOCOL}://" with
+ * {@link io.microsphere.spring.net.SpringProtocolURLStreamHandler}, the rows are sorted by the p99 descending.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Bean
+ * public ApplicationListenerLatencyInterceptor applicationListenerLatencyInterceptor() {
+ *     ApplicationListenerLatencyInterceptor interceptor = new ApplicationListenerLatencyInterceptor();
+ *     interceptor.setSamplingRate(0.1);
+ *     return interceptor;
+ * }
+ *
+ * String report = StreamUtils.copyToString(new URL("spring:event-latency://").openStream(), UTF_8);
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see LatencyHistogram
+ * @see ApplicationListenerInterceptor
+ * @see io.microsphere.spring.net.SpringProtocolURLStreamHandler
+ * @since 1.0.0
+ */
+public class ApplicationListenerLatencyInterceptor implements ApplicationListenerInterceptor, SubProtocolURLConnectionFactory {
+
+    /**
+     * The sub-protocol of the report URL : "spring:event-latency://"
+     */
+    public static final String SUB_PROTOCOL = "event-latency";
+
+    private static final int SUB_PROTOCOL_INDEX = 0;
+
+    /**
+     * The default max count of histograms, every histogram takes about 15KB
+     */
+    public static final int DEFAULT_MAX_HISTOGRAMS = 1024;
+
+    /**
+     * The histograms keyed by the listener and the name of event type
+     */
+    private final ConcurrentMap<ApplicationListener<?>, ConcurrentMap<String, Entry>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicInteger histogramsCount = new AtomicInteger();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private volatile double samplingRate = 1.0;
+
+    private volatile int maxHistograms = DEFAULT_MAX_HISTOGRAMS;
+
+    private int order = LOWEST_PRECEDENCE;
+
+    @Override
+    public void intercept(ApplicationListener<?> applicationListener, ApplicationEvent event, ApplicationListenerInterceptorChain chain) {
+        double samplingRate = this.samplingRate;
+        if (samplingRate < 1.0 && current().nextDouble() >= samplingRate) {
+            chain.intercept(applicationListener, event);
+            return;
+        }
+        long startTime = nanoTime();
+        try {
+            chain.intercept(applicationListener, event);
+        } finally {
+            LatencyHistogram histogram = getHistogram(applicationListener, getEventType(event));
+            if (histogram == null) {
+                droppedCount.increment();
+            } else {
+                histogram.record(nanoTime() - startTime);
+            }
+        }
+    }
+
+    /**
+     * Get the {@link LatencyHistogram} of the listener and the event type, it will be created if absent
+     *
+     * @param applicationListener {@link ApplicationListener}
+     * @param eventType           the type of event, or the type of payload for {@link PayloadApplicationEvent}
+     * @return <code>null</code> if absent and the count of histograms reaches the {@link #getMaxHistograms() max}
+     */
+    @Nullable
+    public LatencyHistogram getHistogram(ApplicationListener<?> applicationListener, Class<?> eventType) {
+        String eventTypeName = eventType.getName();
+        ConcurrentMap<String, Entry> listenerEntries = entries.get(applicationListener);
+        if (listenerEntries == null) {
+            listenerEntries = entries.computeIfAbsent(applicationListener, l -> new ConcurrentHashMap<>());
+        }
+        Entry entry = listenerEntries.get(eventTypeName);
+        if (entry == null) {
+            entry = listenerEntries.computeIfAbsent(eventTypeName, name -> newEntry(applicationListener, name));
+        }
+        return entry == null ? null : entry.histogram;
+    }
+
+    @Nullable
+    private Entry newEntry(ApplicationListener<?> applicationListener, String eventTypeName) {
+        if (histogramsCount.incrementAndGet() > maxHistograms) {
+            histogramsCount.decrementAndGet();
+            return null;
+        }
+        return new Entry(getListenerName(applicationListener), eventTypeName);
+    }
+
+    /**
+     * Remove the histograms of the listener, e.g. the listener was removed from the
+     * {@link org.springframework.context.event.ApplicationEventMulticaster}
+     *
+     * @param applicationListener {@link ApplicationListener}
+     */
+    public void removeHistograms(ApplicationListener<?> applicationListener) {
+        Map<String, Entry> listenerEntries = entries.remove(applicationListener);
+        if (listenerEntries != null) {
+            histogramsCount.addAndGet(-listenerEntries.size());
+        }
+    }
+
+    /**
+     * Generate the report of all histograms in microseconds, sorted by the p99 descending
+     *
+     * @return non-null
+     */
+    public String getReport() {
+        List<Snapshot> snapshots = newArrayList();
+        for (Map<String, Entry> listenerEntries : entries.values()) {
+            for (Entry entry : listenerEntries.values()) {
+                snapshots.add(new Snapshot(entry));
+            }
+        }
+        snapshots.sort(comparingLong((Snapshot snapshot) -> snapshot.p99).reversed());
+
+        StringBuilder report = new StringBuilder("listener\teventType\tcount\tp50(us)\tp99(us)\tmax(us)\tmean(us)\n");
+        for (Snapshot snapshot : snapshots) {
+            report.append(snapshot.entry.listenerName).append('\t')
+                    .append(snapshot.entry.eventTypeName).append('\t')
+                    .append(snapshot.count).append('\t')
+                    .append(toMicros(snapshot.p50)).append('\t')
+                    .append(toMicros(snapshot.p99)).append('\t')
+                    .append(toMicros(snapshot.max)).append('\t')
+                    .append(toMicros(snapshot.mean)).append('\n');
+        }
+        return report.toString();
+    }
+
+    /**
+     * Reset all histograms
+     */
+    public void reset() {
+        for (Map<String, Entry> listenerEntries : entries.values()) {
+            for (Entry entry : listenerEntries.values()) {
+                entry.histogram.reset();
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(URL url, List<String> subProtocols) {
+        return subProtocols.size() > SUB_PROTOCOL_INDEX && SUB_PROTOCOL.equals(subProtocols.get(SUB_PROTOCOL_INDEX));
+    }
+
+    @Override
+    public URLConnection create(URL url, List<String> subProtocols, Proxy proxy) {
+        return new URLConnection(url) {
+
+            @Override
+            public void connect() {
+            }
+
+            @Override
+            public String getContentType() {
+                return "text/tab-separated-values";
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return new FastByteArrayInputStream(getReport().getBytes(UTF_8));
+            }
+        };
+    }
+
+    /**
+     * Set the rate to sample the events
+     *
+     * @param samplingRate the rate in (0, 1], 1 means all events are recorded
+     */
+    public void setSamplingRate(double samplingRate) {
+        isTrue(samplingRate > 0 && samplingRate <= 1.0, "The 'samplingRate' argument must be in (0, 1]");
+        this.samplingRate = samplingRate;
+    }
+
+    public double getSamplingRate() {
+        return samplingRate;
+    }
+
+    /**
+     * Set the max count of histograms
+     *
+     * @param maxHistograms the positive max count of histograms
+     */
+    public void setMaxHistograms(int maxHistograms) {
+        isTrue(maxHistograms > 0, "The 'maxHistograms' argument must be positive");
+        this.maxHistograms = maxHistograms;
+    }
+
+    public int getMaxHistograms() {
+        return maxHistograms;
+    }
+
+    /**
+     * @return the count of the sampled events that were not recorded since the count of histograms reached the max
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    static Class<?> getEventType(ApplicationEvent event) {
+        if (event instanceof PayloadApplicationEvent<?> payloadApplicationEvent) {
+            return payloadApplicationEvent.getPayload().getClass();
+        }
+        return event.getClass();
+    }
+
+    static String getListenerName(ApplicationListener<?> applicationListener) {
+        ApplicationListener<?> listener = InterceptingApplicationListener.getDelegate(applicationListener);
+        if (listener instanceof ApplicationListenerMethodAdapter) {
+            // The signature of the @EventListener method
+            return listener.toString();
+        }
+        return getUserClass(listener).getName() + "@" + Integer.toHexString(identityHashCode(listener));
+    }
+
+    private static String toMicros(long nanos) {
+        return format(ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    private static class Entry {
+
+        private final String listenerName;
+
+        private final String eventTypeName;
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Entry(String listenerName, String eventTypeName) {
+            this.listenerName = listenerName;
+            this.eventTypeName = eventTypeName;
+        }
+    }
+
+    private static class Snapshot {
+
+        private final Entry entry;
+
+        private final long count;
+
+        private final long p50;
+
+        private final long p99;
+
+        private final long max;
+
+        private final long mean;
+
+        Snapshot(Entry entry) {
+            LatencyHistogram histogram = entry.histogram;
+            this.entry = entry;
+            this.count = histogram.getCount();
+            this.p50 = histogram.getValueAtPercentile(50);
+            this.p99 = histogram.getValueAtPercentile(99);
+            this.max = histogram.getMax();
+            this.mean = histogram.getMean();
+        }
+    }
+}
@@ -68,7 +68,11 @@ import java.util.EventListener;
 public interface BeanListener extends EventListener {
 
     /**
-     * Supports the bean to be listened or not
+     * Supports the bean to be listened or not.
+     * <p>
+     * It's evaluated only once per bean name, and the result is cached by {@link BeanListeners}, thus it should depend
+     * on the bean name only. The checks that may change over time, e.g. the state of the listener or the bean instance,
+     * belong to the callback methods.
      *
      * @param beanName the name of bean
      * @return If <code>false</code>, any method of bean lifecycle will not be called
@@ -27,11 +27,13 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static io.microsphere.collection.ListUtils.newArrayList;
 import static io.microsphere.collection.SetUtils.newLinkedHashSet;
@@ -39,9 +41,19 @@ import static io.microsphere.logging.LoggerFactory.getLogger;
 import static io.microsphere.spring.beans.factory.support.BeanRegistrar.registerFactoryBean;
 import static io.microsphere.spring.beans.factory.support.BeanRegistrar.registerSpringFactoriesBeans;
 import static java.util.Arrays.asList;
+import static org.springframework.beans.factory.BeanFactoryUtils.isGeneratedBeanName;
+import static org.springframework.beans.factory.config.AutowireCapableBeanFactory.ORIGINAL_INSTANCE_SUFFIX;
 
 /**
  * The composite {@link BeanListener}
+ * <p>
+ * The {@link BeanListener listeners} supporting a bean are resolved once on its first callback, and then they are
+ * dispatched through an immutable table per bean name, whose rows are the callbacks and cells are the listeners
+ * overriding them, that is, the no-op default methods of {@link BeanListenerAdapter} are skipped. Thus the result of
+ * {@link BeanListener#supports(String)} is cached per bean name, and the beans with the same supporting listeners
+ * share a table. The tables of the generated bean names, e.g. the inner beans and the
+ * {@link org.springframework.beans.factory.config.AutowireCapableBeanFactory#ORIGINAL_INSTANCE_SUFFIX original instances},
+ * are not cached per bean name, because they are unbounded.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @see EventPublishingBeanInitializer
@@ -57,15 +69,72 @@ class BeanListeners implements BeanListener {
 
     private static final String BEAN_NAME = "beanEventListeners";
 
+    static final int ON_BEAN_DEFINITION_READY = 0;
+
+    static final int ON_BEFORE_BEAN_INSTANTIATE = 1;
+
+    static final int ON_BEFORE_BEAN_INSTANTIATE_WITH_CONSTRUCTOR = 2;
+
+    static final int ON_BEFORE_BEAN_INSTANTIATE_WITH_FACTORY_METHOD = 3;
+
+    static final int ON_AFTER_BEAN_INSTANTIATED = 4;
+
+    static final int ON_BEAN_PROPERTY_VALUES_READY = 5;
+
+    static final int ON_BEFORE_BEAN_INITIALIZE = 6;
+
+    static final int ON_AFTER_BEAN_INITIALIZED = 7;
+
+    static final int ON_BEAN_READY = 8;
+
+    static final int ON_BEFORE_BEAN_DESTROY = 9;
+
+    static final int ON_AFTER_BEAN_DESTROY = 10;
+
+    /**
+     * The callback methods of {@link BeanListener} indexed by the constants above
+     */
+    private static final Method[] CALLBACK_METHODS = {
+            getCallbackMethod("onBeanDefinitionReady", String.class, RootBeanDefinition.class),
+            getCallbackMethod("onBeforeBeanInstantiate", String.class, RootBeanDefinition.class),
+            getCallbackMethod("onBeforeBeanInstantiate", String.class, RootBeanDefinition.class, Constructor.class, Object[].class),
+            getCallbackMethod("onBeforeBeanInstantiate", String.class, RootBeanDefinition.class, Object.class, Method.class, Object[].class),
+            getCallbackMethod("onAfterBeanInstantiated", String.class, RootBeanDefinition.class, Object.class),
+            getCallbackMethod("onBeanPropertyValuesReady", String.class, Object.class, PropertyValues.class),
+            getCallbackMethod("onBeforeBeanInitialize", String.class, Object.class),
+            getCallbackMethod("onAfterBeanInitialized", String.class, Object.class),
+            getCallbackMethod("onBeanReady", String.class, Object.class),
+            getCallbackMethod("onBeforeBeanDestroy", String.class, Object.class),
+            getCallbackMethod("onAfterBeanDestroy", String.class, Object.class)
+    };
+
+    private static final int CALLBACKS_COUNT = CALLBACK_METHODS.length;
+
     private final List<NamedBeanHolder<BeanListener>> namedListeners;
 
     private final int listenerCount;
 
+    /**
+     * The flags whether the listener overrides the callback : [listener index][callback]
+     */
+    private final boolean[][] overriddenCallbacks;
+
     private final Set<String> readyBeanNames;
 
+    /**
+     * The dispatch tables per bean name : [callback][the indexes of listeners]
+     */
+    private final ConcurrentMap<String, int[][]> dispatchTables = new ConcurrentHashMap<>();
+
+    /**
+     * The dispatch tables shared by the beans with the same supporting listeners
+     */
+    private final ConcurrentMap<BitSet, int[][]> sharedDispatchTables = new ConcurrentHashMap<>();
+
     public BeanListeners(ConfigurableListableBeanFactory beanFactory) {
         this.namedListeners = getBeanListeners(beanFactory);
         this.listenerCount = namedListeners.size();
+        this.overriddenCallbacks = getOverriddenCallbacks(namedListeners);
         this.readyBeanNames = getReadyBeanNames(beanFactory);
     }
 
@@ -93,6 +162,43 @@ class BeanListeners implements BeanListener {
         return namedListeners;
     }
 
+    private static boolean[][] getOverriddenCallbacks(List<NamedBeanHolder<BeanListener>> namedListeners) {
+        int listenerCount = namedListeners.size();
+        boolean[][] overriddenCallbacks = new boolean[listenerCount][CALLBACKS_COUNT];
+        for (int i = 0; i < listenerCount; i++) {
+            Class<?> listenerClass = namedListeners.get(i).getBeanInstance().getClass();
+            for (int callback = 0; callback < CALLBACKS_COUNT; callback++) {
+                overriddenCallbacks[i][callback] = isOverridden(listenerClass, CALLBACK_METHODS[callback]);
+            }
+        }
+        return overriddenCallbacks;
+    }
+
+    /**
+     * Is the callback method overridden by the listener class or not
+     *
+     * @param listenerClass  the listener class
+     * @param callbackMethod the callback method of {@link BeanListener}
+     * @return <code>false</code> if it's the no-op default method of {@link BeanListenerAdapter}
+     */
+    static boolean isOverridden(Class<?> listenerClass, Method callbackMethod) {
+        try {
+            Method method = listenerClass.getMethod(callbackMethod.getName(), callbackMethod.getParameterTypes());
+            return method.getDeclaringClass() != BeanListenerAdapter.class;
+        } catch (NoSuchMethodException e) {
+            // Never happen, the methods of BeanListener are public
+            return true;
+        }
+    }
+
+    private static Method getCallbackMethod(String name, Class<?>... parameterTypes) {
+        try {
+            return BeanListener.class.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public boolean supports(String beanName) {
         return true;
@@ -100,80 +206,182 @@ class BeanListeners implements BeanListener {
 
     @Override
     public void onBeanDefinitionReady(String beanName, RootBeanDefinition mergedBeanDefinition) {
-        iterate(beanName, listener -> listener.onBeanDefinitionReady(beanName, mergedBeanDefinition), "onBeanDefinitionReady");
+        iterate(beanName, ON_BEAN_DEFINITION_READY, mergedBeanDefinition, null, null, null);
     }
 
     @Override
     public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition) {
-        iterate(beanName, listener -> listener.onBeforeBeanInstantiate(beanName, mergedBeanDefinition), "onBeforeBeanInstantiate");
+        iterate(beanName, ON_BEFORE_BEAN_INSTANTIATE, mergedBeanDefinition, null, null, null);
     }
 
     @Override
     public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Constructor<?> constructor, Object[] args) {
-        iterate(beanName, listener -> listener.onBeforeBeanInstantiate(beanName, mergedBeanDefinition, constructor, args), "onBeforeBeanInstantiate");
+        iterate(beanName, ON_BEFORE_BEAN_INSTANTIATE_WITH_CONSTRUCTOR, mergedBeanDefinition, constructor, args, null);
     }
 
     @Override
     public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Object factoryBean, Method factoryMethod, Object[] args) {
-        iterate(beanName, listener -> listener.onBeforeBeanInstantiate(beanName, mergedBeanDefinition, factoryBean, factoryMethod, args), "onBeforeBeanInstantiate");
+        iterate(beanName, ON_BEFORE_BEAN_INSTANTIATE_WITH_FACTORY_METHOD, mergedBeanDefinition, factoryBean, factoryMethod, args);
     }
 
     @Override
     public void onAfterBeanInstantiated(String beanName, RootBeanDefinition mergedBeanDefinition, Object bean) {
-        iterate(beanName, listener -> listener.onAfterBeanInstantiated(beanName, mergedBeanDefinition, bean), "onAfterBeanInstantiated");
+        iterate(beanName, ON_AFTER_BEAN_INSTANTIATED, mergedBeanDefinition, bean, null, null);
     }
 
     @Override
     public void onBeanPropertyValuesReady(String beanName, Object bean, PropertyValues pvs) {
-        iterate(beanName, listener -> listener.onBeanPropertyValuesReady(beanName, bean, pvs), "onBeanPropertyValuesReady");
+        iterate(beanName, ON_BEAN_PROPERTY_VALUES_READY, bean, pvs, null, null);
     }
 
     @Override
     public void onBeforeBeanInitialize(String beanName, Object bean) {
-        iterate(beanName, listener -> listener.onBeforeBeanInitialize(beanName, bean), "onBeforeBeanInitialize");
+        iterate(beanName, ON_BEFORE_BEAN_INITIALIZE, bean, null, null, null);
     }
 
     @Override
     public void onAfterBeanInitialized(String beanName, Object bean) {
-        iterate(beanName, listener -> listener.onAfterBeanInitialized(beanName, bean), "onAfterBeanInitialized");
+        iterate(beanName, ON_AFTER_BEAN_INITIALIZED, bean, null, null, null);
     }
 
     @Override
     public void onBeanReady(String beanName, Object bean) {
-        iterate(beanName, listener -> listener.onBeanReady(beanName, bean), "onBeanReady");
+        iterate(beanName, ON_BEAN_READY, bean, null, null, null);
     }
 
     @Override
     public void onBeforeBeanDestroy(String beanName, Object bean) {
-        iterate(beanName, listener -> listener.onBeforeBeanDestroy(beanName, bean), "onBeforeBeanDestroy");
+        iterate(beanName, ON_BEFORE_BEAN_DESTROY, bean, null, null, null);
     }
 
     @Override
     public void onAfterBeanDestroy(String beanName, Object bean) {
-        iterate(beanName, listener -> listener.onAfterBeanDestroy(beanName, bean), "onAfterBeanDestroy");
+        iterate(beanName, ON_AFTER_BEAN_DESTROY, bean, null, null, null);
     }
 
-    private void iterate(String beanName, Consumer<BeanListener> listenerConsumer, String action) {
+    private void iterate(String beanName, int callback, Object arg1, Object arg2, Object arg3, Object arg4) {
         if (isIgnored(beanName)) {
             return;
         }
+        int[] listenerIndexes = getDispatchTable(beanName)[callback];
+        for (int i : listenerIndexes) {
+            NamedBeanHolder<BeanListener> namedListener = namedListeners.get(i);
+            BeanListener listener = namedListener.getBeanInstance();
+            try {
+                dispatch(listener, callback, beanName, arg1, arg2, arg3, arg4);
+                if (logger.isTraceEnabled()) {
+                    logger.trace("BeanEventListener[name : '{}' , bean : '{}', order : {}] execution {} -> '{}'",
+                            namedListener.getBeanName(), listener, i, beanName, CALLBACK_METHODS[callback].getName());
+                }
+            } catch (Throwable e) {
+                if (logger.isErrorEnabled()) {
+                    logger.error("BeanEventListener[name : '{}' , bean : '{}', order : {}] execution {} -> '{}' failed",
+                            namedListener.getBeanName(), listener, i, beanName, CALLBACK_METHODS[callback].getName(), e);
+                }
+            }
+        }
+    }
+
+    private void dispatch(BeanListener listener, int callback, String beanName, Object arg1, Object arg2, Object arg3, Object arg4) {
+        switch (callback) {
+            case ON_BEAN_DEFINITION_READY:
+                listener.onBeanDefinitionReady(beanName, (RootBeanDefinition) arg1);
+                break;
+            case ON_BEFORE_BEAN_INSTANTIATE:
+                listener.onBeforeBeanInstantiate(beanName, (RootBeanDefinition) arg1);
+                break;
+            case ON_BEFORE_BEAN_INSTANTIATE_WITH_CONSTRUCTOR:
+                listener.onBeforeBeanInstantiate(beanName, (RootBeanDefinition) arg1, (Constructor<?>) arg2, (Object[]) arg3);
+                break;
+            case ON_BEFORE_BEAN_INSTANTIATE_WITH_FACTORY_METHOD:
+                listener.onBeforeBeanInstantiate(beanName, (RootBeanDefinition) arg1, arg2, (Method) arg3, (Object[]) arg4);
+                break;
+            case ON_AFTER_BEAN_INSTANTIATED:
+                listener.onAfterBeanInstantiated(beanName, (RootBeanDefinition) arg1, arg2);
+                break;
+            case ON_BEAN_PROPERTY_VALUES_READY:
+                listener.onBeanPropertyValuesReady(beanName, arg1, (PropertyValues) arg2);
+                break;
+            case ON_BEFORE_BEAN_INITIALIZE:
+                listener.onBeforeBeanInitialize(beanName, arg1);
+                break;
+            case ON_AFTER_BEAN_INITIALIZED:
+                listener.onAfterBeanInitialized(beanName, arg1);
+                break;
+            case ON_BEAN_READY:
+                listener.onBeanReady(beanName, arg1);
+                break;
+            case ON_BEFORE_BEAN_DESTROY:
+                listener.onBeforeBeanDestroy(beanName, arg1);
+                break;
+            case ON_AFTER_BEAN_DESTROY:
+                listener.onAfterBeanDestroy(beanName, arg1);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown callback : " + callback);
+        }
+    }
+
+    /**
+     * Get the dispatch table of the specified bean, it will be built on the first callback
+     *
+     * @param beanName the bean name
+     * @return non-null
+     */
+    int[][] getDispatchTable(String beanName) {
+        if (isTransientBeanName(beanName)) {
+            return buildDispatchTable(beanName);
+        }
+        int[][] dispatchTable = dispatchTables.get(beanName);
+        if (dispatchTable == null) {
+            // No lock on building, because BeanListener#supports(String) may trigger the callbacks of other beans
+            dispatchTable = buildDispatchTable(beanName);
+            int[][] existedDispatchTable = dispatchTables.putIfAbsent(beanName, dispatchTable);
+            if (existedDispatchTable != null) {
+                dispatchTable = existedDispatchTable;
+            }
+        }
+        return dispatchTable;
+    }
+
+    static boolean isTransientBeanName(String beanName) {
+        return isGeneratedBeanName(beanName) || beanName.endsWith(ORIGINAL_INSTANCE_SUFFIX);
+    }
+
+    private int[][] buildDispatchTable(String beanName) {
+        BitSet supportingListeners = new BitSet(listenerCount);
         for (int i = 0; i < listenerCount; i++) {
             NamedBeanHolder<BeanListener> namedListener = namedListeners.get(i);
             BeanListener listener = namedListener.getBeanInstance();
-            String listenerBeanName = namedListener.getBeanName();
             try {
                 if (listener.supports(beanName)) {
-                    listenerConsumer.accept(listener);
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("BeanEventListener[name : '{}' , bean : '{}', order : {}] execution {} -> '{}'", listenerBeanName, listener, i, beanName, action);
-                    }
+                    supportingListeners.set(i);
                 }
             } catch (Throwable e) {
                 if (logger.isErrorEnabled()) {
-                    logger.error("BeanEventListener[name : '{}' , bean : '{}', order : {}] execution {} -> '{}' failed", listenerBeanName, listener, i, beanName, action, e);
+                    logger.error("BeanEventListener[name : '{}' , bean : '{}', order : {}] supports '{}' failed",
+                            namedListener.getBeanName(), listener, i, beanName, e);
+                }
+            }
+        }
+        return sharedDispatchTables.computeIfAbsent(supportingListeners, this::newDispatchTable);
+    }
+
+    private int[][] newDispatchTable(BitSet supportingListeners) {
+        int[][] dispatchTable = new int[CALLBACKS_COUNT][];
+        int[] listenerIndexes = new int[supportingListeners.cardinality()];
+        for (int callback = 0; callback < CALLBACKS_COUNT; callback++) {
+            int count = 0;
+            for (int i = supportingListeners.nextSetBit(0); i >= 0; i = supportingListeners.nextSetBit(i + 1)) {
+                if (overriddenCallbacks[i][callback]) {
+                    listenerIndexes[count++] = i;
                 }
             }
+            int[] callbackListenerIndexes = new int[count];
+            System.arraycopy(listenerIndexes, 0, callbackListenerIndexes, 0, count);
+            dispatchTable[callback] = callbackListenerIndexes;
         }
+        return dispatchTable;
     }
 
     private boolean isIgnored(String beanName) {
@@ -190,4 +398,4 @@ class BeanListeners implements BeanListener {
     static BeanListeners getBean(BeanFactory beanFactory) {
         return beanFactory.getBean(BEAN_NAME, BeanListeners.class);
     }
-}
\ No newline at end of file
+}
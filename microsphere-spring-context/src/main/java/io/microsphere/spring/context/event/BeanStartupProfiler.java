@@ -0,0 +1,688 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.ConfigurationProperty;
+import io.microsphere.annotation.Nonnull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
+import static java.lang.System.nanoTime;
+import static java.lang.ThreadLocal.withInitial;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * {@code BeanStartupProfiler} is a thread-safe {@link BeanListener} that profiles the lifecycle phases of every bean
+ * on every thread, it's the replacement of {@link BeanTimeStatistics} that is unable to handle the beans created
+ * concurrently (e.g. {@link ParallelPreInstantiationSingletonsBeanFactoryListener}) or in nested.
+ * <p>
+ * The phases being profiled :
+ * <ul>
+ *     <li>{@link Phase#READY ready} - from the {@link #onBeanDefinitionReady(String, RootBeanDefinition) bean definition ready}
+ *     to the {@link #onBeanReady(String, Object) bean ready}</li>
+ *     <li>{@link Phase#CREATION creation} - from the instantiation to the end of initialization</li>
+ *     <li>{@link Phase#INSTANTIATION instantiation}</li>
+ *     <li>{@link Phase#POPULATION property-population}</li>
+ *     <li>{@link Phase#INITIALIZATION initialization}</li>
+ *     <li>{@link Phase#DESTROY destroy}</li>
+ * </ul>
+ * <p>
+ * No lock is acquired during profiling : the running phases are kept in the thread-confined stack, and the completed
+ * {@link Span spans} are appended into a lock-free queue. When the bean A triggers the creation of bean B (e.g. the
+ * dependency injection), the time of bean B is excluded from the {@link Span#getSelfTime() self-time} of bean A. The
+ * frames of the failed creations, whose beans are not {@link ConfigurableBeanFactory#isCurrentlyInCreation(String) in
+ * creation} any more, and the frames of the uncompleted destructions are discarded before the next bean is profiled on
+ * the same thread, thus their time is never attributed to an unfinished bean.
+ * <p>
+ * The startup is profiled only : the creations of beans begin after the context is refreshed, e.g. the prototype beans,
+ * are not recorded, thus the spans are not accumulated in the lifetime of the context, but the destructions of
+ * beans are still recorded.
+ * <p>
+ * The profiling result could be exported as a {@link #report() sorted report} or a
+ * <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome trace-event JSON</a>
+ * file that can be opened in <a href="https://ui.perfetto.dev">Perfetto</a>.
+ *
+ * <h3>Configuration Properties</h3>
+ * <dl>
+ *     <dt>{@value #TRACE_FILE_PROPERTY_NAME}</dt>
+ *     <dd>The path of the Chrome trace-event JSON file to be written when the context is refreshed, absent by default</dd>
+ * </dl>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+ * context.register(BeanStartupProfiler.class);
+ * context.refresh();
+ *
+ * BeanStartupProfiler profiler = context.getBean(BeanStartupProfiler.class);
+ * System.out.println(profiler.report());
+ * profiler.writeTraceEvents(new File("startup-trace.json"));
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanListener
+ * @see BeanTimeStatistics
+ * @see EventPublishingBeanInitializer
+ * @since 1.0.0
+ */
+public class BeanStartupProfiler extends OnceApplicationContextEventListener<ContextRefreshedEvent> implements BeanListenerAdapter,
+        BeanNameAware, BeanFactoryAware, EnvironmentAware {
+
+    /**
+     * The property name of the path of Chrome trace-event JSON file : "microsphere.spring.bean-startup-profiler.trace-file"
+     */
+    @ConfigurationProperty(
+            description = "the path of the Chrome trace-event JSON file to be written when the context is refreshed",
+            source = APPLICATION_SOURCE
+    )
+    public static final String TRACE_FILE_PROPERTY_NAME = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "bean-startup-profiler.trace-file";
+
+    /**
+     * The max count of beans to be logged in the report when the context is refreshed
+     */
+    static final int REPORT_LOG_LIMIT = 20;
+
+    private final long originTime = nanoTime();
+
+    private final ThreadLocal<Deque<Frame>> framesHolder = withInitial(ArrayDeque::new);
+
+    private final Map<String, Long> readyStartTimes = new ConcurrentHashMap<>();
+
+    private final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether the creations of beans are recorded, it's turned off when the context is refreshed
+     */
+    private volatile boolean recording = true;
+
+    private String beanName;
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    private Environment environment;
+
+    @Override
+    public boolean supports(String beanName) {
+        return !Objects.equals(this.beanName, beanName);
+    }
+
+    @Override
+    public void onBeanDefinitionReady(String beanName, RootBeanDefinition mergedBeanDefinition) {
+        if (recording) {
+            readyStartTimes.putIfAbsent(beanName, nanoTime());
+        }
+    }
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition) {
+        beginCreation(beanName);
+    }
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Constructor<?> constructor, Object[] args) {
+        beginCreation(beanName);
+    }
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Object factoryBean, Method factoryMethod, Object[] args) {
+        beginCreation(beanName);
+    }
+
+    @Override
+    public void onAfterBeanInstantiated(String beanName, RootBeanDefinition mergedBeanDefinition, Object bean) {
+        Frame frame = findFrame(beanName);
+        if (frame != null) {
+            long now = nanoTime();
+            endPhase(frame, now);
+            frame.beginPhase(Phase.POPULATION, now);
+        }
+    }
+
+    @Override
+    public void onBeforeBeanInitialize(String beanName, Object bean) {
+        Frame frame = findFrame(beanName);
+        long now = nanoTime();
+        if (frame == null) {
+            if (!recording) {
+                return;
+            }
+            // The bean was not instantiated by the InstantiationStrategy, e.g. instance supplier
+            frame = new Frame(beanName, Phase.CREATION, now);
+            getLiveFrames().push(frame);
+        } else {
+            endPhase(frame, now);
+        }
+        frame.beginPhase(Phase.INITIALIZATION, now);
+    }
+
+    @Override
+    public void onAfterBeanInitialized(String beanName, Object bean) {
+        Frame frame = findFrame(beanName);
+        if (frame != null && frame.phase == Phase.INITIALIZATION) {
+            long now = nanoTime();
+            endPhase(frame, now);
+            endFrame(frame, now);
+        }
+    }
+
+    @Override
+    public void onBeanReady(String beanName, Object bean) {
+        Long startTime = readyStartTimes.remove(beanName);
+        if (startTime != null) {
+            long duration = nanoTime() - startTime;
+            addSpan(beanName, Phase.READY, startTime, duration, duration);
+        }
+    }
+
+    @Override
+    public void onBeforeBeanDestroy(String beanName, Object bean) {
+        long now = nanoTime();
+        Frame frame = new Frame(beanName, Phase.DESTROY, now);
+        getLiveFrames().push(frame);
+    }
+
+    @Override
+    public void onAfterBeanDestroy(String beanName, Object bean) {
+        Frame frame = findFrame(beanName);
+        if (frame != null && frame.kind == Phase.DESTROY) {
+            endFrame(frame, nanoTime());
+        }
+    }
+
+    private void beginCreation(String beanName) {
+        if (!recording) {
+            return;
+        }
+        long now = nanoTime();
+        Frame frame = new Frame(beanName, Phase.CREATION, now);
+        frame.beginPhase(Phase.INSTANTIATION, now);
+        getLiveFrames().push(frame);
+    }
+
+    private void endPhase(Frame frame, long now) {
+        Phase phase = frame.phase;
+        if (phase != null) {
+            long duration = now - frame.phaseStartTime;
+            addSpan(frame.beanName, phase, frame.phaseStartTime, duration, duration - frame.phaseChildTime);
+            frame.phase = null;
+        }
+    }
+
+    private void endFrame(Frame frame, long now) {
+        Deque<Frame> frames = getFrames();
+        // Discard the frames above, which were not completed, e.g. the creation failed
+        while (frames.pop() != frame) {
+        }
+        long duration = now - frame.startTime;
+        addSpan(frame.beanName, frame.kind, frame.startTime, duration, duration - frame.childTime);
+
+        Frame parent = getLiveFrames().peek();
+        if (parent != null) {
+            parent.childTime += duration;
+            parent.phaseChildTime += duration;
+        }
+    }
+
+    private Frame findFrame(String beanName) {
+        for (Frame frame : getFrames()) {
+            if (frame.beanName.equals(beanName)) {
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    private Deque<Frame> getFrames() {
+        return framesHolder.get();
+    }
+
+    /**
+     * Get the frames whose top is being profiled, the frames of the failed creations and the uncompleted destructions
+     * on the top are discarded, the destructions are never nested, because the dependent beans are destroyed before
+     * {@link #onBeforeBeanDestroy(String, Object)}.
+     *
+     * @return non-null
+     */
+    private Deque<Frame> getLiveFrames() {
+        Deque<Frame> frames = getFrames();
+        Frame frame;
+        while ((frame = frames.peek()) != null && (frame.kind == Phase.DESTROY || isCreationFailed(frame))) {
+            frames.pop();
+        }
+        return frames;
+    }
+
+    private boolean isCreationFailed(Frame frame) {
+        ConfigurableListableBeanFactory beanFactory = this.beanFactory;
+        String beanName = frame.beanName;
+        // The inner beans are not registered, and they are not marked in creation
+        return beanFactory != null && beanFactory.containsBeanDefinition(beanName) && !beanFactory.isCurrentlyInCreation(beanName);
+    }
+
+    private void addSpan(String beanName, Phase phase, long startTime, long duration, long selfTime) {
+        Thread thread = Thread.currentThread();
+        spans.add(new Span(beanName, phase, thread.getId(), thread.getName(), startTime - originTime, duration, selfTime));
+    }
+
+    /**
+     * Get the completed {@link Span spans}
+     *
+     * @return non-null read-only {@link List}
+     */
+    @Nonnull
+    public List<Span> getSpans() {
+        return unmodifiableList(newArrayList(spans));
+    }
+
+    /**
+     * Get the total self-time of the specified bean in the specified {@link Phase phase} in nanoseconds
+     *
+     * @param beanName the bean name
+     * @param phase    the {@link Phase phase}
+     * @return <code>0</code> if not profiled
+     */
+    public long getSelfTime(String beanName, Phase phase) {
+        long selfTime = 0;
+        for (Span span : spans) {
+            if (span.phase == phase && span.beanName.equals(beanName)) {
+                selfTime += span.selfTime;
+            }
+        }
+        return selfTime;
+    }
+
+    /**
+     * Get the self-times of the beans in the specified {@link Phase phase} in nanoseconds
+     *
+     * @param phase the {@link Phase phase}
+     * @return non-null {@link Map} whose key is the bean name and value is the total self-time
+     */
+    @Nonnull
+    public Map<String, Long> getSelfTimes(Phase phase) {
+        Map<String, Long> selfTimes = newLinkedHashMap();
+        for (Span span : spans) {
+            if (span.phase == phase) {
+                selfTimes.merge(span.beanName, span.selfTime, Long::sum);
+            }
+        }
+        return selfTimes;
+    }
+
+    /**
+     * Create the report of the bean creations sorted by the self-time in descending order
+     *
+     * @return non-null
+     */
+    @Nonnull
+    public String report() {
+        return report(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create the report of the bean creations sorted by the self-time in descending order
+     *
+     * @param limit the max count of beans
+     * @return non-null
+     */
+    @Nonnull
+    public String report(int limit) {
+        List<Span> creations = newArrayList();
+        for (Span span : spans) {
+            if (span.phase == Phase.CREATION || span.phase == Phase.DESTROY) {
+                creations.add(span);
+            }
+        }
+        creations.sort(comparingLong(Span::getSelfTime).reversed());
+        Map<String, Long> instantiationSelfTimes = getSelfTimes(Phase.INSTANTIATION);
+        Map<String, Long> populationSelfTimes = getSelfTimes(Phase.POPULATION);
+        Map<String, Long> initializationSelfTimes = getSelfTimes(Phase.INITIALIZATION);
+
+        StringBuilder report = new StringBuilder("BeanStartupProfiler : ").append(creations.size()).append(" spans");
+        report.append(System.lineSeparator())
+                .append(String.format("%-12s %-12s %-14s %-14s %-14s %-20s %s", "self(ms)", "total(ms)", "instantiate", "populate", "initialize", "thread", "bean"));
+        int count = 0;
+        for (Span creation : creations) {
+            if (count++ >= limit) {
+                break;
+            }
+            String beanName = creation.beanName;
+            report.append(System.lineSeparator()).append(String.format("%-12.3f %-12.3f %-14.3f %-14.3f %-14.3f %-20s %s%s",
+                    toMillis(creation.selfTime), toMillis(creation.duration),
+                    toMillis(instantiationSelfTimes.getOrDefault(beanName, 0L)), toMillis(populationSelfTimes.getOrDefault(beanName, 0L)),
+                    toMillis(initializationSelfTimes.getOrDefault(beanName, 0L)), creation.threadName, beanName,
+                    creation.phase == Phase.DESTROY ? " (destroy)" : ""));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write the spans as the Chrome trace-event JSON into the specified {@link File file}
+     *
+     * @param file the target {@link File file}
+     * @throws IOException If any I/O error occurs
+     */
+    public void writeTraceEvents(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            Files.createDirectories(directory.toPath());
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), UTF_8)) {
+            writeTraceEvents(writer);
+        }
+    }
+
+    /**
+     * Write the spans as the Chrome trace-event JSON
+     *
+     * @param writer {@link Writer}
+     * @throws IOException If any I/O error occurs
+     */
+    public void writeTraceEvents(Writer writer) throws IOException {
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        Map<Long, String> threadNames = newLinkedHashMap();
+        boolean first = true;
+        Iterator<Span> iterator = spans.iterator();
+        while (iterator.hasNext()) {
+            Span span = iterator.next();
+            threadNames.putIfAbsent(span.threadId, span.threadName);
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write("{\"name\":\"");
+            writeEscaped(writer, span.beanName);
+            writer.write("\",\"cat\":\"");
+            writer.write(span.phase.getName());
+            writer.write("\",\"ph\":\"X\",\"pid\":1,\"tid\":");
+            writer.write(String.valueOf(span.threadId));
+            writer.write(",\"ts\":");
+            writer.write(String.valueOf(toMicros(span.startTime)));
+            writer.write(",\"dur\":");
+            writer.write(String.valueOf(toMicros(span.duration)));
+            writer.write(",\"args\":{\"phase\":\"");
+            writer.write(span.phase.getName());
+            writer.write("\",\"self(us)\":");
+            writer.write(String.valueOf(toMicros(span.selfTime)));
+            writer.write("}}");
+        }
+        for (Map.Entry<Long, String> entry : threadNames.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":");
+            writer.write(String.valueOf(entry.getKey()));
+            writer.write(",\"args\":{\"name\":\"");
+            writeEscaped(writer, entry.getValue());
+            writer.write("\"}}");
+        }
+        writer.write("]}");
+        writer.flush();
+    }
+
+    @Override
+    protected void onApplicationContextEvent(ContextRefreshedEvent event) {
+        stopRecording();
+        if (logger.isInfoEnabled()) {
+            logger.info(report(REPORT_LOG_LIMIT));
+        }
+        String traceFile = environment == null ? null : environment.getProperty(TRACE_FILE_PROPERTY_NAME);
+        if (hasText(traceFile)) {
+            File file = new File(traceFile);
+            try {
+                writeTraceEvents(file);
+                if (logger.isInfoEnabled()) {
+                    logger.info("The trace events of bean startup were written into the file['{}']", file.getAbsolutePath());
+                }
+            } catch (IOException e) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The trace events of bean startup can't be written into the file['{}']", file.getAbsolutePath(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop recording the creations of beans, the beans being created are still recorded until they are completed
+     */
+    public void stopRecording() {
+        this.recording = false;
+        // The beans were never ready, e.g. the abstract or lazy beans
+        readyStartTimes.clear();
+    }
+
+    /**
+     * @return <code>true</code> if the creations of beans are being recorded
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    @Override
+    public void setBeanName(String name) {
+        this.beanName = name;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        if (beanFactory instanceof ConfigurableListableBeanFactory listableBeanFactory) {
+            this.beanFactory = listableBeanFactory;
+        }
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long toMicros(long nanos) {
+        return NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * The phase of bean lifecycle
+     */
+    public enum Phase {
+
+        READY("ready"),
+
+        CREATION("creation"),
+
+        INSTANTIATION("instantiation"),
+
+        POPULATION("property-population"),
+
+        INITIALIZATION("initialization"),
+
+        DESTROY("destroy");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * The completed phase of a bean on a thread
+     */
+    public static class Span {
+
+        private final String beanName;
+
+        private final Phase phase;
+
+        private final long threadId;
+
+        private final String threadName;
+
+        private final long startTime;
+
+        private final long duration;
+
+        private final long selfTime;
+
+        Span(String beanName, Phase phase, long threadId, String threadName, long startTime, long duration, long selfTime) {
+            this.beanName = beanName;
+            this.phase = phase;
+            this.threadId = threadId;
+            this.threadName = threadName;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.selfTime = selfTime;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        public long getThreadId() {
+            return threadId;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return the start time in nanoseconds relative to the creation of {@link BeanStartupProfiler}
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return the duration in nanoseconds, including the nested beans
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return the duration in nanoseconds, excluding the nested beans
+         */
+        public long getSelfTime() {
+            return selfTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Span{beanName='" + beanName + "', phase=" + phase.getName() + ", thread='" + threadName
+                    + "', startTime=" + startTime + ", duration=" + duration + ", selfTime=" + selfTime + '}';
+        }
+    }
+
+    /**
+     * The running creation or destruction of a bean on the current thread
+     */
+    private static class Frame {
+
+        private final String beanName;
+
+        private final Phase kind;
+
+        private final long startTime;
+
+        /**
+         * The total time of the nested beans
+         */
+        private long childTime;
+
+        private Phase phase;
+
+        private long phaseStartTime;
+
+        /**
+         * The total time of the nested beans in current phase
+         */
+        private long phaseChildTime;
+
+        Frame(String beanName, Phase kind, long startTime) {
+            this.beanName = beanName;
+            this.kind = kind;
+            this.startTime = startTime;
+        }
+
+        void beginPhase(Phase phase, long now) {
+            this.phase = phase;
+            this.phaseStartTime = now;
+            this.phaseChildTime = 0;
+        }
+    }
+}
@@ -62,8 +62,12 @@ import java.util.StringJoiner;
  * @see StopWatch
  * @see BeanListener
  * @see EventPublishingBeanInitializer
+ * @see BeanStartupProfiler
  * @since 1.0.0
+ * @deprecated {@link StopWatch} is not thread-safe and unable to separate the time of nested beans,
+ * use {@link BeanStartupProfiler} instead
  */
+@Deprecated
 public class BeanTimeStatistics implements BeanListener, BeanNameAware {
 
     private final StopWatch stopWatch = new StopWatch("spring.context.beans");
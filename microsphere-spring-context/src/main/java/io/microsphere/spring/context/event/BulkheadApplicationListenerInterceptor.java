@@ -0,0 +1,433 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.Nullable;
+import io.microsphere.logging.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.lang.System.identityHashCode;
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.springframework.core.annotation.AnnotatedElementUtils.hasAnnotation;
+import static org.springframework.util.Assert.isTrue;
+import static org.springframework.util.Assert.notNull;
+import static org.springframework.util.ClassUtils.getUserClass;
+
+/**
+ * The {@link ApplicationListenerInterceptor} isolates the {@link ApplicationListener listeners} by the bulkheads, every
+ * bulkhead has its own bounded queue and the limit of concurrency, thus a slow listener (e.g. writing to disk) can't
+ * starve the others.
+ * <p>
+ * The listeners are matched to the bulkheads {@link #addBulkhead(String, Predicate, int, int, OverflowPolicy) added}
+ * in order, e.g. {@link #listenerType(Class) by type} or {@link #annotatedWith(Class) by annotation}, and the listeners
+ * of a bulkhead share it. The unmatched listeners are invoked inline as usual, unless the default settings are
+ * {@link #BulkheadApplicationListenerInterceptor(int, int, OverflowPolicy) specified}, then every unmatched listener,
+ * including the ones of Spring Framework, gets its own bulkhead. When the queue of a bulkhead is full, the event is
+ * handled by the {@link OverflowPolicy}, except the event published by a thread of the same bulkhead is handled inline
+ * rather than being {@link OverflowPolicy#BLOCK blocked} by itself. The rest of the interceptor chain and the listener
+ * are invoked by the thread of bulkhead, thus the shared task executor of the
+ * {@link org.springframework.context.event.ApplicationEventMulticaster} is not required anymore, and the exceptions
+ * thrown by the isolated listeners are logged rather than propagated to the publisher.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Bean
+ * public BulkheadApplicationListenerInterceptor bulkheadApplicationListenerInterceptor() {
+ *     BulkheadApplicationListenerInterceptor interceptor = new BulkheadApplicationListenerInterceptor();
+ *     interceptor.addBulkhead("disk-writers", annotatedWith(DiskWriter.class), 2, 256, OverflowPolicy.DROP_OLDEST);
+ *     return interceptor;
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ApplicationListenerInterceptor
+ * @see InterceptingApplicationEventMulticaster
+ * @since 1.0.0
+ */
+public class BulkheadApplicationListenerInterceptor implements ApplicationListenerInterceptor, DisposableBean {
+
+    private static final Logger logger = getLogger(BulkheadApplicationListenerInterceptor.class);
+
+    /**
+     * The prefix of the name of the bulkhead threads
+     */
+    public static final String THREAD_NAME_PREFIX = "Bulkhead-";
+
+    /**
+     * The default order, which is a bit higher than the {@link #LOWEST_PRECEDENCE lowest precedence}, thus the
+     * interceptors at the lowest precedence, e.g. {@link ApplicationListenerLatencyInterceptor}, are invoked by the
+     * thread of bulkhead
+     */
+    public static final int DEFAULT_ORDER = LOWEST_PRECEDENCE - 100;
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * The policy to handle the events when the queue of bulkhead is full
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Block the publisher until the queue is available
+         */
+        BLOCK,
+
+        /**
+         * Drop the oldest event in the queue, then enqueue the new one
+         */
+        DROP_OLDEST,
+
+        /**
+         * Run the listener on the publisher thread
+         */
+        CALLER_RUNS
+    }
+
+    private final int defaultConcurrency;
+
+    private final int defaultQueueCapacity;
+
+    private final OverflowPolicy defaultOverflowPolicy;
+
+    private final List<BulkheadRule> rules = new CopyOnWriteArrayList<>();
+
+    /**
+     * The resolved bulkheads of the listeners, {@link Optional#empty()} if the listener is invoked inline
+     */
+    private final ConcurrentMap<ApplicationListener<?>, Optional<Bulkhead>> listenerBulkheads = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    private volatile boolean destroyed;
+
+    private int order = DEFAULT_ORDER;
+
+    /**
+     * Only the listeners matched by the {@link #addBulkhead(String, Predicate, int, int, OverflowPolicy) added bulkheads}
+     * are isolated, the others are invoked inline
+     */
+    public BulkheadApplicationListenerInterceptor() {
+        this.defaultConcurrency = 0;
+        this.defaultQueueCapacity = 0;
+        this.defaultOverflowPolicy = null;
+    }
+
+    /**
+     * Every unmatched listener is isolated by its own bulkhead with the default settings
+     *
+     * @param defaultConcurrency    the default limit of concurrency of the bulkhead per listener
+     * @param defaultQueueCapacity  the default capacity of the queue of the bulkhead per listener
+     * @param defaultOverflowPolicy the default {@link OverflowPolicy} of the bulkhead per listener
+     */
+    public BulkheadApplicationListenerInterceptor(int defaultConcurrency, int defaultQueueCapacity, OverflowPolicy defaultOverflowPolicy) {
+        validate(defaultConcurrency, defaultQueueCapacity);
+        notNull(defaultOverflowPolicy, "The 'defaultOverflowPolicy' argument must not be null");
+        this.defaultConcurrency = defaultConcurrency;
+        this.defaultQueueCapacity = defaultQueueCapacity;
+        this.defaultOverflowPolicy = defaultOverflowPolicy;
+    }
+
+    /**
+     * Add a bulkhead shared by the matched listeners, the bulkheads are matched in order of addition
+     *
+     * @param name           the name of bulkhead
+     * @param matcher        the {@link Predicate} to match the listeners
+     * @param concurrency    the limit of concurrency
+     * @param queueCapacity  the capacity of the queue
+     * @param overflowPolicy the {@link OverflowPolicy}
+     * @return this
+     */
+    public BulkheadApplicationListenerInterceptor addBulkhead(String name, Predicate<ApplicationListener<?>> matcher,
+                                                              int concurrency, int queueCapacity, OverflowPolicy overflowPolicy) {
+        validate(concurrency, queueCapacity);
+        this.rules.add(new BulkheadRule(name, matcher, concurrency, queueCapacity, overflowPolicy));
+        // Re-match the listeners
+        this.listenerBulkheads.clear();
+        return this;
+    }
+
+    @Override
+    public void intercept(ApplicationListener<?> applicationListener, ApplicationEvent event, ApplicationListenerInterceptorChain chain) {
+        if (destroyed) {
+            chain.intercept(applicationListener, event);
+            return;
+        }
+        Bulkhead bulkhead = getBulkhead(applicationListener);
+        if (bulkhead == null) {
+            chain.intercept(applicationListener, event);
+            return;
+        }
+        bulkhead.execute(() -> {
+            try {
+                chain.intercept(applicationListener, event);
+            } catch (Throwable e) {
+                bulkhead.failedCount.increment();
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The listener[{}] in the bulkhead['{}'] failed to handle the event : {}", applicationListener,
+                            bulkhead.name, event, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the {@link Bulkhead} of the specified listener
+     *
+     * @param applicationListener {@link ApplicationListener}
+     * @return <code>null</code> if the listener is not isolated
+     */
+    @Nullable
+    public Bulkhead getBulkhead(ApplicationListener<?> applicationListener) {
+        Optional<Bulkhead> bulkhead = listenerBulkheads.get(applicationListener);
+        if (bulkhead == null) {
+            bulkhead = listenerBulkheads.computeIfAbsent(applicationListener, this::resolveBulkhead);
+        }
+        return bulkhead.orElse(null);
+    }
+
+    private Optional<Bulkhead> resolveBulkhead(ApplicationListener<?> applicationListener) {
+        ApplicationListener<?> listener = InterceptingApplicationListener.getDelegate(applicationListener);
+        for (BulkheadRule rule : rules) {
+            if (rule.matcher.test(listener)) {
+                return Optional.of(bulkheads.computeIfAbsent(rule.name, name -> new Bulkhead(name, rule.concurrency, rule.queueCapacity, rule.overflowPolicy)));
+            }
+        }
+        if (defaultOverflowPolicy == null) {
+            return Optional.empty();
+        }
+        String name = getUserClass(listener).getSimpleName() + "@" + Integer.toHexString(identityHashCode(listener));
+        return Optional.of(bulkheads.computeIfAbsent(name, n -> new Bulkhead(n, defaultConcurrency, defaultQueueCapacity, defaultOverflowPolicy)));
+    }
+
+    /**
+     * @return the read-only {@link Bulkhead bulkheads} have been created
+     */
+    public Collection<Bulkhead> getBulkheads() {
+        return unmodifiableList(newArrayList(bulkheads.values()));
+    }
+
+    /**
+     * @param type the type of listeners
+     * @return the {@link Predicate} matches the listeners of the specified type
+     */
+    public static Predicate<ApplicationListener<?>> listenerType(Class<?> type) {
+        return listener -> type.isInstance(listener);
+    }
+
+    /**
+     * @param annotationType the type of annotation
+     * @return the {@link Predicate} matches the listeners whose classes are annotated by the specified annotation
+     */
+    public static Predicate<ApplicationListener<?>> annotatedWith(Class<? extends Annotation> annotationType) {
+        return listener -> hasAnnotation(getUserClass(listener), annotationType);
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.destroyed = true;
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            bulkhead.executor.shutdown();
+        }
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            if (!bulkhead.executor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, MILLISECONDS) && logger.isWarnEnabled()) {
+                logger.warn("The bulkhead['{}'] was not terminated in {} ms, pending events : {}", bulkhead.name,
+                        SHUTDOWN_TIMEOUT_MILLIS, bulkhead.getQueueDepth());
+            }
+        }
+    }
+
+    private static void validate(int concurrency, int queueCapacity) {
+        isTrue(concurrency > 0, "The 'concurrency' argument must be positive");
+        isTrue(queueCapacity > 0, "The 'queueCapacity' argument must be positive");
+    }
+
+    private static class BulkheadRule {
+
+        private final String name;
+
+        private final Predicate<ApplicationListener<?>> matcher;
+
+        private final int concurrency;
+
+        private final int queueCapacity;
+
+        private final OverflowPolicy overflowPolicy;
+
+        BulkheadRule(String name, Predicate<ApplicationListener<?>> matcher, int concurrency, int queueCapacity,
+                     OverflowPolicy overflowPolicy) {
+            this.name = name;
+            this.matcher = matcher;
+            this.concurrency = concurrency;
+            this.queueCapacity = queueCapacity;
+            this.overflowPolicy = overflowPolicy;
+        }
+    }
+
+    /**
+     * The bulkhead with a bounded queue and the limit of concurrency
+     */
+    public static class Bulkhead implements RejectedExecutionHandler {
+
+        /**
+         * The bulkhead of the current thread
+         */
+        private static final ThreadLocal<Bulkhead> currentBulkhead = new ThreadLocal<>();
+
+        private final String name;
+
+        private final OverflowPolicy overflowPolicy;
+
+        private final ThreadPoolExecutor executor;
+
+        private final LongAdder rejectedCount = new LongAdder();
+
+        private final LongAdder failedCount = new LongAdder();
+
+        Bulkhead(String name, int concurrency, int queueCapacity, OverflowPolicy overflowPolicy) {
+            this.name = name;
+            this.overflowPolicy = overflowPolicy;
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX + name + "-");
+            threadFactory.setDaemon(true);
+            ThreadFactory bulkheadThreadFactory = runnable -> threadFactory.newThread(() -> {
+                currentBulkhead.set(this);
+                runnable.run();
+            });
+            this.executor = new ThreadPoolExecutor(concurrency, concurrency, KEEP_ALIVE_SECONDS, SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), bulkheadThreadFactory, this);
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        void execute(Runnable task) {
+            executor.execute(task);
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                // Run on the caller after destroyed
+                task.run();
+                return;
+            }
+            rejectedCount.increment();
+            switch (overflowPolicy) {
+                case BLOCK:
+                    if (currentBulkhead.get() == this) {
+                        // The thread of bulkhead can't wait for itself to release the queue
+                        task.run();
+                        break;
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("The publisher was interrupted while waiting for the bulkhead['" + name + "']", e);
+                    }
+                    break;
+                case DROP_OLDEST:
+                    executor.getQueue().poll();
+                    executor.execute(task);
+                    break;
+                default:
+                    task.run();
+                    break;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        /**
+         * @return the number of events waiting in the queue
+         */
+        public int getQueueDepth() {
+            return executor.getQueue().size();
+        }
+
+        /**
+         * @return the number of listeners running
+         */
+        public int getActiveCount() {
+            return executor.getActiveCount();
+        }
+
+        /**
+         * @return the number of events overflowed, which were blocked, dropped or run on the caller by the
+         * {@link OverflowPolicy}
+         */
+        public long getRejectedCount() {
+            return rejectedCount.sum();
+        }
+
+        /**
+         * @return the number of events failed to be handled
+         */
+        public long getFailedCount() {
+            return failedCount.sum();
+        }
+
+        /**
+         * @return the number of events handled
+         */
+        public long getCompletedCount() {
+            return executor.getCompletedTaskCount();
+        }
+
+        @Override
+        public String toString() {
+            return "Bulkhead{name='" + name + "', overflowPolicy=" + overflowPolicy + ", queueDepth=" + getQueueDepth()
+                    + ", activeCount=" + getActiveCount() + ", rejectedCount=" + getRejectedCount() + "}";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+import static java.util.Collections.unmodifiableList;
+import static org.springframework.core.ResolvableType.forClassWithGenerics;
+
+/**
+ * The {@link ApplicationEvent} aggregates the events of the same type and source coalesced by
+ * {@link CoalescingApplicationEventInterceptor} in a window, the listeners could declare the type of sub-events as
+ * the generic type, e.g. {@code ApplicationListener<CoalescedApplicationEvent<BeanPropertyChangedEvent>>}.
+ *
+ * @param <E> the type of sub-events
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CoalescingApplicationEventInterceptor
+ * @since 1.0.0
+ */
+public class CoalescedApplicationEvent<E extends ApplicationEvent> extends ApplicationEvent implements ResolvableTypeProvider {
+
+    private final Class<E> eventType;
+
+    private final List<E> events;
+
+    /**
+     * @param source    the source of the sub-events
+     * @param eventType the type of sub-events
+     * @param events    the sub-events in order of publishing
+     */
+    public CoalescedApplicationEvent(Object source, Class<E> eventType, List<E> events) {
+        super(source);
+        this.eventType = eventType;
+        this.events = unmodifiableList(events);
+    }
+
+    /**
+     * @return the type of sub-events
+     */
+    public Class<E> getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return the merged sub-events in order of publishing
+     */
+    public List<E> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the first sub-event
+     */
+    public E getFirstEvent() {
+        return events.get(0);
+    }
+
+    /**
+     * @return the last sub-event
+     */
+    public E getLastEvent() {
+        return events.get(events.size() - 1);
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return forClassWithGenerics(CoalescedApplicationEvent.class, eventType);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CoalescedApplicationEvent.class.getSimpleName() + "[", "]")
+                .add("source=" + getSource())
+                .add("eventType=" + eventType.getName())
+                .add("events=" + events.size())
+                .toString();
+    }
+}
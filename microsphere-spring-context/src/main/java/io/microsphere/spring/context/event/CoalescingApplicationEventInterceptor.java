@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.logging.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.core.ResolvableType.forInstance;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * The {@link ApplicationEventInterceptor} coalesces the events of the configured types from the same source in a
+ * window into one {@link CoalescedApplicationEvent}, which keeps the merged sub-events in order, thus the listeners
+ * recompute once per burst, e.g. a stream of {@link BeanPropertyChangedEvent BeanPropertyChangedEvents} of a bean or
+ * {@link io.microsphere.spring.config.env.event.PropertySourcesChangedEvent PropertySourcesChangedEvents} when a config
+ * directory is rewritten.
+ * <p>
+ * A window is opened by the first event, and closed when the {@link #getWindowMillis() time window} is elapsed or the
+ * {@link #getMaxEvents() max number of events} is reached, whichever is first. If the window is closed by the time, the
+ * {@link CoalescedApplicationEvent} is passed to the rest of the interceptor chain by the timer thread, or by the
+ * publishing thread otherwise. The events of the other types are passed through as usual. The pending windows are
+ * flushed on {@link #destroy()}, and the events are passed through after that.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Bean
+ * public CoalescingApplicationEventInterceptor coalescingApplicationEventInterceptor() {
+ *     return new CoalescingApplicationEventInterceptor(200, 100, BeanPropertyChangedEvent.class);
+ * }
+ *
+ * @EventListener
+ * public void onBeanPropertiesChanged(CoalescedApplicationEvent<BeanPropertyChangedEvent> event) {
+ *     // recompute once for event.getEvents()
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CoalescedApplicationEvent
+ * @see ApplicationEventInterceptor
+ * @since 1.0.0
+ */
+public class CoalescingApplicationEventInterceptor implements ApplicationEventInterceptor, DisposableBean {
+
+    private static final Logger logger = getLogger(CoalescingApplicationEventInterceptor.class);
+
+    /**
+     * The default prefix of the name of the timer thread
+     */
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "Coalescing-Event-Interceptor-";
+
+    private final long windowMillis;
+
+    private final int maxEvents;
+
+    private final Class<? extends ApplicationEvent>[] eventTypes;
+
+    private final ConcurrentMap<WindowKey, Window> windows = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private int order = LOWEST_PRECEDENCE;
+
+    private volatile boolean destroyed;
+
+    /**
+     * @param windowMillis the time window in milliseconds
+     * @param maxEvents    the max number of events in a window
+     * @param eventTypes   the types of events to be coalesced
+     */
+    @SafeVarargs
+    public CoalescingApplicationEventInterceptor(long windowMillis, int maxEvents, Class<? extends ApplicationEvent>... eventTypes) {
+        isTrue(windowMillis > 0, "The 'windowMillis' argument must be positive");
+        isTrue(maxEvents > 0, "The 'maxEvents' argument must be positive");
+        this.windowMillis = windowMillis;
+        this.maxEvents = maxEvents;
+        this.eventTypes = eventTypes;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(DEFAULT_THREAD_NAME_PREFIX);
+        threadFactory.setDaemon(true);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void intercept(ApplicationEvent event, ResolvableType eventType, ApplicationEventInterceptorChain chain) {
+        Class<? extends ApplicationEvent> coalescedEventType = getCoalescedEventType(event);
+        if (coalescedEventType == null || destroyed) {
+            chain.intercept(event, eventType);
+            return;
+        }
+
+        WindowKey key = new WindowKey(coalescedEventType, event.getSource());
+        while (true) {
+            Window window = windows.computeIfAbsent(key, k -> new Window(k, chain));
+            boolean full;
+            synchronized (window) {
+                if (window.closed) {
+                    // The window was closed concurrently, try a new one
+                    continue;
+                }
+                window.events.add(event);
+                full = window.events.size() >= maxEvents;
+                if (window.events.size() == 1 && !full) {
+                    try {
+                        window.future = scheduler.schedule(() -> flush(window), windowMillis, MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // The scheduler was shutdown concurrently
+                        full = true;
+                    }
+                }
+                if (full) {
+                    close(window);
+                }
+            }
+            if (full) {
+                publish(window);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Flush all pending windows
+     */
+    public void flush() {
+        for (Window window : windows.values()) {
+            flush(window);
+        }
+    }
+
+    private void flush(Window window) {
+        synchronized (window) {
+            if (window.closed) {
+                return;
+            }
+            close(window);
+        }
+        try {
+            publish(window);
+        } catch (Throwable e) {
+            // The failure can't be propagated to the publishers
+            if (logger.isWarnEnabled()) {
+                logger.warn("The coalesced events[type : '{}' , source : {}] can't be published", window.key.eventType.getName(),
+                        window.key.source, e);
+            }
+        }
+    }
+
+    private void close(Window window) {
+        window.closed = true;
+        windows.remove(window.key, window);
+        ScheduledFuture<?> future = window.future;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private void publish(Window window) {
+        CoalescedApplicationEvent<?> coalescedEvent = newCoalescedEvent(window.key.source, window.key.eventType, window.events);
+        window.chain.intercept(coalescedEvent, forInstance(coalescedEvent));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends ApplicationEvent> CoalescedApplicationEvent<E> newCoalescedEvent(Object source, Class<E> eventType,
+                                                                                             List<ApplicationEvent> events) {
+        // The events are the instances of the event type
+        return new CoalescedApplicationEvent<>(source, eventType, (List<E>) events);
+    }
+
+    Class<? extends ApplicationEvent> getCoalescedEventType(ApplicationEvent event) {
+        if (event instanceof CoalescedApplicationEvent) {
+            return null;
+        }
+        for (Class<? extends ApplicationEvent> eventType : eventTypes) {
+            if (eventType.isInstance(event)) {
+                return eventType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of pending windows
+     */
+    public int getPendingWindows() {
+        return windows.size();
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        destroyed = true;
+        flush();
+        scheduler.shutdownNow();
+        // The windows opened concurrently before the shutdown
+        flush();
+    }
+
+    private static final class WindowKey {
+
+        private final Class<? extends ApplicationEvent> eventType;
+
+        private final Object source;
+
+        private final int hashCode;
+
+        WindowKey(Class<? extends ApplicationEvent> eventType, Object source) {
+            this.eventType = eventType;
+            this.source = source;
+            this.hashCode = 31 * eventType.hashCode() + System.identityHashCode(source);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WindowKey that)) {
+                return false;
+            }
+            // The sources are compared by identity, e.g. the beans
+            return this.eventType == that.eventType && this.source == that.source;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private final class Window {
+
+        private final WindowKey key;
+
+        private final ApplicationEventInterceptorChain chain;
+
+        private final List<ApplicationEvent> events = newArrayList(min(maxEvents, 16));
+
+        private ScheduledFuture<?> future;
+
+        private boolean closed;
+
+        Window(WindowKey key, ApplicationEventInterceptorChain chain) {
+            this.key = key;
+            this.chain = chain;
+        }
+    }
+}
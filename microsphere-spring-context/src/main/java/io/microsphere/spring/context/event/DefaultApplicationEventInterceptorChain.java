@@ -19,11 +19,17 @@ package io.microsphere.spring.context.event;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.core.ResolvableType;
 
-import java.util.Iterator;
+import java.util.List;
 import java.util.function.BiConsumer;
 
+import static io.microsphere.collection.ListUtils.newArrayList;
+
 /**
  * {@link ApplicationEventInterceptor} Chain
+ * <p>
+ * The interceptors are compiled into the immutable nodes once, every node holds the interceptor at its index and the
+ * next node, thus the chain is thread-safe and can be reused for all events without any allocation. The consumer is
+ * invoked directly if there is no interceptor.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @see ApplicationEventInterceptor
@@ -31,23 +37,32 @@ import java.util.function.BiConsumer;
  */
 class DefaultApplicationEventInterceptorChain implements ApplicationEventInterceptorChain {
 
-    private final Iterator<ApplicationEventInterceptor> iterator;
+    private final ApplicationEventInterceptor interceptor;
+
+    private final DefaultApplicationEventInterceptorChain next;
 
     private final BiConsumer<ApplicationEvent, ResolvableType> eventAndTypeConsumer;
 
     public DefaultApplicationEventInterceptorChain(Iterable<ApplicationEventInterceptor> interceptors,
                                                    BiConsumer<ApplicationEvent, ResolvableType> eventAndTypeConsumer) {
-        this.iterator = interceptors.iterator();
+        this(newArrayList(interceptors), 0, eventAndTypeConsumer);
+    }
+
+    private DefaultApplicationEventInterceptorChain(List<ApplicationEventInterceptor> interceptors, int index,
+                                                    BiConsumer<ApplicationEvent, ResolvableType> eventAndTypeConsumer) {
+        boolean end = index >= interceptors.size();
+        this.interceptor = end ? null : interceptors.get(index);
+        this.next = end ? null : new DefaultApplicationEventInterceptorChain(interceptors, index + 1, eventAndTypeConsumer);
         this.eventAndTypeConsumer = eventAndTypeConsumer;
     }
 
     @Override
     public void intercept(ApplicationEvent event, ResolvableType eventType) {
-        while (iterator.hasNext()) {
-            ApplicationEventInterceptor interceptor = iterator.next();
-            interceptor.intercept(event, eventType, this);
-            return;
+        ApplicationEventInterceptor interceptor = this.interceptor;
+        if (interceptor == null) {
+            eventAndTypeConsumer.accept(event, eventType);
+        } else {
+            interceptor.intercept(event, eventType, this.next);
         }
-        eventAndTypeConsumer.accept(event, eventType);
     }
 }
\ No newline at end of file
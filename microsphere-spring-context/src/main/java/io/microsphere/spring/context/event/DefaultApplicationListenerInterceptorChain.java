@@ -19,35 +19,49 @@ package io.microsphere.spring.context.event;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 
-import java.util.Iterator;
+import java.util.List;
 import java.util.function.BiConsumer;
 
+import static io.microsphere.collection.ListUtils.newArrayList;
+
 /**
- * {@link ApplicationEventInterceptor} Chain
+ * {@link ApplicationListenerInterceptor} Chain
+ * <p>
+ * The interceptors are compiled into the immutable nodes once, every node holds the interceptor at its index and the
+ * next node, thus the chain is thread-safe and can be reused for all listeners and events without any allocation.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
- * @see ApplicationEventInterceptor
+ * @see ApplicationListenerInterceptor
  * @since 1.0.0
  */
 class DefaultApplicationListenerInterceptorChain implements ApplicationListenerInterceptorChain {
 
-    private final Iterator<ApplicationListenerInterceptor> iterator;
+    private final ApplicationListenerInterceptor interceptor;
+
+    private final DefaultApplicationListenerInterceptorChain next;
 
     private final BiConsumer<ApplicationListener<?>, ApplicationEvent> listenerAndEventConsumer;
 
     public DefaultApplicationListenerInterceptorChain(Iterable<ApplicationListenerInterceptor> interceptors,
                                                       BiConsumer<ApplicationListener<?>, ApplicationEvent> listenerAndEventConsumer) {
-        this.iterator = interceptors.iterator();
+        this(newArrayList(interceptors), 0, listenerAndEventConsumer);
+    }
+
+    private DefaultApplicationListenerInterceptorChain(List<ApplicationListenerInterceptor> interceptors, int index,
+                                                       BiConsumer<ApplicationListener<?>, ApplicationEvent> listenerAndEventConsumer) {
+        boolean end = index >= interceptors.size();
+        this.interceptor = end ? null : interceptors.get(index);
+        this.next = end ? null : new DefaultApplicationListenerInterceptorChain(interceptors, index + 1, listenerAndEventConsumer);
         this.listenerAndEventConsumer = listenerAndEventConsumer;
     }
 
     @Override
     public void intercept(ApplicationListener<?> applicationListener, ApplicationEvent event) {
-        while (iterator.hasNext()) {
-            ApplicationListenerInterceptor interceptor = iterator.next();
-            interceptor.intercept(applicationListener, event, this);
-            return;
+        ApplicationListenerInterceptor interceptor = this.interceptor;
+        if (interceptor == null) {
+            listenerAndEventConsumer.accept(applicationListener, event);
+        } else {
+            interceptor.intercept(applicationListener, event, this.next);
         }
-        listenerAndEventConsumer.accept(applicationListener, event);
     }
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ package io.microsphere.spring.context.event;
 import io.microsphere.annotation.Nullable;
 import io.microsphere.filter.Filter;
 import io.microsphere.logging.Logger;
+import io.microsphere.spring.beans.factory.BeanDependencyGraph;
 import io.microsphere.spring.beans.factory.filter.ResolvableDependencyTypeFilter;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.PropertyValue;
@@ -49,7 +50,6 @@ import static io.microsphere.collection.ListUtils.newArrayList;
 import static io.microsphere.collection.ListUtils.newLinkedList;
 import static io.microsphere.collection.Lists.ofList;
 import static io.microsphere.collection.MapUtils.newHashMap;
-import static io.microsphere.collection.MapUtils.newLinkedHashMap;
 import static io.microsphere.collection.SetUtils.newLinkedHashSet;
 import static io.microsphere.logging.LoggerFactory.getLogger;
 import static io.microsphere.reflect.TypeUtils.isParameterizedType;
@@ -59,7 +59,6 @@ import static io.microsphere.spring.core.MethodParameterUtils.forParameter;
 import static io.microsphere.util.ArrayUtils.EMPTY_PARAMETER_ARRAY;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.emptySet;
 import static org.springframework.util.ClassUtils.resolveClassName;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
@@ -102,33 +101,31 @@ public class DependencyAnalysisBeanFactoryListener implements BeanFactoryListene
     }
 
     private void flattenDependentBeanNamesMap(Map<String, Set<String>> dependentBeanNamesMap) {
-        Map<String, Set<String>> dependenciesMap = newLinkedHashMap(dependentBeanNamesMap.size());
+        BeanDependencyGraph dependencyGraph = new BeanDependencyGraph(dependentBeanNamesMap);
         for (Entry<String, Set<String>> entry : dependentBeanNamesMap.entrySet()) {
-            Set<String> dependentBeanNames = entry.getValue();
-            if (dependentBeanNames.isEmpty()) { // No Dependent bean name
+            if (entry.getValue().isEmpty()) { // No Dependent bean name
                 continue;
             }
-            String beanName = entry.getKey();
-            Set<String> flattenDependentBeanNames = newLinkedHashSet(dependentBeanNames.size() * 2);
-            // flat
-            flatDependentBeanNames(beanName, dependentBeanNamesMap, dependenciesMap, flattenDependentBeanNames);
-            // Replace flattenDependentBeanNames to dependentBeanNames
-            entry.setValue(flattenDependentBeanNames);
+            // Replace the transitive dependent bean names to dependentBeanNames
+            entry.setValue(dependencyGraph.getTransitiveDependencies(entry.getKey()));
         }
 
         // Remove the bean names that ware dependent by the requesting beans
-        for (Entry<String, Set<String>> entry : dependenciesMap.entrySet()) {
-            String dependentBeanName = entry.getKey();
-            dependentBeanNamesMap.remove(dependentBeanName);
-            logDependenciesTrace(dependentBeanName, entry);
+        Iterator<String> iterator = dependentBeanNamesMap.keySet().iterator();
+        while (iterator.hasNext()) {
+            String dependentBeanName = iterator.next();
+            if (dependencyGraph.isDependedOn(dependentBeanName)) {
+                iterator.remove();
+                logDependenciesTrace(dependentBeanName, dependencyGraph);
+            }
         }
 
         logDependentTrace(dependentBeanNamesMap);
     }
 
-    private void logDependenciesTrace(String dependentBeanName, Entry<String, Set<String>> dependencies) {
+    private void logDependenciesTrace(String dependentBeanName, BeanDependencyGraph dependencyGraph) {
         if (logger.isTraceEnabled()) {
-            logger.trace("The bean dependency : '{}' -> beans : {}", dependentBeanName, dependencies.getValue());
+            logger.trace("The bean dependency : '{}' -> beans : {}", dependentBeanName, dependencyGraph.getDirectDependents(dependentBeanName));
         }
     }
 
@@ -140,31 +137,6 @@ public class DependencyAnalysisBeanFactoryListener implements BeanFactoryListene
         }
     }
 
-    private void flatDependentBeanNames(String beanName, Map<String, Set<String>> dependentBeanNamesMap,
-                                        Map<String, Set<String>> dependenciesMap,
-                                        Set<String> flattenDependentBeanNames) {
-        Set<String> dependentBeanNames = retrieveDependentBeanNames(beanName, dependentBeanNamesMap);
-        if (dependentBeanNames.isEmpty()) {
-            return;
-        }
-        for (String dependentBeanName : dependentBeanNames) {
-            Set<String> dependencies = dependenciesMap.computeIfAbsent(dependentBeanName, k -> newLinkedHashSet());
-            dependencies.add(beanName);
-            flattenDependentBeanNames.add(dependentBeanName);
-            flatDependentBeanNames(dependentBeanName, dependentBeanNamesMap, dependenciesMap, flattenDependentBeanNames);
-        }
-    }
-
-    private Set<String> retrieveDependentBeanNames(String beanName, Map<String, Set<String>> dependentBeanNamesMap) {
-        Set<String> dependentBeanNames = dependentBeanNamesMap.get(beanName);
-        if (dependentBeanNames == null) {
-            dependentBeanNames = emptySet();
-        } else {
-            dependentBeanNames.remove(beanName);
-        }
-        return dependentBeanNames;
-    }
-
     private Set<String> resolveDependentBeanNames(BeanDefinitionHolder beanDefinitionHolder,
                                                   Filter<Class<?>> resolvableDependencyTypeFilter,
                                                   List<BeanDefinitionHolder> beanDefinitionHolders,
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.Nullable;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+
+import static java.lang.System.identityHashCode;
+
+/**
+ * The extractor of the key from the {@link ApplicationEvent}, the events with the same key are dispatched in order by
+ * the {@link PartitionedApplicationEventDispatcher}, e.g. the bean of {@link BeanPropertyChangedEvent} or the property
+ * name of a change event.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * EventKeyExtractor extractor = (event, eventType) -> event instanceof BeanPropertyChangedEvent changedEvent ?
+ *         changedEvent.getPropertyName() : null;
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see PartitionedApplicationEventDispatcher
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface EventKeyExtractor {
+
+    /**
+     * The {@link EventKeyExtractor} extracts the source of event as the key, which is hashed by the identity, because
+     * the hash code of source (e.g. a bean) may be changed by its properties
+     */
+    EventKeyExtractor SOURCE_IDENTITY = new EventKeyExtractor() {
+
+        @Override
+        public Object extractKey(ApplicationEvent event, ResolvableType eventType) {
+            return event.getSource();
+        }
+
+        @Override
+        public int hash(Object key) {
+            return identityHashCode(key);
+        }
+    };
+
+    /**
+     * Extract the key from the event
+     *
+     * @param event     the {@link ApplicationEvent}
+     * @param eventType the resolved type of event
+     * @return the key, <code>null</code> if the event has no key, which shares the same partition with others
+     */
+    @Nullable
+    Object extractKey(ApplicationEvent event, ResolvableType eventType);
+
+    /**
+     * Hash the key, the hash code must be stable for the same key
+     *
+     * @param key the key, may be <code>null</code>
+     * @return the hash code
+     */
+    default int hash(@Nullable Object key) {
+        return key == null ? 0 : key.hashCode();
+    }
+}
@@ -41,17 +41,44 @@ import static io.microsphere.spring.beans.factory.BeanFactoryUtils.asListableBea
  */
 public class InterceptingApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
 
-    private List<ApplicationEventInterceptor> applicationEventInterceptors;
+    /**
+     * The compiled chain of {@link ApplicationEventInterceptor}, <code>null</code> if there is no interceptor
+     */
+    @Nullable
+    private ApplicationEventInterceptorChain applicationEventInterceptorChain;
 
-    private List<ApplicationListenerInterceptor> applicationListenerInterceptors;
+    /**
+     * The compiled chain of {@link ApplicationListenerInterceptor}, <code>null</code> if there is no interceptor
+     */
+    @Nullable
+    private ApplicationListenerInterceptorChain applicationListenerInterceptorChain;
+
+    @Nullable
+    private RingBufferApplicationEventDispatcher ringBufferDispatcher;
+
+    private PartitionedApplicationEventDispatcher partitionedDispatcher;
 
     @Override
     public final void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
-        execute(() -> {
-            ResolvableType type = resolveEventType(event, eventType);
-            DefaultApplicationEventInterceptorChain chain = new DefaultApplicationEventInterceptorChain(this.applicationEventInterceptors, this::doMulticastEvent);
+        RingBufferApplicationEventDispatcher ringBufferDispatcher = this.ringBufferDispatcher;
+        if (ringBufferDispatcher != null && (ringBufferDispatcher.publish(event, eventType) || ringBufferDispatcher.isRunning())) {
+            // published, or dropped because the ring buffer is full, otherwise fall back after it's closed
+            return;
+        }
+        PartitionedApplicationEventDispatcher partitionedDispatcher = this.partitionedDispatcher;
+        if (partitionedDispatcher == null || !partitionedDispatcher.publish(event, resolveEventType(event, eventType))) {
+            execute(() -> interceptEvent(event, eventType));
+        }
+    }
+
+    private void interceptEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+        ResolvableType type = resolveEventType(event, eventType);
+        ApplicationEventInterceptorChain chain = this.applicationEventInterceptorChain;
+        if (chain == null) {
+            doMulticastEvent(event, type);
+        } else {
             chain.intercept(event, type);
-        });
+        }
     }
 
     static ResolvableType resolveEventType(ApplicationEvent event, ResolvableType eventType) {
@@ -64,8 +91,12 @@ public class InterceptingApplicationEventMulticaster extends SimpleApplicationEv
 
     @Override
     protected final void invokeListener(ApplicationListener<?> listener, ApplicationEvent event) {
-        DefaultApplicationListenerInterceptorChain chain = new DefaultApplicationListenerInterceptorChain(this.applicationListenerInterceptors, this::doInvokeListener);
-        chain.intercept(listener, event);
+        ApplicationListenerInterceptorChain chain = this.applicationListenerInterceptorChain;
+        if (chain == null) {
+            doInvokeListener(listener, event);
+        } else {
+            chain.intercept(listener, event);
+        }
     }
 
     protected void doMulticastEvent(ApplicationEvent event, ResolvableType eventType) {
@@ -80,19 +111,67 @@ public class InterceptingApplicationEventMulticaster extends SimpleApplicationEv
     public void setBeanFactory(BeanFactory beanFactory) {
         super.setBeanFactory(beanFactory);
         ListableBeanFactory listableBeanFactory = asListableBeanFactory(beanFactory);
-        this.applicationEventInterceptors = getSortedBeans(listableBeanFactory, ApplicationEventInterceptor.class);
-        this.applicationListenerInterceptors = getSortedBeans(listableBeanFactory, ApplicationListenerInterceptor.class);
+        List<ApplicationEventInterceptor> applicationEventInterceptors = getSortedBeans(listableBeanFactory, ApplicationEventInterceptor.class);
+        List<ApplicationListenerInterceptor> applicationListenerInterceptors = getSortedBeans(listableBeanFactory, ApplicationListenerInterceptor.class);
+        this.applicationEventInterceptorChain = applicationEventInterceptors.isEmpty() ? null :
+                new DefaultApplicationEventInterceptorChain(applicationEventInterceptors, this::doMulticastEvent);
+        this.applicationListenerInterceptorChain = applicationListenerInterceptors.isEmpty() ? null :
+                new DefaultApplicationListenerInterceptorChain(applicationListenerInterceptors, this::doInvokeListener);
     }
 
     @Override
     protected Executor getTaskExecutor() {
         Executor executor = super.getTaskExecutor();
-        if (executor == null) {
+        PartitionedApplicationEventDispatcher partitionedDispatcher = this.partitionedDispatcher;
+        if (executor == null || (partitionedDispatcher != null && partitionedDispatcher.isLaneThread(Thread.currentThread()))) {
+            // The listeners are invoked in the lane thread to keep the order of events with the same key
             executor = Runnable::run;
         }
         return executor;
     }
 
+    /**
+     * Set the {@link RingBufferApplicationEventDispatcher} to dispatch the events asynchronously without the allocation
+     * of a task per event, which takes precedence over the {@link #setTaskExecutor(Executor) task executor} until it's
+     * closed. The dispatcher will be started if it's not running.
+     *
+     * @param ringBufferDispatcher the {@link RingBufferApplicationEventDispatcher}, <code>null</code> to disable
+     * @see RingBufferApplicationEventDispatcher
+     */
+    public void setRingBufferDispatcher(@Nullable RingBufferApplicationEventDispatcher ringBufferDispatcher) {
+        if (ringBufferDispatcher != null && !ringBufferDispatcher.isRunning()) {
+            ringBufferDispatcher.start(this::interceptEvent);
+        }
+        this.ringBufferDispatcher = ringBufferDispatcher;
+    }
+
+    @Nullable
+    public RingBufferApplicationEventDispatcher getRingBufferDispatcher() {
+        return ringBufferDispatcher;
+    }
+
+    /**
+     * Set the {@link PartitionedApplicationEventDispatcher} to dispatch the events asynchronously in order per key,
+     * which takes precedence over the {@link #setTaskExecutor(Executor) task executor} until it's closed, but not over
+     * the {@link #setRingBufferDispatcher(RingBufferApplicationEventDispatcher) ring buffer dispatcher}. The listeners
+     * are invoked in the lane thread of the event rather than the task executor. The dispatcher will be started if it's
+     * not running.
+     *
+     * @param partitionedDispatcher the {@link PartitionedApplicationEventDispatcher}, <code>null</code> to disable
+     * @see PartitionedApplicationEventDispatcher
+     */
+    public void setPartitionedDispatcher(@Nullable PartitionedApplicationEventDispatcher partitionedDispatcher) {
+        if (partitionedDispatcher != null && !partitionedDispatcher.isRunning()) {
+            partitionedDispatcher.start(this::interceptEvent);
+        }
+        this.partitionedDispatcher = partitionedDispatcher;
+    }
+
+    @Nullable
+    public PartitionedApplicationEventDispatcher getPartitionedDispatcher() {
+        return partitionedDispatcher;
+    }
+
     private void execute(Runnable runnable) {
         getTaskExecutor().execute(runnable);
     }
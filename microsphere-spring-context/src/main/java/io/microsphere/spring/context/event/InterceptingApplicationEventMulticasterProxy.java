@@ -23,30 +23,52 @@ import io.microsphere.spring.beans.factory.config.GenericBeanPostProcessorAdapte
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.AbstractApplicationEventMulticaster;
 import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.env.Environment;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
-import static io.microsphere.collection.MapUtils.newLinkedHashMap;
 import static io.microsphere.concurrent.ExecutorUtils.shutdownOnExit;
+import static io.microsphere.invoke.MethodHandleUtils.findVirtual;
 import static io.microsphere.spring.beans.BeanUtils.getSortedBeans;
 import static io.microsphere.spring.beans.factory.BeanFactoryUtils.asListableBeanFactory;
 import static io.microsphere.spring.context.event.InterceptingApplicationEventMulticaster.resolveEventType;
 import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+import static org.springframework.util.ClassUtils.isCacheSafe;
+import static org.springframework.util.ReflectionUtils.findMethod;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+import static org.springframework.util.ReflectionUtils.makeAccessible;
+import static org.springframework.util.ReflectionUtils.rethrowRuntimeException;
 
 /**
  * Intercepting {@link ApplicationEventMulticaster} Proxy
+ * <p>
+ * If the delegate is a plain {@link SimpleApplicationEventMulticaster} without the task executor when this proxy is
+ * initialized, the sorted listeners retrieved from it are cached by the event type and the source type, and the events
+ * are dispatched to the cached listeners directly through the {@link MethodHandle MethodHandles} resolved once, thus the
+ * high-frequency events skip the retrieval. The cache is invalidated when any listener is
+ * added or removed through this proxy. Otherwise, the events are multicast by the delegate as usual.
  *
  * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
  * @see ApplicationEventMulticaster
@@ -75,15 +97,50 @@ public class InterceptingApplicationEventMulticasterProxy extends GenericBeanPos
     )
     public static final String RESET_BEAN_NAME_PROPERTY_NAME = "microsphere.spring.application-event-multicaster.reset-bean-name";
 
+    private static final MethodHandle GET_APPLICATION_LISTENERS_METHOD_HANDLE = findVirtual(AbstractApplicationEventMulticaster.class,
+            "getApplicationListeners", ApplicationEvent.class, ResolvableType.class);
+
+    private static final MethodHandle INVOKE_LISTENER_METHOD_HANDLE = findVirtual(SimpleApplicationEventMulticaster.class,
+            "invokeListener", ApplicationListener.class, ApplicationEvent.class);
+
+    private static final Method GET_TASK_EXECUTOR_METHOD = findAccessibleMethod(SimpleApplicationEventMulticaster.class,
+            "getTaskExecutor");
+
     private final String delegateBeanName;
 
     private ApplicationEventMulticaster delegate;
 
-    private List<ApplicationEventInterceptor> applicationEventInterceptors;
+    /**
+     * The compiled chain of {@link ApplicationEventInterceptor}, <code>null</code> if there is no interceptor
+     */
+    @Nullable
+    private ApplicationEventInterceptorChain applicationEventInterceptorChain;
 
     private List<ApplicationListenerInterceptor> applicationListenerInterceptors;
 
-    private Map<ApplicationListener, InterceptingApplicationListener> applicationListenersMap;
+    /**
+     * The {@link InterceptingApplicationListener wrappers} keyed by their delegates
+     */
+    private ConcurrentMap<ApplicationListener, InterceptingApplicationListener> applicationListenersMap;
+
+    /**
+     * The sorted listeners retrieved from the delegate keyed by the event type and the source type
+     */
+    private final ConcurrentMap<ListenerCacheKey, ApplicationListener<?>[]> listenersCache = new ConcurrentHashMap<>();
+
+    /**
+     * The version of the listeners, increased on every addition or removal
+     */
+    private final AtomicLong listenersVersion = new AtomicLong();
+
+    /**
+     * The names of the non-singleton listener beans, the listeners can't be cached if present
+     */
+    private final Set<String> nonSingletonListenerBeanNames = ConcurrentHashMap.newKeySet();
+
+    private ConfigurableBeanFactory beanFactory;
+
+    private boolean listenersRetrievable;
 
     private Executor taskExecutor;
 
@@ -96,32 +153,44 @@ public class InterceptingApplicationEventMulticasterProxy extends GenericBeanPos
     }
 
     @Override
-    public synchronized void addApplicationListener(ApplicationListener<?> listener) {
+    public void addApplicationListener(ApplicationListener<?> listener) {
         InterceptingApplicationListener interceptingApplicationListener = wrap(listener);
         this.delegate.addApplicationListener(interceptingApplicationListener);
+        invalidateListenersCache();
     }
 
     @Override
     public void addApplicationListenerBean(String listenerBeanName) {
         this.delegate.addApplicationListenerBean(listenerBeanName);
+        if (!isSingletonBean(listenerBeanName)) {
+            this.nonSingletonListenerBeanNames.add(listenerBeanName);
+        }
+        invalidateListenersCache();
     }
 
     @Override
-    public synchronized void removeApplicationListener(ApplicationListener<?> listener) {
+    public void removeApplicationListener(ApplicationListener<?> listener) {
+        if (listener == null) {
+            return;
+        }
         final InterceptingApplicationListener wrapper;
         if (isCachedInterceptingApplicationListener(listener)) {
             wrapper = (InterceptingApplicationListener) listener;
+            this.applicationListenersMap.remove(wrapper.getDelegate(), wrapper);
         } else {
             wrapper = this.applicationListenersMap.remove(listener);
         }
         if (wrapper != null) {
             this.delegate.removeApplicationListener(wrapper);
+            invalidateListenersCache();
         }
     }
 
     @Override
     public void removeApplicationListenerBean(String listenerBeanName) {
         delegate.removeApplicationListenerBean(listenerBeanName);
+        this.nonSingletonListenerBeanNames.remove(listenerBeanName);
+        invalidateListenersCache();
     }
 
     @Override
@@ -130,29 +199,40 @@ public class InterceptingApplicationEventMulticasterProxy extends GenericBeanPos
             InterceptingApplicationListener wrapper = (InterceptingApplicationListener) listener;
             return predicate.test(wrapper.getDelegate());
         });
+        this.applicationListenersMap.keySet().removeIf(predicate::test);
+        invalidateListenersCache();
     }
 
     @Override
     public void removeApplicationListenerBeans(Predicate<String> predicate) {
         this.delegate.removeApplicationListenerBeans(predicate);
+        this.nonSingletonListenerBeanNames.removeIf(predicate);
+        invalidateListenersCache();
     }
 
     @Override
     public void removeAllListeners() {
         this.delegate.removeAllListeners();
+        this.applicationListenersMap.clear();
+        this.nonSingletonListenerBeanNames.clear();
+        invalidateListenersCache();
     }
 
     @Override
     public void multicastEvent(ApplicationEvent event) {
-        execute(() -> this.delegate.multicastEvent(event));
+        execute(() -> onEvent(event, null));
     }
 
     @Override
     public void multicastEvent(ApplicationEvent event, ResolvableType eventType) {
         execute(() -> {
             ResolvableType type = resolveEventType(event, eventType);
-            DefaultApplicationEventInterceptorChain chain = new DefaultApplicationEventInterceptorChain(this.applicationEventInterceptors, this::onEvent);
-            chain.intercept(event, type);
+            ApplicationEventInterceptorChain chain = this.applicationEventInterceptorChain;
+            if (chain == null) {
+                onEvent(event, type);
+            } else {
+                chain.intercept(event, type);
+            }
         });
     }
 
@@ -174,11 +254,120 @@ public class InterceptingApplicationEventMulticasterProxy extends GenericBeanPos
     }
 
     protected boolean isCachedInterceptingApplicationListener(ApplicationListener listener) {
-        return this.applicationListenersMap.containsValue(listener);
+        return listener instanceof InterceptingApplicationListener wrapper
+                && this.applicationListenersMap.get(wrapper.getDelegate()) == wrapper;
     }
 
-    private void onEvent(ApplicationEvent event, ResolvableType resolvableType) {
-        this.delegate.multicastEvent(event, resolvableType);
+    private void onEvent(ApplicationEvent event, @Nullable ResolvableType resolvableType) {
+        ApplicationListener<?>[] listeners = getApplicationListeners(event, resolvableType);
+        if (listeners == null) {
+            this.delegate.multicastEvent(event, resolvableType);
+        } else {
+            SimpleApplicationEventMulticaster multicaster = (SimpleApplicationEventMulticaster) this.delegate;
+            for (ApplicationListener<?> listener : listeners) {
+                try {
+                    INVOKE_LISTENER_METHOD_HANDLE.invokeExact(multicaster, (ApplicationListener) listener, event);
+                } catch (Throwable e) {
+                    rethrowRuntimeException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the sorted listeners supporting the event from the cache, or retrieve them from the delegate if absent
+     *
+     * @param event     the {@link ApplicationEvent}
+     * @param eventType the type of event, may be <code>null</code>
+     * @return <code>null</code> if the listeners can't be retrieved from the delegate, the event must be multicast by
+     * the delegate
+     */
+    @Nullable
+    ApplicationListener<?>[] getApplicationListeners(ApplicationEvent event, @Nullable ResolvableType eventType) {
+        if (!this.listenersRetrievable) {
+            return null;
+        }
+        ResolvableType type = resolveEventType(event, eventType);
+        Object source = event.getSource();
+        Class<?> sourceType = source == null ? null : source.getClass();
+        ListenerCacheKey cacheKey = new ListenerCacheKey(type, sourceType);
+        ApplicationListener<?>[] listeners = this.listenersCache.get(cacheKey);
+        if (listeners == null) {
+            long version = this.listenersVersion.get();
+            listeners = retrieveApplicationListeners(event, type);
+            if (isCacheable(event, sourceType)) {
+                this.listenersCache.put(cacheKey, listeners);
+                if (version != this.listenersVersion.get()) {
+                    // The listeners were changed during the retrieval
+                    this.listenersCache.remove(cacheKey, listeners);
+                }
+            }
+        }
+        return listeners;
+    }
+
+    private ApplicationListener<?>[] retrieveApplicationListeners(ApplicationEvent event, ResolvableType type) {
+        Collection<ApplicationListener<?>> retrievedListeners = null;
+        try {
+            retrievedListeners = (Collection<ApplicationListener<?>>) GET_APPLICATION_LISTENERS_METHOD_HANDLE.invokeExact(
+                    (AbstractApplicationEventMulticaster) this.delegate, event, type);
+        } catch (Throwable e) {
+            rethrowRuntimeException(e);
+        }
+        return retrievedListeners.toArray(new ApplicationListener<?>[0]);
+    }
+
+    private boolean isCacheable(ApplicationEvent event, Class<?> sourceType) {
+        if (!this.nonSingletonListenerBeanNames.isEmpty()) {
+            return false;
+        }
+        ClassLoader classLoader = this.beanFactory == null ? null : this.beanFactory.getBeanClassLoader();
+        return classLoader == null || (isCacheSafe(event.getClass(), classLoader)
+                && (sourceType == null || isCacheSafe(sourceType, classLoader)));
+    }
+
+    private void invalidateListenersCache() {
+        this.listenersVersion.incrementAndGet();
+        this.listenersCache.clear();
+    }
+
+    private boolean isSingletonBean(String beanName) {
+        if (this.beanFactory == null) {
+            return true;
+        }
+        try {
+            return this.beanFactory.isSingleton(beanName);
+        } catch (NoSuchBeanDefinitionException e) {
+            return true;
+        }
+    }
+
+    static boolean isListenersRetrievable(ApplicationEventMulticaster multicaster) {
+        if (GET_APPLICATION_LISTENERS_METHOD_HANDLE == null || INVOKE_LISTENER_METHOD_HANDLE == null || GET_TASK_EXECUTOR_METHOD == null
+                || !(multicaster instanceof SimpleApplicationEventMulticaster)) {
+            return false;
+        }
+        // The listeners are invoked by the task executor asynchronously
+        if (invokeMethod(GET_TASK_EXECUTOR_METHOD, multicaster) != null) {
+            return false;
+        }
+        // The sub-classes may customize the multicasting, e.g. InterceptingApplicationEventMulticaster
+        Class<?> multicasterClass = multicaster.getClass();
+        return isDeclaredBySimpleApplicationEventMulticaster(multicasterClass, "multicastEvent", ApplicationEvent.class, ResolvableType.class)
+                && isDeclaredBySimpleApplicationEventMulticaster(multicasterClass, "invokeListener", ApplicationListener.class, ApplicationEvent.class);
+    }
+
+    private static boolean isDeclaredBySimpleApplicationEventMulticaster(Class<?> multicasterClass, String methodName, Class<?>... parameterTypes) {
+        Method method = findMethod(multicasterClass, methodName, parameterTypes);
+        return method != null && SimpleApplicationEventMulticaster.class.equals(method.getDeclaringClass());
+    }
+
+    private static Method findAccessibleMethod(Class<?> type, String methodName, Class<?>... parameterTypes) {
+        Method method = findMethod(type, methodName, parameterTypes);
+        if (method != null) {
+            makeAccessible(method);
+        }
+        return method;
     }
 
     private void execute(Runnable runnable) {
@@ -200,9 +389,14 @@ public class InterceptingApplicationEventMulticasterProxy extends GenericBeanPos
     public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
         ListableBeanFactory listableBeanFactory = asListableBeanFactory(beanFactory);
         this.delegate = beanFactory.getBean(this.delegateBeanName, ApplicationEventMulticaster.class);
-        this.applicationEventInterceptors = getSortedBeans(listableBeanFactory, ApplicationEventInterceptor.class);
+        List<ApplicationEventInterceptor> applicationEventInterceptors = getSortedBeans(listableBeanFactory, ApplicationEventInterceptor.class);
+        this.applicationEventInterceptorChain = applicationEventInterceptors.isEmpty() ? null :
+                new DefaultApplicationEventInterceptorChain(applicationEventInterceptors, this::onEvent);
         this.applicationListenerInterceptors = getSortedBeans(listableBeanFactory, ApplicationListenerInterceptor.class);
-        this.applicationListenersMap = newLinkedHashMap();
+        this.applicationListenersMap = new ConcurrentHashMap<>();
+        this.beanFactory = beanFactory instanceof ConfigurableBeanFactory configurableBeanFactory ? configurableBeanFactory : null;
+        this.listenersRetrievable = isListenersRetrievable(this.delegate);
+        invalidateListenersCache();
     }
 
     @Override
@@ -213,6 +407,39 @@ public class InterceptingApplicationEventMulticasterProxy extends GenericBeanPos
     @Override
     public void destroy() throws Exception {
         this.applicationListenersMap.clear();
+        invalidateListenersCache();
         shutdownOnExit(this.taskExecutor);
     }
-}
\ No newline at end of file
+
+    private static final class ListenerCacheKey {
+
+        private final ResolvableType eventType;
+
+        @Nullable
+        private final Class<?> sourceType;
+
+        private final int hashCode;
+
+        ListenerCacheKey(ResolvableType eventType, @Nullable Class<?> sourceType) {
+            this.eventType = eventType;
+            this.sourceType = sourceType;
+            this.hashCode = 31 * eventType.hashCode() + Objects.hashCode(sourceType);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ListenerCacheKey that)) {
+                return false;
+            }
+            return this.eventType.equals(that.eventType) && this.sourceType == that.sourceType;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
@@ -38,7 +38,10 @@ class InterceptingApplicationListener implements GenericApplicationListenerAdapt
 
     private final GenericApplicationListener smartListener;
 
-    private final List<ApplicationListenerInterceptor> interceptors;
+    /**
+     * The compiled chain of {@link ApplicationListenerInterceptor}, <code>null</code> if there is no interceptor
+     */
+    private final ApplicationListenerInterceptorChain interceptorChain;
 
     InterceptingApplicationListener(ApplicationListener<?> listener, List<ApplicationListenerInterceptor> interceptors) {
         assertNotNull(listener, () -> "The 'listener' argument must not be null");
@@ -46,7 +49,8 @@ class InterceptingApplicationListener implements GenericApplicationListenerAdapt
         this.delegate = delegate;
         this.smartListener = (delegate instanceof GenericApplicationListener genericApplicationListener ?
                 genericApplicationListener : new org.springframework.context.event.GenericApplicationListenerAdapter(delegate));
-        this.interceptors = interceptors;
+        this.interceptorChain = interceptors == null || interceptors.isEmpty() ? null :
+                new DefaultApplicationListenerInterceptorChain(interceptors, this::onEvent);
     }
 
     @Override
@@ -56,8 +60,12 @@ class InterceptingApplicationListener implements GenericApplicationListenerAdapt
 
     @Override
     public void onApplicationEvent(ApplicationEvent event) {
-        DefaultApplicationListenerInterceptorChain chain = new DefaultApplicationListenerInterceptorChain(this.interceptors, this::onEvent);
-        chain.intercept(delegate, event);
+        ApplicationListenerInterceptorChain chain = this.interceptorChain;
+        if (chain == null) {
+            onEvent(delegate, event);
+        } else {
+            chain.intercept(delegate, event);
+        }
     }
 
     private void onEvent(ApplicationListener applicationListener, ApplicationEvent event) {
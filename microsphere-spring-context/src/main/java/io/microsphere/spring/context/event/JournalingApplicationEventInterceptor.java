@@ -0,0 +1,684 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.Nullable;
+import io.microsphere.logging.Logger;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.ResolvableType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.lang.Boolean.TRUE;
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.sort;
+import static java.util.Collections.synchronizedMap;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+import static org.springframework.util.Assert.isTrue;
+import static org.springframework.util.Assert.notNull;
+
+/**
+ * The {@link ApplicationEventInterceptor} journals the events of the configured types into the append-only,
+ * memory-mapped segment files before they are passed to the rest of the interceptor chain, thus the events can be
+ * {@link #replay(ApplicationEventMulticaster, Object) replayed} after a crash, e.g. for auditing or rebuilding the
+ * caches. The events journaled after the {@link #CHECKPOINT_FILE_NAME checkpoint} are replayed through the
+ * {@link ApplicationEventMulticaster} once the {@link ApplicationContext} is refreshed unless
+ * {@link #setReplayOnStartup(boolean) disabled}, and then the checkpoint is moved forward, thus every event is replayed
+ * on the startup once. The replayed events are not journaled again whatever the multicaster is, the replayed
+ * {@link PayloadApplicationEvent PayloadApplicationEvents} are marked by {@link ReplayedEvent}.
+ * <p>
+ * A segment is rolled over when the record can't fit in it, and the oldest segments are deleted if the
+ * {@link #setMaxSegments(int) max number of segments} is exceeded. The records are written into the page cache, which
+ * survive the crash of process, they are forced to the storage device on every write only if
+ * {@link #setSyncOnWrite(boolean) required}. When the journal is reopened, the torn tail of the last segment, detected
+ * by the CRC, is discarded.
+ * <p>
+ * The {@link PayloadApplicationEvent PayloadApplicationEvents} are journaled by their payloads, and replayed with the
+ * source passed in. The other events are journaled by the Java Serialization, and the {@link ApplicationEvent#getSource()
+ * source} of them is lost because it's transient, override {@link #serialize(ApplicationEvent)} and
+ * {@link #deserialize(byte[], Object)} to customize. The payloads or events must be {@link java.io.Serializable}, or
+ * they will be passed through without journaling. The journal must only be written by the trusted application, since
+ * it's deserialized on the replay.
+ *
+ * <h3>Segment Format</h3>
+ * <pre>
+ * int     magic ("MSEJ")
+ * int     version
+ * ( int   length of data, int CRC32 of timestamp and data, long timestamp, byte[] data )*
+ * int     0 (end of records)
+ * </pre>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Bean
+ * public JournalingApplicationEventInterceptor journalingApplicationEventInterceptor() {
+ *     return new JournalingApplicationEventInterceptor(new File("journal"), 64 * 1024 * 1024, ConfigChangedEvent.class);
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ApplicationEventInterceptor
+ * @see InterceptingApplicationEventMulticaster
+ * @since 1.0.0
+ */
+public class JournalingApplicationEventInterceptor implements ApplicationEventInterceptor,
+        ApplicationListener<ContextRefreshedEvent>, ApplicationContextAware, DisposableBean {
+
+    private static final Logger logger = getLogger(JournalingApplicationEventInterceptor.class);
+
+    /**
+     * The suffix of the segment files
+     */
+    public static final String SEGMENT_FILE_SUFFIX = ".journal";
+
+    /**
+     * The default size of segment in bytes : 16 MB
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The name of the file in the journal directory records the position after the events replayed on the startup
+     */
+    public static final String CHECKPOINT_FILE_NAME = "replay.checkpoint";
+
+    static final int MAGIC = 0x4D53454A;
+
+    static final int VERSION = 1;
+
+    static final int SEGMENT_HEADER_SIZE = 8;
+
+    static final int RECORD_HEADER_SIZE = 16;
+
+    private static final byte PAYLOAD_RECORD = 1;
+
+    private static final byte EVENT_RECORD = 2;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final Class<?>[] eventTypes;
+
+    /**
+     * The replayed events that can't be marked by {@link ReplayedEvent}, they are weakly referenced in case of the
+     * multicaster does not intercept them
+     */
+    private final Map<ApplicationEvent, Boolean> replayedEvents = synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicBoolean replayedOnStartup = new AtomicBoolean();
+
+    private final AtomicLong journaledCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private boolean syncOnWrite;
+
+    private int maxSegments;
+
+    private boolean replayOnStartup = true;
+
+    private int order = LOWEST_PRECEDENCE;
+
+    private ApplicationContext applicationContext;
+
+    // The states of the current segment, guarded by this
+
+    private long segmentIndex = -1;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private boolean closed;
+
+    /**
+     * @param directory  the directory of segment files
+     * @param eventTypes the types of events or payloads to be journaled
+     */
+    public JournalingApplicationEventInterceptor(File directory, Class<?>... eventTypes) {
+        this(directory, DEFAULT_SEGMENT_SIZE, eventTypes);
+    }
+
+    /**
+     * @param directory   the directory of segment files
+     * @param segmentSize the size of segment in bytes
+     * @param eventTypes  the types of events or payloads to be journaled
+     */
+    public JournalingApplicationEventInterceptor(File directory, int segmentSize, Class<?>... eventTypes) {
+        notNull(directory, "The 'directory' argument must not be null");
+        isTrue(segmentSize > SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE, "The 'segmentSize' argument is too small");
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.eventTypes = eventTypes;
+    }
+
+    @Override
+    public void intercept(ApplicationEvent event, ResolvableType eventType, ApplicationEventInterceptorChain chain) {
+        // The cheap type check goes first, the replayed events are looked up in the synchronized map
+        if (isJournaled(event) && !isReplayed(event)) {
+            journal(event);
+        }
+        chain.intercept(event, eventType);
+    }
+
+    private boolean isReplayed(ApplicationEvent event) {
+        return event instanceof ReplayedEvent || replayedEvents.remove(event) != null;
+    }
+
+    private boolean isJournaled(ApplicationEvent event) {
+        Object payload = event instanceof PayloadApplicationEvent<?> payloadEvent ? payloadEvent.getPayload() : null;
+        for (Class<?> eventType : eventTypes) {
+            if (eventType.isInstance(event) || eventType.isInstance(payload)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Journal the event
+     *
+     * @param event the {@link ApplicationEvent}
+     * @return <code>true</code> if journaled
+     */
+    public boolean journal(ApplicationEvent event) {
+        byte[] data;
+        try {
+            data = serialize(event);
+        } catch (IOException e) {
+            return failed(event, e);
+        }
+        int recordSize = RECORD_HEADER_SIZE + data.length;
+        if (recordSize > segmentSize - SEGMENT_HEADER_SIZE) {
+            return failed(event, new IOException("The size of record[" + recordSize + "] exceeds the segment"));
+        }
+        long timestamp = currentTimeMillis();
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(8).putLong(0, timestamp));
+        crc.update(data);
+        synchronized (this) {
+            try {
+                if (closed) {
+                    return failed(event, new IOException("The journal has been closed"));
+                }
+                if (buffer == null) {
+                    open();
+                }
+                if (buffer.remaining() < recordSize) {
+                    rollover();
+                }
+                int position = buffer.position();
+                // The length is written at last, thus the torn record is never visible
+                buffer.putInt(position + 4, (int) crc.getValue());
+                buffer.putLong(position + 8, timestamp);
+                buffer.put(position + RECORD_HEADER_SIZE, data);
+                buffer.putInt(position, data.length);
+                buffer.position(position + recordSize);
+                if (syncOnWrite) {
+                    buffer.force();
+                }
+            } catch (IOException e) {
+                return failed(event, e);
+            }
+        }
+        journaledCount.incrementAndGet();
+        return true;
+    }
+
+    private boolean failed(ApplicationEvent event, Exception e) {
+        failedCount.incrementAndGet();
+        if (logger.isWarnEnabled()) {
+            logger.warn("The event[{}] can't be journaled", event, e);
+        }
+        return false;
+    }
+
+    /**
+     * Replay all journaled events in order through the {@link ApplicationEventMulticaster}, e.g. for auditing
+     *
+     * @param multicaster the {@link ApplicationEventMulticaster}
+     * @param source      the source of the replayed {@link PayloadApplicationEvent PayloadApplicationEvents}
+     * @return the number of replayed events
+     * @throws IOException if the journal can't be read
+     */
+    public long replay(ApplicationEventMulticaster multicaster, Object source) throws IOException {
+        return replay(multicaster, source, false);
+    }
+
+    /**
+     * Replay the journaled events after the {@link #CHECKPOINT_FILE_NAME checkpoint} in order through the
+     * {@link ApplicationEventMulticaster}, and then move the checkpoint to the end of the replayed events, thus the
+     * events are replayed once across the restarts. It's invoked on the startup unless
+     * {@link #setReplayOnStartup(boolean) disabled}.
+     *
+     * @param multicaster the {@link ApplicationEventMulticaster}
+     * @param source      the source of the replayed {@link PayloadApplicationEvent PayloadApplicationEvents}
+     * @return the number of replayed events
+     * @throws IOException if the journal or the checkpoint can't be read or written
+     */
+    public long replaySinceCheckpoint(ApplicationEventMulticaster multicaster, Object source) throws IOException {
+        return replay(multicaster, source, true);
+    }
+
+    private long replay(ApplicationEventMulticaster multicaster, Object source, boolean sinceCheckpoint) throws IOException {
+        List<Path> segmentFiles;
+        int lastSegmentLimit;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("The journal has been closed");
+            }
+            if (buffer == null) {
+                open();
+            }
+            segmentFiles = listSegmentFiles();
+            lastSegmentLimit = buffer.position();
+        }
+        long checkpointSegmentIndex = -1;
+        int checkpointPosition = SEGMENT_HEADER_SIZE;
+        if (sinceCheckpoint) {
+            long[] checkpoint = readCheckpoint();
+            checkpointSegmentIndex = checkpoint[0];
+            checkpointPosition = (int) checkpoint[1];
+        }
+        long count = 0;
+        for (int i = 0, size = segmentFiles.size(); i < size; i++) {
+            Path segmentFile = segmentFiles.get(i);
+            long index = getSegmentIndex(segmentFile);
+            if (index < checkpointSegmentIndex || !Files.exists(segmentFile)) {
+                // replayed before, or deleted by the rollover concurrently
+                continue;
+            }
+            ByteBuffer segment;
+            try (FileChannel readChannel = FileChannel.open(segmentFile, READ)) {
+                segment = readChannel.map(READ_ONLY, 0, readChannel.size());
+            }
+            int limit = i == size - 1 ? lastSegmentLimit : segment.limit();
+            if (!readHeader(segment, segmentFile)) {
+                continue;
+            }
+            if (index == checkpointSegmentIndex && checkpointPosition > SEGMENT_HEADER_SIZE && checkpointPosition <= limit) {
+                segment.position(checkpointPosition);
+            }
+            byte[] data;
+            while ((data = readRecord(segment, limit, segmentFile)) != null) {
+                ApplicationEvent event;
+                try {
+                    event = deserialize(data, source);
+                } catch (IOException | ClassNotFoundException e) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn("The journaled event can't be deserialized from the segment['{}']", segmentFile, e);
+                    }
+                    continue;
+                }
+                if (!(event instanceof ReplayedEvent)) {
+                    replayedEvents.put(event, TRUE);
+                }
+                multicaster.multicastEvent(event);
+                count++;
+            }
+            if (sinceCheckpoint) {
+                writeCheckpoint(index, segment.position());
+            }
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("{} journaled events were replayed from the directory['{}']", count, directory);
+        }
+        return count;
+    }
+
+    private long[] readCheckpoint() throws IOException {
+        Path checkpointFile = directory.toPath().resolve(CHECKPOINT_FILE_NAME);
+        if (!Files.exists(checkpointFile)) {
+            return new long[]{-1, SEGMENT_HEADER_SIZE};
+        }
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(checkpointFile))) {
+            return new long[]{input.readLong(), input.readInt()};
+        } catch (EOFException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The checkpoint['{}'] is broken, all journaled events will be replayed", checkpointFile);
+            }
+            return new long[]{-1, SEGMENT_HEADER_SIZE};
+        }
+    }
+
+    private void writeCheckpoint(long segmentIndex, int position) throws IOException {
+        Path checkpointFile = directory.toPath().resolve(CHECKPOINT_FILE_NAME);
+        Path temp = Files.createTempFile(directory.toPath(), CHECKPOINT_FILE_NAME, ".tmp");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temp))) {
+            output.writeLong(segmentIndex);
+            output.writeInt(position);
+        }
+        try {
+            Files.move(temp, checkpointFile, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, checkpointFile, REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Serialize the event
+     *
+     * @param event the {@link ApplicationEvent}
+     * @return the serialized data
+     * @throws IOException if the event can't be serialized
+     */
+    protected byte[] serialize(ApplicationEvent event) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream output = new ObjectOutputStream(outputStream)) {
+            if (event instanceof PayloadApplicationEvent<?> payloadEvent) {
+                output.writeByte(PAYLOAD_RECORD);
+                output.writeObject(payloadEvent.getPayload());
+            } else {
+                output.writeByte(EVENT_RECORD);
+                output.writeObject(event);
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Deserialize the event
+     *
+     * @param data   the serialized data
+     * @param source the source of the replayed {@link PayloadApplicationEvent}
+     * @return the {@link ApplicationEvent}
+     * @throws IOException            if the data can't be read
+     * @throws ClassNotFoundException if the class of event or payload is not found
+     */
+    protected ApplicationEvent deserialize(byte[] data, Object source) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            byte recordType = input.readByte();
+            Object object = input.readObject();
+            return recordType == PAYLOAD_RECORD ? new ReplayedPayloadApplicationEvent<>(source, object) : (ApplicationEvent) object;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory.toPath());
+        List<Path> segmentFiles = listSegmentFiles();
+        if (segmentFiles.isEmpty()) {
+            createSegment(0);
+            return;
+        }
+        Path lastSegmentFile = segmentFiles.get(segmentFiles.size() - 1);
+        this.segmentIndex = getSegmentIndex(lastSegmentFile);
+        this.channel = FileChannel.open(lastSegmentFile, READ, WRITE);
+        this.buffer = channel.map(READ_WRITE, 0, segmentSize);
+        if (!readHeader(buffer, lastSegmentFile)) {
+            // The last segment is broken, start a new one
+            closeSegment();
+            createSegment(segmentIndex + 1);
+            return;
+        }
+        while (readRecord(buffer, buffer.limit(), lastSegmentFile) != null) {
+            // skip the valid records
+        }
+        // Discard the torn tail
+        int position = buffer.position();
+        for (int i = position; i < buffer.limit(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private boolean readHeader(ByteBuffer segment, Path segmentFile) {
+        if (segment.limit() < SEGMENT_HEADER_SIZE || segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The segment['{}'] is not a valid journal", segmentFile);
+            }
+            return false;
+        }
+        segment.position(SEGMENT_HEADER_SIZE);
+        return true;
+    }
+
+    /**
+     * Read the record at the position of segment, the position is moved after the record if it's valid
+     *
+     * @return the data of record, or <code>null</code> if there is no more valid record
+     */
+    @Nullable
+    private byte[] readRecord(ByteBuffer segment, int limit, Path segmentFile) {
+        int position = segment.position();
+        if (limit - position < RECORD_HEADER_SIZE) {
+            return null;
+        }
+        int length = segment.getInt(position);
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length > limit - position - RECORD_HEADER_SIZE) {
+            return corrupted(position, segmentFile);
+        }
+        int checksum = segment.getInt(position + 4);
+        byte[] data = new byte[length];
+        segment.get(position + RECORD_HEADER_SIZE, data);
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(position + 8, 8));
+        crc.update(data);
+        if ((int) crc.getValue() != checksum) {
+            return corrupted(position, segmentFile);
+        }
+        segment.position(position + RECORD_HEADER_SIZE + length);
+        return data;
+    }
+
+    private byte[] corrupted(int position, Path segmentFile) {
+        if (logger.isWarnEnabled()) {
+            logger.warn("The record at the position[{}] of segment['{}'] is corrupted, the rest are discarded", position, segmentFile);
+        }
+        return null;
+    }
+
+    private void rollover() throws IOException {
+        closeSegment();
+        createSegment(segmentIndex + 1);
+        if (maxSegments > 0) {
+            List<Path> segmentFiles = listSegmentFiles();
+            for (int i = 0, expired = segmentFiles.size() - maxSegments; i < expired; i++) {
+                Files.deleteIfExists(segmentFiles.get(i));
+            }
+        }
+    }
+
+    private void createSegment(long index) throws IOException {
+        Path segmentFile = directory.toPath().resolve(format("%020d%s", index, SEGMENT_FILE_SUFFIX));
+        this.segmentIndex = index;
+        this.channel = FileChannel.open(segmentFile, CREATE, READ, WRITE);
+        this.buffer = channel.map(READ_WRITE, 0, segmentSize);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+    }
+
+    private void closeSegment() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        List<Path> segmentFiles = newArrayList();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                if (getSegmentIndex(file.toPath()) >= 0) {
+                    segmentFiles.add(file.toPath());
+                }
+            }
+        }
+        sort(segmentFiles);
+        return segmentFiles;
+    }
+
+    private static long getSegmentIndex(Path segmentFile) {
+        String fileName = segmentFile.getFileName().toString();
+        try {
+            return parseLong(fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        // ignore the events from the other contexts, e.g. the children
+        if (context != this.applicationContext || !replayOnStartup || !replayedOnStartup.compareAndSet(false, true)) {
+            return;
+        }
+        ApplicationEventMulticaster multicaster = context.getBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class);
+        try {
+            replaySinceCheckpoint(multicaster, context);
+        } catch (IOException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("The journal in the directory['{}'] can't be replayed", directory, e);
+            }
+        }
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        closed = true;
+        closeSegment();
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return the files of segments in order
+     * @throws IOException if the directory can't be listed
+     */
+    public List<Path> getSegmentFiles() throws IOException {
+        return listSegmentFiles();
+    }
+
+    public long getJournaledCount() {
+        return journaledCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public boolean isSyncOnWrite() {
+        return syncOnWrite;
+    }
+
+    public void setSyncOnWrite(boolean syncOnWrite) {
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    /**
+     * @param maxSegments the max number of segments to retain, zero or negative means unlimited
+     */
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    public boolean isReplayOnStartup() {
+        return replayOnStartup;
+    }
+
+    public void setReplayOnStartup(boolean replayOnStartup) {
+        this.replayOnStartup = replayOnStartup;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    /**
+     * The marker of the replayed events, which are not journaled again, the listeners may use it to distinguish the
+     * replayed events from the live ones
+     */
+    public interface ReplayedEvent {
+    }
+
+    /**
+     * The replayed {@link PayloadApplicationEvent}
+     *
+     * @param <T> the type of payload
+     */
+    public static class ReplayedPayloadApplicationEvent<T> extends PayloadApplicationEvent<T> implements ReplayedEvent {
+
+        public ReplayedPayloadApplicationEvent(Object source, T payload) {
+            super(source, payload);
+        }
+    }
+}
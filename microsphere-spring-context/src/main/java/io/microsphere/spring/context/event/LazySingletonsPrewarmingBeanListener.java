@@ -0,0 +1,513 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.ConfigurationProperty;
+import io.microsphere.annotation.Nonnull;
+import io.microsphere.logging.Logger;
+import io.microsphere.spring.beans.factory.DefaultBeanDependencyResolver;
+import io.microsphere.spring.core.env.EnvironmentUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static io.microsphere.spring.beans.factory.BeanFactoryUtils.asDefaultListableBeanFactory;
+import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
+import static io.microsphere.spring.core.env.EnvironmentUtils.resolveApplicationFile;
+import static java.lang.Boolean.parseBoolean;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptySet;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+
+/**
+ * A {@link BeanListener} records the order in which the lazy-init singletons are first requested after the
+ * {@link ApplicationContext} is refreshed, and persists it into a file when the {@link ApplicationContext} is closed.
+ * <p>
+ * On the later startups, the recorded lazy-init singletons will be prewarmed (created) in the background after the
+ * {@link ContextRefreshedEvent}, thus the readiness of {@link ApplicationContext} is not delayed, and the first
+ * requests do not pay for the creation of those beans. The beans are created in the recorded order, and the
+ * dependencies resolved by the {@link DefaultBeanDependencyResolver} are created before their dependents. The failures
+ * of prewarming are logged and ignored, they will be thrown again when the beans are requested.
+ * <p>
+ * The file is rewritten with the access order of the current run. The requests of the prewarmed beans can't be
+ * observed, thus they are kept in the file with the count of runs they have been prewarmed since the last observed
+ * request, once the count reaches {@value #MAX_PREWARMED_RUNS}, the bean is not prewarmed in the next run, and it's
+ * dropped from the file unless it's requested again.
+ *
+ * <h3>Configuration Properties</h3>
+ *
+ * <dl>
+ *     <dt>{@value #PREWARM_ENABLED_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         Whether to prewarm the recorded lazy-init singletons in the background. Default is <code>true</code>.
+ *     </dd>
+ *
+ *     <dt>{@value #ACCESS_ORDER_FILE_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The path of the file that records the access order of lazy-init singletons. Default is the file named
+ *         {@value #DEFAULT_ACCESS_ORDER_FILE} in the
+ *         {@link EnvironmentUtils#getApplicationTempDirectory(Environment) temporary directory of the application}
+ *     </dd>
+ *
+ *     <dt>{@value #THREAD_NAME_PREFIX_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The prefix of the name of the prewarming thread. Default is: {@value #DEFAULT_THREAD_NAME_PREFIX}
+ *     </dd>
+ * </dl>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Configuration
+ * @Import(LazySingletonsPrewarmingBeanListener.class)
+ * public class AppConfig {
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanListener
+ * @see EventPublishingBeanInitializer
+ * @see DefaultBeanDependencyResolver
+ * @since 1.0.0
+ */
+public class LazySingletonsPrewarmingBeanListener extends OnceApplicationContextEventListener<ContextRefreshedEvent>
+        implements BeanListenerAdapter, EnvironmentAware, BeanFactoryAware, DisposableBean {
+
+    /**
+     * The prefix of the property for {@link LazySingletonsPrewarmingBeanListener} : "microsphere.spring.lazy-singletons."
+     */
+    private static final String PROPERTY_NAME_PREFIX = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "lazy-singletons.";
+
+    private static final String DEFAULT_PREWARM_ENABLED = "true";
+
+    /**
+     * The property name of whether to prewarm the recorded lazy-init singletons in the background
+     */
+    @ConfigurationProperty(
+            type = boolean.class,
+            defaultValue = DEFAULT_PREWARM_ENABLED,
+            description = "whether to prewarm the recorded lazy-init singletons in the background",
+            source = APPLICATION_SOURCE
+    )
+    public static final String PREWARM_ENABLED_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "prewarm.enabled";
+
+    /**
+     * The default value of whether to prewarm the recorded lazy-init singletons
+     */
+    public static final boolean DEFAULT_PREWARM_ENABLED_VALUE = parseBoolean(DEFAULT_PREWARM_ENABLED);
+
+    /**
+     * The default name of the file that records the access order of lazy-init singletons in the temporary directory
+     * of the application
+     *
+     * @see EnvironmentUtils#getApplicationTempDirectory(Environment)
+     */
+    public static final String DEFAULT_ACCESS_ORDER_FILE = "lazy-singletons.order";
+
+    /**
+     * The property name of the path of the file that records the access order of lazy-init singletons
+     */
+    @ConfigurationProperty(
+            description = "the path of the file that records the access order of lazy-init singletons, default is the file named '"
+                    + DEFAULT_ACCESS_ORDER_FILE + "' in the temporary directory of the application",
+            source = APPLICATION_SOURCE
+    )
+    public static final String ACCESS_ORDER_FILE_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "access-order.file";
+
+    /**
+     * The default prefix of the name of the prewarming thread
+     */
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "Lazy-Singletons-Prewarming-Thread-";
+
+    /**
+     * The property name of the prefix of the name of the prewarming thread
+     */
+    @ConfigurationProperty(
+            defaultValue = DEFAULT_THREAD_NAME_PREFIX,
+            description = "the prefix of the name of the prewarming thread",
+            source = APPLICATION_SOURCE
+    )
+    public static final String THREAD_NAME_PREFIX_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "prewarm.thread.name-prefix";
+
+    /**
+     * The max count of runs that a bean is prewarmed since its last observed request
+     */
+    static final int MAX_PREWARMED_RUNS = 3;
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final char PREWARMED_RUNS_SEPARATOR = '\t';
+
+    private final Set<String> recordedBeanNames = ConcurrentHashMap.newKeySet();
+
+    private final Queue<String> accessOrder = new ConcurrentLinkedQueue<>();
+
+    private final CountDownLatch prewarmed = new CountDownLatch(1);
+
+    private volatile boolean refreshed;
+
+    private volatile Thread prewarmingThread;
+
+    private final Set<String> prewarmedBeanNames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The previous access order of lazy-init singletons mapped to their counts of prewarmed runs
+     */
+    private Map<String, Integer> previousAccessOrder = newLinkedHashMap();
+
+    private ExecutorService executorService;
+
+    private Environment environment;
+
+    private DefaultListableBeanFactory beanFactory;
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition) {
+        record(beanName, mergedBeanDefinition);
+    }
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Constructor<?> constructor, Object[] args) {
+        record(beanName, mergedBeanDefinition);
+    }
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Object factoryBean, Method factoryMethod, Object[] args) {
+        record(beanName, mergedBeanDefinition);
+    }
+
+    private void record(String beanName, BeanDefinition beanDefinition) {
+        // The requests before the refresh or from the prewarming thread are not recorded
+        if (!refreshed || Thread.currentThread() == prewarmingThread) {
+            return;
+        }
+        if (isLazySingleton(beanDefinition) && recordedBeanNames.add(beanName)) {
+            accessOrder.add(beanName);
+            if (logger.isTraceEnabled()) {
+                logger.trace("The lazy-init singleton['{}'] was requested", beanName);
+            }
+        }
+    }
+
+    @Override
+    protected void onApplicationContextEvent(ContextRefreshedEvent event) {
+        File file = getAccessOrderFile();
+        this.previousAccessOrder = readAccessOrder(file);
+        this.refreshed = true;
+        if (environment.getProperty(PREWARM_ENABLED_PROPERTY_NAME, boolean.class, DEFAULT_PREWARM_ENABLED_VALUE)) {
+            List<String> beanNames = newArrayList(previousAccessOrder.size());
+            for (Map.Entry<String, Integer> entry : previousAccessOrder.entrySet()) {
+                // The bean is not prewarmed to observe whether it's still requested
+                if (entry.getValue() < MAX_PREWARMED_RUNS) {
+                    beanNames.add(entry.getKey());
+                }
+            }
+            prewarm(beanNames);
+        } else {
+            prewarmed.countDown();
+        }
+    }
+
+    private void prewarm(List<String> beanNames) {
+        if (beanNames.isEmpty()) {
+            prewarmed.countDown();
+            return;
+        }
+        String threadNamePrefix = environment.getProperty(THREAD_NAME_PREFIX_PROPERTY_NAME, DEFAULT_THREAD_NAME_PREFIX);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        ExecutorService executorService = newSingleThreadExecutor(threadFactory);
+        this.executorService = executorService;
+        executorService.execute(() -> {
+            prewarmingThread = Thread.currentThread();
+            try {
+                doPrewarm(beanNames, executorService);
+            } finally {
+                prewarmingThread = null;
+                prewarmed.countDown();
+            }
+        });
+        executorService.shutdown();
+    }
+
+    private void doPrewarm(List<String> beanNames, ExecutorService executorService) {
+        DefaultListableBeanFactory beanFactory = this.beanFactory;
+        Set<String> candidates = newLinkedHashSet(beanNames.size());
+        for (String beanName : beanNames) {
+            if (isPrewarmCandidate(beanName)) {
+                candidates.add(beanName);
+            }
+        }
+
+        // The dependency graph restricted to the candidates, the per-bean resolution is used, because the lazy-init
+        // singletons are excluded from DefaultBeanDependencyResolver#resolveDependencyGraph
+        DefaultBeanDependencyResolver resolver = new DefaultBeanDependencyResolver(beanFactory, executorService);
+        Map<String, Set<String>> dependencyGraph = newHashMap(candidates.size());
+        for (String beanName : candidates) {
+            dependencyGraph.put(beanName, resolveDependencies(beanName, candidates, resolver));
+        }
+
+        Set<String> visited = newLinkedHashSet(candidates.size());
+        List<String> plan = newArrayList(candidates.size());
+        for (String beanName : candidates) {
+            plan(beanName, dependencyGraph, visited, plan);
+        }
+
+        int count = 0;
+        for (String beanName : plan) {
+            if (!isActive()) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("The prewarming of lazy-init singletons was stopped, because the context is inactive");
+                }
+                return;
+            }
+            if (beanFactory.containsSingleton(beanName)) {
+                continue;
+            }
+            try {
+                beanFactory.getBean(beanName);
+                prewarmedBeanNames.add(beanName);
+                count++;
+            } catch (Throwable e) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The lazy-init singleton['{}'] can't be prewarmed", beanName, e);
+                }
+            }
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} lazy-init singletons were prewarmed in the order : {}", count, plan);
+        }
+    }
+
+    private Set<String> resolveDependencies(String beanName, Set<String> candidates, DefaultBeanDependencyResolver resolver) {
+        try {
+            RootBeanDefinition beanDefinition = (RootBeanDefinition) beanFactory.getMergedBeanDefinition(beanName);
+            Set<String> dependencies = resolver.resolve(beanName, beanDefinition, beanFactory);
+            dependencies.retainAll(candidates);
+            return dependencies;
+        } catch (Throwable e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("The dependencies of lazy-init singleton['{}'] can't be resolved", beanName, e);
+            }
+            return emptySet();
+        }
+    }
+
+    private void plan(String beanName, Map<String, Set<String>> dependencyGraph, Set<String> visited, List<String> plan) {
+        if (!visited.add(beanName)) {
+            return;
+        }
+        for (String dependency : dependencyGraph.getOrDefault(beanName, emptySet())) {
+            plan(dependency, dependencyGraph, visited, plan);
+        }
+        plan.add(beanName);
+    }
+
+    private boolean isPrewarmCandidate(String beanName) {
+        DefaultListableBeanFactory beanFactory = this.beanFactory;
+        if (!beanFactory.containsBeanDefinition(beanName) || beanFactory.containsSingleton(beanName)) {
+            return false;
+        }
+        BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
+        return !beanDefinition.isAbstract() && isLazySingleton(beanDefinition);
+    }
+
+    private boolean isLazySingleton(String beanName) {
+        return beanFactory.containsBeanDefinition(beanName) && isLazySingleton(beanFactory.getMergedBeanDefinition(beanName));
+    }
+
+    private boolean isLazySingleton(BeanDefinition beanDefinition) {
+        return beanDefinition.isLazyInit() && beanDefinition.isSingleton();
+    }
+
+    private boolean isActive() {
+        ApplicationContext context = getApplicationContext();
+        return !(context instanceof ConfigurableApplicationContext) || ((ConfigurableApplicationContext) context).isActive();
+    }
+
+    /**
+     * Wait for the prewarming of lazy-init singletons to be completed
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the timeout
+     * @return <code>true</code> if completed, <code>false</code> if the waiting time elapsed
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitPrewarmed(long timeout, TimeUnit unit) throws InterruptedException {
+        return prewarmed.await(timeout, unit);
+    }
+
+    /**
+     * Get the access order of lazy-init singletons, the ones requested in current context, followed by the ones
+     * prewarmed in current context
+     *
+     * @return non-null {@link List}
+     */
+    @Nonnull
+    public List<String> getAccessOrder() {
+        return newArrayList(resolveAccessOrder().keySet());
+    }
+
+    /**
+     * @return the access order of lazy-init singletons mapped to their counts of prewarmed runs
+     */
+    private Map<String, Integer> resolveAccessOrder() {
+        Map<String, Integer> accessOrder = newLinkedHashMap();
+        for (String beanName : this.accessOrder) {
+            if (isLazySingleton(beanName)) {
+                accessOrder.put(beanName, 0);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : previousAccessOrder.entrySet()) {
+            String beanName = entry.getKey();
+            // The requests of the prewarmed beans can't be observed
+            if (prewarmedBeanNames.contains(beanName) && !accessOrder.containsKey(beanName) && isLazySingleton(beanName)) {
+                accessOrder.put(beanName, entry.getValue() + 1);
+            }
+        }
+        return accessOrder;
+    }
+
+    @Override
+    public void destroy() {
+        ExecutorService executorService = this.executorService;
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+        if (refreshed) {
+            writeAccessOrder(getAccessOrderFile(), resolveAccessOrder());
+        }
+    }
+
+    private File getAccessOrderFile() {
+        return resolveApplicationFile(environment, ACCESS_ORDER_FILE_PROPERTY_NAME, DEFAULT_ACCESS_ORDER_FILE);
+    }
+
+    /**
+     * Read the access order of lazy-init singletons
+     *
+     * @param file the file of access order
+     * @return non-null {@link Map} whose keys are the bean names in access order and values are their counts of
+     * prewarmed runs
+     */
+    static Map<String, Integer> readAccessOrder(File file) {
+        Map<String, Integer> beanNames = newLinkedHashMap();
+        if (!file.isFile()) {
+            return beanNames;
+        }
+        try {
+            for (String line : Files.readAllLines(file.toPath(), UTF_8)) {
+                String beanName = line.trim();
+                if (beanName.isEmpty() || beanName.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                int prewarmedRuns = 0;
+                int index = beanName.lastIndexOf(PREWARMED_RUNS_SEPARATOR);
+                if (index > 0) {
+                    try {
+                        prewarmedRuns = Integer.parseInt(beanName.substring(index + 1).trim());
+                        beanName = beanName.substring(0, index).trim();
+                    } catch (NumberFormatException e) {
+                        // The separator is a part of bean name
+                    }
+                }
+                beanNames.putIfAbsent(beanName, prewarmedRuns);
+            }
+        } catch (IOException e) {
+            Logger logger = getLogger(LazySingletonsPrewarmingBeanListener.class);
+            if (logger.isWarnEnabled()) {
+                logger.warn("The access order of lazy-init singletons can't be read from the file : {}", file, e);
+            }
+            beanNames.clear();
+        }
+        return beanNames;
+    }
+
+    void writeAccessOrder(File file, Map<String, Integer> beanNames) {
+        Path target = file.toPath();
+        try {
+            File directory = file.getAbsoluteFile().getParentFile();
+            if (directory != null) {
+                Files.createDirectories(directory.toPath());
+            }
+            Path temp = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+            List<String> lines = newArrayList(beanNames.size() + 1);
+            lines.add(COMMENT_PREFIX + " The access order of lazy-init singletons recorded by " + getClass().getName());
+            for (Map.Entry<String, Integer> entry : beanNames.entrySet()) {
+                int prewarmedRuns = entry.getValue();
+                lines.add(prewarmedRuns == 0 ? entry.getKey() : entry.getKey() + PREWARMED_RUNS_SEPARATOR + prewarmedRuns);
+            }
+            Files.write(temp, lines, UTF_8);
+            try {
+                Files.move(temp, target, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temp, target, REPLACE_EXISTING);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("The access order of {} lazy-init singletons was written into the file : {}", beanNames.size(), file);
+            }
+        } catch (IOException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The access order of lazy-init singletons can't be written into the file : {}", file, e);
+            }
+        }
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = asDefaultListableBeanFactory(beanFactory);
+    }
+}
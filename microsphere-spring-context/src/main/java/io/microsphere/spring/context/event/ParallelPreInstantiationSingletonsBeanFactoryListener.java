@@ -18,8 +18,10 @@ package io.microsphere.spring.context.event;
 
 import io.microsphere.annotation.ConfigurationProperty;
 import io.microsphere.logging.Logger;
-import io.microsphere.spring.beans.factory.BeanDependencyResolver;
+import io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot;
+import io.microsphere.spring.beans.factory.CriticalPathBeanScheduler;
 import io.microsphere.spring.beans.factory.DefaultBeanDependencyResolver;
+import io.microsphere.spring.core.env.EnvironmentUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
@@ -30,29 +32,48 @@ import org.springframework.core.env.Environment;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StopWatch;
 
+import java.io.File;
+import java.lang.management.ThreadMXBean;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
 import static io.microsphere.collection.ListUtils.newArrayList;
-import static io.microsphere.collection.ListUtils.newLinkedList;
-import static io.microsphere.collection.SetUtils.newLinkedHashSet;
-import static io.microsphere.lang.function.ThrowableSupplier.execute;
 import static io.microsphere.logging.LoggerFactory.getLogger;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.fingerprint;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.read;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.removeReadyBeans;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.write;
 import static io.microsphere.spring.beans.factory.BeanFactoryUtils.asDefaultListableBeanFactory;
 import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
-import static java.util.Collections.emptySet;
+import static io.microsphere.spring.core.env.EnvironmentUtils.resolveApplicationFile;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
+import static java.lang.System.getProperty;
+import static java.lang.System.nanoTime;
+import static java.lang.management.ManagementFactory.getThreadMXBean;
+import static java.util.Comparator.comparingLong;
 import static java.util.concurrent.Executors.newFixedThreadPool;
-import static org.springframework.util.CollectionUtils.containsAny;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * A {@link BeanFactoryListener} implementation that pre-instantiates singleton beans in parallel
  * to improve application startup performance. This class leverages multi-threading to initialize
  * beans concurrently while respecting bean dependencies.
+ * <p>
+ * The beans are scheduled by the {@link CriticalPathBeanScheduler} in topological order of the dependency graph
+ * resolved by the {@link DefaultBeanDependencyResolver}, a bean is submitted as soon as all of its dependencies
+ * have been created, and the beans on the longest remaining path are created first. If any bean fails to be
+ * created, the outstanding beans will be cancelled and the failure will be re-thrown. The elapsed time, CPU time and
+ * wait time of every bean will be reported if the debug level logging is enabled, the CPU time and wait time are not
+ * reported on the virtual threads, because the CPU time of a virtual thread is unavailable.
  *
  * <h3>Configuration Properties</h3>
  *
@@ -68,6 +89,34 @@ import static org.springframework.util.CollectionUtils.containsAny;
  *         The prefix for the thread names used during parallel pre-instantiation. Default is:
  *         {@value #DEFAULT_THREAD_NAME_PREFIX}
  *     </dd>
+ *
+ *     <dt>{@value #EXECUTOR_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The executor type for parallel pre-instantiation : {@value #PLATFORM_EXECUTOR} (default) uses a fixed pool of
+ *         platform threads, {@value #VIRTUAL_EXECUTOR} starts a virtual thread per bean, which is suitable for the beans
+ *         blocking on I/O during initialization. The platform threads will be used if the virtual threads are not
+ *         supported (before Java 21).
+ *     </dd>
+ *
+ *     <dt>{@value #VIRTUAL_MAX_CONCURRENCY_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The max number of beans to be pre-instantiated concurrently on the virtual threads, unlimited if it's not
+ *         positive. Default is {@value #DEFAULT_VIRTUAL_MAX_CONCURRENCY}.
+ *     </dd>
+ *
+ *     <dt>{@value #DEPENDENCY_GRAPH_SNAPSHOT_ENABLED_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         Whether to persist the resolved bean dependency graph into a snapshot file, which will be loaded
+ *         on the next startup to skip the dependency resolution if the fingerprint of bean definitions and
+ *         class path is unchanged. Default is <code>false</code>.
+ *     </dd>
+ *
+ *     <dt>{@value #DEPENDENCY_GRAPH_SNAPSHOT_FILE_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The path of the bean dependency graph snapshot file. Default is the file named
+ *         {@value #DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_FILE} in the
+ *         {@link EnvironmentUtils#getApplicationTempDirectory(Environment) temporary directory of the application}
+ *     </dd>
  * </dl>
  *
  * <h3>Example Usage</h3>
@@ -76,6 +125,9 @@ import static org.springframework.util.CollectionUtils.containsAny;
  * # application.properties
  * microsphere.spring.pre-instantiation.singletons.threads=4
  * microsphere.spring.pre-instantiation.singletons.thread.name-prefix=MyCustomThread-
+ * # or using the virtual threads
+ * microsphere.spring.pre-instantiation.singletons.executor=virtual
+ * microsphere.spring.pre-instantiation.singletons.virtual.max-concurrency=64
  * }</pre>
  *
  * <h3>Example Usage</h3>
@@ -104,6 +156,8 @@ import static org.springframework.util.CollectionUtils.containsAny;
  * @see BeanFactoryListenerAdapter
  * @see ConfigurableListableBeanFactory
  * @see DefaultListableBeanFactory
+ * @see CriticalPathBeanScheduler
+ * @see BeanDependencyGraphSnapshot
  * @since 1.0.0
  */
 public class ParallelPreInstantiationSingletonsBeanFactoryListener implements BeanFactoryListenerAdapter,
@@ -139,6 +193,84 @@ public class ParallelPreInstantiationSingletonsBeanFactoryListener implements Be
     )
     public static final String THREAD_NAME_PREFIX_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "thread.name-prefix";
 
+    /**
+     * The executor type of platform threads
+     */
+    public static final String PLATFORM_EXECUTOR = "platform";
+
+    /**
+     * The executor type of virtual threads, requires Java 21+
+     */
+    public static final String VIRTUAL_EXECUTOR = "virtual";
+
+    /**
+     * The property name of the executor type to pre-instantiate singletons in parallel, the value is one of
+     * {@value #PLATFORM_EXECUTOR} and {@value #VIRTUAL_EXECUTOR}
+     */
+    @ConfigurationProperty(
+            defaultValue = PLATFORM_EXECUTOR,
+            description = "the executor type to pre-instantiate singletons in parallel : 'platform' or 'virtual'",
+            source = APPLICATION_SOURCE
+    )
+    public static final String EXECUTOR_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "executor";
+
+    /**
+     * The default max number of singletons to be pre-instantiated concurrently on the virtual threads
+     */
+    public static final String DEFAULT_VIRTUAL_MAX_CONCURRENCY = "256";
+
+    /**
+     * The default max number of singletons to be pre-instantiated concurrently on the virtual threads
+     */
+    public static final int DEFAULT_VIRTUAL_MAX_CONCURRENCY_VALUE = parseInt(DEFAULT_VIRTUAL_MAX_CONCURRENCY);
+
+    /**
+     * The property name of the max number of singletons to be pre-instantiated concurrently on the virtual threads
+     */
+    @ConfigurationProperty(
+            type = int.class,
+            defaultValue = DEFAULT_VIRTUAL_MAX_CONCURRENCY,
+            description = "the max number of singletons to be pre-instantiated concurrently on the virtual threads, unlimited if it's not positive",
+            source = APPLICATION_SOURCE
+    )
+    public static final String VIRTUAL_MAX_CONCURRENCY_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "virtual.max-concurrency";
+
+    private static final String DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_ENABLED = "false";
+
+    /**
+     * The property name of whether to persist the bean dependency graph into the snapshot file,
+     * and load it on the next startup to skip the dependency resolution
+     */
+    @ConfigurationProperty(
+            type = boolean.class,
+            defaultValue = DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_ENABLED,
+            description = "whether to persist the bean dependency graph into the snapshot file, and load it on the next startup to skip the dependency resolution",
+            source = APPLICATION_SOURCE
+    )
+    public static final String DEPENDENCY_GRAPH_SNAPSHOT_ENABLED_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "dependency-graph.snapshot.enabled";
+
+    /**
+     * The default value of whether to persist the bean dependency graph into the snapshot file
+     */
+    public static final boolean DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_ENABLED_VALUE = parseBoolean(DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_ENABLED);
+
+    /**
+     * The default name of the bean dependency graph snapshot file in the temporary directory of the application
+     *
+     * @see EnvironmentUtils#getApplicationTempDirectory(Environment)
+     */
+    public static final String DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_FILE = "dependency-graph.snapshot";
+
+    /**
+     * The property name of the path of the bean dependency graph snapshot file
+     */
+    @ConfigurationProperty(
+            description = "the path of the bean dependency graph snapshot file, default is the file named '"
+                    + DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_FILE + "' in the temporary directory of the application",
+            source = APPLICATION_SOURCE
+    )
+    public static final String DEPENDENCY_GRAPH_SNAPSHOT_FILE_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "dependency-graph.snapshot.file";
+
     private static final Logger logger = getLogger(ParallelPreInstantiationSingletonsBeanFactoryListener.class);
 
     private Environment environment;
@@ -157,11 +289,18 @@ public class ParallelPreInstantiationSingletonsBeanFactoryListener implements Be
 
         StopWatch stopWatch = new StopWatch("ParallelPreInstantiationSingletons");
 
-        ExecutorService executorService = newExecutorService();
+        boolean virtual = isVirtualExecutor();
+        int parallelism = virtual ? getVirtualMaxConcurrency() : getThreads();
+        ExecutorService executorService = virtual ? newVirtualExecutorService() : null;
+        if (executorService == null) {
+            virtual = false;
+            parallelism = getThreads();
+            executorService = newExecutorService(parallelism);
+        }
         if (executorService != null) {
             try {
-                Map<String, Set<String>> dependentBeanNamesMap = resolveDependentBeanNamesMap(beanFactory, executorService, stopWatch);
-                preInstantiateSingletonsInParallel(dependentBeanNamesMap, beanFactory, executorService, stopWatch);
+                Map<String, Set<String>> dependencyGraph = resolveDependencyGraph(beanFactory, executorService, stopWatch);
+                preInstantiateSingletonsInParallel(dependencyGraph, beanFactory, executorService, parallelism, virtual, stopWatch);
             } finally {
                 executorService.shutdown();
             }
@@ -172,106 +311,197 @@ public class ParallelPreInstantiationSingletonsBeanFactoryListener implements Be
         }
     }
 
-    private ExecutorService newExecutorService() {
-        int threads = environment.getProperty(THREADS_PROPERTY_NAME, int.class, getDefaultThreads());
+    private int getThreads() {
+        return environment.getProperty(THREADS_PROPERTY_NAME, int.class, getDefaultThreads());
+    }
+
+    private boolean isVirtualExecutor() {
+        String executor = environment.getProperty(EXECUTOR_PROPERTY_NAME, PLATFORM_EXECUTOR);
+        return VIRTUAL_EXECUTOR.equalsIgnoreCase(executor.trim());
+    }
+
+    private int getVirtualMaxConcurrency() {
+        int maxConcurrency = environment.getProperty(VIRTUAL_MAX_CONCURRENCY_PROPERTY_NAME, int.class, DEFAULT_VIRTUAL_MAX_CONCURRENCY_VALUE);
+        return maxConcurrency > 0 ? maxConcurrency : Integer.MAX_VALUE;
+    }
+
+    private ExecutorService newExecutorService(int threads) {
         if (threads < 1) {
             return null;
         }
-        String threadNamePrefix = environment.getProperty(THREAD_NAME_PREFIX_PROPERTY_NAME, DEFAULT_THREAD_NAME_PREFIX);
+        String threadNamePrefix = getThreadNamePrefix();
         ExecutorService executorService = newFixedThreadPool(threads, new CustomizableThreadFactory(threadNamePrefix));
         return executorService;
     }
 
-    private Map<String, Set<String>> resolveDependentBeanNamesMap(DefaultListableBeanFactory beanFactory, ExecutorService executorService, StopWatch stopWatch) {
-        stopWatch.start("resolveDependentBeanNamesMap");
+    /**
+     * Create the {@link ExecutorService} that starts a new virtual thread for each task via reflection,
+     * because the virtual thread API is only available since Java 21.
+     *
+     * @return <code>null</code> if the virtual threads are not supported
+     */
+    private ExecutorService newVirtualExecutorService() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, getThreadNamePrefix(), 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (Throwable e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The virtual threads are not supported in current JVM[version : {}], the platform threads will be used",
+                        getProperty("java.version"));
+            }
+            return null;
+        }
+    }
+
+    private String getThreadNamePrefix() {
+        return environment.getProperty(THREAD_NAME_PREFIX_PROPERTY_NAME, DEFAULT_THREAD_NAME_PREFIX);
+    }
+
+    private Map<String, Set<String>> resolveDependencyGraph(DefaultListableBeanFactory beanFactory, ExecutorService executorService, StopWatch stopWatch) {
+        if (isDependencyGraphSnapshotEnabled()) {
+            return resolveDependencyGraphWithSnapshot(beanFactory, executorService, stopWatch);
+        }
+        return resolveDependencyGraph(beanFactory, executorService, stopWatch, "resolveDependencyGraph");
+    }
+
+    private Map<String, Set<String>> resolveDependencyGraphWithSnapshot(DefaultListableBeanFactory beanFactory, ExecutorService executorService,
+                                                                        StopWatch stopWatch) {
+        stopWatch.start("loadDependencyGraphSnapshot");
+        File snapshotFile = getDependencyGraphSnapshotFile();
+        byte[] fingerprint = fingerprint(beanFactory);
+        Map<String, Set<String>> dependencyGraph = read(snapshotFile, fingerprint);
+        if (dependencyGraph != null) {
+            removeReadyBeans(dependencyGraph, beanFactory);
+        }
+        stopWatch.stop();
+
+        if (dependencyGraph == null) {
+            dependencyGraph = resolveDependencyGraph(beanFactory, executorService, stopWatch, "resolveDependencyGraph");
+            stopWatch.start("writeDependencyGraphSnapshot");
+            write(snapshotFile, fingerprint, dependencyGraph);
+            stopWatch.stop();
+        } else if (logger.isInfoEnabled()) {
+            logger.info("The bean dependency graph[size : {}] was loaded from the snapshot file['{}']", dependencyGraph.size(), snapshotFile);
+        }
+        return dependencyGraph;
+    }
+
+    private Map<String, Set<String>> resolveDependencyGraph(DefaultListableBeanFactory beanFactory, ExecutorService executorService,
+                                                            StopWatch stopWatch, String taskName) {
+        stopWatch.start(taskName);
 
         // Not Ready & Non-Lazy-Init Merged BeanDefinitions
-        BeanDependencyResolver beanDependencyResolver = new DefaultBeanDependencyResolver(beanFactory, executorService);
-        Map<String, Set<String>> dependentBeanNamesMap = beanDependencyResolver.resolve(beanFactory);
+        DefaultBeanDependencyResolver beanDependencyResolver = new DefaultBeanDependencyResolver(beanFactory, executorService);
+        Map<String, Set<String>> dependencyGraph = beanDependencyResolver.resolveDependencyGraph(beanFactory);
 
         stopWatch.stop();
-        return dependentBeanNamesMap;
+        return dependencyGraph;
     }
 
-    private void preInstantiateSingletonsInParallel(Map<String, Set<String>> dependentBeanNamesMap,
-                                                    DefaultListableBeanFactory beanFactory, ExecutorService executorService, StopWatch stopWatch) {
-        stopWatch.start("preInstantiateSingletonsInParallel");
+    private boolean isDependencyGraphSnapshotEnabled() {
+        return environment.getProperty(DEPENDENCY_GRAPH_SNAPSHOT_ENABLED_PROPERTY_NAME, boolean.class, DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_ENABLED_VALUE);
+    }
 
-        List<Set<String>> beanNamesInDependencyPaths = resolveBeanNamesInDependencyPaths(dependentBeanNamesMap);
+    private File getDependencyGraphSnapshotFile() {
+        return resolveApplicationFile(environment, DEPENDENCY_GRAPH_SNAPSHOT_FILE_PROPERTY_NAME, DEFAULT_DEPENDENCY_GRAPH_SNAPSHOT_FILE);
+    }
 
-        for (int i = 0; i < beanNamesInDependencyPaths.size(); i++) {
-            Set<String> beanNamesInDependencyPath = beanNamesInDependencyPaths.get(i);
-            executorService.submit(() -> {
-                for (String beanName : beanNamesInDependencyPath) {
-                    Object bean = beanFactory.getBean(beanName);
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("The bean[name : '{}'] was created : {}", beanName, bean);
-                    }
+    private void preInstantiateSingletonsInParallel(Map<String, Set<String>> dependencyGraph, DefaultListableBeanFactory beanFactory,
+                                                    ExecutorService executorService, int parallelism, boolean virtual,
+                                                    StopWatch stopWatch) {
+        stopWatch.start("preInstantiateSingletonsInParallel");
+
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(dependencyGraph);
+        ThreadMXBean threadMXBean = getThreadMXBean();
+        // The CPU time of virtual thread is unavailable
+        boolean cpuTimeSupported = !virtual && threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+        Queue<BeanInstantiationTime> instantiationTimes = new ConcurrentLinkedQueue<>();
+
+        try {
+            scheduler.execute(executorService, parallelism, beanName -> {
+                long startCpuTime = cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : -1L;
+                long startTime = nanoTime();
+                Object bean = beanFactory.getBean(beanName);
+                long elapsedTime = nanoTime() - startTime;
+                long cpuTime = startCpuTime < 0 ? -1L : threadMXBean.getCurrentThreadCpuTime() - startCpuTime;
+                instantiationTimes.add(new BeanInstantiationTime(beanName, elapsedTime, cpuTime));
+                if (logger.isTraceEnabled()) {
+                    logger.trace("The bean[name : '{}'] was created : {}", beanName, bean);
                 }
-                return null;
             });
+        } finally {
+            stopWatch.stop();
+            logInstantiationTimes(instantiationTimes, cpuTimeSupported);
         }
+    }
 
-        while (execute(() -> executorService.awaitTermination(10, TimeUnit.MILLISECONDS))) {
+    private void logInstantiationTimes(Queue<BeanInstantiationTime> instantiationTimes, boolean cpuTimeSupported) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        List<BeanInstantiationTime> times = newArrayList(instantiationTimes);
+        long totalElapsedTime = 0;
+        long totalCpuTime = 0;
+        for (BeanInstantiationTime time : times) {
+            totalElapsedTime += time.elapsedTime;
+            totalCpuTime += max(0, time.cpuTime);
+        }
+        if (cpuTimeSupported) {
+            // The beans that waited(blocked on I/O, locks or nested beans) mostly go first
+            times.sort(comparingLong(BeanInstantiationTime::getWaitTime).reversed());
+            logger.debug("{} singletons were pre-instantiated in parallel, total elapsed time : {} ms , cpu time : {} ms , wait time : {} ms",
+                    times.size(), NANOSECONDS.toMillis(totalElapsedTime), NANOSECONDS.toMillis(totalCpuTime),
+                    NANOSECONDS.toMillis(totalElapsedTime - totalCpuTime));
+        } else {
+            times.sort(comparingLong(BeanInstantiationTime::getElapsedTime).reversed());
+            logger.debug("{} singletons were pre-instantiated in parallel, total elapsed time : {} ms",
+                    times.size(), NANOSECONDS.toMillis(totalElapsedTime));
+        }
+        for (BeanInstantiationTime time : times) {
+            logger.debug(time.toString());
         }
-
-        stopWatch.stop();
     }
 
-    private List<Set<String>> resolveBeanNamesInDependencyPaths(Map<String, Set<String>> dependentBeanNamesMap) {
-        List<Set<String>> beanNamesList = buildBeanNamesList(dependentBeanNamesMap);
-        List<Set<String>> dependencyPaths = newLinkedList();
-        int size = beanNamesList.size();
-        for (int i = 0; i < size; i++) {
-            Set<String> beanNames = beanNamesList.get(i);
-            if (!beanNames.isEmpty()) {
-                for (int j = i + 1; j < size; j++) {
-                    Set<String> otherNames = beanNamesList.get(j);
-                    if (containsAny(beanNames, otherNames)) {
-                        beanNames.addAll(otherNames);
-                        // set the empty set into the index 'j'
-                        beanNamesList.set(j, emptySet());
-                    }
-                }
-            }
-        }
+    /**
+     * The elapsed time and CPU time of a singleton pre-instantiation
+     */
+    static class BeanInstantiationTime {
 
-        for (int i = 0; i < size; i++) {
-            Set<String> beanNames = beanNamesList.get(i);
-            if (!beanNames.isEmpty()) {
-                dependencyPaths.add(beanNames);
-            }
-        }
+        private final String beanName;
 
-        return dependencyPaths;
-    }
+        private final long elapsedTime;
 
-    private List<Set<String>> buildBeanNamesList(Map<String, Set<String>> dependentBeanNamesMap) {
-        List<Set<String>> beanNamesList = newArrayList(dependentBeanNamesMap.size());
-        for (Entry<String, Set<String>> dependentEntry : dependentBeanNamesMap.entrySet()) {
-            String beanName = dependentEntry.getKey();
-            Set<String> dependentBeanNames = dependentEntry.getValue();
-            // reuse the space of dependentBeanNames
-            Set<String> beanNames = dependentBeanNames;
-            beanNames.add(beanName);
-            beanNamesList.add(beanNames);
+        /**
+         * The CPU time in nanoseconds, or <code>-1</code> if it's unsupported, e.g. on the virtual threads
+         */
+        private final long cpuTime;
+
+        BeanInstantiationTime(String beanName, long elapsedTime, long cpuTime) {
+            this.beanName = beanName;
+            this.elapsedTime = elapsedTime;
+            this.cpuTime = cpuTime;
+        }
+
+        long getElapsedTime() {
+            return elapsedTime;
         }
-        return beanNamesList;
-    }
 
-    private void mergeBeanNames(Entry<String, Set<String>> dependentEntry, List<Set<String>> allBeanNamesList,
-                                Map<String, Set<String>> dependentBeanNamesMap) {
+        long getWaitTime() {
+            return cpuTime < 0 ? elapsedTime : elapsedTime - cpuTime;
+        }
 
-        for (Entry<String, Set<String>> entry : dependentBeanNamesMap.entrySet()) {
-            if (dependentEntry.equals(entry)) {
-                continue;
+        @Override
+        public String toString() {
+            String message = "The bean[name : '" + beanName + "'] was created , elapsed time : " + NANOSECONDS.toMicros(elapsedTime) + " us";
+            if (cpuTime < 0) {
+                return message;
             }
-
-            String beanName = dependentEntry.getKey();
-            Set<String> dependentBeanNames = dependentEntry.getValue();
-            Set<String> allBeanNames = newLinkedHashSet(1 + dependentBeanNames.size());
-            allBeanNames.add(beanName);
-            allBeanNames.addAll(dependentBeanNames);
+            return message + " , cpu time : " + NANOSECONDS.toMicros(cpuTime) + " us , wait time : "
+                    + NANOSECONDS.toMicros(getWaitTime()) + " us";
         }
     }
 
@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.logging.Logger;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiConsumer;
+
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Math.floorMod;
+import static java.lang.Runtime.getRuntime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.springframework.util.Assert.isTrue;
+import static org.springframework.util.Assert.notNull;
+
+/**
+ * The asynchronous dispatcher of {@link ApplicationEvent ApplicationEvents} partitioned by the key extracted by the
+ * {@link EventKeyExtractor}, every key is hashed onto one of the single-threaded lanes, thus the events with the same
+ * key are handled in order, and the events with the different keys may be handled in parallel. The lanes do not share
+ * any lock.
+ * <p>
+ * When the queue of a lane is full, the publisher is blocked until the capacity is available, the events are never
+ * dropped nor reordered. The lane threads are never blocked, the events published by the listeners into a full lane are
+ * appended to the unbounded overflow queue of that lane, which is drained in order into the lane once the capacity is
+ * available, thus the lanes publishing into each other can't deadlock.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * InterceptingApplicationEventMulticaster multicaster = new InterceptingApplicationEventMulticaster();
+ * multicaster.setPartitionedDispatcher(new PartitionedApplicationEventDispatcher(8, 1024, EventKeyExtractor.SOURCE_IDENTITY));
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see EventKeyExtractor
+ * @see InterceptingApplicationEventMulticaster#setPartitionedDispatcher(PartitionedApplicationEventDispatcher)
+ * @since 1.0.0
+ */
+public class PartitionedApplicationEventDispatcher implements AutoCloseable {
+
+    private static final Logger logger = getLogger(PartitionedApplicationEventDispatcher.class);
+
+    /**
+     * The default prefix of the name of the lane threads
+     */
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "Partitioned-Event-Dispatcher-Lane-";
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+
+    private static final long CAPACITY_WAIT_MILLIS = 100L;
+
+    private final int lanes;
+
+    private final int queueCapacity;
+
+    private final EventKeyExtractor keyExtractor;
+
+    private final Lane[] partitions;
+
+    private String threadNamePrefix = DEFAULT_THREAD_NAME_PREFIX;
+
+    private volatile BiConsumer<ApplicationEvent, ResolvableType> handler;
+
+    private volatile boolean running;
+
+    public PartitionedApplicationEventDispatcher() {
+        this(getRuntime().availableProcessors(), MAX_VALUE, EventKeyExtractor.SOURCE_IDENTITY);
+    }
+
+    /**
+     * @param lanes         the number of single-threaded lanes
+     * @param queueCapacity the capacity of the queue of every lane
+     * @param keyExtractor  the {@link EventKeyExtractor}
+     */
+    public PartitionedApplicationEventDispatcher(int lanes, int queueCapacity, EventKeyExtractor keyExtractor) {
+        isTrue(lanes > 0, "The 'lanes' argument must be positive");
+        isTrue(queueCapacity > 0, "The 'queueCapacity' argument must be positive");
+        notNull(keyExtractor, "The 'keyExtractor' argument must not be null");
+        this.lanes = lanes;
+        this.queueCapacity = queueCapacity;
+        this.keyExtractor = keyExtractor;
+        this.partitions = new Lane[lanes];
+    }
+
+    /**
+     * Start the lanes
+     *
+     * @param handler the handler of the events
+     * @throws IllegalStateException if it has been started
+     */
+    public synchronized void start(BiConsumer<ApplicationEvent, ResolvableType> handler) throws IllegalStateException {
+        if (running) {
+            throw new IllegalStateException("The PartitionedApplicationEventDispatcher has been started");
+        }
+        this.handler = handler;
+        for (int i = 0; i < lanes; i++) {
+            int lane = i;
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> new LaneThread(this, runnable, threadNamePrefix + lane));
+            // the tasks are offered into the queue directly, the lane thread must be present
+            executor.prestartAllCoreThreads();
+            this.partitions[i] = new Lane(executor);
+        }
+        this.running = true;
+    }
+
+    /**
+     * Publish the event into the lane of its key
+     *
+     * @param event     the {@link ApplicationEvent}
+     * @param eventType the resolved type of event
+     * @return <code>false</code> if it's not running
+     */
+    public boolean publish(ApplicationEvent event, ResolvableType eventType) {
+        if (!running) {
+            return false;
+        }
+        Lane lane = partitions[getLane(event, eventType)];
+        Runnable task = () -> {
+            try {
+                dispatch(event, eventType);
+            } finally {
+                lane.drainOverflow();
+            }
+        };
+        if (isLaneThread(Thread.currentThread())) {
+            // A listener must not wait for a lane, which may wait for this lane in turn
+            return lane.offer(task);
+        }
+        try {
+            return lane.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Get the index of lane for the event
+     *
+     * @param event     the {@link ApplicationEvent}
+     * @param eventType the resolved type of event
+     * @return the index in [0, lanes)
+     */
+    public int getLane(ApplicationEvent event, ResolvableType eventType) {
+        Object key = keyExtractor.extractKey(event, eventType);
+        int hash = keyExtractor.hash(key);
+        // spread the higher bits
+        return floorMod(hash ^ (hash >>> 16), lanes);
+    }
+
+    private void dispatch(ApplicationEvent event, ResolvableType eventType) {
+        try {
+            handler.accept(event, eventType);
+        } catch (Throwable e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The event[{}] can't be dispatched", event, e);
+            }
+        }
+    }
+
+    /**
+     * @param thread the {@link Thread}
+     * @return <code>true</code> if the thread is a lane of this dispatcher
+     */
+    public boolean isLaneThread(Thread thread) {
+        return thread instanceof LaneThread laneThread && laneThread.dispatcher == this;
+    }
+
+    /**
+     * Stop accepting the events, and wait for the pending events to be handled
+     *
+     * @param timeoutMillis the timeout in milliseconds to wait for every lane
+     * @return <code>true</code> if all pending events were handled in time
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean shutdown(long timeoutMillis) throws InterruptedException {
+        synchronized (this) {
+            if (!running) {
+                return true;
+            }
+            running = false;
+        }
+        for (Lane lane : partitions) {
+            lane.shutdown();
+        }
+        boolean terminated = true;
+        for (Lane lane : partitions) {
+            if (!isLaneThread(Thread.currentThread())) {
+                terminated &= lane.executor.awaitTermination(timeoutMillis, MILLISECONDS);
+            }
+        }
+        return terminated;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (!shutdown(SHUTDOWN_TIMEOUT_MILLIS) && logger.isWarnEnabled()) {
+            logger.warn("The pending events of PartitionedApplicationEventDispatcher were not handled in time");
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public EventKeyExtractor getKeyExtractor() {
+        return keyExtractor;
+    }
+
+    /**
+     * @param lane the index of lane
+     * @return the number of events waiting in the lane including its overflow queue, or zero if not started
+     */
+    public int getQueueDepth(int lane) {
+        Lane partition = partitions[lane];
+        if (partition == null) {
+            return 0;
+        }
+        return partition.queue.size() + partition.overflow.size();
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    /**
+     * The lane consists of the single-threaded executor and the unbounded overflow queue, the events in the overflow
+     * queue are always published after the events in the queue of executor, the monitor of overflow queue guards both.
+     */
+    private static class Lane {
+
+        private final ThreadPoolExecutor executor;
+
+        private final BlockingQueue<Runnable> queue;
+
+        private final Queue<Runnable> overflow = new ConcurrentLinkedQueue<>();
+
+        Lane(ThreadPoolExecutor executor) {
+            this.executor = executor;
+            this.queue = executor.getQueue();
+        }
+
+        /**
+         * Enqueue the task without blocking, the task is appended to the overflow queue if the lane is full
+         */
+        boolean offer(Runnable task) {
+            synchronized (overflow) {
+                if (executor.isShutdown()) {
+                    return false;
+                }
+                if (!overflow.isEmpty() || !queue.offer(task)) {
+                    overflow.add(task);
+                }
+                return true;
+            }
+        }
+
+        /**
+         * Enqueue the task, waiting for the capacity of lane and the overflow queue being drained
+         */
+        boolean put(Runnable task) throws InterruptedException {
+            synchronized (overflow) {
+                while (!executor.isShutdown()) {
+                    if (overflow.isEmpty() && queue.offer(task)) {
+                        return true;
+                    }
+                    overflow.wait(CAPACITY_WAIT_MILLIS);
+                }
+                return false;
+            }
+        }
+
+        /**
+         * Move the overflow tasks into the lane in order, invoked by the lane thread after every task
+         */
+        void drainOverflow() {
+            synchronized (overflow) {
+                Runnable task;
+                while ((task = overflow.peek()) != null && queue.offer(task)) {
+                    overflow.poll();
+                }
+                overflow.notifyAll();
+            }
+        }
+
+        void shutdown() {
+            synchronized (overflow) {
+                // The overflow tasks will be drained by the lane thread before it terminates
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static class LaneThread extends Thread {
+
+        private final PartitionedApplicationEventDispatcher dispatcher;
+
+        LaneThread(PartitionedApplicationEventDispatcher dispatcher, Runnable runnable, String name) {
+            super(runnable, name);
+            this.dispatcher = dispatcher;
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.logging.Logger;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * The asynchronous dispatcher of {@link ApplicationEvent ApplicationEvents} based on a pre-allocated ring buffer, which
+ * is consumed by a single thread in batches. Unlike an {@link java.util.concurrent.Executor}, no task is allocated per
+ * event, and the producers only contend on a CAS of the sequence.
+ * <p>
+ * When the ring buffer is full, the producers wait for the capacity by the {@link WaitStrategy}, or drop the events if
+ * {@link #isDropWhenFull() dropWhenFull} is <code>true</code>. The occupancy, the counts of the published, processed,
+ * failed and dropped events, and the latency from publishing to processed are exposed by the getters.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Bean
+ * public RingBufferApplicationEventDispatcher ringBufferApplicationEventDispatcher() {
+ *     return new RingBufferApplicationEventDispatcher(4096, 128, WaitStrategy.SLEEPING, false);
+ * }
+ *
+ * @Bean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+ * public static InterceptingApplicationEventMulticaster applicationEventMulticaster(RingBufferApplicationEventDispatcher dispatcher) {
+ *     InterceptingApplicationEventMulticaster multicaster = new InterceptingApplicationEventMulticaster();
+ *     multicaster.setRingBufferDispatcher(dispatcher);
+ *     return multicaster;
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see InterceptingApplicationEventMulticaster#setRingBufferDispatcher(RingBufferApplicationEventDispatcher)
+ * @since 1.0.0
+ */
+public class RingBufferApplicationEventDispatcher implements AutoCloseable {
+
+    private static final Logger logger = getLogger(RingBufferApplicationEventDispatcher.class);
+
+    /**
+     * The default capacity of the ring buffer
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default max number of events to be consumed in a batch
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * The default prefix of the name of the consumer thread
+     */
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "RingBuffer-Event-Dispatcher-";
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final long SLEEP_NANOS = 100_000L;
+
+    private static final long BLOCKING_TIMEOUT_MILLIS = 1L;
+
+    /**
+     * The strategy to wait for the events by the consumer, or for the capacity by the producers
+     */
+    public enum WaitStrategy {
+
+        /**
+         * Spin all the time, the lowest latency with a dedicated core
+         */
+        BUSY_SPIN,
+
+        /**
+         * Spin, then yield the thread
+         */
+        YIELDING,
+
+        /**
+         * Spin, yield, then park the thread for a while
+         */
+        SLEEPING,
+
+        /**
+         * Block the consumer until an event is published, the lowest CPU usage
+         */
+        BLOCKING
+    }
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final int batchSize;
+
+    private final WaitStrategy waitStrategy;
+
+    private final boolean dropWhenFull;
+
+    private final Slot[] slots;
+
+    /**
+     * The published sequence of every slot
+     */
+    private final AtomicLongArray publishedSequences;
+
+    /**
+     * The last claimed sequence by the producers
+     */
+    private final AtomicLong claimedSequence = new AtomicLong(-1);
+
+    /**
+     * The last consumed sequence by the consumer
+     */
+    private final AtomicLong consumedSequence = new AtomicLong(-1);
+
+    /**
+     * The number of producers in {@link #publish(ApplicationEvent, ResolvableType)}
+     */
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    private final LongAdder publishedCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private volatile long processedCount;
+
+    private volatile long failedCount;
+
+    private volatile long totalLatencyNanos;
+
+    private volatile long maxLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private volatile boolean consumerWaiting;
+
+    private volatile boolean running;
+
+    private volatile Thread consumerThread;
+
+    private String threadNamePrefix = DEFAULT_THREAD_NAME_PREFIX;
+
+    private BiConsumer<ApplicationEvent, ResolvableType> handler;
+
+    public RingBufferApplicationEventDispatcher() {
+        this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, WaitStrategy.SLEEPING, false);
+    }
+
+    /**
+     * @param capacity     the capacity of the ring buffer, it will be rounded up to a power of 2
+     * @param batchSize    the max number of events to be consumed in a batch
+     * @param waitStrategy the {@link WaitStrategy}
+     * @param dropWhenFull drop the events when the ring buffer is full if <code>true</code>, or wait for the capacity
+     */
+    public RingBufferApplicationEventDispatcher(int capacity, int batchSize, WaitStrategy waitStrategy, boolean dropWhenFull) {
+        int size = max(2, capacity);
+        size = highestOneBit(size) == size ? size : highestOneBit(size) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.batchSize = max(1, batchSize);
+        this.waitStrategy = waitStrategy;
+        this.dropWhenFull = dropWhenFull;
+        this.slots = new Slot[size];
+        this.publishedSequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            publishedSequences.set(i, -1);
+        }
+    }
+
+    /**
+     * Start the consumer thread
+     *
+     * @param handler the handler of the events
+     * @throws IllegalStateException if it has been started
+     */
+    public synchronized void start(BiConsumer<ApplicationEvent, ResolvableType> handler) throws IllegalStateException {
+        if (running) {
+            throw new IllegalStateException("The RingBufferApplicationEventDispatcher has been started");
+        }
+        this.handler = handler;
+        this.running = true;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        Thread thread = threadFactory.newThread(this::consume);
+        this.consumerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Publish the event into the ring buffer, if the ring buffer is full and the event is published by a listener on
+     * the consumer thread, it's dispatched inline rather than waiting for the capacity, which is only released by the
+     * consumer thread itself
+     *
+     * @param event     the {@link ApplicationEvent}
+     * @param eventType the type of event, may be <code>null</code>
+     * @return <code>false</code> if the event was dropped, because the ring buffer is full or not running
+     */
+    public boolean publish(ApplicationEvent event, ResolvableType eventType) {
+        // The consumer does not exit until all active producers have published
+        activeProducers.incrementAndGet();
+        try {
+            return doPublish(event, eventType);
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    private boolean doPublish(ApplicationEvent event, ResolvableType eventType) {
+        long sequence;
+        int tries = 0;
+        while (true) {
+            if (!running) {
+                droppedCount.increment();
+                return false;
+            }
+            long current = claimedSequence.get();
+            sequence = current + 1;
+            if (sequence - capacity > consumedSequence.get()) { // full
+                if (dropWhenFull) {
+                    droppedCount.increment();
+                    return false;
+                }
+                if (Thread.currentThread() == consumerThread) {
+                    // A listener publishes the event, the consumer can't wait for itself to release the slots
+                    publishedCount.increment();
+                    dispatch(event, eventType, nanoTime());
+                    return true;
+                }
+                waitForCapacity(tries++);
+            } else if (claimedSequence.compareAndSet(current, sequence)) {
+                break;
+            }
+        }
+
+        int index = (int) (sequence & mask);
+        Slot slot = slots[index];
+        slot.event = event;
+        slot.eventType = eventType;
+        slot.publishedTime = nanoTime();
+        publishedSequences.set(index, sequence);
+        publishedCount.increment();
+
+        if (consumerWaiting) {
+            signalConsumer();
+        }
+        return true;
+    }
+
+    private void consume() {
+        long next = consumedSequence.get() + 1;
+        int tries = 0;
+        while (true) {
+            int index = (int) (next & mask);
+            if (publishedSequences.get(index) == next) {
+                int count = 0;
+                do {
+                    Slot slot = slots[index];
+                    ApplicationEvent event = slot.event;
+                    ResolvableType eventType = slot.eventType;
+                    long publishedTime = slot.publishedTime;
+                    slot.event = null;
+                    slot.eventType = null;
+                    dispatch(event, eventType, publishedTime);
+                    next++;
+                    index = (int) (next & mask);
+                } while (++count < batchSize && publishedSequences.get(index) == next);
+                // Release the slots of the batch
+                consumedSequence.set(next - 1);
+                tries = 0;
+            } else if (!running && activeProducers.get() == 0 && claimedSequence.get() < next) {
+                // No pending event after closed, the producers check the running flag after they become active
+                break;
+            } else {
+                waitForEvents(tries++, next);
+            }
+        }
+    }
+
+    private void dispatch(ApplicationEvent event, ResolvableType eventType, long publishedTime) {
+        try {
+            handler.accept(event, eventType);
+        } catch (Throwable e) {
+            failedCount++;
+            if (logger.isWarnEnabled()) {
+                logger.warn("The event[{}] can't be dispatched", event, e);
+            }
+        }
+        long latency = nanoTime() - publishedTime;
+        // Only the consumer thread writes the counters
+        processedCount++;
+        totalLatencyNanos += latency;
+        if (latency > maxLatencyNanos) {
+            maxLatencyNanos = latency;
+        }
+    }
+
+    private void waitForEvents(int tries, long next) {
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            lock.lock();
+            try {
+                consumerWaiting = true;
+                // Check again after the flag was set, the producers will signal then
+                if (running && publishedSequences.get((int) (next & mask)) != next) {
+                    notEmpty.await(BLOCKING_TIMEOUT_MILLIS, MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                consumerWaiting = false;
+                lock.unlock();
+            }
+        } else {
+            idle(tries);
+        }
+    }
+
+    private void waitForCapacity(int tries) {
+        // The producers always back off, or the spinning ones may starve the consumer when the cores are not enough
+        backOff(tries, waitStrategy == WaitStrategy.BUSY_SPIN || waitStrategy == WaitStrategy.YIELDING ? SPIN_TRIES * 10 : SPIN_TRIES * 2);
+    }
+
+    private void idle(int tries) {
+        if (waitStrategy == WaitStrategy.BUSY_SPIN) {
+            Thread.onSpinWait();
+        } else {
+            backOff(tries, waitStrategy == WaitStrategy.YIELDING ? Integer.MAX_VALUE : SPIN_TRIES * 2);
+        }
+    }
+
+    private void backOff(int tries, int maxYieldTries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < maxYieldTries) {
+            Thread.yield();
+        } else {
+            parkNanos(SLEEP_NANOS);
+        }
+    }
+
+    private void signalConsumer() {
+        lock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting the events, and wait for the pending events to be consumed
+     *
+     * @param timeoutMillis the timeout in milliseconds to wait
+     * @return <code>true</code> if all pending events were consumed in time
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean shutdown(long timeoutMillis) throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = consumerThread;
+        }
+        if (thread == null) {
+            return true;
+        }
+        signalConsumer();
+        if (thread != Thread.currentThread()) {
+            thread.join(timeoutMillis);
+        }
+        return !thread.isAlive();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (!shutdown(10000L) && logger.isWarnEnabled()) {
+            logger.warn("The pending events of RingBufferApplicationEventDispatcher were not consumed in time, occupancy : {}", getOccupancy());
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public boolean isDropWhenFull() {
+        return dropWhenFull;
+    }
+
+    /**
+     * @return the number of events in the ring buffer to be consumed
+     */
+    public long getOccupancy() {
+        return claimedSequence.get() - consumedSequence.get();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the average latency in nanoseconds from publishing to processed
+     */
+    public long getAverageLatencyNanos() {
+        long processedCount = this.processedCount;
+        return processedCount == 0 ? 0 : totalLatencyNanos / processedCount;
+    }
+
+    /**
+     * @return the max latency in nanoseconds from publishing to processed
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    private static class Slot {
+
+        private ApplicationEvent event;
+
+        private ResolvableType eventType;
+
+        private long publishedTime;
+    }
+}
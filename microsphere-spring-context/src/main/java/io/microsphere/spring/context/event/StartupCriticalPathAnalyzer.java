@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.ConfigurationProperty;
+import io.microsphere.annotation.Nonnull;
+import io.microsphere.annotation.Nullable;
+import io.microsphere.spring.beans.factory.BeanDependencyGraph;
+import io.microsphere.spring.context.event.StartupCriticalPathReport.Candidate;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
+import static io.microsphere.spring.context.event.BeanStartupProfiler.Phase.CREATION;
+import static java.util.Collections.reverse;
+import static java.util.Comparator.comparingLong;
+
+/**
+ * {@code StartupCriticalPathAnalyzer} joins the bean dependency graph with the self-times of bean creations measured
+ * by {@link BeanStartupProfiler}, and then analyzes the {@link StartupCriticalPathReport#getCriticalPath() critical path}
+ * of the context refresh when the {@link ContextRefreshedEvent} is published :
+ * <ul>
+ *     <li>{@link StartupCriticalPathReport#getLazyInitCandidates() lazy-init candidates} - the beans not required by
+ *     any other bean, ranked by their own cost plus the costs of the dependencies only required by them</li>
+ *     <li>{@link StartupCriticalPathReport#getAsyncInitCandidates() async-init candidates} - the beans on the critical
+ *     path, ranked by how much the critical path would shrink if their costs were moved off it</li>
+ * </ul>
+ * <p>
+ * The dependency graph is the one recorded by the {@link ConfigurableListableBeanFactory#getDependenciesForBean(String)
+ * BeanFactory} during the creations, thus it reflects the actual injections rather than the static analysis.
+ * The {@link BeanStartupProfiler} must be registered as a bean, otherwise the analysis will be skipped.
+ *
+ * <h3>Configuration Properties</h3>
+ * <dl>
+ *     <dt>{@value #CANDIDATES_PROPERTY_NAME}</dt>
+ *     <dd>The max count of candidates in each category, default : {@value #DEFAULT_CANDIDATES}</dd>
+ * </dl>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+ * context.register(BeanStartupProfiler.class, StartupCriticalPathAnalyzer.class);
+ * context.refresh();
+ *
+ * StartupCriticalPathReport report = context.getBean(StartupCriticalPathAnalyzer.class).getReport();
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanStartupProfiler
+ * @see StartupCriticalPathReport
+ * @see DependencyAnalysisBeanFactoryListener
+ * @see BeanDependencyGraph
+ * @since 1.0.0
+ */
+public class StartupCriticalPathAnalyzer extends OnceApplicationContextEventListener<ContextRefreshedEvent> {
+
+    /**
+     * The default max count of candidates
+     */
+    public static final int DEFAULT_CANDIDATES = 10;
+
+    /**
+     * The property name of the max count of candidates : "microsphere.spring.startup-critical-path.candidates"
+     */
+    @ConfigurationProperty(
+            type = int.class,
+            defaultValue = "" + DEFAULT_CANDIDATES,
+            description = "the max count of candidates in each category of startup critical path report",
+            source = APPLICATION_SOURCE
+    )
+    public static final String CANDIDATES_PROPERTY_NAME = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "startup-critical-path.candidates";
+
+    private volatile StartupCriticalPathReport report;
+
+    /**
+     * Get the report analyzed when the context was refreshed
+     *
+     * @return <code>null</code> if not analyzed
+     */
+    @Nullable
+    public StartupCriticalPathReport getReport() {
+        return report;
+    }
+
+    @Override
+    protected void onApplicationContextEvent(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        BeanStartupProfiler profiler = context.getBeanProvider(BeanStartupProfiler.class).getIfAvailable();
+        if (profiler == null || !(context instanceof ConfigurableApplicationContext)) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The startup critical path can't be analyzed, since no {} bean was found", BeanStartupProfiler.class.getName());
+            }
+            return;
+        }
+        ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) context).getBeanFactory();
+        Map<String, Long> costs = profiler.getSelfTimes(CREATION);
+        Map<String, Set<String>> dependencyGraph = resolveDependencyGraph(beanFactory, costs.keySet());
+        int limit = context.getEnvironment().getProperty(CANDIDATES_PROPERTY_NAME, int.class, DEFAULT_CANDIDATES);
+
+        this.report = analyze(dependencyGraph, costs, limit);
+
+        if (logger.isInfoEnabled()) {
+            logger.info(report.toString());
+        }
+    }
+
+    static Map<String, Set<String>> resolveDependencyGraph(ConfigurableListableBeanFactory beanFactory, Set<String> beanNames) {
+        Map<String, Set<String>> dependencyGraph = newLinkedHashMap(beanNames.size());
+        for (String beanName : beanNames) {
+            String[] dependencies = beanFactory.getDependenciesForBean(beanName);
+            Set<String> dependentBeanNames = newLinkedHashSet(dependencies.length);
+            for (String dependency : dependencies) {
+                if (beanNames.contains(dependency)) {
+                    dependentBeanNames.add(dependency);
+                }
+            }
+            dependencyGraph.put(beanName, dependentBeanNames);
+        }
+        return dependencyGraph;
+    }
+
+    /**
+     * Analyze the startup critical path
+     *
+     * @param dependencyGraph the dependency graph whose key is the bean name and value is the names of the beans it
+     *                        depends on directly
+     * @param costs           the costs of the beans in nanoseconds, the beans absent in the graph are ignored
+     * @param limit           the max count of candidates in each category
+     * @return non-null {@link StartupCriticalPathReport}
+     */
+    @Nonnull
+    public static StartupCriticalPathReport analyze(Map<String, Set<String>> dependencyGraph, Map<String, Long> costs, int limit) {
+        BeanDependencyGraph graph = new BeanDependencyGraph(dependencyGraph);
+        int size = graph.getKeysCount();
+        String[] beanNames = new String[size];
+        long[] cost = new long[size];
+        int[][] dependencies = new int[size][];
+        int[] dependentsCounts = new int[size];
+        long totalTime = 0;
+        for (int id = 0; id < size; id++) {
+            String beanName = graph.getBeanName(id);
+            beanNames[id] = beanName;
+            cost[id] = Math.max(0L, costs.getOrDefault(beanName, 0L));
+            totalTime += cost[id];
+            dependencies[id] = graph.getDependencyIds(id, true);
+            for (int dependencyId : dependencies[id]) {
+                dependentsCounts[dependencyId]++;
+            }
+        }
+
+        int[] orderedIds = graph.getTopologicalOrder(true);
+        long[] finishTimes = new long[size];
+        int[] predecessors = new int[size];
+        int last = computeFinishTimes(orderedIds, dependencies, cost, finishTimes, predecessors);
+
+        List<String> criticalPath = newArrayList();
+        long criticalPathTime = 0;
+        if (last > -1) {
+            criticalPathTime = finishTimes[last];
+            for (int id = last; id > -1; id = predecessors[id]) {
+                criticalPath.add(beanNames[id]);
+            }
+            reverse(criticalPath);
+        }
+
+        List<Candidate> asyncInitCandidates = newArrayList(criticalPath.size());
+        for (String beanName : criticalPath) {
+            int id = graph.getId(beanName);
+            long originalCost = cost[id];
+            cost[id] = 0;
+            long[] newFinishTimes = new long[size];
+            int newLast = computeFinishTimes(orderedIds, dependencies, cost, newFinishTimes, new int[size]);
+            cost[id] = originalCost;
+            long newCriticalPathTime = newFinishTimes[newLast];
+            addCandidate(asyncInitCandidates, beanName, criticalPathTime - newCriticalPathTime);
+        }
+
+        List<Candidate> lazyInitCandidates = resolveLazyInitCandidates(beanNames, dependencies, dependentsCounts, cost);
+
+        return new StartupCriticalPathReport(totalTime, criticalPathTime, criticalPath,
+                sortCandidates(lazyInitCandidates, limit), sortCandidates(asyncInitCandidates, limit));
+    }
+
+    /**
+     * Compute the earliest finish times of the beans on the infinite workers, the beans in a circular dependency are
+     * computed in the order of their ids, thus their back edges are ignored
+     *
+     * @return the id of bean that finishes last, or <code>-1</code> if no bean
+     */
+    static int computeFinishTimes(int[] orderedIds, int[][] dependencies, long[] cost, long[] finishTimes, int[] predecessors) {
+        int last = -1;
+        for (int id : orderedIds) {
+            long startTime = 0;
+            int predecessor = -1;
+            for (int dependencyId : dependencies[id]) {
+                if (finishTimes[dependencyId] > startTime) {
+                    startTime = finishTimes[dependencyId];
+                    predecessor = dependencyId;
+                }
+            }
+            finishTimes[id] = startTime + cost[id];
+            predecessors[id] = predecessor;
+            if (last == -1 || finishTimes[id] > finishTimes[last]) {
+                last = id;
+            }
+        }
+        return last;
+    }
+
+    private static List<Candidate> resolveLazyInitCandidates(String[] beanNames, int[][] dependencies, int[] dependentsCounts, long[] cost) {
+        int size = beanNames.length;
+        // The count of root beans that reach each bean
+        int[] reachCounts = new int[size];
+        int[] visitedMarks = new int[size];
+        Arrays.fill(visitedMarks, -1);
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int id = 0; id < size; id++) {
+            if (dependentsCounts[id] == 0) {
+                visit(id, dependencies, visitedMarks, stack, reachedId -> reachCounts[reachedId]++);
+            }
+        }
+
+        List<Candidate> candidates = newArrayList();
+        Arrays.fill(visitedMarks, -1);
+        for (int id = 0; id < size; id++) {
+            if (dependentsCounts[id] == 0) {
+                long[] savedTime = new long[1];
+                visit(id, dependencies, visitedMarks, stack, reachedId -> {
+                    if (reachCounts[reachedId] == 1) {
+                        savedTime[0] += cost[reachedId];
+                    }
+                });
+                addCandidate(candidates, beanNames[id], savedTime[0]);
+            }
+        }
+        return candidates;
+    }
+
+    private static void visit(int rootId, int[][] dependencies, int[] visitedMarks, Deque<Integer> stack,
+                              IntConsumer consumer) {
+        visitedMarks[rootId] = rootId;
+        stack.push(rootId);
+        while (!stack.isEmpty()) {
+            int id = stack.pop();
+            consumer.accept(id);
+            for (int dependencyId : dependencies[id]) {
+                if (visitedMarks[dependencyId] != rootId) {
+                    visitedMarks[dependencyId] = rootId;
+                    stack.push(dependencyId);
+                }
+            }
+        }
+    }
+
+    private static void addCandidate(List<Candidate> candidates, String beanName, long savedTime) {
+        if (savedTime > 0) {
+            candidates.add(new Candidate(beanName, savedTime));
+        }
+    }
+
+    private static List<Candidate> sortCandidates(List<Candidate> candidates, int limit) {
+        candidates.sort(comparingLong(Candidate::getSavedTime).reversed());
+        return limit < candidates.size() ? newArrayList(candidates.subList(0, Math.max(0, limit))) : candidates;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.annotation.Nonnull;
+
+import java.util.List;
+
+import static java.lang.System.lineSeparator;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * The report of the startup critical path that is analyzed by {@link StartupCriticalPathAnalyzer}, all times are in
+ * nanoseconds.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * StartupCriticalPathReport report = context.getBean(StartupCriticalPathAnalyzer.class).getReport();
+ * for (StartupCriticalPathReport.Candidate candidate : report.getLazyInitCandidates()) {
+ *     System.out.println(candidate.getBeanName() + " : " + candidate.getSavedTime());
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StartupCriticalPathAnalyzer
+ * @since 1.0.0
+ */
+public class StartupCriticalPathReport {
+
+    private final long totalTime;
+
+    private final long criticalPathTime;
+
+    private final List<String> criticalPath;
+
+    private final List<Candidate> lazyInitCandidates;
+
+    private final List<Candidate> asyncInitCandidates;
+
+    StartupCriticalPathReport(long totalTime, long criticalPathTime, List<String> criticalPath,
+                              List<Candidate> lazyInitCandidates, List<Candidate> asyncInitCandidates) {
+        this.totalTime = totalTime;
+        this.criticalPathTime = criticalPathTime;
+        this.criticalPath = unmodifiableList(criticalPath);
+        this.lazyInitCandidates = unmodifiableList(lazyInitCandidates);
+        this.asyncInitCandidates = unmodifiableList(asyncInitCandidates);
+    }
+
+    /**
+     * The total self-time of all beans, which is the cost of the sequential pre-instantiation
+     *
+     * @return the total time in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * The time of {@link #getCriticalPath() critical path}, which is the lower bound of the parallel pre-instantiation
+     *
+     * @return the time of critical path in nanoseconds
+     */
+    public long getCriticalPathTime() {
+        return criticalPathTime;
+    }
+
+    /**
+     * The most expensive dependency chain, the first element is the bean created first
+     *
+     * @return non-null read-only {@link List}
+     */
+    @Nonnull
+    public List<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * The beans that are not required by any other bean, sorted by the time saved if they were lazy-init, including
+     * the dependencies that are only required by them.
+     *
+     * @return non-null read-only {@link List}
+     */
+    @Nonnull
+    public List<Candidate> getLazyInitCandidates() {
+        return lazyInitCandidates;
+    }
+
+    /**
+     * The beans on the critical path, sorted by the time of critical path saved if they were initialized
+     * asynchronously.
+     *
+     * @return non-null read-only {@link List}
+     */
+    @Nonnull
+    public List<Candidate> getAsyncInitCandidates() {
+        return asyncInitCandidates;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("Startup critical path : total ")
+                .append(toMillis(totalTime)).append(" ms, critical path ")
+                .append(toMillis(criticalPathTime)).append(" ms ").append(criticalPath);
+        appendCandidates(summary, "lazy-init", lazyInitCandidates);
+        appendCandidates(summary, "async-init", asyncInitCandidates);
+        return summary.toString();
+    }
+
+    private static void appendCandidates(StringBuilder summary, String title, List<Candidate> candidates) {
+        summary.append(lineSeparator()).append("The ").append(title).append(" candidates : ");
+        if (candidates.isEmpty()) {
+            summary.append("none");
+        }
+        for (Candidate candidate : candidates) {
+            summary.append(lineSeparator()).append(String.format("  %10.3f ms  %s", candidate.savedTime / 1_000_000.0, candidate.beanName));
+        }
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * The candidate bean and the time to be saved
+     */
+    public static class Candidate {
+
+        private final String beanName;
+
+        private final long savedTime;
+
+        Candidate(String beanName, long savedTime) {
+            this.beanName = beanName;
+            this.savedTime = savedTime;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        /**
+         * @return the saved time in nanoseconds
+         */
+        public long getSavedTime() {
+            return savedTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Candidate{beanName='" + beanName + "', savedTime=" + savedTime + '}';
+        }
+    }
+}
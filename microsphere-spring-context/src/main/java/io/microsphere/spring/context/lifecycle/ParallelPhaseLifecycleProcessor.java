@@ -0,0 +1,457 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.lifecycle;
+
+import io.microsphere.annotation.ConfigurationProperty;
+import io.microsphere.logging.Logger;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.support.DefaultLifecycleProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+
+import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An opt-in {@link org.springframework.context.LifecycleProcessor} starts and stops the {@link AbstractSmartLifecycle}
+ * beans of the same phase concurrently on a bounded executor, instead of one by one in {@link DefaultLifecycleProcessor}.
+ * <p>
+ * The {@link AbstractSmartLifecycle} beans that are auto-startup and independent, that is, neither depend on nor are
+ * depended on by the other {@link Lifecycle} beans, are grouped by their phases, every group is started and stopped as
+ * a whole in the order of phases, the others are processed by {@link DefaultLifecycleProcessor} as usual. The
+ * {@link #TIMEOUT_PROPERTY_NAME timeout} applies to every bean of the groups : a bean not started in time fails the
+ * startup, while a bean not stopped in time is left running in the background. The cost of every phase group is
+ * reported in the log.
+ *
+ * <h3>Configuration Properties</h3>
+ *
+ * <dl>
+ *     <dt>{@value #THREADS_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The max number of beans to be started or stopped concurrently. Default is the number of available processors.
+ *     </dd>
+ *
+ *     <dt>{@value #TIMEOUT_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The timeout in milliseconds to wait for the start or stop of a bean. Default is {@value #DEFAULT_TIMEOUT}.
+ *     </dd>
+ *
+ *     <dt>{@value #THREAD_NAME_PREFIX_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The prefix of the thread names to start or stop beans. Default is: {@value #DEFAULT_THREAD_NAME_PREFIX}
+ *     </dd>
+ * </dl>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Bean(AbstractApplicationContext.LIFECYCLE_PROCESSOR_BEAN_NAME)
+ * public static ParallelPhaseLifecycleProcessor lifecycleProcessor() {
+ *     return new ParallelPhaseLifecycleProcessor();
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AbstractSmartLifecycle
+ * @see DefaultLifecycleProcessor
+ * @see org.springframework.context.support.AbstractApplicationContext#LIFECYCLE_PROCESSOR_BEAN_NAME
+ * @since 1.0.0
+ */
+public class ParallelPhaseLifecycleProcessor extends DefaultLifecycleProcessor implements EnvironmentAware, DisposableBean {
+
+    private static final Logger logger = getLogger(ParallelPhaseLifecycleProcessor.class);
+
+    /**
+     * The prefix of the property for {@link ParallelPhaseLifecycleProcessor} : "microsphere.spring.lifecycle.parallel."
+     */
+    private static final String PROPERTY_NAME_PREFIX = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "lifecycle.parallel.";
+
+    /**
+     * The property name of the max number of beans to be started or stopped concurrently
+     */
+    @ConfigurationProperty(
+            type = int.class,
+            description = "the max number of beans to be started or stopped concurrently, the default value is the number of available processors",
+            source = APPLICATION_SOURCE
+    )
+    public static final String THREADS_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "threads";
+
+    /**
+     * The default timeout in milliseconds to wait for the start or stop of a bean
+     */
+    public static final long DEFAULT_TIMEOUT = 30000L;
+
+    /**
+     * The property name of the timeout in milliseconds to wait for the start or stop of a bean
+     */
+    @ConfigurationProperty(
+            type = long.class,
+            defaultValue = "" + DEFAULT_TIMEOUT,
+            description = "the timeout in milliseconds to wait for the start or stop of a bean",
+            source = APPLICATION_SOURCE
+    )
+    public static final String TIMEOUT_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "timeout";
+
+    /**
+     * The default prefix of the thread names to start or stop beans
+     */
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "Parallel-Phase-Lifecycle-Thread-";
+
+    /**
+     * The property name of the prefix of the thread names to start or stop beans
+     */
+    @ConfigurationProperty(
+            defaultValue = DEFAULT_THREAD_NAME_PREFIX,
+            description = "the prefix of the thread names to start or stop beans",
+            source = APPLICATION_SOURCE
+    )
+    public static final String THREAD_NAME_PREFIX_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "thread.name-prefix";
+
+    /**
+     * The prefix of the names of the phase groups
+     */
+    static final String GROUP_BEAN_NAME_PREFIX = "(parallel-phase-group)#";
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    private Environment environment;
+
+    private ExecutorService executorService;
+
+    /**
+     * Whether the lifecycle beans are being stopped
+     */
+    private volatile boolean stopping;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Replace the independent {@link AbstractSmartLifecycle} beans of a phase with a {@link PhaseLifecycleGroup}
+     *
+     * @return the {@link Lifecycle} beans
+     */
+    @Override
+    protected Map<String, Lifecycle> getLifecycleBeans() {
+        Map<String, Lifecycle> lifecycleBeans = super.getLifecycleBeans();
+        Set<String> lifecycleBeanNames = lifecycleBeans.keySet();
+
+        Map<Integer, Map<String, AbstractSmartLifecycle>> phaseMembers = newLinkedHashMap();
+        for (Entry<String, Lifecycle> entry : lifecycleBeans.entrySet()) {
+            String beanName = entry.getKey();
+            Lifecycle bean = entry.getValue();
+            if (isParallelCandidate(beanName, bean, lifecycleBeanNames)) {
+                AbstractSmartLifecycle lifecycle = (AbstractSmartLifecycle) bean;
+                phaseMembers.computeIfAbsent(lifecycle.getPhase(), phase -> newLinkedHashMap()).put(beanName, lifecycle);
+            }
+        }
+
+        Map<String, Lifecycle> processedLifecycleBeans = newLinkedHashMap(lifecycleBeans.size());
+        for (Entry<String, Lifecycle> entry : lifecycleBeans.entrySet()) {
+            String beanName = entry.getKey();
+            Lifecycle bean = entry.getValue();
+            Map<String, AbstractSmartLifecycle> members = bean instanceof SmartLifecycle ?
+                    phaseMembers.get(((SmartLifecycle) bean).getPhase()) : null;
+            if (members == null || members.size() < 2 || !members.containsKey(beanName)) {
+                processedLifecycleBeans.put(beanName, bean);
+            } else {
+                // The group is placed at the position of its first member
+                int phase = ((SmartLifecycle) bean).getPhase();
+                processedLifecycleBeans.computeIfAbsent(GROUP_BEAN_NAME_PREFIX + phase, name -> new PhaseLifecycleGroup(phase, members));
+            }
+        }
+        return processedLifecycleBeans;
+    }
+
+    private boolean isParallelCandidate(String beanName, Lifecycle bean, Set<String> lifecycleBeanNames) {
+        if (!(bean instanceof AbstractSmartLifecycle)) {
+            return false;
+        }
+        // ParallelSingletonsDestructionLifecycle must be stopped after all other beans of its phase
+        if (bean instanceof ParallelSingletonsDestructionLifecycle) {
+            return false;
+        }
+        if (!((AbstractSmartLifecycle) bean).isAutoStartup()) {
+            return false;
+        }
+        return !isRelated(beanFactory.getDependenciesForBean(beanName), lifecycleBeanNames)
+                && !isRelated(beanFactory.getDependentBeans(beanName), lifecycleBeanNames);
+    }
+
+    private boolean isRelated(String[] beanNames, Set<String> lifecycleBeanNames) {
+        for (String beanName : beanNames) {
+            if (lifecycleBeanNames.contains(beanName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        this.stopping = true;
+        try {
+            super.stop();
+        } finally {
+            this.stopping = false;
+        }
+    }
+
+    @Override
+    public void onClose() {
+        this.stopping = true;
+        try {
+            super.onClose();
+        } finally {
+            this.stopping = false;
+        }
+    }
+
+    private void process(int phase, Map<String, AbstractSmartLifecycle> members, boolean starting) {
+        ExecutorService executorService = getExecutorService();
+        long timeout = environment.getProperty(TIMEOUT_PROPERTY_NAME, long.class, DEFAULT_TIMEOUT);
+        long startTime = nanoTime();
+
+        Map<String, MemberTask> tasks = newLinkedHashMap(members.size());
+        for (Entry<String, AbstractSmartLifecycle> entry : members.entrySet()) {
+            AbstractSmartLifecycle member = entry.getValue();
+            if (member.isRunning() != starting) {
+                MemberTask task = new MemberTask(member, starting);
+                task.future = executorService.submit(task);
+                tasks.put(entry.getKey(), task);
+            }
+        }
+
+        String action = starting ? "start" : "stop";
+        long timeoutNanos = MILLISECONDS.toNanos(timeout);
+        // The tasks queued behind the hung ones may never start, they're waited at most for the whole group
+        long deadline = startTime + timeoutNanos * max(1, tasks.size());
+        List<String> costs = newArrayList(tasks.size());
+        for (Entry<String, MemberTask> entry : tasks.entrySet()) {
+            String beanName = entry.getKey();
+            try {
+                long cost = entry.getValue().await(timeoutNanos, deadline);
+                costs.add(beanName + " : " + NANOSECONDS.toMillis(cost) + " ms");
+            } catch (TimeoutException e) {
+                if (starting) {
+                    throw new ApplicationContextException("The bean['" + beanName + "'] did not start in " + timeout + " ms");
+                }
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The bean['{}'] did not stop in {} ms, it will be left running", beanName, timeout);
+                }
+            } catch (ExecutionException e) {
+                if (starting) {
+                    throw new ApplicationContextException("Failed to start bean '" + beanName + "'", e.getCause());
+                }
+                if (logger.isWarnEnabled()) {
+                    logger.warn("Failed to stop bean '{}'", beanName, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The " + action + " of the beans in phase[" + phase + "] was interrupted", e);
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("The {} beans of phase[{}] took {} ms to {} in parallel : {}", tasks.size(), phase,
+                    NANOSECONDS.toMillis(nanoTime() - startTime), action, costs);
+        }
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        ExecutorService executorService = this.executorService;
+        if (executorService == null) {
+            int threads = max(1, environment.getProperty(THREADS_PROPERTY_NAME, int.class, getRuntime().availableProcessors()));
+            String threadNamePrefix = environment.getProperty(THREAD_NAME_PREFIX_PROPERTY_NAME, DEFAULT_THREAD_NAME_PREFIX);
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+            threadFactory.setDaemon(true);
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 60, SECONDS,
+                    new LinkedBlockingQueue<>(), threadFactory);
+            // The threads are only needed on the start and stop
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            executorService = threadPoolExecutor;
+            this.executorService = executorService;
+        }
+        return executorService;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        ExecutorService executorService = this.executorService;
+        if (executorService != null) {
+            executorService.shutdown();
+            this.executorService = null;
+        }
+    }
+
+    /**
+     * The group of the {@link AbstractSmartLifecycle} beans in the same phase, which are started and stopped concurrently
+     */
+    class PhaseLifecycleGroup implements SmartLifecycle {
+
+        private final int phase;
+
+        private final Map<String, AbstractSmartLifecycle> members;
+
+        PhaseLifecycleGroup(int phase, Map<String, AbstractSmartLifecycle> members) {
+            this.phase = phase;
+            this.members = members;
+        }
+
+        @Override
+        public void start() {
+            process(phase, members, true);
+        }
+
+        @Override
+        public void stop() {
+            process(phase, members, false);
+        }
+
+        @Override
+        public void stop(Runnable callback) {
+            try {
+                stop();
+            } finally {
+                callback.run();
+            }
+        }
+
+        /**
+         * While stopping, the group is running if any member is running, thus the running members will be stopped,
+         * otherwise, it's running only if all members are running, thus the stopped members will be started.
+         */
+        @Override
+        public boolean isRunning() {
+            boolean anyRunning = stopping;
+            for (AbstractSmartLifecycle member : members.values()) {
+                if (member.isRunning() == anyRunning) {
+                    return anyRunning;
+                }
+            }
+            return !anyRunning;
+        }
+
+        @Override
+        public boolean isAutoStartup() {
+            return true;
+        }
+
+        @Override
+        public int getPhase() {
+            return phase;
+        }
+
+        Set<String> getMemberNames() {
+            return members.keySet();
+        }
+    }
+
+    /**
+     * The task to start or stop a member, the timeout is counted from the time when the task starts to execute rather
+     * than it's submitted, since the tasks may be queued behind the others
+     */
+    static class MemberTask implements Callable<Long> {
+
+        private final AbstractSmartLifecycle member;
+
+        private final boolean starting;
+
+        private volatile long startTime;
+
+        private volatile boolean started;
+
+        private Future<Long> future;
+
+        MemberTask(AbstractSmartLifecycle member, boolean starting) {
+            this.member = member;
+            this.starting = starting;
+        }
+
+        @Override
+        public Long call() {
+            long startTime = nanoTime();
+            this.startTime = startTime;
+            this.started = true;
+            if (starting) {
+                member.start();
+            } else {
+                member.stop();
+            }
+            return nanoTime() - startTime;
+        }
+
+        /**
+         * Wait for the task to complete in the timeout since it started
+         *
+         * @param timeout  the timeout in nanoseconds
+         * @param deadline the time in nanoseconds that the task must have started by
+         * @return the cost in nanoseconds
+         */
+        long await(long timeout, long deadline) throws InterruptedException, ExecutionException, TimeoutException {
+            while (true) {
+                boolean started = this.started;
+                long now = nanoTime();
+                // If the task starts while waiting, the wait ends before its own timeout expires
+                long waitTime = started ? startTime + timeout - now : min(timeout, deadline - now);
+                try {
+                    return future.get(max(0L, waitTime), NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (started || (!this.started && nanoTime() - deadline >= 0)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.lifecycle;
+
+import io.microsphere.annotation.ConfigurationProperty;
+import io.microsphere.logging.Logger;
+import io.microsphere.spring.beans.factory.CriticalPathBeanScheduler;
+import io.microsphere.spring.context.event.BeanListener;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationNotAllowedException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StopWatch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static io.microsphere.annotation.ConfigurationProperty.APPLICATION_SOURCE;
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static io.microsphere.spring.beans.factory.BeanFactoryUtils.asDefaultListableBeanFactory;
+import static io.microsphere.spring.constants.PropertyConstants.MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX;
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+import static org.springframework.context.support.AbstractApplicationContext.LIFECYCLE_PROCESSOR_BEAN_NAME;
+
+/**
+ * A {@link org.springframework.context.SmartLifecycle} destroys the singletons in parallel when the
+ * {@link org.springframework.context.ApplicationContext} is closing, instead of one by one in
+ * {@link DefaultListableBeanFactory#destroySingletons()}.
+ * <p>
+ * It's stopped in the {@link #EARLIEST_PHASE earliest phase}, thus after all other lifecycle beans have been stopped.
+ * The singletons are scheduled by the {@link CriticalPathBeanScheduler} in the reverse topological order of the
+ * dependency graph recorded by the {@link DefaultListableBeanFactory}, that is, a bean is destroyed as soon as all beans
+ * depending on it have been destroyed, and the independent beans are destroyed concurrently. If the destruction of a
+ * bean does not complete in the {@link #TIMEOUT_PROPERTY_NAME timeout}, it's left running in the background, the beans
+ * it depends on (transitively) are not destroyed in parallel, they are left to the {@link DefaultListableBeanFactory}
+ * after the pending destructions have completed. While the singletons are destroyed in parallel, the creation of
+ * singletons is not allowed, as same as {@link DefaultListableBeanFactory#destroySingletons()} does, thus the destroyed
+ * beans can't be created again by the destruction callbacks. The destruction of every bean is reported by
+ * {@link BeanListener#onBeforeBeanDestroy(String, Object)} and {@link BeanListener#onAfterBeanDestroy(String, Object)}
+ * if the bean events publishing is enabled. The remaining singletons (e.g. this bean) are destroyed by the
+ * {@link DefaultListableBeanFactory} as usual.
+ * <p>
+ * Stopping the {@link org.springframework.context.ApplicationContext} without closing does not destroy any bean.
+ *
+ * <h3>Configuration Properties</h3>
+ *
+ * <dl>
+ *     <dt>{@value #THREADS_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The max number of singletons to be destroyed concurrently. Default is the number of available processors.
+ *     </dd>
+ *
+ *     <dt>{@value #TIMEOUT_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The timeout in milliseconds to wait for the destruction of a bean. Default is {@value #DEFAULT_TIMEOUT}.
+ *     </dd>
+ *
+ *     <dt>{@value #THREAD_NAME_PREFIX_PROPERTY_NAME}</dt>
+ *     <dd>
+ *         The prefix of the thread names to destroy singletons. Default is: {@value #DEFAULT_THREAD_NAME_PREFIX}
+ *     </dd>
+ * </dl>
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Configuration
+ * @Import(ParallelSingletonsDestructionLifecycle.class)
+ * public class AppConfig {
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AbstractSmartLifecycle
+ * @see CriticalPathBeanScheduler
+ * @see BeanListener
+ * @since 1.0.0
+ */
+public class ParallelSingletonsDestructionLifecycle extends AbstractSmartLifecycle implements
+        ApplicationListener<ContextClosedEvent>, BeanFactoryAware, BeanNameAware, EnvironmentAware {
+
+    private static final Logger logger = getLogger(ParallelSingletonsDestructionLifecycle.class);
+
+    /**
+     * The prefix of the property for {@link ParallelSingletonsDestructionLifecycle} : "microsphere.spring.destruction.singletons."
+     */
+    private static final String PROPERTY_NAME_PREFIX = MICROSPHERE_SPRING_PROPERTY_NAME_PREFIX + "destruction.singletons.";
+
+    /**
+     * The property name of the max number of singletons to be destroyed concurrently
+     */
+    @ConfigurationProperty(
+            type = int.class,
+            description = "the max number of singletons to be destroyed concurrently, the default value is the number of available processors",
+            source = APPLICATION_SOURCE
+    )
+    public static final String THREADS_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "threads";
+
+    /**
+     * The default timeout in milliseconds to wait for the destruction of a bean
+     */
+    public static final long DEFAULT_TIMEOUT = 10000L;
+
+    /**
+     * The property name of the timeout in milliseconds to wait for the destruction of a bean
+     */
+    @ConfigurationProperty(
+            type = long.class,
+            defaultValue = "" + DEFAULT_TIMEOUT,
+            description = "the timeout in milliseconds to wait for the destruction of a bean",
+            source = APPLICATION_SOURCE
+    )
+    public static final String TIMEOUT_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "timeout";
+
+    /**
+     * The default prefix of the thread names to destroy singletons
+     */
+    public static final String DEFAULT_THREAD_NAME_PREFIX = "Parallel-Destruction-Singletons-Thread-";
+
+    /**
+     * The property name of the prefix of the thread names to destroy singletons
+     */
+    @ConfigurationProperty(
+            defaultValue = DEFAULT_THREAD_NAME_PREFIX,
+            description = "the prefix of the thread names to destroy singletons",
+            source = APPLICATION_SOURCE
+    )
+    public static final String THREAD_NAME_PREFIX_PROPERTY_NAME = PROPERTY_NAME_PREFIX + "thread.name-prefix";
+
+    private volatile boolean closing;
+
+    private volatile boolean destroying;
+
+    private String beanName;
+
+    private Environment environment;
+
+    private DefaultListableBeanFactory beanFactory;
+
+    public ParallelSingletonsDestructionLifecycle() {
+        setPhase(EARLIEST_PHASE);
+    }
+
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        // ignore the events from the other contexts, e.g. the children
+        if (event.getApplicationContext().getAutowireCapableBeanFactory() == this.beanFactory) {
+            this.closing = true;
+        }
+    }
+
+    @Override
+    protected void doStart() {
+        this.closing = false;
+        this.destroying = false;
+    }
+
+    @Override
+    protected void doStop() {
+        if (closing) {
+            destroySingletons();
+        }
+    }
+
+    /**
+     * Destroy the singletons in parallel
+     */
+    protected void destroySingletons() {
+        DefaultListableBeanFactory beanFactory = this.beanFactory;
+        StopWatch stopWatch = new StopWatch("ParallelDestructionSingletons");
+
+        stopWatch.start("resolveDestructionGraph");
+        Map<String, Set<String>> destructionGraph = resolveDestructionGraph(beanFactory);
+        stopWatch.stop();
+
+        int threads = environment.getProperty(THREADS_PROPERTY_NAME, int.class, getRuntime().availableProcessors());
+        long timeout = environment.getProperty(TIMEOUT_PROPERTY_NAME, long.class, DEFAULT_TIMEOUT);
+        String threadNamePrefix = environment.getProperty(THREAD_NAME_PREFIX_PROPERTY_NAME, DEFAULT_THREAD_NAME_PREFIX);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        // The scheduling workers and the destruction tasks share the threads
+        ExecutorService executorService = newCachedThreadPool(threadFactory);
+
+        stopWatch.start("destroySingletons");
+        List<Future<?>> pendingFutures = new CopyOnWriteArrayList<>();
+        List<String> skippedBeanNames;
+        this.destroying = true;
+        try {
+            CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(destructionGraph);
+            skippedBeanNames = scheduler.executeOrHold(executorService, max(1, threads),
+                    name -> destroySingleton(name, executorService, timeout, pendingFutures));
+        } finally {
+            executorService.shutdown();
+            stopWatch.stop();
+        }
+
+        if (!skippedBeanNames.isEmpty()) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The singletons{} are left to the BeanFactory, since the beans depending on them were not destroyed in time",
+                        skippedBeanNames);
+            }
+            // The skipped beans may be still in use by the pending destructions
+            awaitPendingDestructions(pendingFutures);
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("{} singletons were destroyed in parallel : {}", destructionGraph.size() - skippedBeanNames.size(), stopWatch);
+        }
+    }
+
+    /**
+     * Resolve the destruction graph whose key is the bean name and value is the names of the beans that depend on it,
+     * they must be destroyed before it
+     *
+     * @param beanFactory {@link DefaultListableBeanFactory}
+     * @return non-null {@link Map}
+     */
+    protected Map<String, Set<String>> resolveDestructionGraph(DefaultListableBeanFactory beanFactory) {
+        Set<String> singletonNames = newLinkedHashSet(beanFactory.getSingletonNames());
+        singletonNames.remove(this.beanName);
+        singletonNames.remove(LIFECYCLE_PROCESSOR_BEAN_NAME);
+        singletonNames.remove(APPLICATION_EVENT_MULTICASTER_BEAN_NAME);
+
+        Map<String, Set<String>> destructionGraph = newLinkedHashMap(singletonNames.size());
+        for (String singletonName : singletonNames) {
+            String[] dependentBeanNames = beanFactory.getDependentBeans(singletonName);
+            Set<String> dependents = newLinkedHashSet(dependentBeanNames.length);
+            for (String dependentBeanName : dependentBeanNames) {
+                if (singletonNames.contains(dependentBeanName)) {
+                    dependents.add(dependentBeanName);
+                }
+            }
+            destructionGraph.put(singletonName, dependents);
+        }
+        return destructionGraph;
+    }
+
+    /**
+     * Destroy the singleton
+     *
+     * @return <code>false</code> if the destruction did not complete in the timeout
+     */
+    private boolean destroySingleton(String beanName, ExecutorService executorService, long timeout, List<Future<?>> pendingFutures) {
+        Future<?> future = executorService.submit(() -> beanFactory.destroySingleton(beanName));
+        try {
+            future.get(timeout, MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The destruction of bean['{}'] did not complete in {} ms, it will be left running", beanName, timeout);
+            }
+            pendingFutures.add(future);
+            return false;
+        } catch (ExecutionException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("The bean['{}'] can't be destroyed", beanName, e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The destruction of singletons was interrupted", e);
+        }
+        return true;
+    }
+
+    private void awaitPendingDestructions(List<Future<?>> pendingFutures) {
+        for (Future<?> future : pendingFutures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("The pending destruction failed", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The pending destructions of singletons were interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Whether the singletons are being destroyed in parallel
+     *
+     * @return <code>true</code> if destroying
+     */
+    public boolean isDestroying() {
+        return destroying;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        DefaultListableBeanFactory defaultListableBeanFactory = asDefaultListableBeanFactory(beanFactory);
+        defaultListableBeanFactory.addBeanPostProcessor(new SingletonCreationGuard());
+        this.beanFactory = defaultListableBeanFactory;
+    }
+
+    @Override
+    public void setBeanName(String beanName) {
+        this.beanName = beanName;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * The {@link InstantiationAwareBeanPostProcessor} disallows the creation of singletons while they are being destroyed
+     * in parallel
+     */
+    private class SingletonCreationGuard implements InstantiationAwareBeanPostProcessor {
+
+        @Override
+        public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+            if (destroying && beanFactory.containsBeanDefinition(beanName)
+                    && beanFactory.getMergedBeanDefinition(beanName).isSingleton()) {
+                throw new BeanCreationNotAllowedException(beanName, "Singleton bean creation not allowed while singletons " +
+                        "of this factory are in destruction (Do not request a bean from a BeanFactory in a destroy method implementation!)");
+            }
+            return null;
+        }
+    }
+}
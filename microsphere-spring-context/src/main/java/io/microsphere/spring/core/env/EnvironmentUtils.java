@@ -26,6 +26,7 @@ import org.springframework.core.env.ConfigurablePropertyResolver;
 import org.springframework.core.env.Environment;
 import org.springframework.util.StringUtils;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -54,6 +55,21 @@ public abstract class EnvironmentUtils implements Utils {
 
     private static final Logger logger = getLogger(EnvironmentUtils.class);
 
+    /**
+     * The property name of the application name : "spring.application.name"
+     */
+    public static final String APPLICATION_NAME_PROPERTY_NAME = "spring.application.name";
+
+    /**
+     * The default application name if {@value #APPLICATION_NAME_PROPERTY_NAME} is absent
+     */
+    public static final String DEFAULT_APPLICATION_NAME = "application";
+
+    /**
+     * The name of the temporary directory of microsphere-spring under "java.io.tmpdir"
+     */
+    public static final String TEMP_DIRECTORY_NAME = "microsphere-spring";
+
     /**
      * Cast {@link Environment} to {@link ConfigurableEnvironment}
      *
@@ -197,6 +213,42 @@ public abstract class EnvironmentUtils implements Utils {
         return targetValue;
     }
 
+    /**
+     * Get the temporary directory of the current application :
+     * "${java.io.tmpdir}/microsphere-spring/{application name}-{hash}", the hash is computed from the working directory
+     * and the class path, thus the applications on the same host do not share the files, even if they have the same
+     * {@value #APPLICATION_NAME_PROPERTY_NAME application name} or it's absent.
+     *
+     * @param environment {@link Environment}
+     * @return non-null, the directory may not exist
+     */
+    @Nonnull
+    public static File getApplicationTempDirectory(Environment environment) {
+        String tempDirectory = environment.getProperty("java.io.tmpdir", System.getProperty("java.io.tmpdir"));
+        String applicationName = environment.getProperty(APPLICATION_NAME_PROPERTY_NAME, DEFAULT_APPLICATION_NAME);
+        String key = System.getProperty("user.dir") + File.pathSeparator + System.getProperty("java.class.path");
+        String directoryName = applicationName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + Integer.toHexString(key.hashCode());
+        return new File(new File(tempDirectory, TEMP_DIRECTORY_NAME), directoryName);
+    }
+
+    /**
+     * Resolve the file by the path property, or the file in the {@link #getApplicationTempDirectory(Environment)
+     * temporary directory of the current application} if the property is absent
+     *
+     * @param environment         {@link Environment}
+     * @param pathPropertyName    the name of property whose value is the path of file, the placeholders are supported
+     * @param defaultFileName     the default name of the file in the temporary directory of the current application
+     * @return non-null
+     */
+    @Nonnull
+    public static File resolveApplicationFile(Environment environment, String pathPropertyName, String defaultFileName) {
+        String path = environment.getProperty(pathPropertyName);
+        if (hasText(path)) {
+            return new File(environment.resolvePlaceholders(path));
+        }
+        return new File(getApplicationTempDirectory(environment), defaultFileName);
+    }
+
     private EnvironmentUtils() {
     }
 }
\ No newline at end of file
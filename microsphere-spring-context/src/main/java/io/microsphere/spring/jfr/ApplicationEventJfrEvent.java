@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR {@link Event} records the multicasting of an {@link org.springframework.context.ApplicationEvent} through
+ * the {@link io.microsphere.spring.context.event.ApplicationEventInterceptor interceptor chain}
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JfrApplicationEventInterceptor
+ * @since 1.0.0
+ */
+@Name(ApplicationEventJfrEvent.NAME)
+@Label("Application Event Multicast")
+@Category({"Microsphere", "Spring", "Event"})
+@Description("The multicasting of a Spring ApplicationEvent")
+@StackTrace(false)
+public class ApplicationEventJfrEvent extends Event {
+
+    /**
+     * The name of event : "io.microsphere.spring.ApplicationEvent"
+     */
+    public static final String NAME = "io.microsphere.spring.ApplicationEvent";
+
+    @Label("Event Type")
+    String eventType;
+
+    @Label("Event Class")
+    Class<?> eventClass;
+}
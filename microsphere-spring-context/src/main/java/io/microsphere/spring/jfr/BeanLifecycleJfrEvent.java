@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR {@link Event} records a phase of the bean lifecycle, e.g. instantiation, initialization and destruction
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JfrBeanListener
+ * @since 1.0.0
+ */
+@Name(BeanLifecycleJfrEvent.NAME)
+@Label("Bean Lifecycle")
+@Category({"Microsphere", "Spring", "Bean"})
+@Description("A phase of the Spring bean lifecycle")
+@StackTrace(false)
+public class BeanLifecycleJfrEvent extends Event {
+
+    /**
+     * The name of event : "io.microsphere.spring.BeanLifecycle"
+     */
+    public static final String NAME = "io.microsphere.spring.BeanLifecycle";
+
+    /**
+     * The phase of instantiation
+     */
+    public static final String INSTANTIATION_PHASE = "instantiation";
+
+    /**
+     * The phase of initialization
+     */
+    public static final String INITIALIZATION_PHASE = "initialization";
+
+    /**
+     * The phase of destruction
+     */
+    public static final String DESTRUCTION_PHASE = "destruction";
+
+    @Label("Bean Name")
+    String beanName;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Bean Class")
+    Class<?> beanClass;
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR {@link Event} records an operation of the {@link org.springframework.core.env.Environment}, e.g. getting a
+ * property or resolving the placeholders
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JfrEnvironmentListener
+ * @since 1.0.0
+ */
+@Name(EnvironmentJfrEvent.NAME)
+@Label("Environment Operation")
+@Category({"Microsphere", "Spring", "Environment"})
+@Description("An operation of the Spring Environment")
+@StackTrace(false)
+public class EnvironmentJfrEvent extends Event {
+
+    /**
+     * The name of event : "io.microsphere.spring.Environment"
+     */
+    public static final String NAME = "io.microsphere.spring.Environment";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Property Key")
+    @Description("The name of property or the text of placeholders")
+    String key;
+
+    @Label("Target Type")
+    Class<?> targetType;
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import io.microsphere.spring.context.event.ApplicationEventInterceptor;
+import io.microsphere.spring.context.event.ApplicationEventInterceptorChain;
+import jdk.jfr.EventType;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+
+/**
+ * The {@link ApplicationEventInterceptor} emits the {@link ApplicationEventJfrEvent JFR event} of the multicasting of
+ * every {@link ApplicationEvent}, including the rest of the interceptors and the listeners. It's invoked in the
+ * {@link #HIGHEST_PRECEDENCE highest precedence}.
+ * <p>
+ * If the {@link ApplicationEventJfrEvent} is not enabled in any recording, the event is passed to the chain directly.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Configuration
+ * @EnableEventExtension(intercepted = true)
+ * @Import(JfrApplicationEventInterceptor.class)
+ * public class AppConfig {
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ApplicationEventJfrEvent
+ * @see ApplicationEventInterceptor
+ * @since 1.0.0
+ */
+public class JfrApplicationEventInterceptor implements ApplicationEventInterceptor {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(ApplicationEventJfrEvent.class);
+
+    @Override
+    public void intercept(ApplicationEvent event, ResolvableType eventType, ApplicationEventInterceptorChain chain) {
+        if (!EVENT_TYPE.isEnabled()) {
+            chain.intercept(event, eventType);
+            return;
+        }
+        ApplicationEventJfrEvent jfrEvent = new ApplicationEventJfrEvent();
+        jfrEvent.begin();
+        try {
+            chain.intercept(event, eventType);
+        } finally {
+            jfrEvent.end();
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.eventType = eventType == null ? null : eventType.toString();
+                jfrEvent.eventClass = event.getClass();
+                jfrEvent.commit();
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
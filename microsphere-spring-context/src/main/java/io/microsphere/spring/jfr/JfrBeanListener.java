@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import io.microsphere.spring.context.event.BeanListenerAdapter;
+import jdk.jfr.EventType;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static io.microsphere.spring.jfr.BeanLifecycleJfrEvent.DESTRUCTION_PHASE;
+import static io.microsphere.spring.jfr.BeanLifecycleJfrEvent.INITIALIZATION_PHASE;
+import static io.microsphere.spring.jfr.BeanLifecycleJfrEvent.INSTANTIATION_PHASE;
+
+/**
+ * The {@link io.microsphere.spring.context.event.BeanListener} emits the {@link BeanLifecycleJfrEvent JFR events} of
+ * the instantiation, initialization and destruction of beans.
+ * <p>
+ * If the {@link BeanLifecycleJfrEvent} is not enabled in any recording, the callbacks return immediately without any
+ * allocation. The pending events are kept in the thread-confined stack, thus the beans with the same name created
+ * concurrently (e.g. the prototype beans) are not mixed up, and the events of the failed phases are discarded once an
+ * enclosing phase is completed.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Configuration
+ * @Import(JfrBeanListener.class)
+ * public class AppConfig {
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanLifecycleJfrEvent
+ * @see io.microsphere.spring.context.event.BeanListener
+ * @since 1.0.0
+ */
+public class JfrBeanListener implements BeanListenerAdapter {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(BeanLifecycleJfrEvent.class);
+
+    /**
+     * The max size of the stack of the pending events, the oldest events beyond it were never completed
+     */
+    static final int MAX_PENDING_EVENTS = 256;
+
+    /**
+     * The stack of the pending events, the phases may be nested, e.g. the dependencies are created during the
+     * instantiation of a bean
+     */
+    private final ThreadLocal<Deque<BeanLifecycleJfrEvent>> pendingEventsHolder = new ThreadLocal<>();
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition) {
+        begin(beanName, INSTANTIATION_PHASE);
+    }
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Constructor<?> constructor, Object[] args) {
+        begin(beanName, INSTANTIATION_PHASE);
+    }
+
+    @Override
+    public void onBeforeBeanInstantiate(String beanName, RootBeanDefinition mergedBeanDefinition, Object factoryBean, Method factoryMethod, Object[] args) {
+        begin(beanName, INSTANTIATION_PHASE);
+    }
+
+    @Override
+    public void onAfterBeanInstantiated(String beanName, RootBeanDefinition mergedBeanDefinition, Object bean) {
+        commit(beanName, INSTANTIATION_PHASE, bean);
+    }
+
+    @Override
+    public void onBeforeBeanInitialize(String beanName, Object bean) {
+        begin(beanName, INITIALIZATION_PHASE);
+    }
+
+    @Override
+    public void onAfterBeanInitialized(String beanName, Object bean) {
+        commit(beanName, INITIALIZATION_PHASE, bean);
+    }
+
+    @Override
+    public void onBeforeBeanDestroy(String beanName, Object bean) {
+        begin(beanName, DESTRUCTION_PHASE);
+    }
+
+    @Override
+    public void onAfterBeanDestroy(String beanName, Object bean) {
+        commit(beanName, DESTRUCTION_PHASE, bean);
+    }
+
+    private void begin(String beanName, String phase) {
+        if (!EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        Deque<BeanLifecycleJfrEvent> pendingEvents = pendingEventsHolder.get();
+        if (pendingEvents == null) {
+            pendingEvents = new ArrayDeque<>();
+            pendingEventsHolder.set(pendingEvents);
+        } else if (pendingEvents.size() >= MAX_PENDING_EVENTS) {
+            pendingEvents.removeLast();
+        }
+        BeanLifecycleJfrEvent event = new BeanLifecycleJfrEvent();
+        event.beanName = beanName;
+        event.phase = phase;
+        event.begin();
+        pendingEvents.push(event);
+    }
+
+    private void commit(String beanName, String phase, Object bean) {
+        Deque<BeanLifecycleJfrEvent> pendingEvents = pendingEventsHolder.get();
+        if (pendingEvents == null || pendingEvents.isEmpty()) {
+            return;
+        }
+        BeanLifecycleJfrEvent event = findEvent(pendingEvents, beanName, phase);
+        if (event == null) {
+            return;
+        }
+        // The events above without the "after" callbacks (e.g. an exception was thrown) are discarded
+        while (pendingEvents.pop() != event) {
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.beanClass = bean == null ? null : bean.getClass();
+            event.commit();
+        }
+    }
+
+    private BeanLifecycleJfrEvent findEvent(Deque<BeanLifecycleJfrEvent> pendingEvents, String beanName, String phase) {
+        for (BeanLifecycleJfrEvent event : pendingEvents) {
+            if (event.phase.equals(phase) && event.beanName.equals(beanName)) {
+                return event;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import io.microsphere.spring.core.env.EnvironmentListener;
+import jdk.jfr.EventType;
+import org.springframework.core.env.ConfigurablePropertyResolver;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * The {@link EnvironmentListener} emits the {@link EnvironmentJfrEvent JFR events} of getting the properties and
+ * resolving the placeholders from the {@link io.microsphere.spring.core.env.ListenableConfigurableEnvironment}.
+ * <p>
+ * If the {@link EnvironmentJfrEvent} is not enabled in any recording, the callbacks return immediately without any
+ * allocation.
+ *
+ * <h3>Example Usage</h3>
+ * Enable the {@link io.microsphere.spring.core.env.ListenableConfigurableEnvironment} by the property
+ * "microsphere.spring.listenable-environment.enabled=true", and register this class in "META-INF/spring.factories" :
+ * <pre>
+ * io.microsphere.spring.core.env.EnvironmentListener=\
+ * io.microsphere.spring.jfr.JfrEnvironmentListener
+ * </pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see EnvironmentJfrEvent
+ * @see EnvironmentListener
+ * @since 1.0.0
+ */
+public class JfrEnvironmentListener implements EnvironmentListener {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(EnvironmentJfrEvent.class);
+
+    /**
+     * The stack of the pending events, the operations may be nested, e.g. resolving the placeholders in a property
+     */
+    private static final ThreadLocal<Deque<EnvironmentJfrEvent>> pendingEventsHolder = new ThreadLocal<>();
+
+    @Override
+    public void beforeGetProperty(ConfigurablePropertyResolver propertyResolver, String name, Class<?> targetType, Object defaultValue) {
+        begin("getProperty", name, targetType);
+    }
+
+    @Override
+    public void afterGetProperty(ConfigurablePropertyResolver propertyResolver, String name, Class<?> targetType, Object value, Object defaultValue) {
+        commit("getProperty", name);
+    }
+
+    @Override
+    public void beforeGetRequiredProperty(ConfigurablePropertyResolver propertyResolver, String name, Class<?> targetType) {
+        begin("getRequiredProperty", name, targetType);
+    }
+
+    @Override
+    public void afterGetRequiredProperty(ConfigurablePropertyResolver propertyResolver, String name, Class<?> targetType, Object value) {
+        commit("getRequiredProperty", name);
+    }
+
+    @Override
+    public void beforeResolvePlaceholders(ConfigurablePropertyResolver propertyResolver, String text) {
+        begin("resolvePlaceholders", text, String.class);
+    }
+
+    @Override
+    public void afterResolvePlaceholders(ConfigurablePropertyResolver propertyResolver, String text, String result) {
+        commit("resolvePlaceholders", text);
+    }
+
+    @Override
+    public void beforeResolveRequiredPlaceholders(ConfigurablePropertyResolver propertyResolver, String text) {
+        begin("resolveRequiredPlaceholders", text, String.class);
+    }
+
+    @Override
+    public void afterResolveRequiredPlaceholders(ConfigurablePropertyResolver propertyResolver, String text, String result) {
+        commit("resolveRequiredPlaceholders", text);
+    }
+
+    private void begin(String operation, String key, Class<?> targetType) {
+        if (!EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        Deque<EnvironmentJfrEvent> pendingEvents = pendingEventsHolder.get();
+        if (pendingEvents == null) {
+            pendingEvents = new ArrayDeque<>();
+            pendingEventsHolder.set(pendingEvents);
+        }
+        EnvironmentJfrEvent event = new EnvironmentJfrEvent();
+        event.operation = operation;
+        event.key = key;
+        event.targetType = targetType;
+        event.begin();
+        pendingEvents.push(event);
+    }
+
+    private void commit(String operation, String key) {
+        Deque<EnvironmentJfrEvent> pendingEvents = pendingEventsHolder.get();
+        if (pendingEvents == null) {
+            return;
+        }
+        EnvironmentJfrEvent event;
+        // The events without the "after" callbacks (e.g. an exception was thrown) are discarded
+        while ((event = pendingEvents.poll()) != null) {
+            if (Objects.equals(operation, event.operation) && Objects.equals(key, event.key)) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.commit();
+                }
+                break;
+            }
+        }
+    }
+}
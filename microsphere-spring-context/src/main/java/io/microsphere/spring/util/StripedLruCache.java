@@ -0,0 +1,445 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.util;
+
+import io.microsphere.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * A bounded concurrent cache whose entries are split into the lock-striped segments, every segment evicts its least
+ * recently used entry when it's full.
+ * <p>
+ * The segment locks only guard the lookups and the updates of entries, the values are computed out of the segment
+ * locks, thus the computations of different keys never block each other. The computations in flight are tracked apart
+ * from the cached entries, so they never count toward the size limitation nor evict the cached entries, and the
+ * concurrent computations of the same key are performed only once : the other threads wait for the result. If the
+ * computation fails, its exception is thrown to the computing thread and the waiting threads retry. The mapping
+ * functions may compute the other keys of the same cache : if the owner of the computation is waiting for the current
+ * thread directly or indirectly, e.g. two threads compute the keys whose mapping functions compute each other's key,
+ * the current thread computes the value itself without de-duplication instead of the deadlock. The cycles across the
+ * different caches are not detected.
+ * <p>
+ * The counts of hits, misses and evictions are recorded for monitoring.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * StripedLruCache<Class<?>, Constructor<?>[]> cache = new StripedLruCache<>(1024);
+ * Constructor<?>[] constructors = cache.computeIfAbsent(type, Class::getDeclaredConstructors);
+ * long hits = cache.getHitCount();
+ * }</pre>
+ *
+ * @param <K> the type of key
+ * @param <V> the type of value
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @since 1.0.0
+ */
+public class StripedLruCache<K, V> {
+
+    /**
+     * The default count of segments
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = highestOneBit(max(1, getRuntime().availableProcessors()) * 4);
+
+    private final Segment<K, V>[] segments;
+
+    private final int mask;
+
+    private final int maximumSize;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * The computations in flight being waited for, keyed by the waiting threads
+     */
+    private final Map<Thread, Computation<V>> waitingComputations = new ConcurrentHashMap<>();
+
+    /**
+     * @param maximumSize the maximum size of entries
+     */
+    public StripedLruCache(int maximumSize) {
+        this(16, maximumSize);
+    }
+
+    /**
+     * @param initialCapacity the initial capacity of entries
+     * @param maximumSize     the maximum size of entries
+     */
+    public StripedLruCache(int initialCapacity, int maximumSize) {
+        this(initialCapacity, maximumSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param initialCapacity  the initial capacity of entries
+     * @param maximumSize      the maximum size of entries
+     * @param concurrencyLevel the expected count of concurrent updating threads, it will be rounded down to the power
+     *                         of two and limited by the <code>maximumSize</code>
+     */
+    @SuppressWarnings("unchecked")
+    public StripedLruCache(int initialCapacity, int maximumSize, int concurrencyLevel) {
+        isTrue(maximumSize > 0, "The 'maximumSize' must be positive");
+        isTrue(concurrencyLevel > 0, "The 'concurrencyLevel' must be positive");
+        int segmentsCount = highestOneBit(Math.min(concurrencyLevel, maximumSize));
+        int segmentMaximumSize = (maximumSize + segmentsCount - 1) / segmentsCount;
+        int segmentInitialCapacity = max(1, Math.min(initialCapacity, maximumSize) / segmentsCount);
+        this.segments = new Segment[segmentsCount];
+        for (int i = 0; i < segmentsCount; i++) {
+            this.segments[i] = new Segment<>(segmentInitialCapacity, segmentMaximumSize, evictionCount);
+        }
+        this.mask = segmentsCount - 1;
+        this.maximumSize = segmentMaximumSize * segmentsCount;
+    }
+
+    /**
+     * Get the value if present, the statistics are not recorded
+     *
+     * @param key the key
+     * @return <code>null</code> if absent
+     */
+    @Nullable
+    public V getIfPresent(K key) {
+        return segmentFor(key).get(key);
+    }
+
+    /**
+     * Get the value, or compute it if absent
+     *
+     * @param key             the key
+     * @param mappingFunction the function to compute the value, the <code>null</code> value will not be cached
+     * @return the current value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return computeIfStale(key, value -> false, (k, value) -> mappingFunction.apply(k));
+    }
+
+    /**
+     * Get the value, or re-compute it if absent or stale
+     *
+     * @param key                the key
+     * @param stalePredicate     the predicate to test the present value
+     * @param remappingFunction  the function to compute the value with the previous value if present, the
+     *                           <code>null</code> value will not be cached
+     * @return the current value
+     */
+    public V computeIfStale(K key, Predicate<? super V> stalePredicate,
+                            BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Segment<K, V> segment = segmentFor(key);
+        Thread currentThread = Thread.currentThread();
+        for (; ; ) {
+            V value = segment.get(key);
+            if (value != null && !stalePredicate.test(value)) {
+                hitCount.increment();
+                return value;
+            }
+            Computation<V> computation = segment.getOrStartComputation(key, value);
+            if (computation == null) {
+                // The value was updated by another thread
+                continue;
+            }
+            if (computation.owner != currentThread) {
+                // Register before the detection, thus one of the threads in a cycle must find it
+                waitingComputations.put(currentThread, computation);
+                boolean deadlock = isWaitingFor(computation.owner, currentThread);
+                V result = null;
+                try {
+                    if (!deadlock) {
+                        result = computation.await();
+                    }
+                } finally {
+                    waitingComputations.remove(currentThread);
+                }
+                if (deadlock) {
+                    missCount.increment();
+                    return remappingFunction.apply(key, value);
+                }
+                if (result != null) {
+                    hitCount.increment();
+                    return result;
+                }
+                // The computation failed or the result was null, retry
+                continue;
+            }
+            if (computation.started) {
+                // The recursive computation of the same key on the owner thread is not de-duplicated
+                missCount.increment();
+                return remappingFunction.apply(key, value);
+            }
+            computation.started = true;
+            missCount.increment();
+            V newValue = null;
+            boolean succeeded = false;
+            try {
+                newValue = remappingFunction.apply(key, value);
+                succeeded = true;
+            } finally {
+                segment.completeComputation(key, computation, newValue, succeeded);
+            }
+            return newValue;
+        }
+    }
+
+    /**
+     * @param owner  the owner of computation
+     * @param thread the thread to wait for the computation
+     * @return <code>true</code> if the owner is waiting for the computation owned by the thread directly or indirectly
+     */
+    private boolean isWaitingFor(Thread owner, Thread thread) {
+        Thread waitingThread = owner;
+        // The chain is bounded by the count of waiting threads, it may be changed concurrently
+        for (int i = waitingComputations.size(); waitingThread != null && i >= 0; i--) {
+            if (waitingThread == thread) {
+                return true;
+            }
+            Computation<V> computation = waitingComputations.get(waitingThread);
+            waitingThread = computation == null ? null : computation.owner;
+        }
+        return false;
+    }
+
+    /**
+     * Remove the value
+     *
+     * @param key the key
+     */
+    public void remove(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Remove all entries, the statistics are kept
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return the count of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the maximum size of entries
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return the count of lookups that the value is present and valid
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the count of lookups that the value is computed
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the count of entries evicted for the size limitation
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        // spread the higher bits
+        hash ^= (hash >>> 16);
+        return segments[hash & mask];
+    }
+
+    @Override
+    public String toString() {
+        return "StripedLruCache{size=" + size() + ", maximumSize=" + maximumSize + ", segments=" + segments.length
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + '}';
+    }
+
+    /**
+     * The computation in flight of a key
+     */
+    private static class Computation<V> {
+
+        private final Thread owner = Thread.currentThread();
+
+        /**
+         * Whether the remapping function was invoked by the owner thread, only accessed by the owner thread
+         */
+        private boolean started;
+
+        private boolean completed;
+
+        private V value;
+
+        synchronized void complete(@Nullable V value) {
+            this.value = value;
+            this.completed = true;
+            notifyAll();
+        }
+
+        /**
+         * Wait for the completion
+         *
+         * @return <code>null</code> if the computation failed or the result is <code>null</code>
+         */
+        @Nullable
+        synchronized V await() {
+            boolean interrupted = false;
+            while (!completed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+    }
+
+    private static class Segment<K, V> extends ReentrantLock {
+
+        private final LinkedHashMap<K, V> entries;
+
+        private final Map<K, Computation<V>> computations = new HashMap<>();
+
+        Segment(int initialCapacity, int maximumSize, LongAdder evictionCount) {
+            this.entries = new LinkedHashMap<K, V>(initialCapacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    boolean evicted = size() > maximumSize;
+                    if (evicted) {
+                        evictionCount.increment();
+                    }
+                    return evicted;
+                }
+            };
+        }
+
+        V get(K key) {
+            lock();
+            try {
+                return entries.get(key);
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Get the computation in flight, or start a new one if the value is not changed
+         *
+         * @param key           the key
+         * @param expectedValue the absent or stale value read before
+         * @return <code>null</code> if the value was changed by another thread
+         */
+        @Nullable
+        Computation<V> getOrStartComputation(K key, @Nullable V expectedValue) {
+            lock();
+            try {
+                Computation<V> computation = computations.get(key);
+                if (computation == null) {
+                    if (entries.get(key) != expectedValue) {
+                        return null;
+                    }
+                    computation = new Computation<>();
+                    computations.put(key, computation);
+                }
+                return computation;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Complete the computation and update the value if succeeded, the value is removed if the result is
+         * <code>null</code>, and the previous value is kept if failed
+         */
+        void completeComputation(K key, Computation<V> computation, @Nullable V value, boolean succeeded) {
+            lock();
+            try {
+                computations.remove(key, computation);
+                if (succeeded) {
+                    if (value == null) {
+                        entries.remove(key);
+                    } else {
+                        entries.put(key, value);
+                    }
+                }
+            } finally {
+                unlock();
+            }
+            computation.complete(value);
+        }
+
+        void remove(K key) {
+            lock();
+            try {
+                entries.remove(key);
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                entries.clear();
+            } finally {
+                unlock();
+            }
+        }
+
+        int size() {
+            lock();
+            try {
+                return entries.size();
+            } finally {
+                unlock();
+            }
+        }
+    }
+}
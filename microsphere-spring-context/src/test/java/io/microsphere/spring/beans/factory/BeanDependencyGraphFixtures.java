@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory;
+
+import java.util.Map;
+import java.util.Set;
+
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static java.util.Arrays.asList;
+
+/**
+ * The shared fixtures of the bean dependency graphs for the tests
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanDependencyGraph
+ * @since 1.0.0
+ */
+public abstract class BeanDependencyGraphFixtures {
+
+    /**
+     * Create the dependency graph : a <- b <- c, a <- d, e, and 'b' depends on the 'unknown' bean absent in the keys,
+     * the keys are declared against the topological order, the graph and its values are mutable.
+     * The chain 'a' -> 'b' -> 'c' is the critical path if the costs of beans are equal.
+     *
+     * @return the new mutable dependency graph
+     */
+    public static Map<String, Set<String>> createDependencyGraph() {
+        Map<String, Set<String>> dependencyGraph = newLinkedHashMap();
+        dependencyGraph.put("e", newLinkedHashSet());
+        dependencyGraph.put("d", newLinkedHashSet(asList("a")));
+        dependencyGraph.put("c", newLinkedHashSet(asList("b")));
+        dependencyGraph.put("b", newLinkedHashSet(asList("a", "unknown")));
+        dependencyGraph.put("a", newLinkedHashSet());
+        return dependencyGraph;
+    }
+
+    private BeanDependencyGraphFixtures() {
+    }
+}
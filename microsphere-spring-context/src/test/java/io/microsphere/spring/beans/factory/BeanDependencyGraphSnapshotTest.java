@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory;
+
+import io.microsphere.spring.test.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphFixtures.createDependencyGraph;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.fingerprint;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.read;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.removeReadyBeans;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphSnapshot.write;
+import static java.util.Collections.singleton;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BeanDependencyGraphSnapshot} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanDependencyGraphSnapshot
+ * @since 1.0.0
+ */
+class BeanDependencyGraphSnapshotTest {
+
+    @TempDir
+    File tempDir;
+
+    private DefaultListableBeanFactory createBeanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("a", new RootBeanDefinition(User.class));
+        beanFactory.registerBeanDefinition("b", new RootBeanDefinition(User.class));
+        return beanFactory;
+    }
+
+    @Test
+    void testFingerprint() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        byte[] fingerprint = fingerprint(beanFactory);
+        assertArrayEquals(fingerprint, fingerprint(createBeanFactory()));
+
+        beanFactory.registerBeanDefinition("c", new RootBeanDefinition(User.class));
+        assertFalse(Arrays.equals(fingerprint, fingerprint(beanFactory)));
+    }
+
+    @Test
+    void testFingerprintOnDependencies() {
+        byte[] fingerprint = fingerprint(createBeanFactory());
+
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        beanFactory.getBeanDefinition("a").getPropertyValues().add("b", new RuntimeBeanReference("b"));
+        byte[] propertyFingerprint = fingerprint(beanFactory);
+        assertFalse(Arrays.equals(fingerprint, propertyFingerprint));
+
+        beanFactory = createBeanFactory();
+        beanFactory.getBeanDefinition("a").getConstructorArgumentValues().addIndexedArgumentValue(0, new RuntimeBeanReference("b"));
+        byte[] constructorFingerprint = fingerprint(beanFactory);
+        assertFalse(Arrays.equals(fingerprint, constructorFingerprint));
+        assertFalse(Arrays.equals(propertyFingerprint, constructorFingerprint));
+
+        beanFactory = createBeanFactory();
+        ((RootBeanDefinition) beanFactory.getBeanDefinition("a")).setDependsOn("b");
+        assertFalse(Arrays.equals(fingerprint, fingerprint(beanFactory)));
+    }
+
+    @Test
+    void testFingerprintOnClassPathDirectory() throws Exception {
+        File classesDirectory = new File(tempDir, "classes");
+        File classFile = new File(classesDirectory, "io/microsphere/A.class");
+        Files.createDirectories(classFile.getParentFile().toPath());
+        Files.write(classFile.toPath(), new byte[]{1});
+        String classPath = classesDirectory.getAbsolutePath();
+
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        byte[] fingerprint = fingerprint(beanFactory, classPath);
+        assertArrayEquals(fingerprint, fingerprint(beanFactory, classPath));
+
+        // The nested file is modified
+        Files.write(classFile.toPath(), new byte[]{1, 2});
+        assertFalse(Arrays.equals(fingerprint, fingerprint(beanFactory, classPath)));
+    }
+
+    @Test
+    void testWriteAndRead() {
+        File file = new File(tempDir, "nested/dependency-graph.snapshot");
+        byte[] fingerprint = fingerprint(createBeanFactory());
+        Map<String, Set<String>> dependencyGraph = createDependencyGraph();
+
+        assertTrue(write(file, fingerprint, dependencyGraph));
+        assertEquals(dependencyGraph, read(file, fingerprint));
+    }
+
+    @Test
+    void testReadOnStaleFingerprint() {
+        File file = new File(tempDir, "dependency-graph.snapshot");
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        assertTrue(write(file, fingerprint(beanFactory), createDependencyGraph()));
+
+        beanFactory.registerBeanDefinition("c", new RootBeanDefinition(User.class));
+        assertNull(read(file, fingerprint(beanFactory)));
+    }
+
+    @Test
+    void testReadOnAbsentFile() {
+        assertNull(read(new File(tempDir, "absent.snapshot"), new byte[0]));
+    }
+
+    @Test
+    void testReadOnInvalidFile() throws Exception {
+        File file = new File(tempDir, "invalid.snapshot");
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        assertNull(read(file, new byte[0]));
+    }
+
+    @Test
+    void testRemoveReadyBeans() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        beanFactory.getBean("a");
+        Map<String, Set<String>> dependencyGraph = createDependencyGraph();
+        removeReadyBeans(dependencyGraph, beanFactory);
+        assertEquals(4, dependencyGraph.size());
+        assertFalse(dependencyGraph.containsKey("a"));
+        assertTrue(dependencyGraph.get("d").isEmpty());
+        assertEquals(singleton("unknown"), dependencyGraph.get("b"));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.microsphere.collection.MapUtils.newLinkedHashMap;
+import static io.microsphere.collection.SetUtils.newLinkedHashSet;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BeanDependencyGraph} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanDependencyGraph
+ * @since 1.0.0
+ */
+class BeanDependencyGraphTest {
+
+    private BeanDependencyGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        // d -> a -> b <-> c -> x, e
+        Map<String, Set<String>> dependencyGraph = newLinkedHashMap();
+        dependencyGraph.put("a", newLinkedHashSet(asList("b")));
+        dependencyGraph.put("b", newLinkedHashSet(asList("c", "x")));
+        dependencyGraph.put("c", newLinkedHashSet(asList("b", "c")));
+        dependencyGraph.put("d", newLinkedHashSet(asList("a")));
+        dependencyGraph.put("e", emptySet());
+        this.graph = new BeanDependencyGraph(dependencyGraph);
+    }
+
+    @Test
+    void testIds() {
+        assertEquals(6, graph.size());
+        assertEquals(0, graph.getId("a"));
+        assertEquals(5, graph.getId("x"));
+        assertEquals(-1, graph.getId("unknown"));
+        assertEquals("x", graph.getBeanName(5));
+    }
+
+    @Test
+    void testGetDependencyIds() {
+        assertEquals(5, graph.getKeysCount());
+        int b = graph.getId("b");
+        assertArrayEquals(new int[]{graph.getId("c"), graph.getId("x")}, graph.getDependencyIds(b, false));
+        assertArrayEquals(new int[]{graph.getId("c")}, graph.getDependencyIds(b, true));
+        // the self-reference is ignored
+        assertArrayEquals(new int[]{b}, graph.getDependencyIds(graph.getId("c"), true));
+        assertTrue(graph.isCyclic(b));
+        assertFalse(graph.isCyclic(graph.getId("a")));
+    }
+
+    @Test
+    void testGetTopologicalOrder() {
+        int[] orderedIds = graph.getTopologicalOrder(false);
+        assertEquals(6, orderedIds.length);
+        assertOrdered(orderedIds, "x", "b");
+        assertOrdered(orderedIds, "x", "c");
+        assertOrdered(orderedIds, "b", "a");
+        assertOrdered(orderedIds, "c", "a");
+        assertOrdered(orderedIds, "a", "d");
+        // the beans in the same circular dependency are adjacent in the order of their ids
+        assertEquals(indexOf(orderedIds, "b") + 1, indexOf(orderedIds, "c"));
+
+        orderedIds = graph.getTopologicalOrder(true);
+        assertEquals(5, orderedIds.length);
+        assertEquals(-1, indexOf(orderedIds, "x"));
+        assertOrdered(orderedIds, "c", "a");
+    }
+
+    @Test
+    void testGetTransitiveDependencies() {
+        assertEquals(newLinkedHashSet(asList("b", "c", "x")), graph.getTransitiveDependencies("a"));
+        assertEquals(newLinkedHashSet(asList("c", "x")), graph.getTransitiveDependencies("b"));
+        assertEquals(newLinkedHashSet(asList("b", "x")), graph.getTransitiveDependencies("c"));
+        assertEquals(newLinkedHashSet(asList("a", "b", "c", "x")), graph.getTransitiveDependencies("d"));
+        assertTrue(graph.getTransitiveDependencies("e").isEmpty());
+        assertTrue(graph.getTransitiveDependencies("x").isEmpty());
+        assertTrue(graph.getTransitiveDependencies("unknown").isEmpty());
+        assertEquals(3, graph.getTransitiveDependencyIds(graph.getId("a")).cardinality());
+    }
+
+    @Test
+    void testFlatten() {
+        Map<String, Set<String>> flattenGraph = graph.flatten();
+        assertEquals(asList("a", "b", "c", "d", "e"), asList(flattenGraph.keySet().toArray()));
+        assertEquals(graph.getTransitiveDependencies("d"), flattenGraph.get("d"));
+    }
+
+    @Test
+    void testCyclicComponents() {
+        assertEquals(5, graph.getComponentsCount());
+        assertTrue(graph.isCyclic("b"));
+        assertTrue(graph.isCyclic("c"));
+        assertFalse(graph.isCyclic("a"));
+        assertFalse(graph.isCyclic("unknown"));
+        List<Set<String>> cyclicComponents = graph.getCyclicComponents();
+        assertEquals(1, cyclicComponents.size());
+        assertEquals(newLinkedHashSet(asList("b", "c")), cyclicComponents.get(0));
+    }
+
+    @Test
+    void testDependents() {
+        assertEquals(newLinkedHashSet(asList("d", "e")), graph.getRootBeanNames());
+        assertTrue(graph.isDependedOn("b"));
+        assertTrue(graph.isDependedOn("x"));
+        assertFalse(graph.isDependedOn("d"));
+        assertEquals(newLinkedHashSet(asList("a", "c")), graph.getDirectDependents("b"));
+        assertTrue(graph.getDirectDependents("d").isEmpty());
+    }
+
+    @Test
+    void testDeepChain() {
+        int size = 20000;
+        Map<String, Set<String>> dependencyGraph = newLinkedHashMap(size);
+        for (int i = 0; i < size; i++) {
+            dependencyGraph.put("bean-" + i, i + 1 < size ? newLinkedHashSet(asList("bean-" + (i + 1))) : emptySet());
+        }
+        BeanDependencyGraph graph = new BeanDependencyGraph(dependencyGraph);
+        assertEquals(size, graph.getComponentsCount());
+        assertEquals(size - 1, graph.getTransitiveDependencies("bean-0").size());
+        assertEquals(newLinkedHashSet(asList("bean-0")), graph.getRootBeanNames());
+    }
+
+    private void assertOrdered(int[] orderedIds, String dependency, String dependent) {
+        assertTrue(indexOf(orderedIds, dependency) < indexOf(orderedIds, dependent));
+    }
+
+    private int indexOf(int[] orderedIds, String beanName) {
+        int id = graph.getId(beanName);
+        for (int i = 0; i < orderedIds.length; i++) {
+            if (orderedIds[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+import static io.microsphere.collection.Sets.ofSet;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphFixtures.createDependencyGraph;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CriticalPathBeanScheduler} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CriticalPathBeanScheduler
+ * @since 1.0.0
+ */
+class CriticalPathBeanSchedulerTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        this.executorService = newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.executorService.shutdown();
+    }
+
+    @Test
+    void testGetOrderedBeanNames() {
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(createDependencyGraph());
+        List<String> orderedBeanNames = scheduler.getOrderedBeanNames();
+        assertEquals(5, orderedBeanNames.size());
+        assertTrue(orderedBeanNames.indexOf("a") < orderedBeanNames.indexOf("b"));
+        assertTrue(orderedBeanNames.indexOf("b") < orderedBeanNames.indexOf("c"));
+        assertTrue(orderedBeanNames.indexOf("a") < orderedBeanNames.indexOf("d"));
+        assertTrue(scheduler.getDeferredBeanNames().isEmpty());
+        assertEquals(orderedBeanNames, new CriticalPathBeanScheduler(new BeanDependencyGraph(createDependencyGraph())).getOrderedBeanNames());
+    }
+
+    @Test
+    void testGetPriority() {
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(createDependencyGraph());
+        assertEquals(3, scheduler.getPriority("a"));
+        assertEquals(2, scheduler.getPriority("b"));
+        assertEquals(1, scheduler.getPriority("c"));
+        assertEquals(1, scheduler.getPriority("d"));
+        assertEquals(1, scheduler.getPriority("e"));
+        assertEquals(0, scheduler.getPriority("unknown"));
+    }
+
+    @Test
+    void testExecute() {
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(createDependencyGraph());
+        List<String> executedBeanNames = new CopyOnWriteArrayList<>();
+        scheduler.execute(this.executorService, 2, executedBeanNames::add);
+        assertEquals(5, executedBeanNames.size());
+        assertTrue(executedBeanNames.indexOf("a") < executedBeanNames.indexOf("b"));
+        assertTrue(executedBeanNames.indexOf("b") < executedBeanNames.indexOf("c"));
+        assertTrue(executedBeanNames.indexOf("a") < executedBeanNames.indexOf("d"));
+    }
+
+    @Test
+    void testExecuteWithSingleWorker() {
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(createDependencyGraph());
+        List<String> executedBeanNames = new CopyOnWriteArrayList<>();
+        scheduler.execute(this.executorService, 1, executedBeanNames::add);
+        // The bean on the critical path goes first
+        assertEquals("a", executedBeanNames.get(0));
+        assertEquals("b", executedBeanNames.get(1));
+    }
+
+    @Test
+    void testExecuteWithCircularDependencies() {
+        Map<String, Set<String>> dependencyGraph = createDependencyGraph();
+        dependencyGraph.put("x", ofSet("y"));
+        dependencyGraph.put("y", ofSet("x"));
+        dependencyGraph.put("z", ofSet("y", "x"));
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(dependencyGraph);
+        assertEquals(asList("x", "y", "z"), scheduler.getDeferredBeanNames());
+        assertEquals(5, scheduler.getOrderedBeanNames().size());
+
+        List<String> executedBeanNames = new CopyOnWriteArrayList<>();
+        scheduler.execute(this.executorService, 2, executedBeanNames::add);
+        assertEquals(8, executedBeanNames.size());
+        assertEquals(scheduler.getDeferredBeanNames(), executedBeanNames.subList(5, 8));
+    }
+
+    @Test
+    void testExecuteOrHold() {
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(createDependencyGraph());
+        List<String> executedBeanNames = new CopyOnWriteArrayList<>();
+        List<String> skippedBeanNames = scheduler.executeOrHold(this.executorService, 2, beanName -> {
+            executedBeanNames.add(beanName);
+            return !"b".equals(beanName);
+        });
+        assertEquals(asList("c"), skippedBeanNames);
+        assertEquals(4, executedBeanNames.size());
+        assertFalse(executedBeanNames.contains("c"));
+
+        executedBeanNames.clear();
+        skippedBeanNames = scheduler.executeOrHold(this.executorService, 2, beanName -> {
+            executedBeanNames.add(beanName);
+            return !"a".equals(beanName);
+        });
+        assertEquals(asList("d", "c", "b"), skippedBeanNames);
+        assertEquals(asList("a", "e"), executedBeanNames.stream().sorted().collect(toList()));
+    }
+
+    @Test
+    void testExecuteOrHoldWithCircularDependencies() {
+        Map<String, Set<String>> dependencyGraph = createDependencyGraph();
+        dependencyGraph.put("x", ofSet("y"));
+        dependencyGraph.put("y", ofSet("x"));
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(dependencyGraph);
+        List<String> executedBeanNames = new CopyOnWriteArrayList<>();
+        List<String> skippedBeanNames = scheduler.executeOrHold(this.executorService, 2, beanName -> {
+            executedBeanNames.add(beanName);
+            return !"b".equals(beanName);
+        });
+        // The deferred beans are skipped once any bean is held
+        assertEquals(asList("c", "x", "y"), skippedBeanNames);
+        assertEquals(4, executedBeanNames.size());
+    }
+
+    @Test
+    void testExecuteOnFailure() {
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(createDependencyGraph());
+        List<String> executedBeanNames = new CopyOnWriteArrayList<>();
+        BeanCreationException exception = new BeanCreationException("a", "For testing");
+        BeanCreationException thrown = assertThrows(BeanCreationException.class, () ->
+                scheduler.execute(this.executorService, 2, beanName -> {
+                    if ("a".equals(beanName)) {
+                        throw exception;
+                    }
+                    executedBeanNames.add(beanName);
+                }));
+        assertSame(exception, thrown);
+        // The dependents of 'a' must not be executed
+        assertTrue(executedBeanNames.stream().noneMatch(name -> "b".equals(name) || "c".equals(name) || "d".equals(name)));
+    }
+
+    @Test
+    void testExecuteOnEmptyGraph() {
+        CriticalPathBeanScheduler scheduler = new CriticalPathBeanScheduler(new LinkedHashMap<>());
+        scheduler.execute(this.executorService, 2, beanName -> {
+            throw new IllegalStateException();
+        });
+        assertTrue(scheduler.getOrderedBeanNames().isEmpty());
+    }
+}
@@ -18,6 +18,7 @@ package io.microsphere.spring.beans.factory.annotation;
 
 import io.microsphere.spring.test.domain.User;
 import io.microsphere.spring.test.junit.jupiter.SpringLoggingTest;
+import io.microsphere.spring.util.StripedLruCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.BeanCreationException;
@@ -148,6 +149,30 @@ class AnnotatedInjectionBeanPostProcessorTest {
         });
     }
 
+    /**
+     * The caches are bounded and record the statistics.
+     */
+    @Test
+    void testCaches() {
+        AnnotatedInjectionBeanPostProcessor p = new AnnotatedInjectionBeanPostProcessor(Referenced.class);
+        p.setCacheSize(1);
+        p.setCacheMaxSize(1);
+        p.afterPropertiesSet();
+        StripedLruCache<Class<?>, Constructor<?>[]> cache = p.getCandidateConstructorsCache();
+        assertEquals(1, cache.getMaximumSize());
+
+        assertNull(p.determineCandidateConstructors(PlainBean.class, "plainBean"));
+        assertNull(p.determineCandidateConstructors(PlainBean.class, "plainBean"));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+
+        p.determineCandidateConstructors(TestConfiguration.class, "testConfiguration");
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(0, p.getInjectionMetadataCache().size());
+        p.destroy();
+    }
+
     /**
      * postProcessMergedBeanDefinition must not throw for a known bean type.
      */
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.beans.factory.annotation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.File;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+
+import static io.microsphere.spring.beans.factory.annotation.InjectionMetadataIndex.INDEX_RESOURCE_LOCATION;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static javax.tools.ToolProvider.getSystemJavaCompiler;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link InjectionMetadataIndex} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see InjectionMetadataIndex
+ * @see InjectionMetadataIndexProcessor
+ * @since 1.0.0
+ */
+class InjectionMetadataIndexTest {
+
+    private static final String SOURCE = "package test;\n" +
+            "public class Foo {\n" +
+            "    @Deprecated private String a;\n" +
+            "    private String b;\n" +
+            "    @SuppressWarnings(\"unused\") private String c;\n" +
+            "    @Deprecated public Foo(String a) {}\n" +
+            "    public Foo() {}\n" +
+            "    @Deprecated public void setB(String b) {}\n" +
+            "    public static class Bar { @Deprecated int x; }\n" +
+            "}\n";
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testRead() throws Exception {
+        InjectionMetadataIndex index = new InjectionMetadataIndex();
+        assertTrue(index.isEmpty());
+        index.read(new StringReader("# comment\n" +
+                Indexed.class.getName() + "\n" +
+                Indexed.class.getName() + "\tF\tannotated\n" +
+                Indexed.class.getName() + "\tM\tsetAnnotated\t1\n" +
+                Indexed.class.getName() + "\tC\t1\n" +
+                NoMembers.class.getName() + "\n"));
+
+        assertFalse(index.isEmpty());
+        assertTrue(index.isIndexed(Indexed.class));
+        assertFalse(index.isIndexed(NotIndexed.class));
+
+        assertTrue(index.isCandidate(Indexed.class.getDeclaredField("annotated")));
+        assertFalse(index.isCandidate(Indexed.class.getDeclaredField("plain")));
+        assertTrue(index.isCandidate(Indexed.class.getDeclaredMethod("setAnnotated", String.class)));
+        assertFalse(index.isCandidate(Indexed.class.getDeclaredMethod("setPlain", String.class)));
+        assertTrue(index.isCandidate(Indexed.class.getDeclaredConstructor(String.class)));
+        assertFalse(index.isCandidate(Indexed.class.getDeclaredConstructor()));
+
+        // fall back to reflection
+        assertTrue(index.isCandidate(NotIndexed.class.getDeclaredField("plain")));
+
+        assertTrue(index.hasNoAnnotatedFieldsAndMethods(NoMembers.class));
+        assertFalse(index.hasNoAnnotatedFieldsAndMethods(Indexed.class));
+        assertFalse(index.hasNoAnnotatedFieldsAndMethods(NotIndexed.class));
+    }
+
+    @Test
+    void testLoad() {
+        InjectionMetadataIndex index = InjectionMetadataIndex.load(null);
+        assertFalse(index.isIndexed(Indexed.class));
+        assertFalse(index.hasNoAnnotatedFieldsAndMethods(NoMembers.class));
+    }
+
+    @Test
+    void testProcessor() throws Exception {
+        JavaCompiler compiler = getSystemJavaCompiler();
+        JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///test/Foo.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return SOURCE;
+            }
+        };
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+                asList("-proc:only", "-d", tempDir.getAbsolutePath()), null, singletonList(source));
+        task.setProcessors(singletonList(new InjectionMetadataIndexProcessor()));
+        assertTrue(task.call());
+
+        List<String> lines = Files.readAllLines(new File(tempDir, INDEX_RESOURCE_LOCATION).toPath(), UTF_8);
+        assertTrue(lines.contains("test.Foo"));
+        assertTrue(lines.contains("test.Foo\tF\ta"));
+        assertFalse(lines.contains("test.Foo\tF\tb"));
+        assertFalse(lines.contains("test.Foo\tF\tc"));
+        assertTrue(lines.contains("test.Foo\tC\t1"));
+        assertFalse(lines.contains("test.Foo\tC\t0"));
+        assertTrue(lines.contains("test.Foo\tM\tsetB\t1"));
+        assertTrue(lines.contains("test.Foo$Bar"));
+        assertTrue(lines.contains("test.Foo$Bar\tF\tx"));
+    }
+
+    static class Indexed {
+
+        private String annotated;
+
+        private String plain;
+
+        Indexed() {
+        }
+
+        Indexed(String annotated) {
+        }
+
+        void setAnnotated(String annotated) {
+        }
+
+        void setPlain(String plain) {
+        }
+    }
+
+    static class NotIndexed {
+
+        private String plain;
+    }
+
+    static class NoMembers {
+    }
+}
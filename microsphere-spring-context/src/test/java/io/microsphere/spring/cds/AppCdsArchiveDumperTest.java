@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.cds;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static io.microsphere.spring.cds.AppCdsArchiveDumper.buildCommand;
+import static io.microsphere.spring.cds.AppCdsArchiveDumper.dump;
+import static java.io.File.pathSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link AppCdsArchiveDumper} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AppCdsArchiveDumper
+ * @since 1.0.0
+ */
+class AppCdsArchiveDumperTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testBuildCommand() {
+        File classListFile = new File(tempDir, "classes.lst");
+        File archiveFile = new File(tempDir, "app.jsa");
+        List<String> command = buildCommand(classListFile, archiveFile, "app.jar");
+        assertTrue(command.get(0).startsWith(System.getProperty("java.home")));
+        assertEquals(asList("-Xshare:dump", "-XX:SharedClassListFile=" + classListFile.getAbsolutePath(),
+                "-XX:SharedArchiveFile=" + archiveFile.getAbsolutePath(), "-cp", "app.jar"), command.subList(1, 6));
+    }
+
+    @Test
+    void testBuildCommandOnNonEmptyDirectory() throws IOException {
+        File emptyDirectory = new File(tempDir, "empty");
+        File classesDirectory = new File(tempDir, "classes");
+        assertTrue(emptyDirectory.mkdir());
+        assertTrue(classesDirectory.mkdir());
+        Files.write(new File(classesDirectory, "A.class").toPath(), new byte[0]);
+        File classListFile = new File(tempDir, "classes.lst");
+        File archiveFile = new File(tempDir, "app.jsa");
+
+        String classPath = String.join(pathSeparator, "app.jar", emptyDirectory.getAbsolutePath());
+        assertEquals(classPath, buildCommand(classListFile, archiveFile, classPath).get(5));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> buildCommand(classListFile, archiveFile,
+                String.join(pathSeparator, "app.jar", classesDirectory.getAbsolutePath())));
+        assertTrue(e.getMessage().contains(classesDirectory.getAbsolutePath()));
+    }
+
+    @Test
+    void testDump() throws IOException, InterruptedException {
+        File classListFile = new File(tempDir, "classes.lst");
+        File archiveFile = new File(tempDir, "app.jsa");
+        Files.write(classListFile.toPath(), asList("java/lang/Object", "java/util/concurrent/Exchanger"), UTF_8);
+        File classPath = new File(tempDir, "empty");
+        assertTrue(classPath.mkdir());
+        assertEquals(0, dump(classListFile, archiveFile, classPath.getAbsolutePath()));
+        assertTrue(archiveFile.isFile());
+    }
+}
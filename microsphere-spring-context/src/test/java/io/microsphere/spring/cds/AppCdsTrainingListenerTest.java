@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.cds;
+
+import io.microsphere.spring.context.event.EventPublishingBeanInitializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.spring.cds.AppCdsTrainingListener.CLASS_LIST_FILE_PROPERTY_NAME;
+import static io.microsphere.spring.cds.AppCdsTrainingListener.TRAINING_ENABLED_PROPERTY_NAME;
+import static io.microsphere.spring.cds.AppCdsTrainingListener.isArchivable;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link AppCdsTrainingListener} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see AppCdsTrainingListener
+ * @since 1.0.0
+ */
+class AppCdsTrainingListenerTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testTraining() throws IOException {
+        File classListFile = new File(tempDir, "classes.lst");
+        AnnotationConfigApplicationContext context = newContext(true, classListFile);
+        context.close();
+
+        assertTrue(classListFile.isFile());
+        List<String> classList = Files.readAllLines(classListFile.toPath(), UTF_8);
+        assertTrue(classList.contains("io/microsphere/spring/cds/AppCdsTrainingListenerTest$User"));
+        assertTrue(classList.contains("io/microsphere/spring/cds/AppCdsTrainingListener"));
+        for (String className : classList) {
+            assertFalse(className.contains("$$"));
+        }
+    }
+
+    @Test
+    void testTrainingDisabled() {
+        File classListFile = new File(tempDir, "classes.lst");
+        AnnotationConfigApplicationContext context = newContext(false, classListFile);
+        context.close();
+        assertFalse(classListFile.exists());
+    }
+
+    @Test
+    void testIsArchivable() {
+        assertTrue(isArchivable("java.lang.String"));
+        assertFalse(isArchivable(null));
+        assertFalse(isArchivable("[Ljava.lang.String;"));
+        assertFalse(isArchivable("com.acme.Service$$SpringCGLIB$$0"));
+        assertFalse(isArchivable("com.acme.Service$$Lambda$65+0x00007f97a9000a08"));
+    }
+
+    private AnnotationConfigApplicationContext newContext(boolean enabled, File classListFile) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        Map<String, Object> properties = newHashMap();
+        properties.put(TRAINING_ENABLED_PROPERTY_NAME, String.valueOf(enabled));
+        properties.put(CLASS_LIST_FILE_PROPERTY_NAME, classListFile.getAbsolutePath());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(AppCdsTrainingListener.class, User.class);
+        new EventPublishingBeanInitializer().initialize(context);
+        context.refresh();
+        return context;
+    }
+
+    static class User {
+    }
+}
@@ -20,17 +20,29 @@ package io.microsphere.spring.context.annotation;
 import io.microsphere.spring.test.web.controller.TestController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.core.env.Environment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
 
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Set;
 
+import static io.microsphere.collection.ListUtils.newArrayList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
@@ -42,6 +54,9 @@ import static org.junit.jupiter.api.Assertions.assertSame;
  */
 class ExposingClassPathBeanDefinitionScannerTest {
 
+    @TempDir
+    File tempDir;
+
     private ConfigurableApplicationContext context;
 
     private DefaultListableBeanFactory beanFactory;
@@ -68,6 +83,80 @@ class ExposingClassPathBeanDefinitionScannerTest {
         assertScanAndCheck(true);
     }
 
+    @Test
+    void testScanInParallel() {
+        String[] basePackages = {"io.microsphere.spring.test", "io.microsphere.spring.context.annotation"};
+        List<String> beanClassNames = scanBeanClassNames(basePackages);
+        assertFalse(beanClassNames.isEmpty());
+
+        ExposingClassPathBeanDefinitionScanner scanner = new ExposingClassPathBeanDefinitionScanner(
+                new DefaultListableBeanFactory(), true, this.environment, this.context);
+        assertFalse(scanner.isParallel());
+        scanner.setParallel(true);
+        scanner.setParallelism(4);
+        scanner.setBatchSize(2);
+        assertTrue(scanner.isParallel());
+        List<String> parallelBeanClassNames = newArrayList();
+        for (BeanDefinitionHolder beanDefinitionHolder : scanner.doScan(basePackages)) {
+            parallelBeanClassNames.add(beanDefinitionHolder.getBeanDefinition().getBeanClassName());
+        }
+        assertEquals(beanClassNames, parallelBeanClassNames);
+    }
+
+    @Test
+    void testScanInParallelWithResourcePattern() {
+        String packageName = "io.microsphere.spring.test";
+        ExposingClassPathBeanDefinitionScanner scanner = new ExposingClassPathBeanDefinitionScanner(
+                new DefaultListableBeanFactory(), true, this.environment, this.context);
+        scanner.setParallel(true);
+        scanner.setResourcePattern("web/**/*.class");
+        Set<BeanDefinitionHolder> beanDefinitionHolders = scanner.doScan(packageName);
+        assertEquals(1, beanDefinitionHolders.size());
+        assertEquals(TestController.class.getName(), beanDefinitionHolders.iterator().next().getBeanDefinition().getBeanClassName());
+    }
+
+    @Test
+    void testScanInParallelWithSequentialFilters() {
+        String[] basePackages = {"io.microsphere.spring.test", "io.microsphere.spring.context.annotation"};
+        Thread thread = Thread.currentThread();
+        List<Thread> filterThreads = newArrayList();
+        ExposingClassPathBeanDefinitionScanner scanner = new ExposingClassPathBeanDefinitionScanner(
+                new DefaultListableBeanFactory(), true, this.environment, this.context);
+        scanner.setParallel(true);
+        scanner.setParallelism(4);
+        scanner.setBatchSize(2);
+        // The non-thread-safe filter
+        scanner.addExcludeFilter((metadataReader, metadataReaderFactory) -> {
+            filterThreads.add(Thread.currentThread());
+            return false;
+        });
+        scanner.doScan(basePackages);
+        assertFalse(filterThreads.isEmpty());
+        for (Thread filterThread : filterThreads) {
+            assertSame(thread, filterThread);
+        }
+    }
+
+    @Test
+    void testScanInParallelOnIncompatibleClassFormat() throws Exception {
+        File directory = new File(tempDir, "incompatible");
+        assertTrue(directory.mkdirs());
+        // The class file of the unsupported major version
+        Files.write(new File(directory, "Incompatible.class").toPath(), new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, (byte) 0xFF});
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toURI().toURL()}, null)) {
+            ResourceLoader resourceLoader = new DefaultResourceLoader(classLoader);
+            ExposingClassPathBeanDefinitionScanner scanner = new ExposingClassPathBeanDefinitionScanner(
+                    new DefaultListableBeanFactory(), true, this.environment, resourceLoader);
+            BeanDefinitionStoreException sequentialException = assertThrows(BeanDefinitionStoreException.class,
+                    () -> scanner.doScan("incompatible"));
+            scanner.setParallel(true);
+            BeanDefinitionStoreException parallelException = assertThrows(BeanDefinitionStoreException.class,
+                    () -> scanner.doScan("incompatible"));
+            // The incompatible class format is handled as same as the sequential mode
+            assertEquals(sequentialException.getMessage(), parallelException.getMessage());
+        }
+    }
+
     @Test
     void testGetSingletonBeanRegistry() {
         assertSame(this.beanFactory, this.scanner.getSingletonBeanRegistry());
@@ -93,4 +182,12 @@ class ExposingClassPathBeanDefinitionScannerTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    List<String> scanBeanClassNames(String... basePackages) {
+        List<String> beanClassNames = newArrayList();
+        for (BeanDefinitionHolder beanDefinitionHolder : this.scanner.doScan(basePackages)) {
+            beanClassNames.add(beanDefinitionHolder.getBeanDefinition().getBeanClassName());
+        }
+        return beanClassNames;
+    }
+}
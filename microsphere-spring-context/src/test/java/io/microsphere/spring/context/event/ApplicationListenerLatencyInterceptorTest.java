@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.spring.context.event.BulkheadApplicationListenerInterceptor.OverflowPolicy;
+import io.microsphere.spring.net.SpringProtocolURLStreamHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+
+import java.io.InputStream;
+import java.net.URL;
+
+import static io.microsphere.spring.context.event.ApplicationListenerLatencyInterceptor.getEventType;
+import static io.microsphere.spring.context.event.BulkheadApplicationListenerInterceptor.listenerType;
+import static io.microsphere.spring.context.event.ApplicationListenerLatencyInterceptor.getListenerName;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+import static org.springframework.util.StreamUtils.copyToString;
+
+/**
+ * {@link ApplicationListenerLatencyInterceptor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ApplicationListenerLatencyInterceptor
+ * @since 1.0.0
+ */
+class ApplicationListenerLatencyInterceptorTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void testRecordAndReport() throws Exception {
+        ApplicationListenerLatencyInterceptor interceptor = new ApplicationListenerLatencyInterceptor();
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        context.registerBean("applicationListenerLatencyInterceptor", ApplicationListenerLatencyInterceptor.class, () -> interceptor);
+        context.register(SpringProtocolURLStreamHandler.class);
+        context.refresh();
+
+        SlowListener slowListener = new SlowListener();
+        FastListener fastListener = new FastListener();
+        context.addApplicationListener(slowListener);
+        context.addApplicationListener(fastListener);
+
+        for (int i = 0; i < 10; i++) {
+            context.publishEvent("event-" + i);
+        }
+
+        LatencyHistogram slowHistogram = interceptor.getHistogram(slowListener, String.class);
+        assertEquals(10, slowHistogram.getCount());
+        assertTrue(slowHistogram.getValueAtPercentile(50) >= 5_000_000);
+        assertEquals(10, interceptor.getHistogram(fastListener, String.class).getCount());
+
+        try (InputStream inputStream = new URL("spring:event-latency://report").openStream()) {
+            String report = copyToString(inputStream, UTF_8);
+            String[] lines = report.split("\n");
+            assertTrue(lines[0].startsWith("listener\teventType\tcount\tp50(us)\tp99(us)"));
+            // Sorted by the p99 descending
+            assertTrue(lines[1].startsWith(getListenerName(slowListener) + "\tjava.lang.String\t10\t"));
+            assertTrue(report.contains(getListenerName(fastListener) + "\tjava.lang.String\t10\t"));
+        }
+
+        interceptor.reset();
+        assertEquals(0, slowHistogram.getCount());
+    }
+
+    @Test
+    void testSampling() {
+        ApplicationListenerLatencyInterceptor interceptor = new ApplicationListenerLatencyInterceptor();
+        assertThrows(IllegalArgumentException.class, () -> interceptor.setSamplingRate(0));
+        assertThrows(IllegalArgumentException.class, () -> interceptor.setSamplingRate(1.1));
+        interceptor.setSamplingRate(0.5);
+
+        FastListener listener = new FastListener();
+        PayloadApplicationEvent<String> event = new PayloadApplicationEvent<>(this, "test");
+        for (int i = 0; i < 2000; i++) {
+            interceptor.intercept(listener, event, (l, e) -> {
+            });
+        }
+        long count = interceptor.getHistogram(listener, String.class).getCount();
+        assertTrue(count > 700 && count < 1300, () -> "count : " + count);
+    }
+
+    @Test
+    void testMaxHistograms() {
+        ApplicationListenerLatencyInterceptor interceptor = new ApplicationListenerLatencyInterceptor();
+        assertThrows(IllegalArgumentException.class, () -> interceptor.setMaxHistograms(0));
+        interceptor.setMaxHistograms(2);
+
+        FastListener listener = new FastListener();
+        FastListener anotherListener = new FastListener();
+        interceptor.intercept(listener, new PayloadApplicationEvent<>(this, "test"), (l, e) -> {
+        });
+        interceptor.intercept(listener, new PayloadApplicationEvent<>(this, 1), (l, e) -> {
+        });
+        // The pair beyond the max is not recorded
+        interceptor.intercept(anotherListener, new PayloadApplicationEvent<>(this, "test"), (l, e) -> {
+        });
+        assertNull(interceptor.getHistogram(anotherListener, String.class));
+        assertEquals(1, interceptor.getDroppedCount());
+
+        interceptor.removeHistograms(listener);
+        assertNotNull(interceptor.getHistogram(anotherListener, String.class));
+        assertNotNull(interceptor.getHistogram(listener, String.class));
+        assertNull(interceptor.getHistogram(listener, Integer.class));
+    }
+
+    @Test
+    void testMeasureInBulkhead() throws Exception {
+        ApplicationListenerLatencyInterceptor interceptor = new ApplicationListenerLatencyInterceptor();
+        BulkheadApplicationListenerInterceptor bulkheadInterceptor = new BulkheadApplicationListenerInterceptor();
+        bulkheadInterceptor.addBulkhead("slow", listenerType(SlowListener.class), 1, 16, OverflowPolicy.BLOCK);
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        context.registerBean("applicationListenerLatencyInterceptor", ApplicationListenerLatencyInterceptor.class, () -> interceptor);
+        context.registerBean("bulkheadApplicationListenerInterceptor", BulkheadApplicationListenerInterceptor.class, () -> bulkheadInterceptor);
+        context.refresh();
+
+        SlowListener slowListener = new SlowListener();
+        context.addApplicationListener(slowListener);
+        for (int i = 0; i < 3; i++) {
+            context.publishEvent("event-" + i);
+        }
+
+        // The latency of the listener on the bulkhead thread is measured rather than the enqueue
+        LatencyHistogram histogram = interceptor.getHistogram(slowListener, String.class);
+        long startTime = currentTimeMillis();
+        while (histogram.getCount() < 3) {
+            assertTrue(currentTimeMillis() - startTime < 5000, "Timeout");
+            Thread.sleep(5);
+        }
+        assertTrue(histogram.getValueAtPercentile(50) >= 5_000_000);
+    }
+
+    @Test
+    void testGetEventType() {
+        assertSame(String.class, getEventType(new PayloadApplicationEvent<>(this, "test")));
+        assertSame(BeanPropertyChangedEvent.class, getEventType(new BeanPropertyChangedEvent(this, "p", null, null)));
+    }
+
+    static class SlowListener implements ApplicationListener<PayloadApplicationEvent<String>> {
+
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class FastListener implements ApplicationListener<PayloadApplicationEvent<String>> {
+
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.List;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.spring.context.event.BeanListeners.ON_BEAN_DEFINITION_READY;
+import static io.microsphere.spring.context.event.BeanListeners.ON_BEAN_READY;
+import static io.microsphere.spring.context.event.BeanListeners.isOverridden;
+import static io.microsphere.spring.context.event.BeanListeners.isTransientBeanName;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.beans.factory.config.AutowireCapableBeanFactory.ORIGINAL_INSTANCE_SUFFIX;
+
+/**
+ * {@link BeanListeners} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanListeners
+ * @since 1.0.0
+ */
+class BeanListenersTest {
+
+    private RecordingBeanListener readyListener;
+
+    private RecordingBeanListener failingListener;
+
+    private BeanListeners beanListeners;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        this.readyListener = new RecordingBeanListener("a");
+        this.failingListener = new FailingBeanListener("b");
+        beanFactory.registerSingleton("readyListener", readyListener);
+        beanFactory.registerSingleton("failingListener", failingListener);
+        this.beanListeners = new BeanListeners(beanFactory);
+    }
+
+    @Test
+    void testIsOverridden() throws NoSuchMethodException {
+        assertTrue(isOverridden(RecordingBeanListener.class, BeanListener.class.getMethod("onBeanReady", String.class, Object.class)));
+        assertFalse(isOverridden(RecordingBeanListener.class, BeanListener.class.getMethod("onBeforeBeanInitialize", String.class, Object.class)));
+        assertTrue(isOverridden(LoggingBeanListener.class, BeanListener.class.getMethod("onBeforeBeanInitialize", String.class, Object.class)));
+    }
+
+    @Test
+    void testGetDispatchTable() {
+        int[][] dispatchTable = beanListeners.getDispatchTable("a");
+        assertSame(dispatchTable, beanListeners.getDispatchTable("a"));
+        // "c" is supported by neither listener
+        int[][] emptyDispatchTable = beanListeners.getDispatchTable("c");
+        assertSame(emptyDispatchTable, beanListeners.getDispatchTable("d"));
+        assertEquals(0, emptyDispatchTable[ON_BEAN_READY].length);
+        // onBeanDefinitionReady is overridden by neither listener
+        assertEquals(0, dispatchTable[ON_BEAN_DEFINITION_READY].length);
+        assertEquals(1, dispatchTable[ON_BEAN_READY].length);
+        // The generated bean names are not cached, but the shared table is reused
+        assertSame(emptyDispatchTable, beanListeners.getDispatchTable("(inner bean)#1a2b3c"));
+    }
+
+    @Test
+    void testIsTransientBeanName() {
+        assertTrue(isTransientBeanName("(inner bean)#1a2b3c"));
+        assertTrue(isTransientBeanName("user" + ORIGINAL_INSTANCE_SUFFIX));
+        assertFalse(isTransientBeanName("user"));
+    }
+
+    @Test
+    void testDispatch() {
+        beanListeners.onBeanDefinitionReady("a", new RootBeanDefinition());
+        beanListeners.onBeanReady("a", "bean-a");
+        beanListeners.onBeanReady("b", "bean-b");
+        beanListeners.onBeanReady("c", "bean-c");
+        beanListeners.onAfterBeanDestroy("a", "bean-a");
+        assertEquals(asList("onBeanReady:a", "onAfterBeanDestroy:a"), readyListener.events);
+        // the failure of a listener does not break the dispatching
+        assertEquals(asList("onBeanReady:b"), failingListener.events);
+        assertArrayEquals(new int[0], beanListeners.getDispatchTable("c")[ON_BEAN_READY]);
+    }
+
+    static class RecordingBeanListener implements BeanListenerAdapter {
+
+        private final String supportedBeanName;
+
+        final List<String> events = newArrayList();
+
+        RecordingBeanListener(String supportedBeanName) {
+            this.supportedBeanName = supportedBeanName;
+        }
+
+        @Override
+        public boolean supports(String beanName) {
+            return supportedBeanName.equals(beanName);
+        }
+
+        @Override
+        public void onBeanReady(String beanName, Object bean) {
+            events.add("onBeanReady:" + beanName);
+        }
+
+        @Override
+        public void onAfterBeanDestroy(String beanName, Object bean) {
+            events.add("onAfterBeanDestroy:" + beanName);
+        }
+    }
+
+    static class FailingBeanListener extends RecordingBeanListener {
+
+        FailingBeanListener(String supportedBeanName) {
+            super(supportedBeanName);
+        }
+
+        @Override
+        public void onBeanReady(String beanName, Object bean) {
+            super.onBeanReady(beanName, bean);
+            throw new IllegalStateException("For testing");
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.spring.context.event.BeanStartupProfiler.Phase;
+import io.microsphere.spring.context.event.BeanStartupProfiler.Span;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+
+import static io.microsphere.collection.SetUtils.newHashSet;
+import static io.microsphere.spring.context.event.BeanStartupProfiler.Phase.CREATION;
+import static io.microsphere.spring.context.event.BeanStartupProfiler.Phase.DESTROY;
+import static io.microsphere.spring.context.event.BeanStartupProfiler.Phase.INITIALIZATION;
+import static io.microsphere.spring.context.event.BeanStartupProfiler.Phase.INSTANTIATION;
+import static io.microsphere.spring.context.event.BeanStartupProfiler.Phase.POPULATION;
+import static io.microsphere.spring.context.event.BeanStartupProfiler.Phase.READY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link BeanStartupProfiler} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BeanStartupProfiler
+ * @since 1.0.0
+ */
+@ContextConfiguration(locations = "classpath:/user-context.xml")
+class BeanStartupProfilerTest extends AbstractEventListenerTest<BeanStartupProfiler> {
+
+    @Test
+    void testReport() {
+        BeanStartupProfiler profiler = this.beanFactoryListener;
+        assertFalse(profiler.getSpans().isEmpty());
+        assertTrue(profiler.getSelfTimes(CREATION).containsKey("user"));
+        String report = profiler.report();
+        assertTrue(report.contains("user"));
+        if (logger.isInfoEnabled()) {
+            logger.info(report);
+        }
+    }
+
+    @Test
+    void testWriteTraceEvents() throws Exception {
+        StringWriter writer = new StringWriter();
+        this.beanFactoryListener.writeTraceEvents(writer);
+        String json = writer.toString();
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(json.contains("\"name\":\"user\""));
+        assertTrue(json.contains("\"name\":\"thread_name\""));
+        assertTrue(json.endsWith("]}"));
+    }
+
+    @Test
+    void testNestedBeans() throws Exception {
+        BeanStartupProfiler profiler = new BeanStartupProfiler();
+        RootBeanDefinition beanDefinition = new RootBeanDefinition(Object.class);
+
+        profiler.onBeanDefinitionReady("a", beanDefinition);
+        profiler.onBeforeBeanInstantiate("a", beanDefinition);
+        profiler.onAfterBeanInstantiated("a", beanDefinition, "a");
+        // 'a' depends on 'b' during the property population
+        profiler.onBeforeBeanInstantiate("b", beanDefinition);
+        profiler.onAfterBeanInstantiated("b", beanDefinition, "b");
+        profiler.onBeforeBeanInitialize("b", "b");
+        Thread.sleep(20);
+        profiler.onAfterBeanInitialized("b", "b");
+        profiler.onBeforeBeanInitialize("a", "a");
+        profiler.onAfterBeanInitialized("a", "a");
+        profiler.onBeanReady("a", "a");
+
+        List<Span> spans = profiler.getSpans();
+        // a : ready, creation, instantiation, population, initialization; b : creation, instantiation, population, initialization
+        assertEquals(9, spans.size());
+
+        Span a = findSpan(spans, "a", CREATION);
+        Span b = findSpan(spans, "b", CREATION);
+        assertEquals(a.getDuration() - b.getDuration(), a.getSelfTime());
+        assertEquals(b.getDuration(), b.getSelfTime());
+        assertTrue(b.getSelfTime() >= profiler.getSelfTime("b", INITIALIZATION));
+
+        Span population = findSpan(spans, "a", POPULATION);
+        assertEquals(population.getDuration() - b.getDuration(), population.getSelfTime());
+        assertTrue(findSpan(spans, "a", INSTANTIATION).getSelfTime() >= 0);
+        assertTrue(findSpan(spans, "a", READY).getDuration() >= a.getDuration());
+    }
+
+    @Test
+    void testFailedCreation() throws Exception {
+        Set<String> beansInCreation = newHashSet(4);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory() {
+            @Override
+            public boolean isCurrentlyInCreation(String beanName) {
+                return beansInCreation.contains(beanName);
+            }
+        };
+        BeanStartupProfiler profiler = new BeanStartupProfiler();
+        profiler.setBeanFactory(beanFactory);
+        RootBeanDefinition beanDefinition = new RootBeanDefinition(Object.class);
+        for (String beanName : new String[]{"a", "b", "c"}) {
+            beanFactory.registerBeanDefinition(beanName, beanDefinition);
+        }
+
+        beansInCreation.add("a");
+        profiler.onBeforeBeanInstantiate("a", beanDefinition);
+        profiler.onAfterBeanInstantiated("a", beanDefinition, "a");
+        // The creation of 'b' failed, and 'a' handled the failure
+        beansInCreation.add("b");
+        profiler.onBeforeBeanInstantiate("b", beanDefinition);
+        beansInCreation.remove("b");
+        // 'c' is created by 'a' instead of 'b'
+        beansInCreation.add("c");
+        profiler.onBeforeBeanInstantiate("c", beanDefinition);
+        profiler.onAfterBeanInstantiated("c", beanDefinition, "c");
+        profiler.onBeforeBeanInitialize("c", "c");
+        Thread.sleep(20);
+        profiler.onAfterBeanInitialized("c", "c");
+        beansInCreation.remove("c");
+        profiler.onBeforeBeanInitialize("a", "a");
+        profiler.onAfterBeanInitialized("a", "a");
+        beansInCreation.remove("a");
+
+        List<Span> spans = profiler.getSpans();
+        Span a = findSpan(spans, "a", CREATION);
+        Span c = findSpan(spans, "c", CREATION);
+        assertEquals(a.getDuration() - c.getDuration(), a.getSelfTime());
+        assertFalse(spans.stream().anyMatch(span -> span.getBeanName().equals("b")));
+    }
+
+    @Test
+    void testUncompletedDestroy() throws Exception {
+        BeanStartupProfiler profiler = new BeanStartupProfiler();
+        // The destruction of 'a' was not completed
+        profiler.onBeforeBeanDestroy("a", "a");
+        profiler.onBeforeBeanDestroy("b", "b");
+        Thread.sleep(20);
+        profiler.onAfterBeanDestroy("b", "b");
+        profiler.onAfterBeanDestroy("a", "a");
+        List<Span> spans = profiler.getSpans();
+        assertEquals(1, spans.size());
+        assertEquals("b", spans.get(0).getBeanName());
+    }
+
+    @Test
+    void testStopRecording() {
+        BeanStartupProfiler profiler = this.beanFactoryListener;
+        // The recording was stopped when the context was refreshed
+        assertFalse(profiler.isRecording());
+        int size = profiler.getSpans().size();
+
+        RootBeanDefinition beanDefinition = new RootBeanDefinition(Object.class);
+        profiler.onBeanDefinitionReady("prototype", beanDefinition);
+        profiler.onBeforeBeanInstantiate("prototype", beanDefinition);
+        profiler.onAfterBeanInstantiated("prototype", beanDefinition, "prototype");
+        profiler.onBeforeBeanInitialize("prototype", "prototype");
+        profiler.onAfterBeanInitialized("prototype", "prototype");
+        profiler.onBeanReady("prototype", "prototype");
+        assertEquals(size, profiler.getSpans().size());
+
+        // The destructions are still recorded
+        profiler.onBeforeBeanDestroy("prototype", "prototype");
+        profiler.onAfterBeanDestroy("prototype", "prototype");
+        assertEquals(size + 1, profiler.getSpans().size());
+    }
+
+    @Test
+    void testDestroy() {
+        BeanStartupProfiler profiler = new BeanStartupProfiler();
+        profiler.onBeforeBeanDestroy("a", "a");
+        profiler.onAfterBeanDestroy("a", "a");
+        // unmatched
+        profiler.onAfterBeanDestroy("b", "b");
+        profiler.onAfterBeanInitialized("c", "c");
+        List<Span> spans = profiler.getSpans();
+        assertEquals(1, spans.size());
+        assertEquals(DESTROY, spans.get(0).getPhase());
+        assertTrue(profiler.report().contains("(destroy)"));
+    }
+
+    private Span findSpan(List<Span> spans, String beanName, Phase phase) {
+        return spans.stream()
+                .filter(span -> span.getPhase() == phase && span.getBeanName().equals(beanName))
+                .findFirst()
+                .get();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.spring.context.event.BulkheadApplicationListenerInterceptor.Bulkhead;
+import io.microsphere.spring.context.event.BulkheadApplicationListenerInterceptor.OverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static io.microsphere.spring.context.event.BulkheadApplicationListenerInterceptor.THREAD_NAME_PREFIX;
+import static io.microsphere.spring.context.event.BulkheadApplicationListenerInterceptor.annotatedWith;
+import static io.microsphere.spring.context.event.BulkheadApplicationListenerInterceptor.listenerType;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+
+/**
+ * {@link BulkheadApplicationListenerInterceptor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see BulkheadApplicationListenerInterceptor
+ * @since 1.0.0
+ */
+class BulkheadApplicationListenerInterceptorTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void testConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new BulkheadApplicationListenerInterceptor(1, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new BulkheadApplicationListenerInterceptor(0, 1, OverflowPolicy.BLOCK));
+        assertThrows(IllegalArgumentException.class, () -> new BulkheadApplicationListenerInterceptor(1, 0, OverflowPolicy.BLOCK));
+    }
+
+    @Test
+    void testGetBulkhead() {
+        BulkheadApplicationListenerInterceptor interceptor = new BulkheadApplicationListenerInterceptor(1, 16, OverflowPolicy.CALLER_RUNS);
+        interceptor.addBulkhead("slow", annotatedWith(Slow.class), 1, 1, OverflowPolicy.DROP_OLDEST)
+                .addBulkhead("recording", listenerType(RecordingListener.class), 2, 8, OverflowPolicy.BLOCK);
+
+        SlowListener slowListener = new SlowListener();
+        SlowListener anotherSlowListener = new SlowListener();
+        RecordingListener recordingListener = new RecordingListener();
+        ApplicationListener<PayloadApplicationEvent<String>> listener = event -> {
+        };
+        ApplicationListener<PayloadApplicationEvent<String>> anotherListener = event -> {
+        };
+
+        // The matched listeners share the bulkhead
+        Bulkhead bulkhead = interceptor.getBulkhead(slowListener);
+        assertEquals("slow", bulkhead.getName());
+        assertSame(bulkhead, interceptor.getBulkhead(anotherSlowListener));
+        assertSame(bulkhead, interceptor.getBulkhead(new InterceptingApplicationListener(slowListener, null)));
+        assertEquals("recording", interceptor.getBulkhead(recordingListener).getName());
+        assertEquals(OverflowPolicy.BLOCK, interceptor.getBulkhead(recordingListener).getOverflowPolicy());
+
+        // Every unmatched listener has its own bulkhead once the default settings are specified
+        assertNotSame(interceptor.getBulkhead(listener), interceptor.getBulkhead(anotherListener));
+        assertEquals(OverflowPolicy.CALLER_RUNS, interceptor.getBulkhead(listener).getOverflowPolicy());
+        assertEquals(4, interceptor.getBulkheads().size());
+    }
+
+    @Test
+    void testIsolation() throws Exception {
+        BulkheadApplicationListenerInterceptor interceptor = new BulkheadApplicationListenerInterceptor(1, 16, OverflowPolicy.CALLER_RUNS);
+        interceptor.addBulkhead("slow", annotatedWith(Slow.class), 1, 1, OverflowPolicy.DROP_OLDEST);
+        SlowListener slowListener = new SlowListener();
+        RecordingListener recordingListener = new RecordingListener();
+        recordingListener.latch = new CountDownLatch(5);
+        newContext(interceptor, slowListener, recordingListener);
+
+        publishEvents(5);
+
+        // The slow listener does not block the others
+        assertTrue(recordingListener.latch.await(5, SECONDS));
+        assertEquals(5, recordingListener.payloads.size());
+        assertTrue(recordingListener.threadNames.get(0).startsWith(THREAD_NAME_PREFIX + "RecordingListener@"));
+
+        // The first event is running, the last one is queued and the others are dropped
+        Bulkhead bulkhead = interceptor.getBulkhead(slowListener);
+        assertEquals(1, bulkhead.getQueueDepth());
+        assertEquals(3, bulkhead.getRejectedCount());
+
+        slowListener.gate.countDown();
+        waitFor(() -> slowListener.payloads.size() == 2);
+        assertEquals("event-0", slowListener.payloads.get(0));
+        assertEquals("event-4", slowListener.payloads.get(1));
+        assertEquals(0, bulkhead.getQueueDepth());
+    }
+
+    @Test
+    void testCallerRuns() throws Exception {
+        BulkheadApplicationListenerInterceptor interceptor = new BulkheadApplicationListenerInterceptor(1, 16, OverflowPolicy.CALLER_RUNS);
+        interceptor.addBulkhead("slow", annotatedWith(Slow.class), 1, 1, OverflowPolicy.CALLER_RUNS);
+        SlowListener slowListener = new SlowListener();
+        // The events run on the caller will not be blocked
+        slowListener.blockingThreadNamePrefix = THREAD_NAME_PREFIX;
+        newContext(interceptor, slowListener);
+
+        publishEvents(3);
+
+        assertEquals(1, slowListener.payloads.size());
+        assertEquals(Thread.currentThread().getName(), slowListener.threadNames.get(0));
+        assertEquals(1, interceptor.getBulkhead(slowListener).getRejectedCount());
+        slowListener.gate.countDown();
+        waitFor(() -> slowListener.payloads.size() == 3);
+    }
+
+    @Test
+    void testBlock() throws Exception {
+        BulkheadApplicationListenerInterceptor interceptor = new BulkheadApplicationListenerInterceptor(1, 16, OverflowPolicy.CALLER_RUNS);
+        interceptor.addBulkhead("slow", annotatedWith(Slow.class), 1, 1, OverflowPolicy.BLOCK);
+        SlowListener slowListener = new SlowListener();
+        newContext(interceptor, slowListener);
+
+        Thread publisher = new Thread(() -> publishEvents(3));
+        publisher.start();
+        waitFor(() -> publisher.getState() == Thread.State.WAITING);
+        assertEquals(1, interceptor.getBulkhead(slowListener).getRejectedCount());
+
+        slowListener.gate.countDown();
+        publisher.join(5000);
+        waitFor(() -> interceptor.getBulkhead(slowListener).getCompletedCount() == 3);
+        assertEquals(3, slowListener.payloads.size());
+    }
+
+    @Test
+    void testUnmatchedListenersInline() {
+        BulkheadApplicationListenerInterceptor interceptor = new BulkheadApplicationListenerInterceptor();
+        interceptor.addBulkhead("slow", annotatedWith(Slow.class), 1, 1, OverflowPolicy.BLOCK);
+        RecordingListener recordingListener = new RecordingListener();
+        ApplicationListener<PayloadApplicationEvent<String>> failingListener = new RecordingListener() {
+            @Override
+            public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+                if ("event-1".equals(event.getPayload())) {
+                    throw new IllegalStateException(event.getPayload());
+                }
+            }
+        };
+
+        assertEquals("slow", interceptor.getBulkhead(new SlowListener()).getName());
+        assertNull(interceptor.getBulkhead(recordingListener));
+        assertNull(interceptor.getBulkhead(failingListener));
+
+        newContext(interceptor, recordingListener, failingListener);
+        publishEvents(1);
+
+        // The unmatched listeners are invoked by the publisher and the exceptions are propagated
+        assertEquals(1, recordingListener.payloads.size());
+        assertEquals(Thread.currentThread().getName(), recordingListener.threadNames.get(0));
+        assertThrows(IllegalStateException.class, () -> context.publishEvent("event-1"));
+        assertEquals(1, interceptor.getBulkheads().size());
+    }
+
+    @Test
+    void testBlockOnBulkheadThread() throws Exception {
+        BulkheadApplicationListenerInterceptor interceptor = new BulkheadApplicationListenerInterceptor();
+        interceptor.addBulkhead("recording", listenerType(RecordingListener.class), 1, 1, OverflowPolicy.BLOCK);
+        RecordingListener recordingListener = new RecordingListener() {
+            @Override
+            public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+                super.onApplicationEvent(event);
+                if ("root".equals(event.getPayload())) {
+                    // Publishes into the own full bulkhead
+                    publishEvents(3);
+                }
+            }
+        };
+        recordingListener.latch = new CountDownLatch(4);
+        newContext(interceptor, recordingListener);
+
+        context.publishEvent("root");
+
+        assertTrue(recordingListener.latch.await(5, SECONDS));
+        assertEquals(4, recordingListener.payloads.size());
+        assertTrue(interceptor.getBulkhead(recordingListener).getRejectedCount() > 0);
+    }
+
+    private void publishEvents(int count) {
+        for (int i = 0; i < count; i++) {
+            context.publishEvent("event-" + i);
+        }
+    }
+
+    private void newContext(BulkheadApplicationListenerInterceptor interceptor, ApplicationListener<?>... listeners) {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        context.registerBean("bulkheadApplicationListenerInterceptor", BulkheadApplicationListenerInterceptor.class, () -> interceptor);
+        context.refresh();
+        for (ApplicationListener<?> listener : listeners) {
+            context.addApplicationListener(listener);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long startTime = currentTimeMillis();
+        while (!condition.getAsBoolean()) {
+            assertTrue(currentTimeMillis() - startTime < 5000, "Timeout");
+            Thread.sleep(5);
+        }
+    }
+
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    @interface Slow {
+    }
+
+    static class RecordingListener implements ApplicationListener<PayloadApplicationEvent<String>> {
+
+        final List<String> payloads = new CopyOnWriteArrayList<>();
+
+        final List<String> threadNames = new CopyOnWriteArrayList<>();
+
+        volatile CountDownLatch latch;
+
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+            payloads.add(event.getPayload());
+            threadNames.add(Thread.currentThread().getName());
+            if (latch != null) {
+                latch.countDown();
+            }
+        }
+    }
+
+    @Slow
+    static class SlowListener extends RecordingListener {
+
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        volatile String blockingThreadNamePrefix = "";
+
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<String> event) {
+            if (Thread.currentThread().getName().startsWith(blockingThreadNamePrefix)) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.onApplicationEvent(event);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+
+/**
+ * {@link CoalescingApplicationEventInterceptor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see CoalescingApplicationEventInterceptor
+ * @since 1.0.0
+ */
+class CoalescingApplicationEventInterceptorTest {
+
+    private final Object bean = new Object();
+
+    private final Object anotherBean = new Object();
+
+    private final CoalescedEventListener coalescedEventListener = new CoalescedEventListener();
+
+    private final List<BeanPropertyChangedEvent> rawEvents = new CopyOnWriteArrayList<>();
+
+    private final List<Object> payloads = new CopyOnWriteArrayList<>();
+
+    private AnnotationConfigApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void testConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new CoalescingApplicationEventInterceptor(0, 1, BeanPropertyChangedEvent.class));
+        assertThrows(IllegalArgumentException.class, () -> new CoalescingApplicationEventInterceptor(1, 0, BeanPropertyChangedEvent.class));
+    }
+
+    @Test
+    void testCoalesceByCount() throws Exception {
+        CoalescingApplicationEventInterceptor interceptor = newContext(10000, 3);
+
+        publishChanges(bean, 3);
+        assertEquals(1, coalescedEventListener.events.size());
+        CoalescedApplicationEvent<BeanPropertyChangedEvent> event = coalescedEventListener.events.get(0);
+        assertSame(bean, event.getSource());
+        assertSame(BeanPropertyChangedEvent.class, event.getEventType());
+        assertEquals(3, event.getEvents().size());
+        assertEquals("p0", event.getFirstEvent().getPropertyName());
+        assertEquals("p2", event.getLastEvent().getPropertyName());
+        assertTrue(rawEvents.isEmpty());
+
+        // The windows are separated by the sources
+        publishChanges(bean, 1);
+        publishChanges(anotherBean, 2);
+        assertEquals(2, interceptor.getPendingWindows());
+        assertEquals(1, coalescedEventListener.events.size());
+
+        interceptor.flush();
+        assertEquals(0, interceptor.getPendingWindows());
+        assertEquals(3, coalescedEventListener.events.size());
+        assertEquals(3, coalescedEventListener.events.get(1).getEvents().size() + coalescedEventListener.events.get(2).getEvents().size());
+    }
+
+    @Test
+    void testCoalesceByTime() throws Exception {
+        CoalescingApplicationEventInterceptor interceptor = newContext(50, 1000);
+        coalescedEventListener.latch = new CountDownLatch(1);
+
+        publishChanges(bean, 5);
+        assertTrue(coalescedEventListener.latch.await(5, SECONDS));
+        assertEquals(1, coalescedEventListener.events.size());
+        assertEquals(5, coalescedEventListener.events.get(0).getEvents().size());
+        assertTrue(coalescedEventListener.threadName.startsWith(CoalescingApplicationEventInterceptor.DEFAULT_THREAD_NAME_PREFIX));
+        assertEquals(0, interceptor.getPendingWindows());
+    }
+
+    @Test
+    void testPassThrough() {
+        newContext(10000, 3);
+        context.publishEvent("Hello,World");
+        assertEquals(1, payloads.size());
+        assertEquals("Hello,World", payloads.get(0));
+        assertTrue(coalescedEventListener.events.isEmpty());
+    }
+
+    @Test
+    void testPassThroughAfterDestroy() throws Exception {
+        CoalescingApplicationEventInterceptor interceptor = newContext(10000, 3);
+        publishChanges(bean, 2);
+        interceptor.destroy();
+        // The pending window was flushed
+        assertEquals(1, coalescedEventListener.events.size());
+        assertEquals(0, interceptor.getPendingWindows());
+
+        // The events are passed through rather than being rejected by the scheduler
+        publishChanges(bean, 2);
+        assertEquals(2, rawEvents.size());
+        assertEquals(1, coalescedEventListener.events.size());
+        assertEquals(0, interceptor.getPendingWindows());
+    }
+
+    private void publishChanges(Object bean, int count) {
+        for (int i = 0; i < count; i++) {
+            context.publishEvent(new BeanPropertyChangedEvent(bean, "p" + i, null, i));
+        }
+    }
+
+    private CoalescingApplicationEventInterceptor newContext(long windowMillis, int maxEvents) {
+        CoalescingApplicationEventInterceptor interceptor = new CoalescingApplicationEventInterceptor(windowMillis, maxEvents,
+                BeanPropertyChangedEvent.class);
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        context.registerBean("coalescingApplicationEventInterceptor", CoalescingApplicationEventInterceptor.class, () -> interceptor);
+        context.refresh();
+        context.addApplicationListener(coalescedEventListener);
+        context.addApplicationListener((ApplicationListener<BeanPropertyChangedEvent>) rawEvents::add);
+        context.addApplicationListener((ApplicationListener<PayloadApplicationEvent<Object>>) event -> payloads.add(event.getPayload()));
+        return interceptor;
+    }
+
+    static class CoalescedEventListener implements ApplicationListener<CoalescedApplicationEvent<BeanPropertyChangedEvent>> {
+
+        private final List<CoalescedApplicationEvent<BeanPropertyChangedEvent>> events = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch latch;
+
+        private volatile String threadName;
+
+        @Override
+        public void onApplicationEvent(CoalescedApplicationEvent<BeanPropertyChangedEvent> event) {
+            events.add(event);
+            threadName = Thread.currentThread().getName();
+            if (latch != null) {
+                latch.countDown();
+            }
+        }
+    }
+}
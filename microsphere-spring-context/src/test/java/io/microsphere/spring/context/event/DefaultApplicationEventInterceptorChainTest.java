@@ -128,4 +128,32 @@ class DefaultApplicationEventInterceptorChainTest {
 
         assertEquals("12end", order.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testChainIsReusable() {
+        AtomicInteger consumerCallCount = new AtomicInteger(0);
+        StringBuilder order = new StringBuilder();
+
+        ApplicationEventInterceptor first = (event, eventType, chain) -> {
+            order.append("1");
+            chain.intercept(event, eventType);
+        };
+        // Retry the rest of the chain
+        ApplicationEventInterceptor second = (event, eventType, chain) -> {
+            order.append("2");
+            chain.intercept(event, eventType);
+            chain.intercept(event, eventType);
+        };
+
+        DefaultApplicationEventInterceptorChain chain = new DefaultApplicationEventInterceptorChain(
+                List.of(first, second),
+                (event, type) -> consumerCallCount.incrementAndGet()
+        );
+
+        chain.intercept(new TestEvent(this), ResolvableType.forClass(TestEvent.class));
+        chain.intercept(new TestEvent(this), ResolvableType.forClass(TestEvent.class));
+
+        assertEquals("1212", order.toString());
+        assertEquals(4, consumerCallCount.get());
+    }
+}
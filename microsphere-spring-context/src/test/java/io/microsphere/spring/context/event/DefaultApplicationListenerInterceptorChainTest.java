@@ -135,4 +135,28 @@ class DefaultApplicationListenerInterceptorChainTest {
 
         assertEquals("12end", order.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testChainIsReusable() {
+        AtomicInteger consumerCallCount = new AtomicInteger(0);
+        AtomicInteger interceptorCallCount = new AtomicInteger(0);
+
+        ApplicationListenerInterceptor interceptor = (listener, event, chain) -> {
+            interceptorCallCount.incrementAndGet();
+            chain.intercept(listener, event);
+        };
+
+        DefaultApplicationListenerInterceptorChain chain = new DefaultApplicationListenerInterceptorChain(
+                List.of(interceptor, interceptor),
+                (listener, event) -> consumerCallCount.incrementAndGet()
+        );
+
+        ApplicationListener<TestEvent> listener = event -> {
+        };
+        chain.intercept(listener, new TestEvent(this));
+        chain.intercept(listener, new TestEvent(this));
+
+        assertEquals(4, interceptorCallCount.get());
+        assertEquals(2, consumerCallCount.get());
+    }
+}
@@ -40,10 +40,13 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import static io.microsphere.logging.LoggerFactory.getLogger;
 import static io.microsphere.spring.context.event.InterceptingApplicationEventMulticasterProxy.RESET_BEAN_NAME_PROPERTY_NAME;
 import static io.microsphere.spring.context.event.InterceptingApplicationEventMulticasterProxy.getResetBeanName;
+import static io.microsphere.spring.context.event.InterceptingApplicationEventMulticasterProxy.isListenersRetrievable;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -175,6 +178,45 @@ class InterceptingApplicationEventMulticasterProxyTest {
         assertTrue(this.proxy.isCachedInterceptingApplicationListener(newListener2));
     }
 
+    @Test
+    void testListenersCache() {
+        PayloadApplicationEvent<String> event = newEvent("test");
+        ApplicationListener<?>[] listeners = this.proxy.getApplicationListeners(event, null);
+        assertNotNull(listeners);
+        assertSame(listeners, this.proxy.getApplicationListeners(newEvent("test2"), null));
+        assertNotSame(listeners, this.proxy.getApplicationListeners(new PayloadApplicationEvent<>(new Object(), "test"), null));
+
+        ValueHolder<ApplicationEvent> eventValueHolder = new ValueHolder<>();
+        ApplicationListener<ApplicationEvent> listener = eventValueHolder::setValue;
+
+        // Invalidated on addition
+        InterceptingApplicationListener wrapper = this.proxy.wrap(listener);
+        this.proxy.addApplicationListener(listener);
+        assertTrue(this.proxy.isCachedInterceptingApplicationListener(wrapper));
+        ApplicationListener<?>[] newListeners = this.proxy.getApplicationListeners(event, null);
+        assertEquals(listeners.length + 1, newListeners.length);
+
+        this.proxy.multicastEvent(event);
+        assertSame(event, eventValueHolder.getValue());
+        assertSame(event, getEvent());
+
+        // Invalidated on removal
+        this.proxy.removeApplicationListener(listener);
+        assertEquals(listeners.length, this.proxy.getApplicationListeners(event, null).length);
+        assertFalse(this.proxy.isCachedInterceptingApplicationListener(wrapper));
+    }
+
+    @Test
+    void testIsListenersRetrievable() {
+        assertTrue(isListenersRetrievable(new SimpleApplicationEventMulticaster()));
+        assertFalse(isListenersRetrievable(new InterceptingApplicationEventMulticaster()));
+        assertFalse(isListenersRetrievable(this.proxy));
+
+        SimpleApplicationEventMulticaster asyncMulticaster = new SimpleApplicationEventMulticaster();
+        asyncMulticaster.setTaskExecutor(Runnable::run);
+        assertFalse(isListenersRetrievable(asyncMulticaster));
+    }
+
     <T> PayloadApplicationEvent<T> newEvent(T payload) {
         return new PayloadApplicationEvent<>(this, payload);
     }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.logging.Logger;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static java.lang.Integer.parseInt;
+import static java.lang.System.nanoTime;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+
+/**
+ * The throughput benchmark of {@link JournalingApplicationEventInterceptor} against the inline path, which is not run
+ * by the unit tests, run it as the Java application with the optional argument of the number of events
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JournalingApplicationEventInterceptor
+ * @since 1.0.0
+ */
+public class JournalingApplicationEventInterceptorBenchmark {
+
+    private static final Logger logger = getLogger(JournalingApplicationEventInterceptorBenchmark.class);
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? parseInt(args[0]) : 100000;
+        File directory = Files.createTempDirectory("journal-benchmark").toFile();
+        try {
+            for (int round = 1; round <= ROUNDS; round++) {
+                long inlineNanos = publish(null, events);
+                JournalingApplicationEventInterceptor interceptor = new JournalingApplicationEventInterceptor(directory, String.class);
+                interceptor.setReplayOnStartup(false);
+                long journalingNanos = publish(interceptor, events);
+                if (logger.isInfoEnabled()) {
+                    logger.info("Round {} - Inline : {} events/s , Journaling : {} events/s", round,
+                            events * 1000000000L / inlineNanos, events * 1000000000L / journalingNanos);
+                }
+            }
+        } finally {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    private static long publish(JournalingApplicationEventInterceptor interceptor, int events) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        if (interceptor != null) {
+            context.registerBean("journalingApplicationEventInterceptor", JournalingApplicationEventInterceptor.class, () -> interceptor);
+        }
+        context.addApplicationListener((ApplicationListener<PayloadApplicationEvent<String>>) event -> {
+        });
+        context.refresh();
+        long startTime = nanoTime();
+        for (int i = 0; i < events; i++) {
+            context.publishEvent("event-" + i);
+        }
+        long elapsed = nanoTime() - startTime;
+        context.close();
+        return elapsed;
+    }
+}
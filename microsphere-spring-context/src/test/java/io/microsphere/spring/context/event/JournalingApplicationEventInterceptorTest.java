@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.spring.context.event.JournalingApplicationEventInterceptor.ReplayedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.spring.context.event.JournalingApplicationEventInterceptor.RECORD_HEADER_SIZE;
+import static io.microsphere.spring.context.event.JournalingApplicationEventInterceptor.SEGMENT_HEADER_SIZE;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+
+/**
+ * {@link JournalingApplicationEventInterceptor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JournalingApplicationEventInterceptor
+ * @since 1.0.0
+ */
+class JournalingApplicationEventInterceptorTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testJournalAndReplay() throws Exception {
+        JournalingApplicationEventInterceptor interceptor = newInterceptor(1024 * 1024);
+        List<Object> payloads = new CopyOnWriteArrayList<>();
+        AnnotationConfigApplicationContext context = newContext(interceptor, payloads);
+        context.publishEvent("a");
+        // Not journaled
+        context.publishEvent(1);
+        context.publishEvent("b");
+        Object bean = new Object();
+        context.publishEvent(new BeanPropertyChangedEvent(bean, "name", "x", "y"));
+        assertEquals(asList("a", 1, "b", "y"), payloads);
+        assertEquals(3, interceptor.getJournaledCount());
+        assertEquals(0, interceptor.getFailedCount());
+
+        payloads.clear();
+        assertEquals(3, interceptor.replay(context.getBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class), context));
+        assertEquals(asList("a", "b", "y"), payloads);
+        // The replayed events are not journaled again
+        assertEquals(3, interceptor.getJournaledCount());
+        context.close();
+
+        assertThrows(IOException.class, () -> interceptor.replay(new SimpleApplicationEventMulticaster(), this));
+        assertFalse(interceptor.journal(new PayloadApplicationEvent<>(this, "c")));
+    }
+
+    @Test
+    void testReplayOnStartup() throws Exception {
+        AnnotationConfigApplicationContext context = newContext(newInterceptor(1024 * 1024), newArrayList());
+        context.publishEvent("a");
+        context.publishEvent("b");
+        context.close();
+
+        JournalingApplicationEventInterceptor interceptor = newInterceptor(1024 * 1024);
+        List<Object> payloads = new CopyOnWriteArrayList<>();
+        List<Object> sources = new CopyOnWriteArrayList<>();
+        context = newReplayingContext(interceptor, payloads, sources);
+
+        assertEquals(asList("a", "b"), payloads);
+        assertSame(context, sources.get(0));
+        assertEquals(0, interceptor.getJournaledCount());
+        context.publishEvent("c");
+        assertEquals(1, interceptor.getJournaledCount());
+        context.close();
+
+        // Only the events after the checkpoint are replayed on the next startup
+        interceptor = newInterceptor(1024 * 1024);
+        payloads.clear();
+        context = newReplayingContext(interceptor, payloads, sources);
+        assertEquals(asList("c"), payloads);
+        context.close();
+
+        interceptor = newInterceptor(1024 * 1024);
+        payloads.clear();
+        context = newReplayingContext(interceptor, payloads, sources);
+        assertTrue(payloads.isEmpty());
+        // The full replay is not limited by the checkpoint
+        assertEquals(asList("a", "b", "c"), replay(interceptor));
+        context.close();
+    }
+
+    @Test
+    void testReplayedEventsNotJournaledByAnyMulticaster() throws Exception {
+        JournalingApplicationEventInterceptor interceptor = newInterceptor(1024 * 1024);
+        interceptor.journal(new PayloadApplicationEvent<>(this, "a"));
+        interceptor.journal(new BeanPropertyChangedEvent(this, "name", "x", "y"));
+
+        List<ApplicationEvent> events = newArrayList();
+        // The multicaster intercepts the events like InterceptingApplicationEventMulticasterProxy
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster() {
+            @Override
+            public void multicastEvent(ApplicationEvent event, ResolvableType eventType) {
+                interceptor.intercept(event, eventType, (e, t) -> events.add(e));
+            }
+        };
+        assertEquals(2, interceptor.replay(multicaster, this));
+        assertEquals(2, events.size());
+        assertInstanceOf(ReplayedEvent.class, events.get(0));
+        assertEquals(2, interceptor.getJournaledCount());
+        assertEquals(2, replay(interceptor).size());
+        interceptor.destroy();
+    }
+
+    @Test
+    void testRollover() throws Exception {
+        JournalingApplicationEventInterceptor interceptor = newInterceptor(512);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(interceptor.journal(new PayloadApplicationEvent<>(this, "event-" + i)));
+        }
+        List<Path> segmentFiles = interceptor.getSegmentFiles();
+        assertTrue(segmentFiles.size() > 1);
+        List<Object> payloads = replay(interceptor);
+        assertEquals(100, payloads.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("event-" + i, payloads.get(i));
+        }
+
+        // The record exceeds the segment
+        assertFalse(interceptor.journal(new PayloadApplicationEvent<>(this, new byte[512])));
+        assertEquals(1, interceptor.getFailedCount());
+
+        // The oldest segments are deleted on the rollover
+        interceptor.setMaxSegments(2);
+        for (int i = 0; i < 100; i++) {
+            interceptor.journal(new PayloadApplicationEvent<>(this, "event-" + i));
+        }
+        assertEquals(2, interceptor.getSegmentFiles().size());
+        assertFalse(segmentFiles.contains(interceptor.getSegmentFiles().get(0)));
+        interceptor.destroy();
+    }
+
+    @Test
+    void testRecoverFromCorruptedRecord() throws Exception {
+        JournalingApplicationEventInterceptor interceptor = newInterceptor(1024 * 1024);
+        for (int i = 0; i < 10; i++) {
+            interceptor.journal(new PayloadApplicationEvent<>(this, "event-" + i));
+        }
+        interceptor.destroy();
+
+        File segmentFile = interceptor.getSegmentFiles().get(0).toFile();
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+            file.seek(SEGMENT_HEADER_SIZE);
+            int length = file.readInt();
+            // Corrupt the data of the 6th record
+            long position = SEGMENT_HEADER_SIZE + 5L * (RECORD_HEADER_SIZE + length) + RECORD_HEADER_SIZE;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0xFF);
+        }
+
+        interceptor = newInterceptor(1024 * 1024);
+        assertEquals(asList("event-0", "event-1", "event-2", "event-3", "event-4"), replay(interceptor));
+        // The torn tail is discarded, and the new records are appended after the valid ones
+        interceptor.journal(new PayloadApplicationEvent<>(this, "event-5"));
+        assertEquals(asList("event-0", "event-1", "event-2", "event-3", "event-4", "event-5"), replay(interceptor));
+        interceptor.destroy();
+    }
+
+    @Test
+    void testNotSerializable() throws Exception {
+        JournalingApplicationEventInterceptor interceptor = newInterceptor(1024 * 1024, Object.class);
+        List<Object> payloads = new CopyOnWriteArrayList<>();
+        AnnotationConfigApplicationContext context = newContext(interceptor, payloads);
+        Object payload = new Object();
+        context.publishEvent(payload);
+        // Passed through without journaling
+        assertEquals(asList(payload), payloads);
+        assertEquals(1, interceptor.getFailedCount());
+        assertEquals(0, interceptor.getJournaledCount());
+        context.close();
+    }
+
+    private List<Object> replay(JournalingApplicationEventInterceptor interceptor) throws IOException {
+        List<Object> payloads = newArrayList();
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        multicaster.addApplicationListener((ApplicationListener<PayloadApplicationEvent<?>>) event -> payloads.add(event.getPayload()));
+        interceptor.replay(multicaster, this);
+        return payloads;
+    }
+
+    private AnnotationConfigApplicationContext newReplayingContext(JournalingApplicationEventInterceptor interceptor,
+                                                                   List<Object> payloads, List<Object> sources) {
+        interceptor.setReplayOnStartup(true);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        context.registerBean("journalingApplicationEventInterceptor", JournalingApplicationEventInterceptor.class, () -> interceptor);
+        context.addApplicationListener((ApplicationListener<PayloadApplicationEvent<String>>) event -> {
+            payloads.add(event.getPayload());
+            sources.add(event.getSource());
+        });
+        context.refresh();
+        return context;
+    }
+
+    private JournalingApplicationEventInterceptor newInterceptor(int segmentSize) {
+        return newInterceptor(segmentSize, String.class, BeanPropertyChangedEvent.class);
+    }
+
+    private JournalingApplicationEventInterceptor newInterceptor(int segmentSize, Class<?>... eventTypes) {
+        JournalingApplicationEventInterceptor interceptor = new JournalingApplicationEventInterceptor(tempDir, segmentSize, eventTypes);
+        interceptor.setReplayOnStartup(false);
+        return interceptor;
+    }
+
+    private AnnotationConfigApplicationContext newContext(JournalingApplicationEventInterceptor interceptor, List<Object> payloads) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        context.registerBean("journalingApplicationEventInterceptor", JournalingApplicationEventInterceptor.class, () -> interceptor);
+        context.addApplicationListener((ApplicationListener<PayloadApplicationEvent<?>>) event -> payloads.add(event.getPayload()));
+        context.addApplicationListener((ApplicationListener<BeanPropertyChangedEvent>) event -> payloads.add(event.getNewValue()));
+        context.refresh();
+        return context;
+    }
+}
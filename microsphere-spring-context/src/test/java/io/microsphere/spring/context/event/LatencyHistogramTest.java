@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import org.junit.jupiter.api.Test;
+
+import static io.microsphere.spring.context.event.LatencyHistogram.SUB_BUCKETS;
+import static io.microsphere.spring.context.event.LatencyHistogram.highestValueOf;
+import static io.microsphere.spring.context.event.LatencyHistogram.indexOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link LatencyHistogram} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see LatencyHistogram
+ * @since 1.0.0
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testBuckets() {
+        for (long value = 0; value < SUB_BUCKETS * 2; value++) {
+            // exact
+            assertEquals(value, highestValueOf(indexOf(value)));
+        }
+        long[] values = {100, 1000, 123456, 987654321, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = indexOf(value);
+            long highestValue = highestValueOf(index);
+            assertTrue(highestValue >= value);
+            assertTrue(highestValue - value <= value / SUB_BUCKETS);
+            assertTrue(highestValueOf(index - 1) < value);
+        }
+    }
+
+    @Test
+    void testPercentiles() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int value = 1; value <= 10000; value++) {
+                    histogram.record(value * 1000L);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40000, histogram.getCount());
+        assertEquals(10000000, histogram.getMax());
+        assertEquals(5000500, histogram.getMean());
+        assertWithinError(5000000, histogram.getValueAtPercentile(50));
+        assertWithinError(9900000, histogram.getValueAtPercentile(99));
+        assertEquals(10000000, histogram.getValueAtPercentile(100));
+
+        histogram.record(-1);
+        assertEquals(0, histogram.getValueAtPercentile(0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    private void assertWithinError(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / SUB_BUCKETS, () -> "expected : " + expected + " , actual : " + actual);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.spring.test.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.spring.context.event.EventPublishingBeanInitializer.ENABLED_PROPERTY_NAME;
+import static io.microsphere.spring.context.event.LazySingletonsPrewarmingBeanListener.ACCESS_ORDER_FILE_PROPERTY_NAME;
+import static io.microsphere.spring.context.event.LazySingletonsPrewarmingBeanListener.MAX_PREWARMED_RUNS;
+import static io.microsphere.spring.context.event.LazySingletonsPrewarmingBeanListener.PREWARM_ENABLED_PROPERTY_NAME;
+import static io.microsphere.spring.context.event.LazySingletonsPrewarmingBeanListener.readAccessOrder;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link LazySingletonsPrewarmingBeanListener} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see LazySingletonsPrewarmingBeanListener
+ * @since 1.0.0
+ */
+class LazySingletonsPrewarmingBeanListenerTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testRecordAndPrewarm() throws Exception {
+        File file = new File(tempDir, "lazy-singletons.order");
+
+        try (AnnotationConfigApplicationContext context = newContext(file, true)) {
+            assertFalse(context.getBeanFactory().containsSingleton("user"));
+            context.getBean("user");
+            LazySingletonsPrewarmingBeanListener listener = context.getBean(LazySingletonsPrewarmingBeanListener.class);
+            assertEquals(asList("user"), listener.getAccessOrder());
+        }
+        assertEquals(asList("user"), readBeanNames(file));
+
+        try (AnnotationConfigApplicationContext context = newContext(file, true)) {
+            LazySingletonsPrewarmingBeanListener listener = context.getBean(LazySingletonsPrewarmingBeanListener.class);
+            assertTrue(listener.awaitPrewarmed(10, SECONDS));
+            assertTrue(context.getBeanFactory().containsSingleton("user"));
+            assertFalse(context.getBeanFactory().containsSingleton("anotherUser"));
+            context.getBean("anotherUser");
+            // The requested beans go first, followed by the prewarmed ones
+            assertEquals(asList("anotherUser", "user"), listener.getAccessOrder());
+        }
+        assertEquals(asList("anotherUser", "user"), readBeanNames(file));
+        assertEquals(1, readAccessOrder(file).get("user"));
+    }
+
+    @Test
+    void testDropUnobservedPrewarmedBeans() throws Exception {
+        File file = new File(tempDir, "lazy-singletons.order");
+        Files.write(file.toPath(), asList("user\t" + (MAX_PREWARMED_RUNS - 1)), UTF_8);
+
+        try (AnnotationConfigApplicationContext context = newContext(file, true)) {
+            LazySingletonsPrewarmingBeanListener listener = context.getBean(LazySingletonsPrewarmingBeanListener.class);
+            assertTrue(listener.awaitPrewarmed(10, SECONDS));
+            assertTrue(context.getBeanFactory().containsSingleton("user"));
+        }
+        assertEquals(MAX_PREWARMED_RUNS, readAccessOrder(file).get("user"));
+
+        // The bean is not prewarmed to observe whether it's still requested
+        try (AnnotationConfigApplicationContext context = newContext(file, true)) {
+            LazySingletonsPrewarmingBeanListener listener = context.getBean(LazySingletonsPrewarmingBeanListener.class);
+            assertTrue(listener.awaitPrewarmed(10, SECONDS));
+            assertFalse(context.getBeanFactory().containsSingleton("user"));
+        }
+        assertTrue(readAccessOrder(file).isEmpty());
+    }
+
+    @Test
+    void testPrewarmDisabled() throws Exception {
+        File file = new File(tempDir, "lazy-singletons.order");
+        try (AnnotationConfigApplicationContext context = newContext(file, true)) {
+            context.getBean("user");
+        }
+
+        try (AnnotationConfigApplicationContext context = newContext(file, false)) {
+            LazySingletonsPrewarmingBeanListener listener = context.getBean(LazySingletonsPrewarmingBeanListener.class);
+            assertTrue(listener.awaitPrewarmed(10, SECONDS));
+            assertFalse(context.getBeanFactory().containsSingleton("user"));
+            context.getBean("anotherUser");
+        }
+        // The beans not requested in the last run are dropped
+        assertEquals(asList("anotherUser"), readBeanNames(file));
+    }
+
+    @Test
+    void testReadAccessOrderOnAbsentFile() {
+        assertTrue(readAccessOrder(new File(tempDir, "absent")).isEmpty());
+    }
+
+    private List<String> readBeanNames(File file) {
+        return newArrayList(readAccessOrder(file).keySet());
+    }
+
+    private AnnotationConfigApplicationContext newContext(File file, boolean prewarmEnabled) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        Map<String, Object> properties = newHashMap();
+        properties.put(ENABLED_PROPERTY_NAME, "true");
+        properties.put(ACCESS_ORDER_FILE_PROPERTY_NAME, file.getAbsolutePath());
+        properties.put(PREWARM_ENABLED_PROPERTY_NAME, String.valueOf(prewarmEnabled));
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        new EventPublishingBeanInitializer().initialize(context);
+        context.register(LazySingletonsPrewarmingBeanListener.class, Config.class);
+        context.refresh();
+        return context;
+    }
+
+    static class Config {
+
+        @Bean
+        @Lazy
+        public User user() {
+            return new User();
+        }
+
+        @Bean
+        @Lazy
+        public User anotherUser() {
+            return new User();
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package io.microsphere.spring.context.event;
 
+import io.microsphere.spring.context.event.ParallelPreInstantiationSingletonsBeanFactoryListener.BeanInstantiationTime;
 import io.microsphere.spring.test.domain.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,9 +28,15 @@ import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 
+import static io.microsphere.spring.context.event.ParallelPreInstantiationSingletonsBeanFactoryListener.EXECUTOR_PROPERTY_NAME;
 import static io.microsphere.spring.context.event.ParallelPreInstantiationSingletonsBeanFactoryListener.THREADS_PROPERTY_NAME;
 import static io.microsphere.spring.context.event.ParallelPreInstantiationSingletonsBeanFactoryListener.THREAD_NAME_PREFIX_PROPERTY_NAME;
+import static io.microsphere.spring.context.event.ParallelPreInstantiationSingletonsBeanFactoryListener.VIRTUAL_EXECUTOR;
+import static io.microsphere.spring.context.event.ParallelPreInstantiationSingletonsBeanFactoryListener.VIRTUAL_MAX_CONCURRENCY_PROPERTY_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * {@link ParallelPreInstantiationSingletonsBeanFactoryListener} Test
@@ -88,9 +95,41 @@ class ParallelPreInstantiationSingletonsBeanFactoryListenerTest extends Abstract
         listener.onBeanFactoryConfigurationFrozen(factory);
     }
 
+    /**
+     * executor=virtual starts a virtual thread per bean, or falls back to the platform threads before Java 21.
+     */
+    @Test
+    void testOnBeanFactoryConfigurationFrozenOnVirtualExecutor() {
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        factory.registerBeanDefinition("user", new RootBeanDefinition(User.class));
+        ParallelPreInstantiationSingletonsBeanFactoryListener listener =
+                new ParallelPreInstantiationSingletonsBeanFactoryListener();
+        listener.setBeanFactory(factory);
+
+        MockEnvironment env = new MockEnvironment();
+        env.setProperty(EXECUTOR_PROPERTY_NAME, VIRTUAL_EXECUTOR);
+        env.setProperty(VIRTUAL_MAX_CONCURRENCY_PROPERTY_NAME, "2");
+        listener.setEnvironment(env);
+
+        listener.onBeanFactoryConfigurationFrozen(factory);
+        assertTrue(factory.containsSingleton("user"));
+    }
+
     @Import(User.class)
     static class Config {
         public Config(User user) {
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBeanInstantiationTime() {
+        BeanInstantiationTime time = new BeanInstantiationTime("user", 3000, 1000);
+        assertEquals(2000, time.getWaitTime());
+        assertTrue(time.toString().contains("cpu time : 1 us , wait time : 2 us"));
+
+        // The CPU time is unavailable, e.g. on the virtual threads
+        time = new BeanInstantiationTime("user", 3000, -1);
+        assertEquals(3000, time.getElapsedTime());
+        assertFalse(time.toString().contains("cpu time"));
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link PartitionedApplicationEventDispatcher} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see PartitionedApplicationEventDispatcher
+ * @since 1.0.0
+ */
+class PartitionedApplicationEventDispatcherTest {
+
+    private static final Object SOURCE = new Object();
+
+    /**
+     * The key is the first element of payload
+     */
+    private static final EventKeyExtractor PAYLOAD_KEY_EXTRACTOR = (event, eventType) ->
+            ((PayloadApplicationEvent<int[]>) event).getPayload()[0];
+
+    @Test
+    void testConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedApplicationEventDispatcher(0, 1, PAYLOAD_KEY_EXTRACTOR));
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedApplicationEventDispatcher(1, 0, PAYLOAD_KEY_EXTRACTOR));
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedApplicationEventDispatcher(1, 1, null));
+        PartitionedApplicationEventDispatcher dispatcher = new PartitionedApplicationEventDispatcher();
+        assertEquals(Runtime.getRuntime().availableProcessors(), dispatcher.getLanes());
+        assertEquals(EventKeyExtractor.SOURCE_IDENTITY, dispatcher.getKeyExtractor());
+        assertEquals(0, dispatcher.getQueueDepth(0));
+    }
+
+    @Test
+    void testGetLane() {
+        PartitionedApplicationEventDispatcher dispatcher = new PartitionedApplicationEventDispatcher(4, 16, PAYLOAD_KEY_EXTRACTOR);
+        for (int key = -100; key < 100; key++) {
+            int lane = dispatcher.getLane(newEvent(key, 0), null);
+            assertTrue(lane >= 0 && lane < 4);
+            assertEquals(lane, dispatcher.getLane(newEvent(key, 1), null));
+        }
+    }
+
+    @Test
+    void testOrderPerKey() throws Exception {
+        int keys = 16;
+        int eventsPerKey = 500;
+        PartitionedApplicationEventDispatcher dispatcher = new PartitionedApplicationEventDispatcher(4, 8, PAYLOAD_KEY_EXTRACTOR);
+        List<List<Integer>> received = newArrayList(keys);
+        for (int i = 0; i < keys; i++) {
+            received.add(new CopyOnWriteArrayList<>());
+        }
+        dispatcher.start((event, eventType) -> {
+            int[] payload = ((PayloadApplicationEvent<int[]>) event).getPayload();
+            received.get(payload[0]).add(payload[1]);
+        });
+        assertThrows(IllegalStateException.class, () -> dispatcher.start((event, eventType) -> {
+        }));
+
+        for (int j = 0; j < eventsPerKey; j++) {
+            for (int key = 0; key < keys; key++) {
+                assertTrue(dispatcher.publish(newEvent(key, j), null));
+            }
+        }
+        dispatcher.close();
+
+        assertFalse(dispatcher.isRunning());
+        assertFalse(dispatcher.publish(newEvent(0, 0), null));
+        for (List<Integer> values : received) {
+            assertEquals(eventsPerKey, values.size());
+            for (int j = 0; j < eventsPerKey; j++) {
+                assertEquals(j, values.get(j));
+            }
+        }
+    }
+
+    @Test
+    void testParallelAcrossKeys() throws Exception {
+        PartitionedApplicationEventDispatcher dispatcher = new PartitionedApplicationEventDispatcher(2, 16, PAYLOAD_KEY_EXTRACTOR);
+        int blockedKey = 0;
+        int otherKey = 1;
+        while (dispatcher.getLane(newEvent(otherKey, 0), null) == dispatcher.getLane(newEvent(blockedKey, 0), null)) {
+            otherKey++;
+        }
+        CountDownLatch released = new CountDownLatch(1);
+        CountDownLatch handled = new CountDownLatch(1);
+        int finalBlockedKey = blockedKey;
+        dispatcher.start((event, eventType) -> {
+            int key = ((PayloadApplicationEvent<int[]>) event).getPayload()[0];
+            try {
+                if (key == finalBlockedKey) {
+                    released.await();
+                } else {
+                    handled.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        dispatcher.publish(newEvent(blockedKey, 0), null);
+        dispatcher.publish(newEvent(blockedKey, 1), null);
+        // The other lane is not blocked by the slow key
+        dispatcher.publish(newEvent(otherKey, 0), null);
+        assertTrue(handled.await(5, SECONDS));
+        assertEquals(1, dispatcher.getQueueDepth(dispatcher.getLane(newEvent(blockedKey, 0), null)));
+
+        released.countDown();
+        dispatcher.close();
+    }
+
+    @Test
+    void testPublishIntoOwnFullLane() throws Exception {
+        PartitionedApplicationEventDispatcher dispatcher = new PartitionedApplicationEventDispatcher(1, 1, PAYLOAD_KEY_EXTRACTOR);
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        CountDownLatch published = new CountDownLatch(1);
+        dispatcher.start((event, eventType) -> {
+            int value = ((PayloadApplicationEvent<int[]>) event).getPayload()[1];
+            values.add(value);
+            if (value == 0) {
+                // The lane becomes full, the rest are appended to the overflow queue instead of the self-deadlock
+                for (int i = 1; i <= 5; i++) {
+                    assertTrue(dispatcher.publish(newEvent(0, i), null));
+                }
+                assertEquals(5, dispatcher.getQueueDepth(0));
+                published.countDown();
+            }
+        });
+        dispatcher.publish(newEvent(0, 0), null);
+        assertTrue(published.await(5, SECONDS));
+        dispatcher.close();
+        assertEquals(asList(0, 1, 2, 3, 4, 5), values);
+    }
+
+    @Test
+    void testPublishAcrossFullLanes() throws Exception {
+        PartitionedApplicationEventDispatcher dispatcher = new PartitionedApplicationEventDispatcher(2, 1, PAYLOAD_KEY_EXTRACTOR);
+        int keyA = 0;
+        int keyB = 1;
+        while (dispatcher.getLane(newEvent(keyB, 0), null) == dispatcher.getLane(newEvent(keyA, 0), null)) {
+            keyB++;
+        }
+        int events = 5;
+        int[] keys = {keyA, keyB};
+        List<Integer>[] values = new List[]{new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>()};
+        CyclicBarrier bothBusy = new CyclicBarrier(2);
+        CountDownLatch handled = new CountDownLatch(2 * (events + 1));
+        dispatcher.start((event, eventType) -> {
+            int[] payload = ((PayloadApplicationEvent<int[]>) event).getPayload();
+            int index = payload[0] == keyA ? 0 : 1;
+            values[index].add(payload[1]);
+            if (payload[1] == 0) {
+                try {
+                    bothBusy.await(5, SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                // Both lanes publish into each other's full lane without blocking
+                for (int i = 1; i <= events; i++) {
+                    assertTrue(dispatcher.publish(newEvent(keys[1 - index], -i), null));
+                }
+            }
+            handled.countDown();
+        });
+        dispatcher.publish(newEvent(keyA, 0), null);
+        dispatcher.publish(newEvent(keyB, 0), null);
+        assertTrue(handled.await(5, SECONDS));
+        dispatcher.close();
+        for (List<Integer> laneValues : values) {
+            assertEquals(asList(0, -1, -2, -3, -4, -5), laneValues);
+        }
+    }
+
+    @Test
+    void testSourceIdentityKeyExtractor() {
+        EventKeyExtractor extractor = EventKeyExtractor.SOURCE_IDENTITY;
+        Object source = new Object();
+        ApplicationEvent event = new PayloadApplicationEvent<>(source, "test");
+        assertEquals(source, extractor.extractKey(event, null));
+        assertEquals(System.identityHashCode(source), extractor.hash(source));
+        assertEquals(0, ((EventKeyExtractor) (e, t) -> null).hash(null));
+    }
+
+    @Test
+    void testOnInterceptingApplicationEventMulticaster() throws Exception {
+        GenericApplicationContext context = new GenericApplicationContext();
+        InterceptingApplicationEventMulticaster multicaster = new InterceptingApplicationEventMulticaster();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        multicaster.setTaskExecutor(executorService);
+        context.getBeanFactory().registerSingleton("applicationEventMulticaster", multicaster);
+        context.refresh();
+
+        PartitionedApplicationEventDispatcher dispatcher = new PartitionedApplicationEventDispatcher(4, 16, EventKeyExtractor.SOURCE_IDENTITY);
+        multicaster.setPartitionedDispatcher(dispatcher);
+        assertTrue(dispatcher.isRunning());
+        assertEquals(dispatcher, multicaster.getPartitionedDispatcher());
+
+        List<Object> values = new CopyOnWriteArrayList<>();
+        Set<String> threadNames = new CopyOnWriteArraySet<>();
+        context.addApplicationListener((ApplicationListener<BeanPropertyChangedEvent>) event -> {
+            threadNames.add(Thread.currentThread().getName());
+            values.add(event.getNewValue());
+        });
+        Object bean = new Object();
+        for (int i = 0; i < 100; i++) {
+            context.publishEvent(new BeanPropertyChangedEvent(bean, "value", i - 1, i));
+        }
+        dispatcher.close();
+
+        // The events of a bean are handled in order by a lane, even if the task executor is set
+        assertEquals(100, values.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, values.get(i));
+        }
+        assertEquals(1, threadNames.size());
+        assertTrue(threadNames.iterator().next().startsWith(PartitionedApplicationEventDispatcher.DEFAULT_THREAD_NAME_PREFIX));
+
+        context.close();
+        executorService.shutdown();
+    }
+
+    private PayloadApplicationEvent<int[]> newEvent(int key, int value) {
+        return new PayloadApplicationEvent<>(SOURCE, new int[]{key, value});
+    }
+}
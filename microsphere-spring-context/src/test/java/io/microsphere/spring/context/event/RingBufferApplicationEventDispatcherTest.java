@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.spring.context.event.RingBufferApplicationEventDispatcher.WaitStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RingBufferApplicationEventDispatcher} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see RingBufferApplicationEventDispatcher
+ * @since 1.0.0
+ */
+class RingBufferApplicationEventDispatcherTest {
+
+    private static final Object SOURCE = new Object();
+
+    @Test
+    void testCapacity() {
+        assertEquals(16, new RingBufferApplicationEventDispatcher(10, 4, WaitStrategy.SLEEPING, false).getCapacity());
+        assertEquals(16, new RingBufferApplicationEventDispatcher(16, 4, WaitStrategy.SLEEPING, false).getCapacity());
+        assertEquals(RingBufferApplicationEventDispatcher.DEFAULT_CAPACITY, new RingBufferApplicationEventDispatcher().getCapacity());
+    }
+
+    @Test
+    void testPublishWithWaitStrategies() throws Exception {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            assertPublish(waitStrategy);
+        }
+    }
+
+    private void assertPublish(WaitStrategy waitStrategy) throws Exception {
+        int producers = 4;
+        int eventsPerProducer = 2000;
+        RingBufferApplicationEventDispatcher dispatcher = new RingBufferApplicationEventDispatcher(64, 16, waitStrategy, false);
+        List<List<Integer>> received = newArrayList(producers);
+        for (int i = 0; i < producers; i++) {
+            received.add(new CopyOnWriteArrayList<>());
+        }
+        dispatcher.start((event, eventType) -> {
+            int[] payload = ((PayloadApplicationEvent<int[]>) event).getPayload();
+            received.get(payload[0]).add(payload[1]);
+        });
+
+        List<Thread> threads = newArrayList(producers);
+        for (int i = 0; i < producers; i++) {
+            int producer = i;
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < eventsPerProducer; j++) {
+                    assertTrue(dispatcher.publish(new PayloadApplicationEvent<>(SOURCE, new int[]{producer, j}), null));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        dispatcher.close();
+
+        assertFalse(dispatcher.isRunning());
+        assertEquals(producers * eventsPerProducer, dispatcher.getPublishedCount());
+        assertEquals(producers * eventsPerProducer, dispatcher.getProcessedCount());
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getOccupancy());
+        assertTrue(dispatcher.getMaxLatencyNanos() >= dispatcher.getAverageLatencyNanos());
+        for (List<Integer> values : received) {
+            // The events from a producer are dispatched in order
+            assertEquals(eventsPerProducer, values.size());
+            for (int j = 0; j < eventsPerProducer; j++) {
+                assertEquals(j, values.get(j));
+            }
+        }
+    }
+
+    @Test
+    void testDropWhenFull() throws Exception {
+        RingBufferApplicationEventDispatcher dispatcher = new RingBufferApplicationEventDispatcher(4, 4, WaitStrategy.BLOCKING, true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        dispatcher.start((event, eventType) -> {
+            started.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(dispatcher.publish(newEvent(), null));
+        assertTrue(started.await(5, SECONDS));
+        // The first slot is not released until the batch is completed
+        int published = 1;
+        while (dispatcher.publish(newEvent(), null)) {
+            published++;
+        }
+        assertEquals(dispatcher.getCapacity(), published);
+        assertEquals(dispatcher.getCapacity(), dispatcher.getOccupancy());
+        assertFalse(dispatcher.publish(newEvent(), null));
+        assertEquals(2, dispatcher.getDroppedCount());
+
+        released.countDown();
+        dispatcher.close();
+        assertEquals(published, dispatcher.getProcessedCount());
+        // Dropped after closed
+        assertFalse(dispatcher.publish(newEvent(), null));
+        assertEquals(3, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void testPublishFromConsumerThreadWhenFull() throws Exception {
+        RingBufferApplicationEventDispatcher dispatcher = new RingBufferApplicationEventDispatcher(2, 1, WaitStrategy.SLEEPING, false);
+        List<String> payloads = new CopyOnWriteArrayList<>();
+        CountDownLatch published = new CountDownLatch(1);
+        dispatcher.start((event, eventType) -> {
+            String payload = ((PayloadApplicationEvent<String>) event).getPayload();
+            payloads.add(payload);
+            if ("root".equals(payload)) {
+                // The ring buffer becomes full, the rest are dispatched inline instead of the self-deadlock
+                for (int i = 0; i < 10; i++) {
+                    dispatcher.publish(new PayloadApplicationEvent<>(SOURCE, "child-" + i), null);
+                }
+                published.countDown();
+            }
+        });
+        assertTrue(dispatcher.publish(new PayloadApplicationEvent<>(SOURCE, "root"), null));
+        assertTrue(published.await(5, SECONDS));
+        dispatcher.close();
+        assertEquals(11, payloads.size());
+        assertEquals(11, dispatcher.getProcessedCount());
+        assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void testFailedEvents() throws Exception {
+        RingBufferApplicationEventDispatcher dispatcher = new RingBufferApplicationEventDispatcher();
+        dispatcher.start((event, eventType) -> {
+            throw new RuntimeException("For testing");
+        });
+        assertThrows(IllegalStateException.class, () -> dispatcher.start((event, eventType) -> {
+        }));
+        dispatcher.publish(newEvent(), null);
+        dispatcher.publish(newEvent(), null);
+        dispatcher.close();
+        assertEquals(2, dispatcher.getProcessedCount());
+        assertEquals(2, dispatcher.getFailedCount());
+    }
+
+    @Test
+    void testOnInterceptingApplicationEventMulticaster() throws Exception {
+        GenericApplicationContext context = new GenericApplicationContext();
+        InterceptingApplicationEventMulticaster multicaster = new InterceptingApplicationEventMulticaster();
+        context.getBeanFactory().registerSingleton("applicationEventMulticaster", multicaster);
+        context.refresh();
+
+        RingBufferApplicationEventDispatcher dispatcher = new RingBufferApplicationEventDispatcher();
+        multicaster.setRingBufferDispatcher(dispatcher);
+        assertTrue(dispatcher.isRunning());
+
+        AtomicReference<String> threadNameRef = new AtomicReference<>();
+        AtomicReference<Object> payloadRef = new AtomicReference<>();
+        context.addApplicationListener((ApplicationListener<PayloadApplicationEvent<String>>) event -> {
+            threadNameRef.set(Thread.currentThread().getName());
+            payloadRef.set(event.getPayload());
+        });
+        context.publishEvent("Hello,World");
+        dispatcher.close();
+
+        assertEquals("Hello,World", payloadRef.get());
+        assertTrue(threadNameRef.get().startsWith(RingBufferApplicationEventDispatcher.DEFAULT_THREAD_NAME_PREFIX));
+
+        // Fall back to the task executor after closed
+        context.publishEvent("Hi");
+        assertEquals("Hi", payloadRef.get());
+        assertEquals(Thread.currentThread().getName(), threadNameRef.get());
+        context.close();
+    }
+
+    private ApplicationEvent newEvent() {
+        return new PayloadApplicationEvent<>(SOURCE, "test");
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.event;
+
+import io.microsphere.spring.context.event.StartupCriticalPathReport.Candidate;
+import io.microsphere.spring.test.domain.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.microsphere.collection.Sets.ofSet;
+import static io.microsphere.spring.beans.factory.BeanDependencyGraphFixtures.createDependencyGraph;
+import static io.microsphere.spring.context.event.StartupCriticalPathAnalyzer.analyze;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link StartupCriticalPathAnalyzer} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StartupCriticalPathAnalyzer
+ * @since 1.0.0
+ */
+@ContextConfiguration(classes = StartupCriticalPathAnalyzerTest.Config.class)
+class StartupCriticalPathAnalyzerTest extends AbstractEventListenerTest<StartupCriticalPathAnalyzer> {
+
+    private Map<String, Long> createCosts(long costOfE) {
+        Map<String, Long> costs = new LinkedHashMap<>();
+        costs.put("a", 10L);
+        costs.put("b", 20L);
+        costs.put("c", 30L);
+        costs.put("d", 5L);
+        costs.put("e", costOfE);
+        return costs;
+    }
+
+    @Test
+    void testReport() {
+        StartupCriticalPathReport report = this.beanFactoryListener.getReport();
+        assertNotNull(report);
+        assertTrue(report.getTotalTime() >= report.getCriticalPathTime());
+        assertTrue(report.getCriticalPath().size() > 0);
+    }
+
+    @Test
+    void testAnalyze() {
+        StartupCriticalPathReport report = analyze(createDependencyGraph(), createCosts(100L), 2);
+        assertEquals(165L, report.getTotalTime());
+        assertEquals(100L, report.getCriticalPathTime());
+        assertEquals(singletonList("e"), report.getCriticalPath());
+
+        List<Candidate> lazyInitCandidates = report.getLazyInitCandidates();
+        assertEquals(2, lazyInitCandidates.size());
+        assertCandidate(lazyInitCandidates.get(0), "e", 100L);
+        // 'a' is required by 'd' as well
+        assertCandidate(lazyInitCandidates.get(1), "c", 50L);
+
+        List<Candidate> asyncInitCandidates = report.getAsyncInitCandidates();
+        assertEquals(1, asyncInitCandidates.size());
+        assertCandidate(asyncInitCandidates.get(0), "e", 40L);
+    }
+
+    @Test
+    void testAnalyzeOnDependencyChain() {
+        StartupCriticalPathReport report = analyze(createDependencyGraph(), createCosts(1L), 10);
+        assertEquals(60L, report.getCriticalPathTime());
+        assertEquals(asList("a", "b", "c"), report.getCriticalPath());
+
+        List<Candidate> asyncInitCandidates = report.getAsyncInitCandidates();
+        assertEquals(3, asyncInitCandidates.size());
+        assertCandidate(asyncInitCandidates.get(0), "c", 30L);
+        assertCandidate(asyncInitCandidates.get(1), "b", 20L);
+        assertCandidate(asyncInitCandidates.get(2), "a", 10L);
+    }
+
+    @Test
+    void testAnalyzeWithCircularDependencies() {
+        Map<String, Set<String>> dependencyGraph = createDependencyGraph();
+        dependencyGraph.put("x", ofSet("y"));
+        dependencyGraph.put("y", ofSet("x"));
+        Map<String, Long> costs = createCosts(1L);
+        costs.put("x", 50L);
+        costs.put("y", 50L);
+        StartupCriticalPathReport report = analyze(dependencyGraph, costs, 10);
+        assertEquals(100L, report.getCriticalPathTime());
+        assertEquals(2, report.getCriticalPath().size());
+    }
+
+    @Test
+    void testAnalyzeOnEmptyGraph() {
+        StartupCriticalPathReport report = analyze(new LinkedHashMap<>(), new LinkedHashMap<>(), 10);
+        assertEquals(0L, report.getTotalTime());
+        assertEquals(0L, report.getCriticalPathTime());
+        assertTrue(report.getCriticalPath().isEmpty());
+        assertTrue(report.getLazyInitCandidates().isEmpty());
+        assertTrue(report.getAsyncInitCandidates().isEmpty());
+    }
+
+    private void assertCandidate(Candidate candidate, String beanName, long savedTime) {
+        assertEquals(beanName, candidate.getBeanName());
+        assertEquals(savedTime, candidate.getSavedTime());
+    }
+
+    @Import({BeanStartupProfiler.class, User.class})
+    static class Config {
+        public Config(User user) {
+        }
+    }
+}
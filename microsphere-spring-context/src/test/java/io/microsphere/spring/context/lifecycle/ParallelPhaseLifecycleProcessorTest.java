@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.lifecycle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.spring.context.lifecycle.ParallelPhaseLifecycleProcessor.DEFAULT_THREAD_NAME_PREFIX;
+import static io.microsphere.spring.context.lifecycle.ParallelPhaseLifecycleProcessor.GROUP_BEAN_NAME_PREFIX;
+import static io.microsphere.spring.context.lifecycle.ParallelPhaseLifecycleProcessor.THREADS_PROPERTY_NAME;
+import static io.microsphere.spring.context.lifecycle.ParallelPhaseLifecycleProcessor.TIMEOUT_PROPERTY_NAME;
+import static java.lang.Math.abs;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.context.support.AbstractApplicationContext.LIFECYCLE_PROCESSOR_BEAN_NAME;
+
+/**
+ * {@link ParallelPhaseLifecycleProcessor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ParallelPhaseLifecycleProcessor
+ * @since 1.0.0
+ */
+class ParallelPhaseLifecycleProcessorTest {
+
+    private static final List<String> events = new CopyOnWriteArrayList<>();
+
+    private static final Map<String, String> threadNames = new ConcurrentHashMap<>();
+
+    private static final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        events.clear();
+        threadNames.clear();
+        startTimes.clear();
+    }
+
+    @Test
+    void testStartAndStopInParallel() {
+        AnnotationConfigApplicationContext context = newContext("10000", LifecycleConfig.class);
+        for (String name : asList("a", "b", "c")) {
+            assertTrue(context.getBean(name, DelayedLifecycle.class).isRunning());
+            assertTrue(threadNames.get(name).startsWith(DEFAULT_THREAD_NAME_PREFIX));
+            // The beans sleeping 500 ms were started concurrently
+            assertTrue(abs(startTimes.get(name) - startTimes.get("a")) < 500);
+        }
+        assertEquals(Thread.currentThread().getName(), threadNames.get("late"));
+        // The phase 0 is started before the phase 1
+        assertEquals("start:late", events.get(events.size() - 1));
+
+        events.clear();
+        context.close();
+        assertFalse(context.getBean("a", DelayedLifecycle.class).isRunning());
+        assertEquals("stop:late", events.get(0));
+    }
+
+    @Test
+    void testGetLifecycleBeans() {
+        AnnotationConfigApplicationContext context = newContext("10000", LifecycleConfig.class);
+        ParallelPhaseLifecycleProcessor processor = context.getBean(LIFECYCLE_PROCESSOR_BEAN_NAME, ParallelPhaseLifecycleProcessor.class);
+        Map<String, Lifecycle> lifecycleBeans = processor.getLifecycleBeans();
+        Lifecycle group = lifecycleBeans.get(GROUP_BEAN_NAME_PREFIX + 0);
+        assertInstanceOf(ParallelPhaseLifecycleProcessor.PhaseLifecycleGroup.class, group);
+        assertEquals(asList("a", "b", "c"), asList(((ParallelPhaseLifecycleProcessor.PhaseLifecycleGroup) group).getMemberNames().toArray()));
+        // The single bean of phase 1 and the dependent beans are not grouped
+        assertTrue(lifecycleBeans.containsKey("late"));
+        assertTrue(lifecycleBeans.containsKey("pool"));
+        assertTrue(lifecycleBeans.containsKey("client"));
+        context.close();
+    }
+
+    @Test
+    void testStartTimeout() {
+        assertThrows(ApplicationContextException.class, () -> newContext("50", LifecycleConfig.class));
+    }
+
+    @Test
+    void testRestartAfterMemberStopped() {
+        AnnotationConfigApplicationContext context = newContext("10000", LifecycleConfig.class);
+        DelayedLifecycle a = context.getBean("a", DelayedLifecycle.class);
+        DelayedLifecycle b = context.getBean("b", DelayedLifecycle.class);
+        a.stop();
+        assertFalse(a.isRunning());
+
+        // The stopped member is started again, while the running members are not
+        events.clear();
+        context.start();
+        assertTrue(a.isRunning());
+        assertTrue(events.contains("start:a"));
+        assertFalse(events.contains("start:b"));
+
+        // The running members are stopped even if a member has been stopped
+        a.stop();
+        context.stop();
+        assertFalse(b.isRunning());
+        context.close();
+    }
+
+    @Test
+    void testStartTimeoutOnQueuedBeans() {
+        // The beans are started one by one, the timeout is counted since every bean starts rather than is queued
+        AnnotationConfigApplicationContext context = newContext("400", "1", QueuedLifecycleConfig.class);
+        for (String name : asList("a", "b", "c")) {
+            assertTrue(context.getBean(name, DelayedLifecycle.class).isRunning());
+        }
+        context.close();
+    }
+
+    @Test
+    void testStartFailure() {
+        assertThrows(ApplicationContextException.class, () -> newContext("10000", FailingLifecycleConfig.class));
+    }
+
+    private AnnotationConfigApplicationContext newContext(String timeout, Class<?> configClass) {
+        return newContext(timeout, "4", configClass);
+    }
+
+    private AnnotationConfigApplicationContext newContext(String timeout, String threads, Class<?> configClass) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        Map<String, Object> properties = newHashMap();
+        properties.put(TIMEOUT_PROPERTY_NAME, timeout);
+        properties.put(THREADS_PROPERTY_NAME, threads);
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.registerBean(LIFECYCLE_PROCESSOR_BEAN_NAME, ParallelPhaseLifecycleProcessor.class);
+        context.register(configClass);
+        context.refresh();
+        return context;
+    }
+
+    static class LifecycleConfig {
+
+        @Bean
+        public DelayedLifecycle a() {
+            return new DelayedLifecycle("a", 0, 500);
+        }
+
+        @Bean
+        public DelayedLifecycle b() {
+            return new DelayedLifecycle("b", 0, 500);
+        }
+
+        @Bean
+        public DelayedLifecycle c() {
+            return new DelayedLifecycle("c", 0, 500);
+        }
+
+        @Bean
+        public DelayedLifecycle late() {
+            return new DelayedLifecycle("late", 1, 0);
+        }
+
+        @Bean
+        public DelayedLifecycle pool() {
+            return new DelayedLifecycle("pool", 0, 0);
+        }
+
+        @Bean
+        public DelayedLifecycle client(@Qualifier("pool") DelayedLifecycle pool) {
+            return new DelayedLifecycle("client", 0, 0);
+        }
+    }
+
+    static class QueuedLifecycleConfig {
+
+        @Bean
+        public DelayedLifecycle a() {
+            return new DelayedLifecycle("a", 0, 300);
+        }
+
+        @Bean
+        public DelayedLifecycle b() {
+            return new DelayedLifecycle("b", 0, 300);
+        }
+
+        @Bean
+        public DelayedLifecycle c() {
+            return new DelayedLifecycle("c", 0, 300);
+        }
+    }
+
+    static class FailingLifecycleConfig {
+
+        @Bean
+        public DelayedLifecycle a() {
+            return new DelayedLifecycle("a", 0, 0);
+        }
+
+        @Bean
+        public AbstractSmartLifecycle failing() {
+            return new DelayedLifecycle("failing", 0, 0) {
+                @Override
+                protected void doStart() {
+                    throw new IllegalStateException("For testing");
+                }
+            };
+        }
+    }
+
+    static class DelayedLifecycle extends AbstractSmartLifecycle {
+
+        private final String name;
+
+        private final long delay;
+
+        DelayedLifecycle(String name, int phase, long delay) {
+            this.name = name;
+            this.delay = delay;
+            setPhase(phase);
+        }
+
+        @Override
+        protected void doStart() {
+            startTimes.put(name, currentTimeMillis());
+            threadNames.put(name, Thread.currentThread().getName());
+            sleep();
+            events.add("start:" + name);
+        }
+
+        @Override
+        protected void doStop() {
+            sleep();
+            events.add("stop:" + name);
+        }
+
+        private void sleep() {
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
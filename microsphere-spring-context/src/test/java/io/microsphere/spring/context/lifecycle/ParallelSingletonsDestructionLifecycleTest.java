@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.context.lifecycle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationNotAllowedException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.microsphere.collection.MapUtils.newHashMap;
+import static io.microsphere.spring.context.lifecycle.AbstractSmartLifecycle.EARLIEST_PHASE;
+import static io.microsphere.spring.context.lifecycle.ParallelSingletonsDestructionLifecycle.TIMEOUT_PROPERTY_NAME;
+import static java.lang.System.currentTimeMillis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.core.NestedExceptionUtils.getMostSpecificCause;
+
+/**
+ * {@link ParallelSingletonsDestructionLifecycle} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ParallelSingletonsDestructionLifecycle
+ * @since 1.0.0
+ */
+class ParallelSingletonsDestructionLifecycleTest {
+
+    private static final List<String> destroyedBeanNames = new CopyOnWriteArrayList<>();
+
+    private static final List<String> destroyedThreadNames = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        destroyedBeanNames.clear();
+        destroyedThreadNames.clear();
+    }
+
+    @Test
+    void testGetPhase() {
+        assertEquals(EARLIEST_PHASE, new ParallelSingletonsDestructionLifecycle().getPhase());
+    }
+
+    @Test
+    void testDestroySingletonsOnClose() {
+        AnnotationConfigApplicationContext context = newContext("10000");
+        context.close();
+
+        assertEquals(3, destroyedBeanNames.size());
+        // The dependent is destroyed before its dependency
+        assertTrue(destroyedBeanNames.indexOf("client") < destroyedBeanNames.indexOf("pool"));
+        for (String threadName : destroyedThreadNames) {
+            assertTrue(threadName.startsWith(ParallelSingletonsDestructionLifecycle.DEFAULT_THREAD_NAME_PREFIX));
+        }
+    }
+
+    @Test
+    void testDestroySingletonsWithTimeout() throws InterruptedException {
+        AnnotationConfigApplicationContext context = newContext("50");
+        Resource pool = context.getBean("pool", Resource.class);
+        pool.delay = 1000;
+        long startTime = currentTimeMillis();
+        context.close();
+        assertTrue(currentTimeMillis() - startTime < 1000);
+        assertFalse(pool.destroyed);
+        // wait for the destruction left running
+        while (!pool.destroyed && currentTimeMillis() - startTime < 5000) {
+            Thread.sleep(10);
+        }
+        assertTrue(pool.destroyed);
+    }
+
+    @Test
+    void testDestroySingletonsWithTimeoutOnDependent() {
+        AnnotationConfigApplicationContext context = newContext("50");
+        Resource client = context.getBean("client", Resource.class);
+        client.delay = 300;
+        context.close();
+
+        assertTrue(client.destroyed);
+        assertEquals(3, destroyedBeanNames.size());
+        // The dependency outlives its dependent that was not destroyed in time
+        assertTrue(destroyedBeanNames.indexOf("client") < destroyedBeanNames.indexOf("pool"));
+    }
+
+    @Test
+    void testCreationNotAllowedWhileDestroying() {
+        AnnotationConfigApplicationContext context = newContext("10000");
+        ParallelSingletonsDestructionLifecycle lifecycle = context.getBean(ParallelSingletonsDestructionLifecycle.class);
+        Resource pool = context.getBean("pool", Resource.class);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        pool.callback = () -> {
+            assertTrue(lifecycle.isDestroying());
+            try {
+                // 'client' has been destroyed before 'pool'
+                context.getBean("client");
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        };
+        context.close();
+
+        assertTrue(getMostSpecificCause(failure.get()) instanceof BeanCreationNotAllowedException);
+        assertEquals(3, destroyedBeanNames.size());
+    }
+
+    @Test
+    void testStopWithoutClosing() {
+        AnnotationConfigApplicationContext context = newContext("10000");
+        context.stop();
+        assertTrue(destroyedBeanNames.isEmpty());
+        context.close();
+        assertEquals(3, destroyedBeanNames.size());
+    }
+
+    @Test
+    void testResolveDestructionGraph() {
+        AnnotationConfigApplicationContext context = newContext("10000");
+        ParallelSingletonsDestructionLifecycle lifecycle = context.getBean(ParallelSingletonsDestructionLifecycle.class);
+        Map<String, Set<String>> destructionGraph = lifecycle.resolveDestructionGraph((DefaultListableBeanFactory) context.getBeanFactory());
+        assertTrue(destructionGraph.get("pool").contains("client"));
+        assertTrue(destructionGraph.get("client").isEmpty());
+        assertFalse(destructionGraph.containsKey("parallelSingletonsDestructionLifecycle"));
+        context.close();
+    }
+
+    private AnnotationConfigApplicationContext newContext(String timeout) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        Map<String, Object> properties = newHashMap();
+        properties.put(TIMEOUT_PROPERTY_NAME, timeout);
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(ParallelSingletonsDestructionLifecycle.class, DestructionConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    static class DestructionConfig {
+
+        @Bean
+        public Resource pool() {
+            return new Resource("pool");
+        }
+
+        @Bean
+        public Resource cache() {
+            return new Resource("cache");
+        }
+
+        @Bean
+        public Resource client(@Qualifier("pool") Resource pool) {
+            return new Resource("client");
+        }
+    }
+
+    static class Resource implements DisposableBean {
+
+        private final String name;
+
+        private volatile long delay;
+
+        private volatile boolean destroyed;
+
+        private volatile Runnable callback;
+
+        Resource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (callback != null) {
+                callback.run();
+            }
+            destroyedBeanNames.add(name);
+            destroyedThreadNames.add(Thread.currentThread().getName());
+            destroyed = true;
+        }
+    }
+}
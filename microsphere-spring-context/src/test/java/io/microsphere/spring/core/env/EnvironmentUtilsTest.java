@@ -22,20 +22,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.mock.env.MockEnvironment;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 
+import static io.microsphere.spring.core.env.EnvironmentUtils.APPLICATION_NAME_PROPERTY_NAME;
+import static io.microsphere.spring.core.env.EnvironmentUtils.DEFAULT_APPLICATION_NAME;
+import static io.microsphere.spring.core.env.EnvironmentUtils.TEMP_DIRECTORY_NAME;
 import static io.microsphere.spring.core.env.EnvironmentUtils.asConfigurableEnvironment;
+import static io.microsphere.spring.core.env.EnvironmentUtils.getApplicationTempDirectory;
 import static io.microsphere.spring.core.env.EnvironmentUtils.getConversionService;
 import static io.microsphere.spring.core.env.EnvironmentUtils.getProperties;
+import static io.microsphere.spring.core.env.EnvironmentUtils.resolveApplicationFile;
 import static io.microsphere.spring.core.env.EnvironmentUtils.resolveCommaDelimitedValueToList;
 import static io.microsphere.spring.core.env.EnvironmentUtils.resolvePlaceholders;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * {@link EnvironmentUtils} Test
@@ -134,6 +142,28 @@ class EnvironmentUtilsTest {
         assertNull(value);
     }
 
+    @Test
+    void testGetApplicationTempDirectory() {
+        File directory = getApplicationTempDirectory(environment);
+        assertEquals(TEMP_DIRECTORY_NAME, directory.getParentFile().getName());
+        assertTrue(directory.getName().startsWith(DEFAULT_APPLICATION_NAME + "-"));
+        assertEquals(directory, getApplicationTempDirectory(environment));
+
+        MockEnvironment environment = new MockEnvironment();
+        environment.setProperty(APPLICATION_NAME_PROPERTY_NAME, "my app");
+        assertTrue(getApplicationTempDirectory(environment).getName().startsWith("my_app-"));
+        assertNotEquals(directory, getApplicationTempDirectory(environment));
+    }
+
+    @Test
+    void testResolveApplicationFile() {
+        File file = resolveApplicationFile(environment, "file", "test.dat");
+        assertEquals(new File(getApplicationTempDirectory(environment), "test.dat"), file);
+
+        ((MockEnvironment) environment).setProperty("file", "/tmp/${a}.dat");
+        assertEquals(new File("/tmp/1.dat"), resolveApplicationFile(environment, "file", "test.dat"));
+    }
+
     @Test
     void testAsConfigurableEnvironment() {
         ConfigurableEnvironment configurableEnvironment = asConfigurableEnvironment(environment);
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.ResolvableType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static java.time.Duration.ZERO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+
+/**
+ * {@link JfrApplicationEventInterceptor} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JfrApplicationEventInterceptor
+ * @since 1.0.0
+ */
+class JfrApplicationEventInterceptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final JfrApplicationEventInterceptor interceptor = new JfrApplicationEventInterceptor();
+
+    @Test
+    void testGetOrder() {
+        assertEquals(HIGHEST_PRECEDENCE, interceptor.getOrder());
+    }
+
+    @Test
+    void testIntercept() throws IOException {
+        List<ApplicationEvent> interceptedEvents = newArrayList();
+        ApplicationEvent event = new PayloadApplicationEvent<>(this, "test");
+        ResolvableType eventType = ResolvableType.forInstance(event);
+
+        // not recording
+        interceptor.intercept(event, eventType, (e, type) -> interceptedEvents.add(e));
+
+        List<RecordedEvent> recordedEvents;
+        try (Recording recording = new Recording()) {
+            recording.enable(ApplicationEventJfrEvent.class).withThreshold(ZERO);
+            recording.start();
+            interceptor.intercept(event, eventType, (e, type) -> interceptedEvents.add(e));
+            recording.stop();
+            Path file = tempDir.resolve("application-event.jfr");
+            recording.dump(file);
+            recordedEvents = RecordingFile.readAllEvents(file);
+        }
+
+        assertEquals(2, interceptedEvents.size());
+        int count = 0;
+        for (RecordedEvent recordedEvent : recordedEvents) {
+            if (ApplicationEventJfrEvent.NAME.equals(recordedEvent.getEventType().getName())) {
+                assertEquals(PayloadApplicationEvent.class.getName(), recordedEvent.getClass("eventClass").getName());
+                assertEquals(eventType.toString(), recordedEvent.getString("eventType"));
+                count++;
+            }
+        }
+        assertEquals(1, count);
+    }
+}
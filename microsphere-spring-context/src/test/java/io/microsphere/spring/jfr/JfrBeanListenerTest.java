@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import io.microsphere.spring.context.event.EventPublishingBeanInitializer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static io.microsphere.spring.jfr.BeanLifecycleJfrEvent.DESTRUCTION_PHASE;
+import static io.microsphere.spring.jfr.BeanLifecycleJfrEvent.INITIALIZATION_PHASE;
+import static io.microsphere.spring.jfr.BeanLifecycleJfrEvent.INSTANTIATION_PHASE;
+import static java.time.Duration.ZERO;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link JfrBeanListener} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JfrBeanListener
+ * @since 1.0.0
+ */
+class JfrBeanListenerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecording() throws IOException {
+        List<String> phases = newArrayList();
+        try (Recording recording = new Recording()) {
+            recording.enable(BeanLifecycleJfrEvent.class).withThreshold(ZERO);
+            recording.start();
+
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+            context.register(JfrBeanListener.class, User.class);
+            new EventPublishingBeanInitializer().initialize(context);
+            context.refresh();
+            context.close();
+
+            recording.stop();
+            Path file = tempDir.resolve("bean-lifecycle.jfr");
+            recording.dump(file);
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (BeanLifecycleJfrEvent.NAME.equals(event.getEventType().getName())
+                        && "jfrBeanListenerTest.User".equals(event.getString("beanName"))) {
+                    assertEquals(User.class.getName(), event.getClass("beanClass").getName());
+                    phases.add(event.getString("phase"));
+                }
+            }
+        }
+        assertTrue(phases.contains(INSTANTIATION_PHASE));
+        assertTrue(phases.contains(INITIALIZATION_PHASE));
+        assertTrue(phases.contains(DESTRUCTION_PHASE));
+    }
+
+    @Test
+    void testFailedAndConcurrentPhases() throws Exception {
+        JfrBeanListener listener = new JfrBeanListener();
+        List<String> beanNames = newArrayList();
+        try (Recording recording = new Recording()) {
+            recording.enable(BeanLifecycleJfrEvent.class).withThreshold(ZERO);
+            recording.start();
+
+            listener.onBeforeBeanInitialize("outer", this);
+            // The initialization of 'failed' threw an exception
+            listener.onBeforeBeanInitialize("failed", this);
+            listener.onBeforeBeanInitialize("inner", this);
+            listener.onAfterBeanInitialized("inner", this);
+            listener.onAfterBeanInitialized("outer", this);
+            listener.onAfterBeanInitialized("failed", this);
+
+            // The prototype beans with the same name are initialized concurrently
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            Runnable prototype = () -> {
+                listener.onBeforeBeanInitialize("prototype", this);
+                try {
+                    barrier.await(5, SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                listener.onAfterBeanInitialized("prototype", this);
+            };
+            Thread thread = new Thread(prototype);
+            thread.start();
+            prototype.run();
+            thread.join();
+
+            recording.stop();
+            Path file = tempDir.resolve("bean-lifecycle-failed.jfr");
+            recording.dump(file);
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (BeanLifecycleJfrEvent.NAME.equals(event.getEventType().getName())) {
+                    beanNames.add(event.getString("beanName"));
+                }
+            }
+        }
+        beanNames.sort(null);
+        assertEquals(asList("inner", "outer", "prototype", "prototype"), beanNames);
+    }
+
+    @Test
+    void testNotRecording() {
+        JfrBeanListener listener = new JfrBeanListener();
+        listener.onBeforeBeanInitialize("user", this);
+        listener.onAfterBeanInitialized("user", this);
+        assertTrue(listener.supports("user"));
+    }
+
+    static class User {
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.microsphere.collection.ListUtils.newArrayList;
+import static java.time.Duration.ZERO;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link JfrEnvironmentListener} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see JfrEnvironmentListener
+ * @since 1.0.0
+ */
+class JfrEnvironmentListenerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecording() throws IOException {
+        JfrEnvironmentListener listener = new JfrEnvironmentListener();
+        StandardEnvironment environment = new StandardEnvironment();
+        List<String> records = newArrayList();
+        try (Recording recording = new Recording()) {
+            recording.enable(EnvironmentJfrEvent.class).withThreshold(ZERO);
+            recording.start();
+
+            listener.beforeResolvePlaceholders(environment, "${user.name}");
+            listener.beforeGetProperty(environment, "user.name", String.class, null);
+            listener.afterGetProperty(environment, "user.name", String.class, "mercyblitz", null);
+            listener.afterResolvePlaceholders(environment, "${user.name}", "mercyblitz");
+            // the pending event without the "after" callback is discarded
+            listener.beforeGetRequiredProperty(environment, "not-found", String.class);
+            listener.beforeGetProperty(environment, "user.home", String.class, null);
+            listener.afterGetProperty(environment, "user.home", String.class, null, null);
+
+            recording.stop();
+            Path file = tempDir.resolve("environment.jfr");
+            recording.dump(file);
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (EnvironmentJfrEvent.NAME.equals(event.getEventType().getName())) {
+                    records.add(event.getString("operation") + ":" + event.getString("key"));
+                }
+            }
+        }
+        assertEquals(asList("getProperty:user.name", "resolvePlaceholders:${user.name}", "getProperty:user.home"), records);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link StripedLruCache} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see StripedLruCache
+ * @since 1.0.0
+ */
+class StripedLruCacheTest {
+
+    @Test
+    void testComputeIfAbsent() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(16);
+        assertEquals("A", cache.computeIfAbsent("a", String::toUpperCase));
+        assertEquals("A", cache.computeIfAbsent("a", key -> "B"));
+        assertEquals("A", cache.getIfPresent("a"));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testComputeIfStale() {
+        StripedLruCache<String, Integer> cache = new StripedLruCache<>(16);
+        assertEquals(1, cache.computeIfStale("a", value -> value < 2, (key, value) -> value == null ? 1 : value + 1));
+        assertEquals(2, cache.computeIfStale("a", value -> value < 2, (key, value) -> value == null ? 1 : value + 1));
+        assertEquals(2, cache.computeIfStale("a", value -> value < 2, (key, value) -> value == null ? 1 : value + 1));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testNullValue() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(16);
+        assertNull(cache.computeIfAbsent("a", key -> null));
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEviction() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(2, 2, 1);
+        assertEquals(2, cache.getMaximumSize());
+        cache.computeIfAbsent("a", String::toUpperCase);
+        cache.computeIfAbsent("b", String::toUpperCase);
+        // 'a' is the most recently used
+        cache.computeIfAbsent("a", String::toUpperCase);
+        cache.computeIfAbsent("c", String::toUpperCase);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("A", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("C", cache.getIfPresent("c"));
+
+        cache.remove("a");
+        assertNull(cache.getIfPresent("a"));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testConcurrentComputation() throws Exception {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(16);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService executorService = newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    latch.await();
+                    return cache.computeIfAbsent("a", key -> {
+                        computations.incrementAndGet();
+                        return key.toUpperCase();
+                    });
+                }));
+            }
+            latch.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("A", future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(7, cache.getHitCount());
+    }
+
+    @Test
+    void testFailedComputation() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(16);
+        assertThrows(IllegalStateException.class, () -> cache.computeIfAbsent("a", key -> {
+            throw new IllegalStateException(key);
+        }));
+        assertEquals(0, cache.size());
+        // The failed computation is not left in flight
+        assertEquals("A", cache.computeIfAbsent("a", String::toUpperCase));
+
+        // The previous value is kept if the re-computation failed
+        assertThrows(IllegalStateException.class, () -> cache.computeIfStale("a", value -> true, (key, value) -> {
+            throw new IllegalStateException(key);
+        }));
+        assertEquals("A", cache.getIfPresent("a"));
+    }
+
+    @Test
+    void testComputationInFlightNotEvictEntries() throws Exception {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(1, 1, 1);
+        cache.computeIfAbsent("a", String::toUpperCase);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService executorService = newFixedThreadPool(2);
+        try {
+            Future<String> future = executorService.submit(() -> cache.computeIfAbsent("b", key -> {
+                started.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return key.toUpperCase();
+            }));
+            assertTrue(started.await(5, SECONDS));
+            // The computation in flight is not cached
+            assertEquals(1, cache.size());
+            assertEquals("A", cache.getIfPresent("a"));
+            assertEquals(0, cache.getEvictionCount());
+
+            // The concurrent computation of the same key waits for the result
+            Future<String> another = executorService.submit(() -> cache.computeIfAbsent("b", key -> "X"));
+            gate.countDown();
+            assertEquals("B", future.get(5, SECONDS));
+            assertEquals("B", another.get(5, SECONDS));
+        } finally {
+            executorService.shutdown();
+        }
+        assertEquals("B", cache.getIfPresent("b"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testRecursiveComputation() {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(16);
+        assertEquals("AA", cache.computeIfAbsent("a", key -> cache.computeIfAbsent(key, String::toUpperCase) + "A"));
+        assertEquals("AA", cache.getIfPresent("a"));
+    }
+
+    @Test
+    void testCrossComputation() throws Exception {
+        StripedLruCache<String, String> cache = new StripedLruCache<>(16);
+        CountDownLatch computing = new CountDownLatch(2);
+        Function<String, String> function = key -> {
+            computing.countDown();
+            try {
+                assertTrue(computing.await(5, SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            // Both threads compute the key owned by each other
+            return key + cache.computeIfAbsent("a".equals(key) ? "b" : "a", String::toUpperCase);
+        };
+        ExecutorService executorService = newFixedThreadPool(2);
+        try {
+            Future<String> a = executorService.submit(() -> cache.computeIfAbsent("a", function));
+            Future<String> b = executorService.submit(() -> cache.computeIfAbsent("b", function));
+            assertTrue(a.get(5, SECONDS).startsWith("a"));
+            assertTrue(b.get(5, SECONDS).startsWith("b"));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void testConstructorOnInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLruCache<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedLruCache<>(1, 1, 0));
+    }
+}
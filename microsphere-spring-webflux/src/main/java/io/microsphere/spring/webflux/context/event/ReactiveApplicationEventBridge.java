@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.webflux.context.event;
+
+import io.microsphere.logging.Logger;
+import io.microsphere.spring.context.event.ApplicationEventInterceptor;
+import io.microsphere.spring.context.event.ApplicationEventInterceptorChain;
+import io.microsphere.spring.context.event.InterceptingApplicationEventMulticaster;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.ResolvableType;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static io.microsphere.logging.LoggerFactory.getLogger;
+import static org.springframework.util.Assert.isTrue;
+import static org.springframework.util.Assert.notNull;
+import static reactor.core.publisher.BufferOverflowStrategy.DROP_OLDEST;
+import static reactor.core.scheduler.Schedulers.boundedElastic;
+
+/**
+ * The bridge exposes the {@link ApplicationEvent application events} as the typed {@link Flux} streams, which is fed by
+ * the {@link InterceptingApplicationEventMulticaster} as an {@link ApplicationEventInterceptor}, e.g. the
+ * {@link io.microsphere.spring.config.env.event.PropertySourcesChangedEvent PropertySourcesChangedEvents} or the
+ * {@link io.microsphere.spring.web.event.WebEndpointMappingsReadyEvent WebEndpointMappingsReadyEvents}.
+ * <p>
+ * Every subscriber has its own bounded buffer and {@link BufferOverflowStrategy overflow strategy}, and the events are
+ * emitted to it on the {@link #setScheduler(Scheduler) scheduler}, thus the publisher thread is never blocked by the
+ * slow subscribers, the events overflowing the buffer are handled by the strategy, e.g. dropped. The streams are
+ * completed when this bean is destroyed.
+ *
+ * <h3>Example Usage</h3>
+ * <pre>{@code
+ * @Bean
+ * public ReactiveApplicationEventBridge reactiveApplicationEventBridge() {
+ *     return new ReactiveApplicationEventBridge();
+ * }
+ *
+ * bridge.events(PropertySourcesChangedEvent.class, 16, BufferOverflowStrategy.DROP_OLDEST)
+ *       .flatMap(event -> refresh(event.getChangedProperties()))
+ *       .subscribe();
+ * }</pre>
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ApplicationEventInterceptor
+ * @see InterceptingApplicationEventMulticaster
+ * @see Flux
+ * @since 1.0.0
+ */
+public class ReactiveApplicationEventBridge implements ApplicationEventInterceptor, DisposableBean {
+
+    private static final Logger logger = getLogger(ReactiveApplicationEventBridge.class);
+
+    /**
+     * The default size of the buffer per subscriber
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final List<EventSink<?>> eventSinks = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private BufferOverflowStrategy overflowStrategy = DROP_OLDEST;
+
+    private Scheduler scheduler = boundedElastic();
+
+    private int order = LOWEST_PRECEDENCE;
+
+    private volatile boolean closed;
+
+    @Override
+    public void intercept(ApplicationEvent event, ResolvableType eventType, ApplicationEventInterceptorChain chain) {
+        for (EventSink<?> eventSink : eventSinks) {
+            eventSink.emit(event);
+        }
+        chain.intercept(event, eventType);
+    }
+
+    /**
+     * Get the {@link Flux} of the events in the specified type with the default buffer size and overflow strategy
+     *
+     * @param eventType the type of events
+     * @param <E>       the type of events
+     * @return non-null {@link Flux}
+     */
+    public <E extends ApplicationEvent> Flux<E> events(Class<E> eventType) {
+        return events(eventType, bufferSize, overflowStrategy);
+    }
+
+    /**
+     * Get the {@link Flux} of the events in the specified type
+     *
+     * @param eventType        the type of events
+     * @param bufferSize       the size of the buffer per subscriber
+     * @param overflowStrategy the {@link BufferOverflowStrategy} when the buffer is full
+     * @param <E>              the type of events
+     * @return non-null {@link Flux}
+     */
+    public <E extends ApplicationEvent> Flux<E> events(Class<E> eventType, int bufferSize, BufferOverflowStrategy overflowStrategy) {
+        notNull(eventType, "The 'eventType' argument must not be null");
+        return flux(event -> eventType.isInstance(event) ? eventType.cast(event) : null, bufferSize, overflowStrategy);
+    }
+
+    /**
+     * Get the {@link Flux} of the payloads of {@link PayloadApplicationEvent PayloadApplicationEvents} in the specified
+     * type with the default buffer size and overflow strategy
+     *
+     * @param payloadType the type of payloads
+     * @param <T>         the type of payloads
+     * @return non-null {@link Flux}
+     */
+    public <T> Flux<T> payloads(Class<T> payloadType) {
+        return payloads(payloadType, bufferSize, overflowStrategy);
+    }
+
+    /**
+     * Get the {@link Flux} of the payloads of {@link PayloadApplicationEvent PayloadApplicationEvents} in the specified
+     * type
+     *
+     * @param payloadType      the type of payloads
+     * @param bufferSize       the size of the buffer per subscriber
+     * @param overflowStrategy the {@link BufferOverflowStrategy} when the buffer is full
+     * @param <T>              the type of payloads
+     * @return non-null {@link Flux}
+     */
+    public <T> Flux<T> payloads(Class<T> payloadType, int bufferSize, BufferOverflowStrategy overflowStrategy) {
+        notNull(payloadType, "The 'payloadType' argument must not be null");
+        return flux(event -> event instanceof PayloadApplicationEvent<?> payloadEvent && payloadType.isInstance(payloadEvent.getPayload()) ?
+                payloadType.cast(payloadEvent.getPayload()) : null, bufferSize, overflowStrategy);
+    }
+
+    private <T> Flux<T> flux(Function<ApplicationEvent, T> mapper, int bufferSize, BufferOverflowStrategy overflowStrategy) {
+        isTrue(bufferSize > 0, "The 'bufferSize' argument must be positive");
+        notNull(overflowStrategy, "The 'overflowStrategy' argument must not be null");
+        return Flux.<T>create(sink -> subscribe(new EventSink<>(mapper, sink)))
+                .onBackpressureBuffer(bufferSize, this::onDropped, overflowStrategy)
+                // emit on the scheduler with the minimum prefetch, thus the buffer is almost the only queue
+                .publishOn(scheduler, 1);
+    }
+
+    private void subscribe(EventSink<?> eventSink) {
+        FluxSink<?> sink = eventSink.sink;
+        eventSinks.add(eventSink);
+        sink.onDispose(() -> eventSinks.remove(eventSink));
+        if (closed) {
+            // destroyed concurrently
+            sink.complete();
+        }
+    }
+
+    private void onDropped(Object event) {
+        droppedCount.incrementAndGet();
+        if (logger.isWarnEnabled()) {
+            logger.warn("The event[{}] was dropped, because the buffer of subscriber is full", event);
+        }
+    }
+
+    /**
+     * @return the number of the current subscribers
+     */
+    public int getSubscriberCount() {
+        return eventSinks.size();
+    }
+
+    /**
+     * @return the number of events dropped by the overflow strategies
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @param bufferSize the default size of the buffer per subscriber
+     */
+    public void setBufferSize(int bufferSize) {
+        isTrue(bufferSize > 0, "The 'bufferSize' argument must be positive");
+        this.bufferSize = bufferSize;
+    }
+
+    public BufferOverflowStrategy getOverflowStrategy() {
+        return overflowStrategy;
+    }
+
+    /**
+     * @param overflowStrategy the default {@link BufferOverflowStrategy}
+     */
+    public void setOverflowStrategy(BufferOverflowStrategy overflowStrategy) {
+        notNull(overflowStrategy, "The 'overflowStrategy' argument must not be null");
+        this.overflowStrategy = overflowStrategy;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @param scheduler the {@link Scheduler} to emit the events to the subscribers
+     */
+    public void setScheduler(Scheduler scheduler) {
+        notNull(scheduler, "The 'scheduler' argument must not be null");
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    @Override
+    public void destroy() {
+        this.closed = true;
+        for (EventSink<?> eventSink : eventSinks) {
+            eventSink.sink.complete();
+        }
+    }
+
+    private static class EventSink<T> {
+
+        private final Function<ApplicationEvent, T> mapper;
+
+        private final FluxSink<T> sink;
+
+        EventSink(Function<ApplicationEvent, T> mapper, FluxSink<T> sink) {
+            this.mapper = mapper;
+            this.sink = sink;
+        }
+
+        void emit(ApplicationEvent event) {
+            T value = mapper.apply(event);
+            if (value != null) {
+                sink.next(value);
+            }
+        }
+    }
+}
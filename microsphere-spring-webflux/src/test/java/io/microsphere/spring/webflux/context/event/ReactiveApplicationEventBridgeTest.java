@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.microsphere.spring.webflux.context.event;
+
+import io.microsphere.spring.context.event.InterceptingApplicationEventMulticaster;
+import io.microsphere.spring.web.event.WebEndpointMappingsReadyEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.context.support.AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME;
+import static reactor.core.publisher.BufferOverflowStrategy.DROP_OLDEST;
+
+/**
+ * {@link ReactiveApplicationEventBridge} Test
+ *
+ * @author <a href="mailto:mercyblitz@gmail.com">Mercy</a>
+ * @see ReactiveApplicationEventBridge
+ * @since 1.0.0
+ */
+class ReactiveApplicationEventBridgeTest {
+
+    private ReactiveApplicationEventBridge bridge;
+
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        bridge = new ReactiveApplicationEventBridge();
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class, InterceptingApplicationEventMulticaster::new);
+        context.registerBean("reactiveApplicationEventBridge", ReactiveApplicationEventBridge.class, () -> bridge);
+        context.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void testEvents() throws Exception {
+        List<WebEndpointMappingsReadyEvent> events = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        Disposable disposable = bridge.events(WebEndpointMappingsReadyEvent.class).subscribe(event -> {
+            events.add(event);
+            latch.countDown();
+        });
+        assertEquals(1, bridge.getSubscriberCount());
+
+        WebEndpointMappingsReadyEvent event1 = new WebEndpointMappingsReadyEvent(context, emptyList());
+        WebEndpointMappingsReadyEvent event2 = new WebEndpointMappingsReadyEvent(context, emptyList());
+        context.publishEvent(event1);
+        context.publishEvent("Not matched");
+        context.publishEvent(event2);
+        assertTrue(latch.await(5, SECONDS));
+        assertEquals(2, events.size());
+        assertSame(event1, events.get(0));
+        assertSame(event2, events.get(1));
+
+        disposable.dispose();
+        assertEquals(0, bridge.getSubscriberCount());
+    }
+
+    @Test
+    void testPayloads() throws Exception {
+        List<String> payloads = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        bridge.payloads(String.class).subscribe(payload -> {
+            payloads.add(payload);
+            latch.countDown();
+        });
+        context.publishEvent("a");
+        context.publishEvent(1);
+        context.publishEvent("b");
+        assertTrue(latch.await(5, SECONDS));
+        assertEquals(asList("a", "b"), payloads);
+    }
+
+    @Test
+    void testBoundedBufferPerSubscriber() throws Exception {
+        List<String> payloads = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(5);
+        BaseSubscriber<String> subscriber = new BaseSubscriber<>() {
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // no demand
+            }
+
+            @Override
+            protected void hookOnNext(String payload) {
+                payloads.add(payload);
+                latch.countDown();
+            }
+        };
+        bridge.payloads(String.class, 4, DROP_OLDEST).subscribe(subscriber);
+
+        // The publisher is not blocked by the subscriber without demand
+        for (int i = 0; i < 10; i++) {
+            context.publishEvent(String.valueOf(i));
+        }
+        // One event is prefetched, the latest 4 events are buffered and the rest are dropped
+        assertEquals(5, bridge.getDroppedCount());
+
+        subscriber.requestUnbounded();
+        assertTrue(latch.await(5, SECONDS));
+        assertEquals(asList("0", "6", "7", "8", "9"), payloads);
+        subscriber.dispose();
+    }
+
+    @Test
+    void testCompleteOnDestroy() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        bridge.events(WebEndpointMappingsReadyEvent.class).subscribe(event -> {
+        }, error -> {
+        }, latch::countDown);
+        context.close();
+        assertTrue(latch.await(5, SECONDS));
+
+        // subscribed after destroyed
+        CountDownLatch completed = new CountDownLatch(1);
+        bridge.payloads(String.class).subscribe(payload -> {
+        }, error -> {
+        }, completed::countDown);
+        assertTrue(completed.await(5, SECONDS));
+        assertEquals(0, bridge.getSubscriberCount());
+    }
+
+    @Test
+    void testSetters() {
+        assertEquals(ReactiveApplicationEventBridge.DEFAULT_BUFFER_SIZE, bridge.getBufferSize());
+        assertEquals(DROP_OLDEST, bridge.getOverflowStrategy());
+        bridge.setBufferSize(8);
+        assertEquals(8, bridge.getBufferSize());
+        bridge.setOrder(1);
+        assertEquals(1, bridge.getOrder());
+        assertThrows(IllegalArgumentException.class, () -> bridge.setBufferSize(0));
+        assertThrows(IllegalArgumentException.class, () -> bridge.events(WebEndpointMappingsReadyEvent.class, 0, DROP_OLDEST));
+        assertThrows(IllegalArgumentException.class, () -> bridge.setScheduler(null));
+    }
+}